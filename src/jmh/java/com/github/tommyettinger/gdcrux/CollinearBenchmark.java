@@ -0,0 +1,151 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.math.MathUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the division-based {@link Vector5#isOnLine(Vector5)} and {@link Vector6#isOnLine(Vector6)} with the
+ * division-free wedge-product tests, one vector at a time and with the batch forms. Each benchmark checks one vector
+ * against 1024 others and is reported per vector. Half of the others are the first vector scaled by a power of two,
+ * possibly negated, so they are exactly collinear; the rest point in random directions. The two kinds are shuffled
+ * together, so the early exits in isOnLine() can't be predicted.
+ * <br>
+ * Run with {@code gradlew jmh -Pjmh=Collinear}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollinearBenchmark {
+    private static final int COUNT = 1024;
+
+    private final Vector5 base5 = new Vector5();
+    private final Vector6 base6 = new Vector6();
+    private final Vector5[] others5 = new Vector5[COUNT];
+    private final Vector6[] others6 = new Vector6[COUNT];
+    private final boolean[] results = new boolean[COUNT];
+
+    @Setup
+    public void setup() {
+        Random random = new Random(26L);
+        base5.setToRandomDirection(random);
+        base6.setToRandomDirection(random);
+        for (int i = 0; i < COUNT; i++) {
+            if (random.nextBoolean()) {
+                final float scale = (random.nextBoolean() ? 1f : -1f) * (1 << random.nextInt(3)) * 0.5f;
+                others5[i] = new Vector5(base5).scl(scale);
+                others6[i] = new Vector6(base6).scl(scale);
+            } else {
+                others5[i] = new Vector5().setToRandomDirection(random);
+                others6[i] = new Vector6().setToRandomDirection(random);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int isOnLine5() {
+        int count = 0;
+        for (int i = 0; i < COUNT; i++) {
+            if (base5.isOnLine(others5[i])) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int isOnLineWedge5() {
+        int count = 0;
+        for (int i = 0; i < COUNT; i++) {
+            if (base5.isOnLineWedge(others5[i])) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int isOnLineWedgeBatch5() {
+        return base5.isOnLineWedge(others5, results, MathUtils.FLOAT_ROUNDING_ERROR);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int isCollinear5() {
+        int count = 0;
+        for (int i = 0; i < COUNT; i++) {
+            if (base5.isCollinear(others5[i])) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int isCollinearWedge5() {
+        int count = 0;
+        for (int i = 0; i < COUNT; i++) {
+            if (base5.isCollinearWedge(others5[i], MathUtils.FLOAT_ROUNDING_ERROR)) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int isOnLine6() {
+        int count = 0;
+        for (int i = 0; i < COUNT; i++) {
+            if (base6.isOnLine(others6[i])) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int isOnLineWedge6() {
+        int count = 0;
+        for (int i = 0; i < COUNT; i++) {
+            if (base6.isOnLineWedge(others6[i])) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int isOnLineWedgeBatch6() {
+        return base6.isOnLineWedge(others6, results, MathUtils.FLOAT_ROUNDING_ERROR);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int isCollinear6() {
+        int count = 0;
+        for (int i = 0; i < COUNT; i++) {
+            if (base6.isCollinear(others6[i])) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int isCollinearWedge6() {
+        int count = 0;
+        for (int i = 0; i < COUNT; i++) {
+            if (base6.isCollinearWedge(others6[i], MathUtils.FLOAT_ROUNDING_ERROR)) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.tommyettinger.gdcrux;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the non-normal distributions in {@link Distributor}: exponential, gamma, beta, triangular, and Poisson,
+ * one value at a time and through their bulk forms. Gamma and Poisson are measured on both sides of where they switch
+ * methods (shape 1 for gamma, lambda 10 for Poisson). Like {@link NormalBenchmark}, each single-value call gets a
+ * fresh input from {@link Distributor#mix(long)}; see {@link NormalBenchmark#mixOnly()} for what that costs. The bulk
+ * benchmarks fill 1024 items per call, and are reported per item. Run with {@code -prof gc} to check that none of
+ * them allocate.
+ * <br>
+ * Run with {@code gradlew jmh -Pjmh=DistributorBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DistributorBenchmark {
+    private static final int BULK = 1024;
+
+    private long state = 43L;
+    private final float[] floats = new float[BULK];
+    private final int[] ints = new int[BULK];
+
+    private long next() {
+        return Distributor.mix(state += Distributor.GOLDEN);
+    }
+
+    @Benchmark
+    public double exponential() {
+        return Distributor.exponential(next());
+    }
+
+    @Benchmark
+    public double gammaSmallShape() {
+        return Distributor.gamma(next(), 0.5);
+    }
+
+    @Benchmark
+    public double gammaLargeShape() {
+        return Distributor.gamma(next(), 5.0);
+    }
+
+    @Benchmark
+    public double beta() {
+        return Distributor.beta(next(), 2.0, 5.0);
+    }
+
+    @Benchmark
+    public double triangular() {
+        return Distributor.triangular(next(), 0.0, 10.0, 3.0);
+    }
+
+    @Benchmark
+    public long poissonSmallLambda() {
+        return Distributor.poisson(next(), 4.0);
+    }
+
+    @Benchmark
+    public long poissonLargeLambda() {
+        return Distributor.poisson(next(), 50.0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK)
+    public float[] exponentialBulk() {
+        Distributor.exponential(state += Distributor.GOLDEN, floats, 0, BULK);
+        return floats;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK)
+    public float[] gammaBulk() {
+        Distributor.gamma(state += Distributor.GOLDEN, 5.0, floats, 0, BULK);
+        return floats;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK)
+    public float[] betaBulk() {
+        Distributor.beta(state += Distributor.GOLDEN, 2.0, 5.0, floats, 0, BULK);
+        return floats;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK)
+    public float[] triangularBulk() {
+        Distributor.triangular(state += Distributor.GOLDEN, 0.0, 10.0, 3.0, floats, 0, BULK);
+        return floats;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK)
+    public int[] poissonBulk() {
+        Distributor.poisson(state += Distributor.GOLDEN, 50.0, ints, 0, BULK);
+        return ints;
+    }
+}
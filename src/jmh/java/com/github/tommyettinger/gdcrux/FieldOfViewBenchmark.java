@@ -0,0 +1,114 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link FieldOfView2}'s symmetric shadowcasting with naive ray casting, which walks a Bresenham line from
+ * the viewer to every cell on the edge of the square around it, lighting cells until the first wall or the radius.
+ * Each benchmark computes FOV for the same 64 viewers on a 128x128 map where about a quarter of cells are walls.
+ * <br>
+ * Run with {@code gradlew jmh -Pjmh=FieldOfView}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FieldOfViewBenchmark {
+    private static final int SIZE = 128;
+
+    @Param({"6", "12", "24"})
+    public int radius;
+
+    private boolean[] map;
+    private final IntArray origins = new IntArray();
+    private final IntArray line = new IntArray();
+    private FieldOfView2 fov;
+    private BitRegion2 seen;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(38L);
+        map = new boolean[SIZE * SIZE];
+        for (int i = 0; i < map.length; i++) {
+            map[i] = random.nextInt(4) != 0;
+        }
+        origins.clear();
+        while (origins.size < 64) {
+            int cell = random.nextInt(map.length);
+            if (map[cell]) origins.add(cell);
+        }
+        fov = new FieldOfView2(SIZE, SIZE);
+        seen = new BitRegion2(SIZE, SIZE);
+    }
+
+    /**
+     * One call to {@link FieldOfView2#calculate(boolean[], int, int, float, BitRegion2)} per viewer.
+     */
+    @Benchmark
+    public BitRegion2 shadowcasting() {
+        for (int i = 0; i < origins.size; i++) {
+            final int o = origins.get(i);
+            fov.calculate(map, o % SIZE, o / SIZE, radius, seen);
+        }
+        return seen;
+    }
+
+    /**
+     * Every viewer at once, with {@link FieldOfView2#calculateUnion(boolean[], IntArray, float, BitRegion2)}.
+     */
+    @Benchmark
+    public BitRegion2 shadowcastingBatch() {
+        return fov.calculateUnion(map, origins, radius, seen);
+    }
+
+    /**
+     * One naive ray cast per viewer.
+     */
+    @Benchmark
+    public BitRegion2 rayCasting() {
+        for (int i = 0; i < origins.size; i++) {
+            final int o = origins.get(i);
+            rayCast(o % SIZE, o / SIZE);
+        }
+        return seen;
+    }
+
+    private void rayCast(int ox, int oy) {
+        seen.clear().set(ox, oy);
+        for (int i = -radius; i <= radius; i++) {
+            ray(ox, oy, ox + i, oy - radius);
+            ray(ox, oy, ox + i, oy + radius);
+            ray(ox, oy, ox - radius, oy + i);
+            ray(ox, oy, ox + radius, oy + i);
+        }
+    }
+
+    private void ray(int ox, int oy, int tx, int ty) {
+        line.clear();
+        GridLine.rasterize(ox, oy, tx, ty, SIZE, SIZE, line);
+        for (int j = 1; j < line.size; j++) {
+            final int cell = line.get(j), x = cell % SIZE, y = cell / SIZE;
+            if (fov.metric.distance(Math.abs(x - ox), Math.abs(y - oy)) > radius)
+                break;
+            seen.set(x, y);
+            if (!map[cell])
+                break;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.ObjectIntMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ImmutablePointI3} with {@link PointI3} as keys in an {@link ObjectIntMap}. The mutable versions do
+ * what code using PointI3 keys has to do: copy each key before putting it in the map, and look keys up with one
+ * reused probe. The immutable versions put and look up a new ImmutablePointI3 every time, and rely on the JIT to
+ * remove the lookup allocations with escape analysis. Each benchmark handles 4096 cells in a 32x32x32 grid, about
+ * half of which are in the map. Run with {@code -prof gc} to see how much each one allocates per call.
+ * <br>
+ * Run with {@code gradlew jmh -Pjmh=ImmutablePoint}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ImmutablePointBenchmark {
+    private static final int COUNT = 4096, SIZE = 32;
+
+    private final int[] xs = new int[COUNT], ys = new int[COUNT], zs = new int[COUNT];
+    private final ObjectIntMap<PointI3> mutableMap = new ObjectIntMap<>(COUNT);
+    private final ObjectIntMap<ImmutablePointI3> immutableMap = new ObjectIntMap<>(COUNT);
+    private final PointI3 probe = new PointI3();
+
+    @Setup
+    public void setup() {
+        Random random = new Random(49L);
+        for (int i = 0; i < COUNT; i++) {
+            xs[i] = random.nextInt(SIZE);
+            ys[i] = random.nextInt(SIZE);
+            zs[i] = random.nextInt(SIZE);
+        }
+        // the first half of the cells are stored; the rest are only looked up
+        for (int i = 0; i < COUNT >>> 1; i++) {
+            mutableMap.put(new PointI3(xs[i], ys[i], zs[i]), i);
+            immutableMap.put(new ImmutablePointI3(xs[i], ys[i], zs[i]), i);
+        }
+    }
+
+    /**
+     * Fills a map from empty, copying a reused point for each key.
+     */
+    @Benchmark
+    public ObjectIntMap<PointI3> mutableBuild() {
+        final ObjectIntMap<PointI3> map = new ObjectIntMap<>(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            probe.set(xs[i], ys[i], zs[i]);
+            map.getAndIncrement(probe.cpy(), 0, 1);
+        }
+        return map;
+    }
+
+    /**
+     * Fills a map from empty, with a new immutable key for each cell.
+     */
+    @Benchmark
+    public ObjectIntMap<ImmutablePointI3> immutableBuild() {
+        final ObjectIntMap<ImmutablePointI3> map = new ObjectIntMap<>(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            map.getAndIncrement(new ImmutablePointI3(xs[i], ys[i], zs[i]), 0, 1);
+        }
+        return map;
+    }
+
+    /**
+     * Looks up every cell with one reused probe.
+     */
+    @Benchmark
+    public long mutableLookup() {
+        long sum = 0L;
+        for (int i = 0; i < COUNT; i++) {
+            probe.set(xs[i], ys[i], zs[i]);
+            sum += mutableMap.get(probe, -1);
+        }
+        return sum;
+    }
+
+    /**
+     * Looks up every cell with a new immutable key each time.
+     */
+    @Benchmark
+    public long immutableLookup() {
+        long sum = 0L;
+        for (int i = 0; i < COUNT; i++) {
+            sum += immutableMap.get(new ImmutablePointI3(xs[i], ys[i], zs[i]), -1);
+        }
+        return sum;
+    }
+
+    /**
+     * Looks up the six face neighbors of every cell, moving one reused probe.
+     */
+    @Benchmark
+    public long mutableNeighbors() {
+        long sum = 0L;
+        for (int i = 0; i < COUNT; i++) {
+            final int x = xs[i], y = ys[i], z = zs[i];
+            sum += mutableMap.get(probe.set(x - 1, y, z), -1) + mutableMap.get(probe.set(x + 1, y, z), -1)
+                    + mutableMap.get(probe.set(x, y - 1, z), -1) + mutableMap.get(probe.set(x, y + 1, z), -1)
+                    + mutableMap.get(probe.set(x, y, z - 1), -1) + mutableMap.get(probe.set(x, y, z + 1), -1);
+        }
+        return sum;
+    }
+
+    /**
+     * Looks up the six face neighbors of every cell, with a new immutable key for each neighbor.
+     */
+    @Benchmark
+    public long immutableNeighbors() {
+        long sum = 0L;
+        for (int i = 0; i < COUNT; i++) {
+            final int x = xs[i], y = ys[i], z = zs[i];
+            sum += immutableMap.get(new ImmutablePointI3(x - 1, y, z), -1)
+                    + immutableMap.get(new ImmutablePointI3(x + 1, y, z), -1)
+                    + immutableMap.get(new ImmutablePointI3(x, y - 1, z), -1)
+                    + immutableMap.get(new ImmutablePointI3(x, y + 1, z), -1)
+                    + immutableMap.get(new ImmutablePointI3(x, y, z - 1), -1)
+                    + immutableMap.get(new ImmutablePointI3(x, y, z + 1), -1);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.tommyettinger.gdcrux;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the normal-distributed generators in {@link Distributor}: the double Ziggurat {@link Distributor#normal(long)},
+ * the float Ziggurat {@link Distributor#normalF(long)}, and the approximate {@link Distributor#normalRough(long)}. Each
+ * call gets a fresh input from {@link Distributor#mix(long)}, which every benchmark pays for equally; {@link #mixOnly()}
+ * measures just that part.
+ * <br>
+ * Run with {@code gradlew jmh -Pjmh=Normal}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NormalBenchmark {
+    private long state = 44L;
+
+    @Benchmark
+    public long mixOnly() {
+        return Distributor.mix(state += Distributor.GOLDEN);
+    }
+
+    @Benchmark
+    public double normal() {
+        return Distributor.normal(Distributor.mix(state += Distributor.GOLDEN));
+    }
+
+    @Benchmark
+    public float normalF() {
+        return Distributor.normalF(Distributor.mix(state += Distributor.GOLDEN));
+    }
+
+    @Benchmark
+    public float normalRough() {
+        return Distributor.normalRough(Distributor.mix(state += Distributor.GOLDEN));
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.tommyettinger.gdcrux;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the probit methods in {@link Distributor} with {@link ProbitTable} at several error bounds. Every call
+ * takes the next of 1024 inputs, where three quarters are uniform in p and one quarter is spread over exponents down
+ * to 1e-7, so both the central region and the tails are measured. The int and long inputs stand for the same
+ * probabilities as the float and double ones; 1e-7 is about as close to 0 or 1 as a float or int input can get while
+ * still being told apart from it, and inputs that round to 0 or 1 would mostly measure slow subnormal logarithms.
+ * <br>
+ * Run with {@code gradlew jmh -Pjmh=Probit}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProbitBenchmark {
+    private static final int MASK = 1023;
+
+    private final double[] ds = new double[MASK + 1];
+    private final float[] fs = new float[MASK + 1];
+    private final int[] is = new int[MASK + 1];
+    private final long[] ls = new long[MASK + 1];
+    private int index;
+
+    /**
+     * A ProbitTable for each error bound; only the benchmarks that use it are repeated for each one.
+     */
+    @State(Scope.Thread)
+    public static class Table {
+        @Param({"1e-3", "1e-5", "1e-7", "1e-9", "1e-12"})
+        public double maxError;
+
+        private ProbitTable table;
+
+        @Setup
+        public void setup() {
+            table = new ProbitTable(maxError);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(45L);
+        for (int i = 0; i <= MASK; i++) {
+            double p = (i & 3) != 0 ? random.nextDouble() : Math.pow(10.0, -7.0 * random.nextDouble());
+            if ((i & 4) != 0) p = 1.0 - p;
+            ds[i] = p;
+            fs[i] = (float) p;
+            is[i] = (int) ((p - 0.5) * 0x1p32);
+            ls[i] = (long) ((p - 0.5) * 0x1p64);
+        }
+    }
+
+    @Benchmark
+    public double probitD() {
+        return Distributor.probitD(ds[index++ & MASK]);
+    }
+
+    @Benchmark
+    public float probitF() {
+        return Distributor.probitF(fs[index++ & MASK]);
+    }
+
+    @Benchmark
+    public float probitI() {
+        return Distributor.probitI(is[index++ & MASK]);
+    }
+
+    @Benchmark
+    public double probitL() {
+        return Distributor.probitL(ls[index++ & MASK]);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public double probitHighPrecision() {
+        return Distributor.probitHighPrecision(ds[index++ & MASK]);
+    }
+
+    @Benchmark
+    public double tableDouble(Table t) {
+        return t.table.probit(ds[index++ & MASK]);
+    }
+
+    @Benchmark
+    public float tableFloat(Table t) {
+        return t.table.probit(fs[index++ & MASK]);
+    }
+}
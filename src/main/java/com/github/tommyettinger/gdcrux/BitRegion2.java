@@ -0,0 +1,508 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * A set of cells in a bounded 2D grid, stored as one bit per cell. Each row of the grid is packed into
+ * {@link #wordsPerRow} longs, so boolean operations between regions ({@link #or(BitRegion2)},
+ * {@link #and(BitRegion2)}, {@link #andNot(BitRegion2)}, {@link #xor(BitRegion2)}) handle 64 cells per step, and
+ * so do {@link #dilate(boolean)}, {@link #erode(boolean)}, and {@link #flood(BitRegion2, boolean)}. This is meant for
+ * masks like fog-of-war, walkability, and selections, where a set of {@link PointI2} would cost tens of bytes per cell.
+ * <br>
+ * Cells outside the grid are never contained; setting them does nothing. Operations between two regions expect both
+ * to have the same width and height. Other than {@link #toPoints(Array)}, which may need to create points, nothing
+ * here allocates after construction.
+ */
+public class BitRegion2 {
+    /** The number of cells along the x-axis. */
+    public final int width;
+    /** The number of cells along the y-axis. */
+    public final int height;
+    /** How many longs store each row of cells. */
+    public final int wordsPerRow;
+    /** The bits for every cell; cell x,y is bit {@code x & 63} of item {@code y * wordsPerRow + (x >>> 6)}. */
+    private final long[] bits;
+    /** Has a 1 bit for every column that is inside the grid, and 0 for the padding at the end of the last word. */
+    private final long lastMask;
+    private final long[] prevRow, currRow, spread;
+
+    /**
+     * Creates an empty region for a grid with the given size.
+     * @param width the number of cells along the x-axis
+     * @param height the number of cells along the y-axis
+     */
+    public BitRegion2(int width, int height) {
+        this.width = width;
+        this.height = height;
+        wordsPerRow = width + 63 >>> 6;
+        bits = new long[wordsPerRow * height];
+        lastMask = -1L >>> -width;
+        prevRow = new long[wordsPerRow];
+        currRow = new long[wordsPerRow];
+        spread = new long[wordsPerRow];
+    }
+
+    /**
+     * Creates a copy of the given region.
+     * @param other another BitRegion2 to copy
+     */
+    public BitRegion2(BitRegion2 other) {
+        this(other.width, other.height);
+        System.arraycopy(other.bits, 0, bits, 0, bits.length);
+    }
+
+    /**
+     * Copies the cells of another region with the same size into this one.
+     * @param other another BitRegion2 with the same width and height
+     * @return this, for chaining
+     */
+    public BitRegion2 set(BitRegion2 other) {
+        System.arraycopy(other.bits, 0, bits, 0, bits.length);
+        return this;
+    }
+
+    /**
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @return true if the cell is inside the grid and in this region
+     */
+    public boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && (bits[y * wordsPerRow + (x >>> 6)] & 1L << x) != 0;
+    }
+
+    /**
+     * @param point a cell; will not be modified
+     * @return true if the cell is inside the grid and in this region
+     */
+    public boolean contains(PointI2 point) {
+        return contains(point.x, point.y);
+    }
+
+    /**
+     * Adds a cell to this region, if it is inside the grid.
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @return this, for chaining
+     */
+    public BitRegion2 set(int x, int y) {
+        if (x >= 0 && y >= 0 && x < width && y < height) bits[y * wordsPerRow + (x >>> 6)] |= 1L << x;
+        return this;
+    }
+
+    /**
+     * Adds a cell to this region, if it is inside the grid.
+     * @param point a cell; will not be modified
+     * @return this, for chaining
+     */
+    public BitRegion2 set(PointI2 point) {
+        return set(point.x, point.y);
+    }
+
+    /**
+     * Removes a cell from this region.
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @return this, for chaining
+     */
+    public BitRegion2 clear(int x, int y) {
+        if (x >= 0 && y >= 0 && x < width && y < height) bits[y * wordsPerRow + (x >>> 6)] &= ~(1L << x);
+        return this;
+    }
+
+    /**
+     * Removes a cell from this region.
+     * @param point a cell; will not be modified
+     * @return this, for chaining
+     */
+    public BitRegion2 clear(PointI2 point) {
+        return clear(point.x, point.y);
+    }
+
+    /**
+     * Adds or removes a cell, depending on value.
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @param value true to add the cell, false to remove it
+     * @return this, for chaining
+     */
+    public BitRegion2 set(int x, int y, boolean value) {
+        return value ? set(x, y) : clear(x, y);
+    }
+
+    /**
+     * Removes every cell.
+     * @return this, for chaining
+     */
+    public BitRegion2 clear() {
+        Arrays.fill(bits, 0L);
+        return this;
+    }
+
+    /**
+     * Adds every cell in the grid.
+     * @return this, for chaining
+     */
+    public BitRegion2 fill() {
+        Arrays.fill(bits, -1L);
+        return trim();
+    }
+
+    /**
+     * Adds every cell from minX,minY to maxX,maxY, inclusive, that is inside the grid.
+     * @param minX the lowest x-coordinate to add
+     * @param minY the lowest y-coordinate to add
+     * @param maxX the highest x-coordinate to add
+     * @param maxY the highest y-coordinate to add
+     * @return this, for chaining
+     */
+    public BitRegion2 setRect(int minX, int minY, int maxX, int maxY) {
+        minX = Math.max(minX, 0);
+        minY = Math.max(minY, 0);
+        maxX = Math.min(maxX, width - 1);
+        maxY = Math.min(maxY, height - 1);
+        if (minX > maxX) return this;
+        final int w0 = minX >>> 6, w1 = maxX >>> 6;
+        final long m0 = -1L << minX, m1 = -1L >>> ~maxX;
+        for (int y = minY, row = minY * wordsPerRow; y <= maxY; y++, row += wordsPerRow) {
+            if (w0 == w1) {
+                bits[row + w0] |= m0 & m1;
+            } else {
+                bits[row + w0] |= m0;
+                for (int w = w0 + 1; w < w1; w++) {
+                    bits[row + w] = -1L;
+                }
+                bits[row + w1] |= m1;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds every cell in the given box that is inside the grid.
+     * @param box the cells to add; will not be modified
+     * @return this, for chaining
+     */
+    public BitRegion2 setRect(BoxI2 box) {
+        return setRect(box.min.x, box.min.y, box.max.x, box.max.y);
+    }
+
+    /**
+     * @return how many cells are in this region
+     */
+    public int count() {
+        int c = 0;
+        for (long word : bits) {
+            c += Long.bitCount(word);
+        }
+        return c;
+    }
+
+    /**
+     * @return true if no cells are in this region
+     */
+    public boolean isEmpty() {
+        for (long word : bits) {
+            if (word != 0L) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Adds every cell in other to this region.
+     * @param other a region with the same size; will not be modified
+     * @return this, for chaining
+     */
+    public BitRegion2 or(BitRegion2 other) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] |= other.bits[i];
+        }
+        return this;
+    }
+
+    /**
+     * Removes every cell that isn't also in other.
+     * @param other a region with the same size; will not be modified
+     * @return this, for chaining
+     */
+    public BitRegion2 and(BitRegion2 other) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] &= other.bits[i];
+        }
+        return this;
+    }
+
+    /**
+     * Removes every cell that is in other.
+     * @param other a region with the same size; will not be modified
+     * @return this, for chaining
+     */
+    public BitRegion2 andNot(BitRegion2 other) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] &= ~other.bits[i];
+        }
+        return this;
+    }
+
+    /**
+     * Keeps only the cells that are in exactly one of this region and other.
+     * @param other a region with the same size; will not be modified
+     * @return this, for chaining
+     */
+    public BitRegion2 xor(BitRegion2 other) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] ^= other.bits[i];
+        }
+        return this;
+    }
+
+    /**
+     * Swaps which cells in the grid are in this region and which aren't.
+     * @return this, for chaining
+     */
+    public BitRegion2 not() {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = ~bits[i];
+        }
+        return trim();
+    }
+
+    /**
+     * Adds every cell next to a cell in this region. Cells outside the grid are never added.
+     * @param moore if true, cells that touch diagonally are added too (8-way); if false, only orthogonally (4-way)
+     * @return this, for chaining
+     */
+    public BitRegion2 dilate(boolean moore) {
+        return morph(moore, false);
+    }
+
+    /**
+     * Removes every cell next to a cell that isn't in this region. Cells outside the grid count as not in this region,
+     * so every cell on the edge of the grid is removed.
+     * @param moore if true, cells that touch diagonally count too (8-way); if false, only orthogonally (4-way)
+     * @return this, for chaining
+     */
+    public BitRegion2 erode(boolean moore) {
+        return morph(moore, true);
+    }
+
+    private BitRegion2 morph(boolean moore, boolean erode) {
+        final int wpr = wordsPerRow;
+        Arrays.fill(prevRow, 0L);
+        for (int y = 0; y < height; y++) {
+            final int row = y * wpr;
+            System.arraycopy(bits, row, currRow, 0, wpr);
+            final boolean hasNext = y + 1 < height;
+            for (int w = 0; w < wpr; w++) {
+                final long next = hasNext ? bits[row + wpr + w] : 0L;
+                spread[w] = erode ? prevRow[w] & currRow[w] & next : prevRow[w] | currRow[w] | next;
+            }
+            final long[] across = moore ? spread : currRow;
+            for (int w = 0; w < wpr; w++) {
+                final long left = shiftUp(across, w), right = shiftDown(across, w);
+                bits[row + w] = erode ? spread[w] & left & right : spread[w] | left | right;
+            }
+            bits[row + wpr - 1] &= lastMask;
+            System.arraycopy(currRow, 0, prevRow, 0, wpr);
+        }
+        return this;
+    }
+
+    /** Gets word w of the row shifted so each cell moves to the next higher x. */
+    static long shiftUp(long[] row, int w) {
+        return row[w] << 1 | (w > 0 ? row[w - 1] >>> 63 : 0L);
+    }
+
+    /** Gets word w of the row shifted so each cell moves to the next lower x. */
+    static long shiftDown(long[] row, int w) {
+        return row[w] >>> 1 | (w + 1 < row.length ? row[w + 1] << 63 : 0L);
+    }
+
+    /**
+     * Grows this region by repeatedly adding cells from passable that are next to cells already in this region, until
+     * nothing more can be added; the result is every cell in passable that is connected to a cell in this region.
+     * Cells in this region that aren't in passable are removed. Each pass handles whole rows at a time, and extends
+     * runs of cells along a row 64 cells per step.
+     * @param passable the cells that can be filled; must have the same size; will not be modified
+     * @param moore if true, cells that touch diagonally are connected (8-way); if false, only orthogonally (4-way)
+     * @return this, for chaining
+     */
+    public BitRegion2 flood(BitRegion2 passable, boolean moore) {
+        final int wpr = wordsPerRow;
+        final long[] mask = passable.bits;
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] &= mask[i];
+        }
+        for (int row = 0; row < bits.length; row += wpr) {
+            fillRuns(bits, mask, row, wpr);
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int pass = 0; pass < 2; pass++) {
+                for (int r = 0; r < height; r++) {
+                    final int y = pass == 0 ? r : height - 1 - r, row = y * wpr;
+                    for (int w = 0; w < wpr; w++) {
+                        spread[w] = (y > 0 ? bits[row - wpr + w] : 0L) | (y + 1 < height ? bits[row + wpr + w] : 0L);
+                    }
+                    boolean rowChanged = false;
+                    for (int w = 0; w < wpr; w++) {
+                        long from = spread[w];
+                        if (moore) from |= shiftUp(spread, w) | shiftDown(spread, w);
+                        final long before = bits[row + w], after = (before | from) & mask[row + w];
+                        if (after != before) {
+                            bits[row + w] = after;
+                            rowChanged = true;
+                        }
+                    }
+                    if (rowChanged) {
+                        fillRuns(bits, mask, row, wpr);
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Sets this region to every cell in passable that is connected to x,y, or to nothing if x,y isn't in passable.
+     * @param x the x-coordinate of the cell to start from
+     * @param y the y-coordinate of the cell to start from
+     * @param passable the cells that can be filled; must have the same size; will not be modified
+     * @param moore if true, cells that touch diagonally are connected (8-way); if false, only orthogonally (4-way)
+     * @return this, for chaining
+     */
+    public BitRegion2 flood(int x, int y, BitRegion2 passable, boolean moore) {
+        clear();
+        set(x, y);
+        return flood(passable, moore);
+    }
+
+    /**
+     * Extends every set bit in a row of words through the unbroken run of mask bits it is in, in both directions. The
+     * carry from adding the mask to the set bits does the extending, one whole word at a time.
+     */
+    static void fillRuns(long[] bits, long[] mask, int start, int words) {
+        long carry = 0L;
+        for (int w = start, end = start + words; w < end; w++) {
+            final long m = mask[w], s = (bits[w] | carry) & m;
+            final long up = (s + m ^ m) & m | s;
+            bits[w] = up;
+            carry = up >>> 63;
+        }
+        carry = 0L;
+        for (int w = start + words - 1; w >= start; w--) {
+            final long m = Long.reverse(mask[w]), s = (Long.reverse(bits[w]) | carry) & m;
+            final long down = (s + m ^ m) & m | s;
+            bits[w] |= Long.reverse(down);
+            carry = down >>> 63;
+        }
+    }
+
+    /**
+     * Finds the first cell in this region at or after the given cell index, where cells are ordered by
+     * {@code x + y * width}.
+     * @param from the cell index to start looking at
+     * @return the index {@code x + y * width} of the next cell in this region, or -1 if there are none
+     */
+    public int nextCell(int from) {
+        if (from < 0) from = 0;
+        int y = from / width, x = from - y * width;
+        if (y >= height) return -1;
+        int i = y * wordsPerRow + (x >>> 6);
+        long word = bits[i] & -1L << x;
+        while (true) {
+            if (word != 0L) {
+                final int w = i % wordsPerRow;
+                return (i / wordsPerRow) * width + (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++i >= bits.length) return -1;
+            word = bits[i];
+        }
+    }
+
+    /**
+     * Appends the index {@code x + y * width} of every cell in this region to out, in order.
+     * @param out cell indices will be appended here
+     * @return how many cell indices were appended
+     */
+    public int toIndices(IntArray out) {
+        int added = 0;
+        for (int i = 0; i < bits.length; i++) {
+            long word = bits[i];
+            final int base = (i / wordsPerRow) * width + ((i % wordsPerRow) << 6);
+            while (word != 0L) {
+                out.add(base + Long.numberOfTrailingZeros(word));
+                word &= word - 1L;
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Writes every cell in this region into out, in order, reusing any mutable PointI2 items already there and
+     * removing any extra items at the end. Items that aren't {@link PointI2#mutable() mutable}, such as
+     * {@link ConstPointI2} keys, are replaced with new points.
+     * @param out will be filled with the cells in this region
+     * @return how many cells were written
+     */
+    public int toPoints(Array<PointI2> out) {
+        int n = 0;
+        for (int i = 0; i < bits.length; i++) {
+            long word = bits[i];
+            final int y = i / wordsPerRow, xBase = (i % wordsPerRow) << 6;
+            while (word != 0L) {
+                final int x = xBase + Long.numberOfTrailingZeros(word);
+                final PointI2 p = n < out.size ? out.get(n) : null;
+                if (n < out.size) out.set(n, p == null ? new PointI2(x, y) : p.seti(x, y));
+                else out.add(new PointI2(x, y));
+                word &= word - 1L;
+                n++;
+            }
+        }
+        out.truncate(n);
+        return n;
+    }
+
+    /**
+     * Writes cells from this region into a PointI2 buffer, starting at the given cell index; this can be called
+     * repeatedly to go through a large region in batches without allocating.
+     * @param from the cell index {@code x + y * width} to start looking at
+     * @param buffer will have its items set to the cells found; every item must be non-null, and items that aren't
+     *               mutable (such as {@link ConstPointI2} keys) are replaced with new points
+     * @return the number of cells written, which is less than {@code buffer.length} only if there are no more
+     */
+    public int toPoints(int from, PointI2[] buffer) {
+        int n = 0;
+        for (int c = nextCell(from); c >= 0 && n < buffer.length; c = nextCell(c + 1)) {
+            buffer[n] = buffer[n].seti(c % width, c / width);
+            n++;
+        }
+        return n;
+    }
+
+    /** Zeroes out the padding bits past the last column, in every row. */
+    private BitRegion2 trim() {
+        for (int i = wordsPerRow - 1; i < bits.length; i += wordsPerRow) {
+            bits[i] &= lastMask;
+        }
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BitRegion2 that = (BitRegion2) o;
+        return width == that.width && height == that.height && Arrays.equals(bits, that.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bits) * 0x1827F5 ^ width * 0x123C21 ^ height;
+    }
+}
@@ -0,0 +1,534 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * A set of cells in a bounded 3D grid, stored as one bit per cell. This is the 3D counterpart to {@link BitRegion2},
+ * and works the same way: each row of cells along the x-axis is packed into {@link #wordsPerRow} longs, so boolean
+ * operations, {@link #dilate(boolean)}, {@link #erode(boolean)}, and {@link #flood(BitRegion3, boolean)} handle 64
+ * cells per step. Connectivity is either 6-way (sharing a face) or 26-way (sharing a face, edge, or corner).
+ * <br>
+ * Cells outside the grid are never contained; setting them does nothing. Operations between two regions expect both
+ * to have the same size. Other than {@link #toPoints(Array)}, which may need to create points, nothing here allocates
+ * after construction.
+ */
+public class BitRegion3 {
+    /** The number of cells along the x-axis. */
+    public final int width;
+    /** The number of cells along the y-axis. */
+    public final int height;
+    /** The number of cells along the z-axis. */
+    public final int depth;
+    /** How many longs store each row of cells. */
+    public final int wordsPerRow;
+    /** Cell x,y,z is bit {@code x & 63} of item {@code (y + height * z) * wordsPerRow + (x >>> 6)}. */
+    private final long[] bits;
+    /** Has a 1 bit for every column that is inside the grid, and 0 for the padding at the end of the last word. */
+    private final long lastMask;
+    private long[] prevPlane, currPlane;
+    private final long[] currRow, spread;
+
+    /**
+     * Creates an empty region for a grid with the given size.
+     * @param width the number of cells along the x-axis
+     * @param height the number of cells along the y-axis
+     * @param depth the number of cells along the z-axis
+     */
+    public BitRegion3(int width, int height, int depth) {
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        wordsPerRow = width + 63 >>> 6;
+        bits = new long[wordsPerRow * height * depth];
+        lastMask = -1L >>> -width;
+        prevPlane = new long[wordsPerRow * height];
+        currPlane = new long[wordsPerRow * height];
+        currRow = new long[wordsPerRow];
+        spread = new long[wordsPerRow];
+    }
+
+    /**
+     * Creates a copy of the given region.
+     * @param other another BitRegion3 to copy
+     */
+    public BitRegion3(BitRegion3 other) {
+        this(other.width, other.height, other.depth);
+        System.arraycopy(other.bits, 0, bits, 0, bits.length);
+    }
+
+    /**
+     * Copies the cells of another region with the same size into this one.
+     * @param other another BitRegion3 with the same size
+     * @return this, for chaining
+     */
+    public BitRegion3 set(BitRegion3 other) {
+        System.arraycopy(other.bits, 0, bits, 0, bits.length);
+        return this;
+    }
+
+    private boolean inside(int x, int y, int z) {
+        return x >= 0 && y >= 0 && z >= 0 && x < width && y < height && z < depth;
+    }
+
+    /**
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @param z the z-coordinate of a cell
+     * @return true if the cell is inside the grid and in this region
+     */
+    public boolean contains(int x, int y, int z) {
+        return inside(x, y, z) && (bits[(y + height * z) * wordsPerRow + (x >>> 6)] & 1L << x) != 0;
+    }
+
+    /**
+     * @param point a cell; will not be modified
+     * @return true if the cell is inside the grid and in this region
+     */
+    public boolean contains(PointI3 point) {
+        return contains(point.x, point.y, point.z);
+    }
+
+    /**
+     * Adds a cell to this region, if it is inside the grid.
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @param z the z-coordinate of a cell
+     * @return this, for chaining
+     */
+    public BitRegion3 set(int x, int y, int z) {
+        if (inside(x, y, z)) bits[(y + height * z) * wordsPerRow + (x >>> 6)] |= 1L << x;
+        return this;
+    }
+
+    /**
+     * Adds a cell to this region, if it is inside the grid.
+     * @param point a cell; will not be modified
+     * @return this, for chaining
+     */
+    public BitRegion3 set(PointI3 point) {
+        return set(point.x, point.y, point.z);
+    }
+
+    /**
+     * Removes a cell from this region.
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @param z the z-coordinate of a cell
+     * @return this, for chaining
+     */
+    public BitRegion3 clear(int x, int y, int z) {
+        if (inside(x, y, z)) bits[(y + height * z) * wordsPerRow + (x >>> 6)] &= ~(1L << x);
+        return this;
+    }
+
+    /**
+     * Removes a cell from this region.
+     * @param point a cell; will not be modified
+     * @return this, for chaining
+     */
+    public BitRegion3 clear(PointI3 point) {
+        return clear(point.x, point.y, point.z);
+    }
+
+    /**
+     * Adds or removes a cell, depending on value.
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @param z the z-coordinate of a cell
+     * @param value true to add the cell, false to remove it
+     * @return this, for chaining
+     */
+    public BitRegion3 set(int x, int y, int z, boolean value) {
+        return value ? set(x, y, z) : clear(x, y, z);
+    }
+
+    /**
+     * Removes every cell.
+     * @return this, for chaining
+     */
+    public BitRegion3 clear() {
+        Arrays.fill(bits, 0L);
+        return this;
+    }
+
+    /**
+     * Adds every cell in the grid.
+     * @return this, for chaining
+     */
+    public BitRegion3 fill() {
+        Arrays.fill(bits, -1L);
+        return trim();
+    }
+
+    /**
+     * Adds every cell from minX,minY,minZ to maxX,maxY,maxZ, inclusive, that is inside the grid.
+     * @param minX the lowest x-coordinate to add
+     * @param minY the lowest y-coordinate to add
+     * @param minZ the lowest z-coordinate to add
+     * @param maxX the highest x-coordinate to add
+     * @param maxY the highest y-coordinate to add
+     * @param maxZ the highest z-coordinate to add
+     * @return this, for chaining
+     */
+    public BitRegion3 setBox(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        minX = Math.max(minX, 0);
+        minY = Math.max(minY, 0);
+        minZ = Math.max(minZ, 0);
+        maxX = Math.min(maxX, width - 1);
+        maxY = Math.min(maxY, height - 1);
+        maxZ = Math.min(maxZ, depth - 1);
+        if (minX > maxX) return this;
+        final int w0 = minX >>> 6, w1 = maxX >>> 6;
+        final long m0 = -1L << minX, m1 = -1L >>> ~maxX;
+        for (int z = minZ; z <= maxZ; z++) {
+            for (int y = minY; y <= maxY; y++) {
+                final int row = (y + height * z) * wordsPerRow;
+                if (w0 == w1) {
+                    bits[row + w0] |= m0 & m1;
+                } else {
+                    bits[row + w0] |= m0;
+                    for (int w = w0 + 1; w < w1; w++) {
+                        bits[row + w] = -1L;
+                    }
+                    bits[row + w1] |= m1;
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds every cell in the given box that is inside the grid.
+     * @param box the cells to add; will not be modified
+     * @return this, for chaining
+     */
+    public BitRegion3 setBox(BoxI3 box) {
+        return setBox(box.min.x, box.min.y, box.min.z, box.max.x, box.max.y, box.max.z);
+    }
+
+    /**
+     * @return how many cells are in this region
+     */
+    public int count() {
+        int c = 0;
+        for (long word : bits) {
+            c += Long.bitCount(word);
+        }
+        return c;
+    }
+
+    /**
+     * @return true if no cells are in this region
+     */
+    public boolean isEmpty() {
+        for (long word : bits) {
+            if (word != 0L) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Adds every cell in other to this region.
+     * @param other a region with the same size; will not be modified
+     * @return this, for chaining
+     */
+    public BitRegion3 or(BitRegion3 other) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] |= other.bits[i];
+        }
+        return this;
+    }
+
+    /**
+     * Removes every cell that isn't also in other.
+     * @param other a region with the same size; will not be modified
+     * @return this, for chaining
+     */
+    public BitRegion3 and(BitRegion3 other) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] &= other.bits[i];
+        }
+        return this;
+    }
+
+    /**
+     * Removes every cell that is in other.
+     * @param other a region with the same size; will not be modified
+     * @return this, for chaining
+     */
+    public BitRegion3 andNot(BitRegion3 other) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] &= ~other.bits[i];
+        }
+        return this;
+    }
+
+    /**
+     * Keeps only the cells that are in exactly one of this region and other.
+     * @param other a region with the same size; will not be modified
+     * @return this, for chaining
+     */
+    public BitRegion3 xor(BitRegion3 other) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] ^= other.bits[i];
+        }
+        return this;
+    }
+
+    /**
+     * Swaps which cells in the grid are in this region and which aren't.
+     * @return this, for chaining
+     */
+    public BitRegion3 not() {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = ~bits[i];
+        }
+        return trim();
+    }
+
+    /**
+     * Adds every cell next to a cell in this region. Cells outside the grid are never added.
+     * @param moore if true, cells that share an edge or corner are added too (26-way); if false, only cells that share
+     *              a face (6-way)
+     * @return this, for chaining
+     */
+    public BitRegion3 dilate(boolean moore) {
+        return morph(moore, false);
+    }
+
+    /**
+     * Removes every cell next to a cell that isn't in this region. Cells outside the grid count as not in this region,
+     * so every cell on the surface of the grid is removed.
+     * @param moore if true, cells that share an edge or corner count too (26-way); if false, only cells that share a
+     *              face (6-way)
+     * @return this, for chaining
+     */
+    public BitRegion3 erode(boolean moore) {
+        return morph(moore, true);
+    }
+
+    /**
+     * Gets word w of row y in plane z, as it was before the current morph() pass, where plane z is the current plane.
+     */
+    private long original(int y, int z, int plane, int w) {
+        if (y < 0 || z < 0 || y >= height || z >= depth) return 0L;
+        final int i = y * wordsPerRow + w;
+        if (z < plane) return prevPlane[i];
+        if (z == plane) return currPlane[i];
+        return bits[z * height * wordsPerRow + i];
+    }
+
+    private BitRegion3 morph(boolean moore, boolean erode) {
+        final int wpr = wordsPerRow, planeWords = height * wpr;
+        Arrays.fill(prevPlane, 0L);
+        for (int z = 0; z < depth; z++) {
+            final int planeStart = z * planeWords;
+            System.arraycopy(bits, planeStart, currPlane, 0, planeWords);
+            for (int y = 0; y < height; y++) {
+                final int row = planeStart + y * wpr;
+                System.arraycopy(currPlane, y * wpr, currRow, 0, wpr);
+                for (int w = 0; w < wpr; w++) {
+                    long acc = currRow[w];
+                    for (int dz = -1; dz <= 1; dz++) {
+                        for (int dy = -1; dy <= 1; dy++) {
+                            if ((dy | dz) == 0 || (!moore && dy != 0 && dz != 0)) continue;
+                            final long v = original(y + dy, z + dz, z, w);
+                            acc = erode ? acc & v : acc | v;
+                        }
+                    }
+                    spread[w] = acc;
+                }
+                final long[] across = moore ? spread : currRow;
+                for (int w = 0; w < wpr; w++) {
+                    final long left = BitRegion2.shiftUp(across, w), right = BitRegion2.shiftDown(across, w);
+                    bits[row + w] = erode ? spread[w] & left & right : spread[w] | left | right;
+                }
+                bits[row + wpr - 1] &= lastMask;
+            }
+            final long[] swap = prevPlane;
+            prevPlane = currPlane;
+            currPlane = swap;
+        }
+        return this;
+    }
+
+    /**
+     * Grows this region by repeatedly adding cells from passable that are next to cells already in this region, until
+     * nothing more can be added; the result is every cell in passable that is connected to a cell in this region.
+     * Cells in this region that aren't in passable are removed. Each pass handles whole rows at a time, and extends
+     * runs of cells along a row 64 cells per step.
+     * @param passable the cells that can be filled; must have the same size; will not be modified
+     * @param moore if true, cells that share an edge or corner are connected (26-way); if false, only cells that share
+     *              a face (6-way)
+     * @return this, for chaining
+     */
+    public BitRegion3 flood(BitRegion3 passable, boolean moore) {
+        final int wpr = wordsPerRow, rows = height * depth;
+        final long[] mask = passable.bits;
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] &= mask[i];
+        }
+        for (int row = 0; row < bits.length; row += wpr) {
+            BitRegion2.fillRuns(bits, mask, row, wpr);
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int pass = 0; pass < 2; pass++) {
+                for (int r = 0; r < rows; r++) {
+                    final int yz = pass == 0 ? r : rows - 1 - r, y = yz % height, z = yz / height, row = yz * wpr;
+                    for (int w = 0; w < wpr; w++) {
+                        long acc = 0L;
+                        for (int dz = -1; dz <= 1; dz++) {
+                            for (int dy = -1; dy <= 1; dy++) {
+                                if ((dy | dz) == 0 || (!moore && dy != 0 && dz != 0)) continue;
+                                final int ny = y + dy, nz = z + dz;
+                                if (ny < 0 || nz < 0 || ny >= height || nz >= depth) continue;
+                                acc |= bits[(ny + height * nz) * wpr + w];
+                            }
+                        }
+                        spread[w] = acc;
+                    }
+                    boolean rowChanged = false;
+                    for (int w = 0; w < wpr; w++) {
+                        long from = spread[w];
+                        if (moore) from |= BitRegion2.shiftUp(spread, w) | BitRegion2.shiftDown(spread, w);
+                        final long before = bits[row + w], after = (before | from) & mask[row + w];
+                        if (after != before) {
+                            bits[row + w] = after;
+                            rowChanged = true;
+                        }
+                    }
+                    if (rowChanged) {
+                        BitRegion2.fillRuns(bits, mask, row, wpr);
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Sets this region to every cell in passable that is connected to x,y,z, or to nothing if x,y,z isn't in passable.
+     * @param x the x-coordinate of the cell to start from
+     * @param y the y-coordinate of the cell to start from
+     * @param z the z-coordinate of the cell to start from
+     * @param passable the cells that can be filled; must have the same size; will not be modified
+     * @param moore if true, cells that share an edge or corner are connected (26-way); if false, only cells that share
+     *              a face (6-way)
+     * @return this, for chaining
+     */
+    public BitRegion3 flood(int x, int y, int z, BitRegion3 passable, boolean moore) {
+        clear();
+        set(x, y, z);
+        return flood(passable, moore);
+    }
+
+    /**
+     * Finds the first cell in this region at or after the given cell index, where cells are ordered by
+     * {@code x + width * (y + height * z)}.
+     * @param from the cell index to start looking at
+     * @return the index {@code x + width * (y + height * z)} of the next cell in this region, or -1 if there are none
+     */
+    public int nextCell(int from) {
+        if (from < 0) from = 0;
+        final int r = from / width, x = from - r * width;
+        if (r >= height * depth) return -1;
+        int i = r * wordsPerRow + (x >>> 6);
+        long word = bits[i] & -1L << x;
+        while (true) {
+            if (word != 0L) {
+                return (i / wordsPerRow) * width + ((i % wordsPerRow) << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++i >= bits.length) return -1;
+            word = bits[i];
+        }
+    }
+
+    /**
+     * Appends the index {@code x + width * (y + height * z)} of every cell in this region to out, in order.
+     * @param out cell indices will be appended here
+     * @return how many cell indices were appended
+     */
+    public int toIndices(IntArray out) {
+        int added = 0;
+        for (int i = 0; i < bits.length; i++) {
+            long word = bits[i];
+            final int base = (i / wordsPerRow) * width + ((i % wordsPerRow) << 6);
+            while (word != 0L) {
+                out.add(base + Long.numberOfTrailingZeros(word));
+                word &= word - 1L;
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Writes every cell in this region into out, in order, reusing any mutable PointI3 items already there and
+     * removing any extra items at the end. Items that aren't {@link PointI3#mutable() mutable}, such as
+     * {@link ConstPointI3} keys, are replaced with new points.
+     * @param out will be filled with the cells in this region
+     * @return how many cells were written
+     */
+    public int toPoints(Array<PointI3> out) {
+        int n = 0;
+        for (int i = 0; i < bits.length; i++) {
+            long word = bits[i];
+            final int r = i / wordsPerRow, y = r % height, z = r / height, xBase = (i % wordsPerRow) << 6;
+            while (word != 0L) {
+                final int x = xBase + Long.numberOfTrailingZeros(word);
+                final PointI3 p = n < out.size ? out.get(n) : null;
+                if (n < out.size) out.set(n, p == null ? new PointI3(x, y, z) : p.seti(x, y, z));
+                else out.add(new PointI3(x, y, z));
+                word &= word - 1L;
+                n++;
+            }
+        }
+        out.truncate(n);
+        return n;
+    }
+
+    /**
+     * Writes cells from this region into a PointI3 buffer, starting at the given cell index; this can be called
+     * repeatedly to go through a large region in batches without allocating.
+     * @param from the cell index {@code x + width * (y + height * z)} to start looking at
+     * @param buffer will have its items set to the cells found; every item must be non-null, and items that aren't
+     *               mutable (such as {@link ConstPointI3} keys) are replaced with new points
+     * @return the number of cells written, which is less than {@code buffer.length} only if there are no more
+     */
+    public int toPoints(int from, PointI3[] buffer) {
+        int n = 0;
+        for (int c = nextCell(from); c >= 0 && n < buffer.length; c = nextCell(c + 1)) {
+            final int r = c / width;
+            buffer[n] = buffer[n].seti(c - r * width, r % height, r / height);
+            n++;
+        }
+        return n;
+    }
+
+    /** Zeroes out the padding bits past the last column, in every row. */
+    private BitRegion3 trim() {
+        for (int i = wordsPerRow - 1; i < bits.length; i += wordsPerRow) {
+            bits[i] &= lastMask;
+        }
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BitRegion3 that = (BitRegion3) o;
+        return width == that.width && height == that.height && depth == that.depth && Arrays.equals(bits, that.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bits) * 0x1827F5 ^ width * 0x123C21 ^ height * 0x1B69E1 ^ depth;
+    }
+}
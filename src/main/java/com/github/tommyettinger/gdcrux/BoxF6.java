@@ -0,0 +1,493 @@
+package com.github.tommyettinger.gdcrux;
+
+/**
+ * An axis-aligned bounding box in 6D, using float components, with a {@link #min} corner and a {@link #max} corner that
+ * are both {@link PointF6} values. The box includes every point where each component is between the matching
+ * components of min and max, inclusive. A box where any min component is greater than the matching max component
+ * is empty; {@link #inf()} sets a box to an empty state that any {@link #expand} call will fix.
+ * <br>
+ * Besides the usual single-box tests, this has bulk methods that compute the bounds of many points and test many
+ * points against one box, writing one bit per point into a {@code long[]}. None of the methods here allocate.
+ */
+public class BoxF6 {
+    /** The corner with the smallest value for every component. */
+    public final PointF6 min = new PointF6();
+    /** The corner with the largest value for every component. */
+    public final PointF6 max = new PointF6();
+
+    /** Creates an empty box, as with {@link #inf()}. */
+    public BoxF6() {
+        inf();
+    }
+
+    /**
+     * Creates a box with the given corners, copying them. The corners don't need to be sorted; each component of
+     * min will be the smaller of the two given components, and likewise for max.
+     * @param a one corner; will not be modified
+     * @param b the opposite corner; will not be modified
+     */
+    public BoxF6(PointF6 a, PointF6 b) {
+        set(a, b);
+    }
+
+    /**
+     * Creates a copy of the given box.
+     * @param other another BoxF6 to copy
+     */
+    public BoxF6(BoxF6 other) {
+        set(other);
+    }
+
+    /**
+     * Sets this box to have the given corners, sorting components so min gets the smaller of each pair.
+     * @param a one corner; will not be modified
+     * @param b the opposite corner; will not be modified
+     * @return this, for chaining
+     */
+    public BoxF6 set(PointF6 a, PointF6 b) {
+        min.set(Math.min(a.x, b.x), Math.min(a.y, b.y), Math.min(a.z, b.z), Math.min(a.w, b.w), Math.min(a.u, b.u), Math.min(a.v, b.v));
+        max.set(Math.max(a.x, b.x), Math.max(a.y, b.y), Math.max(a.z, b.z), Math.max(a.w, b.w), Math.max(a.u, b.u), Math.max(a.v, b.v));
+        return this;
+    }
+
+    /**
+     * Sets this box to have the same corners as another box.
+     * @param other another BoxF6 to copy
+     * @return this, for chaining
+     */
+    public BoxF6 set(BoxF6 other) {
+        min.set(other.min.x, other.min.y, other.min.z, other.min.w, other.min.u, other.min.v);
+        max.set(other.max.x, other.max.y, other.max.z, other.max.w, other.max.u, other.max.v);
+        return this;
+    }
+
+    /**
+     * Sets min to the largest possible value and max to the smallest possible value, making this box empty.
+     * Expanding an empty box by a point makes it contain just that point.
+     * @return this, for chaining
+     */
+    public BoxF6 inf() {
+        min.set(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+        max.set(Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY);
+        return this;
+    }
+
+    /**
+     * Returns true if this box contains at least one point, meaning no component of min is greater than the
+     * matching component of max.
+     * @return true if this box is not empty
+     */
+    public boolean isValid() {
+        return min.x <= max.x & min.y <= max.y & min.z <= max.z & min.w <= max.w & min.u <= max.u & min.v <= max.v;
+    }
+
+    /**
+     * Returns true if the given point is inside this box or on its boundary.
+     * @param x the x-component of the point
+     * @param y the y-component of the point
+     * @param z the z-component of the point
+     * @param w the w-component of the point
+     * @param u the u-component of the point
+     * @param v the v-component of the point
+     * @return true if the point is contained in this box
+     */
+    public boolean contains(float x, float y, float z, float w, float u, float v) {
+        return x >= min.x & x <= max.x
+                & y >= min.y & y <= max.y
+                & z >= min.z & z <= max.z
+                & w >= min.w & w <= max.w
+                & u >= min.u & u <= max.u
+                & v >= min.v & v <= max.v;
+    }
+
+    /**
+     * Returns true if the given point is inside this box or on its boundary.
+     * @param point the point to check
+     * @return true if the point is contained in this box
+     */
+    public boolean contains(PointF6 point) {
+        return contains(point.x, point.y, point.z, point.w, point.u, point.v);
+    }
+
+    /**
+     * Returns true if the other box is entirely inside this one. An empty other box is only contained if this box
+     * is not empty.
+     * @param other another BoxF6
+     * @return true if other is contained in this box
+     */
+    public boolean contains(BoxF6 other) {
+        return isValid() & other.min.x >= min.x & other.max.x <= max.x
+                & other.min.y >= min.y & other.max.y <= max.y
+                & other.min.z >= min.z & other.max.z <= max.z
+                & other.min.w >= min.w & other.max.w <= max.w
+                & other.min.u >= min.u & other.max.u <= max.u
+                & other.min.v >= min.v & other.max.v <= max.v;
+    }
+
+    /**
+     * Returns true if this box and the other box share any points, including points on their boundaries.
+     * @param other another BoxF6
+     * @return true if the boxes overlap
+     */
+    public boolean overlaps(BoxF6 other) {
+        return min.x <= other.max.x & max.x >= other.min.x
+                & min.y <= other.max.y & max.y >= other.min.y
+                & min.z <= other.max.z & max.z >= other.min.z
+                & min.w <= other.max.w & max.w >= other.min.w
+                & min.u <= other.max.u & max.u >= other.min.u
+                & min.v <= other.max.v & max.v >= other.min.v;
+    }
+
+    /**
+     * Expands this box, if needed, so that it contains the given point.
+     * @param x the x-component of the point
+     * @param y the y-component of the point
+     * @param z the z-component of the point
+     * @param w the w-component of the point
+     * @param u the u-component of the point
+     * @param v the v-component of the point
+     * @return this, for chaining
+     */
+    public BoxF6 expand(float x, float y, float z, float w, float u, float v) {
+        min.set(Math.min(min.x, x), Math.min(min.y, y), Math.min(min.z, z), Math.min(min.w, w), Math.min(min.u, u), Math.min(min.v, v));
+        max.set(Math.max(max.x, x), Math.max(max.y, y), Math.max(max.z, z), Math.max(max.w, w), Math.max(max.u, u), Math.max(max.v, v));
+        return this;
+    }
+
+    /**
+     * Expands this box, if needed, so that it contains the given point.
+     * @param point the point to contain; will not be modified
+     * @return this, for chaining
+     */
+    public BoxF6 expand(PointF6 point) {
+        return expand(point.x, point.y, point.z, point.w, point.u, point.v);
+    }
+
+    /**
+     * Expands this box, if needed, so that it contains all of the other box.
+     * @param other another BoxF6; will not be modified
+     * @return this, for chaining
+     */
+    public BoxF6 union(BoxF6 other) {
+        min.set(Math.min(min.x, other.min.x), Math.min(min.y, other.min.y), Math.min(min.z, other.min.z), Math.min(min.w, other.min.w), Math.min(min.u, other.min.u), Math.min(min.v, other.min.v));
+        max.set(Math.max(max.x, other.max.x), Math.max(max.y, other.max.y), Math.max(max.z, other.max.z), Math.max(max.w, other.max.w), Math.max(max.u, other.max.u), Math.max(max.v, other.max.v));
+        return this;
+    }
+
+    /**
+     * Shrinks this box to only the region it shares with the other box. If they don't overlap, this box will
+     * become empty (not {@link #isValid() valid}).
+     * @param other another BoxF6; will not be modified
+     * @return this, for chaining
+     */
+    public BoxF6 intersect(BoxF6 other) {
+        min.set(Math.max(min.x, other.min.x), Math.max(min.y, other.min.y), Math.max(min.z, other.min.z), Math.max(min.w, other.min.w), Math.max(min.u, other.min.u), Math.max(min.v, other.min.v));
+        max.set(Math.min(max.x, other.max.x), Math.min(max.y, other.max.y), Math.min(max.z, other.max.z), Math.min(max.w, other.max.w), Math.min(max.u, other.max.u), Math.min(max.v, other.max.v));
+        return this;
+    }
+
+    /**
+     * Sets {@code out} to the center of this box.
+     * @param out will be modified to hold the center
+     * @return out, after modifications
+     */
+    public PointF6 getCenter(PointF6 out) {
+        return out.set((min.x + max.x) * 0.5f, (min.y + max.y) * 0.5f, (min.z + max.z) * 0.5f, (min.w + max.w) * 0.5f, (min.u + max.u) * 0.5f, (min.v + max.v) * 0.5f);
+    }
+
+    /**
+     * Gets the 6D volume of this box, which is the product of its side lengths; this is 0 if it is empty.
+     * @return the volume of this box, or 0 if it is empty
+     */
+    public float volume() {
+        if (!isValid()) return 0f;
+        return (max.x - min.x) * (max.y - min.y) * (max.z - min.z) * (max.w - min.w) * (max.u - min.u) * (max.v - min.v);
+    }
+
+    /**
+     * Gets the squared Euclidean distance from the given point to the closest point in this box, or 0 if the point
+     * is inside the box.
+     * @param x the x-component of the point
+     * @param y the y-component of the point
+     * @param z the z-component of the point
+     * @param w the w-component of the point
+     * @param u the u-component of the point
+     * @param v the v-component of the point
+     * @return the squared distance from the point to this box
+     */
+    public float dst2(float x, float y, float z, float w, float u, float v) {
+        final float dx = Math.max(Math.max(min.x - x, x - max.x), 0f);
+        final float dy = Math.max(Math.max(min.y - y, y - max.y), 0f);
+        final float dz = Math.max(Math.max(min.z - z, z - max.z), 0f);
+        final float dw = Math.max(Math.max(min.w - w, w - max.w), 0f);
+        final float du = Math.max(Math.max(min.u - u, u - max.u), 0f);
+        final float dv = Math.max(Math.max(min.v - v, v - max.v), 0f);
+        return dx * dx + dy * dy + dz * dz + dw * dw + du * du + dv * dv;
+    }
+
+    /**
+     * Gets the squared Euclidean distance from the given point to the closest point in this box, or 0 if the point
+     * is inside the box.
+     * @param point the point to measure from
+     * @return the squared distance from the point to this box
+     */
+    public float dst2(PointF6 point) {
+        return dst2(point.x, point.y, point.z, point.w, point.u, point.v);
+    }
+
+    /**
+     * Gets the Euclidean distance from the given point to the closest point in this box, or 0 if the point
+     * is inside the box.
+     * @param point the point to measure from
+     * @return the distance from the point to this box
+     */
+    public float dst(PointF6 point) {
+        return (float) Math.sqrt(dst2(point));
+    }
+
+    /**
+     * Finds where a ray first touches this box, using the slab method. The ray starts at the origin point
+     * {@code o} and travels along the direction {@code d}, which doesn't need to be normalized. The result is
+     * the smallest non-negative {@code t} such that {@code o + d * t} is in the box; it is 0 if the origin is
+     * already inside. If the ray never touches the box, or the box is not {@link #isValid() valid}, this returns
+     * {@link Float#POSITIVE_INFINITY}, so the nearest of several boxes can be found with {@link Math#min(float, float)}.
+     * @param ox the x-component of the ray's origin
+     * @param oy the y-component of the ray's origin
+     * @param oz the z-component of the ray's origin
+     * @param ow the w-component of the ray's origin
+     * @param ou the u-component of the ray's origin
+     * @param ov the v-component of the ray's origin
+     * @param dx the x-component of the ray's direction
+     * @param dy the y-component of the ray's direction
+     * @param dz the z-component of the ray's direction
+     * @param dw the w-component of the ray's direction
+     * @param du the u-component of the ray's direction
+     * @param dv the v-component of the ray's direction
+     * @return the distance along the ray, in multiples of its direction, or positive infinity if it misses
+     */
+    public float intersectRay(float ox, float oy, float oz, float ow, float ou, float ov,
+                              float dx, float dy, float dz, float dw, float du, float dv) {
+        if (!isValid()) return Float.POSITIVE_INFINITY;
+        float near = 0f, far = Float.POSITIVE_INFINITY;
+        if (dx == 0f) {
+            if (ox < min.x | ox > max.x) return Float.POSITIVE_INFINITY;
+        } else {
+            final float inv = 1f / dx, a = (min.x - ox) * inv, b = (max.x - ox) * inv;
+            near = Math.max(near, Math.min(a, b));
+            far = Math.min(far, Math.max(a, b));
+        }
+        if (dy == 0f) {
+            if (oy < min.y | oy > max.y) return Float.POSITIVE_INFINITY;
+        } else {
+            final float inv = 1f / dy, a = (min.y - oy) * inv, b = (max.y - oy) * inv;
+            near = Math.max(near, Math.min(a, b));
+            far = Math.min(far, Math.max(a, b));
+        }
+        if (dz == 0f) {
+            if (oz < min.z | oz > max.z) return Float.POSITIVE_INFINITY;
+        } else {
+            final float inv = 1f / dz, a = (min.z - oz) * inv, b = (max.z - oz) * inv;
+            near = Math.max(near, Math.min(a, b));
+            far = Math.min(far, Math.max(a, b));
+        }
+        if (dw == 0f) {
+            if (ow < min.w | ow > max.w) return Float.POSITIVE_INFINITY;
+        } else {
+            final float inv = 1f / dw, a = (min.w - ow) * inv, b = (max.w - ow) * inv;
+            near = Math.max(near, Math.min(a, b));
+            far = Math.min(far, Math.max(a, b));
+        }
+        if (du == 0f) {
+            if (ou < min.u | ou > max.u) return Float.POSITIVE_INFINITY;
+        } else {
+            final float inv = 1f / du, a = (min.u - ou) * inv, b = (max.u - ou) * inv;
+            near = Math.max(near, Math.min(a, b));
+            far = Math.min(far, Math.max(a, b));
+        }
+        if (dv == 0f) {
+            if (ov < min.v | ov > max.v) return Float.POSITIVE_INFINITY;
+        } else {
+            final float inv = 1f / dv, a = (min.v - ov) * inv, b = (max.v - ov) * inv;
+            near = Math.max(near, Math.min(a, b));
+            far = Math.min(far, Math.max(a, b));
+        }
+        return near <= far ? near : Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Finds where a ray first touches this box, using the slab method. See
+     * {@link #intersectRay(float, float, float, float, float, float, float, float, float, float, float, float)} for details.
+     * @param origin where the ray starts; will not be modified
+     * @param direction the direction the ray travels; doesn't need to be normalized; will not be modified
+     * @return the distance along the ray, in multiples of its direction, or positive infinity if it misses
+     */
+    public float intersectRay(PointF6 origin, PointF6 direction) {
+        return intersectRay(origin.x, origin.y, origin.z, origin.w, origin.u, origin.v,
+                direction.x, direction.y, direction.z, direction.w, direction.u, direction.v);
+    }
+
+    /**
+     * Sets this box to the smallest box that contains every point in the given range of {@code points}. If length
+     * is 0, this box becomes empty.
+     * @param points an array of PointF6; none in the range may be null
+     * @param start the first index in points to use
+     * @param length how many points to use
+     * @return this, for chaining
+     */
+    public BoxF6 setFromPoints(PointF6[] points, int start, int length) {
+        float loX = Float.POSITIVE_INFINITY, loY = Float.POSITIVE_INFINITY, loZ = Float.POSITIVE_INFINITY, loW = Float.POSITIVE_INFINITY, loU = Float.POSITIVE_INFINITY, loV = Float.POSITIVE_INFINITY;
+        float hiX = Float.NEGATIVE_INFINITY, hiY = Float.NEGATIVE_INFINITY, hiZ = Float.NEGATIVE_INFINITY, hiW = Float.NEGATIVE_INFINITY, hiU = Float.NEGATIVE_INFINITY, hiV = Float.NEGATIVE_INFINITY;
+        for (int i = start, end = start + length; i < end; i++) {
+            final PointF6 p = points[i];
+            loX = Math.min(loX, p.x);
+            hiX = Math.max(hiX, p.x);
+            loY = Math.min(loY, p.y);
+            hiY = Math.max(hiY, p.y);
+            loZ = Math.min(loZ, p.z);
+            hiZ = Math.max(hiZ, p.z);
+            loW = Math.min(loW, p.w);
+            hiW = Math.max(hiW, p.w);
+            loU = Math.min(loU, p.u);
+            hiU = Math.max(hiU, p.u);
+            loV = Math.min(loV, p.v);
+            hiV = Math.max(hiV, p.v);
+        }
+        min.set(loX, loY, loZ, loW, loU, loV);
+        max.set(hiX, hiY, hiZ, hiW, hiU, hiV);
+        return this;
+    }
+
+    /**
+     * Sets this box to the smallest box that contains every point in the given range, where each component of
+     * the points is stored in its own array. If length is 0, this box becomes empty.
+     * @param x x-components of the points
+     * @param y y-components of the points
+     * @param z z-components of the points
+     * @param w w-components of the points
+     * @param u u-components of the points
+     * @param v v-components of the points
+     * @param start the first index to use
+     * @param length how many points to use
+     * @return this, for chaining
+     */
+    public BoxF6 setFromComponents(float[] x, float[] y, float[] z, float[] w, float[] u, float[] v, int start, int length) {
+        float loX = Float.POSITIVE_INFINITY, loY = Float.POSITIVE_INFINITY, loZ = Float.POSITIVE_INFINITY, loW = Float.POSITIVE_INFINITY, loU = Float.POSITIVE_INFINITY, loV = Float.POSITIVE_INFINITY;
+        float hiX = Float.NEGATIVE_INFINITY, hiY = Float.NEGATIVE_INFINITY, hiZ = Float.NEGATIVE_INFINITY, hiW = Float.NEGATIVE_INFINITY, hiU = Float.NEGATIVE_INFINITY, hiV = Float.NEGATIVE_INFINITY;
+        for (int i = start, end = start + length; i < end; i++) {
+            loX = Math.min(loX, x[i]);
+            hiX = Math.max(hiX, x[i]);
+            loY = Math.min(loY, y[i]);
+            hiY = Math.max(hiY, y[i]);
+            loZ = Math.min(loZ, z[i]);
+            hiZ = Math.max(hiZ, z[i]);
+            loW = Math.min(loW, w[i]);
+            hiW = Math.max(hiW, w[i]);
+            loU = Math.min(loU, u[i]);
+            hiU = Math.max(hiU, u[i]);
+            loV = Math.min(loV, v[i]);
+            hiV = Math.max(hiV, v[i]);
+        }
+        min.set(loX, loY, loZ, loW, loU, loV);
+        max.set(hiX, hiY, hiZ, hiW, hiU, hiV);
+        return this;
+    }
+
+    /**
+     * Tests every point in the given range against this box, setting bit {@code i & 63} of
+     * {@code bits[i >>> 6]} if {@code points[start + i]} is inside this box, and clearing it otherwise. Whole
+     * words of bits are written at once, so bits past the end of the range in the last word used are cleared.
+     * The comparisons don't short-circuit, which avoids most branches.
+     * @param points an array of PointF6; none in the range may be null
+     * @param start the first index in points to test
+     * @param length how many points to test
+     * @param bits must have a length of at least {@code (length + 63) >>> 6}; will be overwritten
+     * @return how many points in the range are inside this box
+     */
+    public int containsAll(PointF6[] points, int start, int length, long[] bits) {
+        final float minX = min.x, maxX = max.x;
+        final float minY = min.y, maxY = max.y;
+        final float minZ = min.z, maxZ = max.z;
+        final float minW = min.w, maxW = max.w;
+        final float minU = min.u, maxU = max.u;
+        final float minV = min.v, maxV = max.v;
+        int count = 0;
+        for (int idx = 0, base = 0; base < length; idx++, base += 64) {
+            long word = 0L;
+            for (int b = 0, n = Math.min(64, length - base); b < n; b++) {
+                final PointF6 p = points[start + base + b];
+                final boolean in = p.x >= minX & p.x <= maxX
+                        & p.y >= minY & p.y <= maxY
+                        & p.z >= minZ & p.z <= maxZ
+                        & p.w >= minW & p.w <= maxW
+                        & p.u >= minU & p.u <= maxU
+                        & p.v >= minV & p.v <= maxV;
+                word |= (in ? 1L : 0L) << b;
+            }
+            bits[idx] = word;
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Tests every point in the given range against this box, where each component of the points is stored in its
+     * own array. Bit {@code i & 63} of {@code bits[i >>> 6]} is set if the point at index {@code start + i} is
+     * inside this box, and cleared otherwise. Whole words of bits are written at once, so bits past the end of the
+     * range in the last word used are cleared.
+     * @param x x-components of the points
+     * @param y y-components of the points
+     * @param z z-components of the points
+     * @param w w-components of the points
+     * @param u u-components of the points
+     * @param v v-components of the points
+     * @param start the first index to test
+     * @param length how many points to test
+     * @param bits must have a length of at least {@code (length + 63) >>> 6}; will be overwritten
+     * @return how many points in the range are inside this box
+     */
+    public int containsAll(float[] x, float[] y, float[] z, float[] w, float[] u, float[] v, int start, int length, long[] bits) {
+        final float minX = min.x, maxX = max.x;
+        final float minY = min.y, maxY = max.y;
+        final float minZ = min.z, maxZ = max.z;
+        final float minW = min.w, maxW = max.w;
+        final float minU = min.u, maxU = max.u;
+        final float minV = min.v, maxV = max.v;
+        int count = 0;
+        for (int idx = 0, base = 0; base < length; idx++, base += 64) {
+            long word = 0L;
+            for (int b = 0, n = Math.min(64, length - base), i = start + base; b < n; b++, i++) {
+                final boolean in = x[i] >= minX & x[i] <= maxX
+                        & y[i] >= minY & y[i] <= maxY
+                        & z[i] >= minZ & z[i] <= maxZ
+                        & w[i] >= minW & w[i] <= maxW
+                        & u[i] >= minU & u[i] <= maxU
+                        & v[i] >= minV & v[i] <= maxV;
+                word |= (in ? 1L : 0L) << b;
+            }
+            bits[idx] = word;
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BoxF6 other = (BoxF6) o;
+        return min.equals(other.min) && max.equals(other.max);
+    }
+
+    @Override
+    public int hashCode() {
+        return min.hashCode() * 31 + max.hashCode();
+    }
+
+    /** Converts this {@code BoxF6} to a string in the format {@code [min:max]}, such as
+     * {@code [(0,0,0,0,0,0):(1,1,1,1,1,1)]}.
+     * @return a string representation of this object. */
+    @Override
+    public String toString() {
+        return "[" + min + ":" + max + "]";
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.tommyettinger.gdcrux;
+
+/**
+ * The plain, scalar implementation of every bulk operation in {@link BulkMath}. This works on every platform, GWT
+ * included. On Java 17 and newer, when the {@code jdk.incubator.vector} module is enabled, a subclass that uses SIMD
+ * instructions may be used instead; see {@link BulkKernelLoader}. Every method here handles the items from
+ * {@code start} (inclusive) to {@code start + length} (exclusive), and doesn't check array bounds itself.
+ */
+class BulkKernel {
+
+    /**
+     * Returns true if this uses explicit SIMD instructions, or false if it is this scalar implementation.
+     * @return false here; true in SIMD subclasses
+     */
+    boolean vectorized() {
+        return false;
+    }
+
+    void add(float[] a, float[] b, float[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    void add(int[] a, int[] b, int[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    void sub(float[] a, float[] b, float[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = a[i] - b[i];
+        }
+    }
+
+    void sub(int[] a, int[] b, int[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = a[i] - b[i];
+        }
+    }
+
+    void scl(float[] a, float scalar, float[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = a[i] * scalar;
+        }
+    }
+
+    void scl(int[] a, int scalar, int[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = a[i] * scalar;
+        }
+    }
+
+    void lerp(float[] a, float[] b, float alpha, float[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = a[i] + alpha * (b[i] - a[i]);
+        }
+    }
+
+    float dot(float[] a, float[] b, int start, int length) {
+        float sum = 0f;
+        for (int i = start, end = start + length; i < end; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    float dst2(float[] a, float[] b, int start, int length) {
+        float sum = 0f;
+        for (int i = start, end = start + length; i < end; i++) {
+            final float d = a[i] - b[i];
+            sum += d * d;
+        }
+        return sum;
+    }
+
+    void dot(float[] ax, float[] ay, float[] bx, float[] by, float[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = ax[i] * bx[i] + ay[i] * by[i];
+        }
+    }
+
+    void dot(float[] ax, float[] ay, float[] az, float[] bx, float[] by, float[] bz, float[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = ax[i] * bx[i] + ay[i] * by[i] + az[i] * bz[i];
+        }
+    }
+
+    void dst2(float[] ax, float[] ay, float[] bx, float[] by, float[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            final float dx = ax[i] - bx[i], dy = ay[i] - by[i];
+            out[i] = dx * dx + dy * dy;
+        }
+    }
+
+    void dst2(float[] ax, float[] ay, float[] az, float[] bx, float[] by, float[] bz, float[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            final float dx = ax[i] - bx[i], dy = ay[i] - by[i], dz = az[i] - bz[i];
+            out[i] = dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    void nor(float[] x, float[] y, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            final float len2 = x[i] * x[i] + y[i] * y[i];
+            if (len2 == 0f || len2 == 1f) continue;
+            final float inv = 1f / (float) Math.sqrt(len2);
+            x[i] *= inv;
+            y[i] *= inv;
+        }
+    }
+
+    void nor(float[] x, float[] y, float[] z, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            final float len2 = x[i] * x[i] + y[i] * y[i] + z[i] * z[i];
+            if (len2 == 0f || len2 == 1f) continue;
+            final float inv = 1f / (float) Math.sqrt(len2);
+            x[i] *= inv;
+            y[i] *= inv;
+            z[i] *= inv;
+        }
+    }
+
+    void morton(int[] x, int[] y, long[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = BulkMath.morton(x[i], y[i]);
+        }
+    }
+
+    void morton(int[] x, int[] y, int[] z, long[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = BulkMath.morton(x[i], y[i], z[i]);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.tommyettinger.gdcrux;
+
+/**
+ * Chooses which {@link BulkKernel} {@link BulkMath} uses. This is the Java 8 version, which always uses the scalar
+ * {@link BulkKernel}. The multi-release JAR contains a Java 17 version of this class in
+ * {@code META-INF/versions/17/}, which uses the Vector API if the {@code jdk.incubator.vector} module is enabled.
+ */
+final class BulkKernelLoader {
+    private BulkKernelLoader() {
+    }
+
+    static BulkKernel load() {
+        return new BulkKernel();
+    }
+}
@@ -0,0 +1,743 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+
+import java.util.Arrays;
+
+/**
+ * Static methods that operate on many points at once, when those points are stored as primitive arrays instead of as
+ * PointF or PointI objects. Component-wise methods, like {@link #add(float[], float[], float[], int, int)}, don't care
+ * how the components are laid out, so they work on interleaved data such as {@code x0,y0,z0,x1,y1,z1...} as well as
+ * on one array per component. Methods that need to know which components belong to the same point, like
+ * {@link #nor(float[], float[], float[], int, int)}, take one array per component ("structure of arrays").
+ * <br>
+ * Every method handles the items from {@code start} (inclusive) to {@code start + length} (exclusive), and only the
+ * sorting methods allocate (for scratch space). Output arrays may be the same as input arrays.
+ * <br>
+ * On Java 8 through 16, and on GWT, this always uses plain loops. On Java 17 and newer, if the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, this uses the Vector API to process several items per instruction; you
+ * can check which is in use with {@link #isVectorized()}. Component-wise methods and the per-point methods produce
+ * identical results either way. The methods that sum over a whole range,
+ * {@link #dot(float[], float[], int, int)} and {@link #dst2(float[], float[], int, int)}, add in a different order
+ * when vectorized, and so can differ in the last few bits.
+ * <br>
+ * Reductions that produce a {@code double}, like {@link #sum(float[], int, int)} and
+ * {@link #centroid(float[], float[], float[], int, int, PointF3)}, always add up fixed-size blocks of
+ * {@link #REDUCTION_BLOCK} items and then add the per-block totals in order, so they give exactly the same results as
+ * the parallel versions in {@link ParallelBulk}, no matter how work is split up there.
+ */
+public final class BulkMath {
+    private BulkMath() {
+    }
+
+    private static final BulkKernel KERNEL = BulkKernelLoader.load();
+
+    /**
+     * How many items are added together before a partial total is stored, in reductions such as
+     * {@link #sum(float[], int, int)}. This never changes, so that sequential and parallel reductions always add
+     * items in the same order and produce identical results.
+     */
+    public static final int REDUCTION_BLOCK = 4096;
+
+    /**
+     * Returns true if the methods here use the Vector API to process multiple items at once, or false if they use
+     * scalar loops. This can only be true on Java 17 or newer, with the {@code jdk.incubator.vector} module enabled.
+     * @return true if bulk operations are using SIMD instructions
+     */
+    public static boolean isVectorized() {
+        return KERNEL.vectorized();
+    }
+
+    /**
+     * Sets {@code out[i] = a[i] + b[i]} for each index in the range.
+     * @param a the first addend
+     * @param b the second addend
+     * @param out where results are stored; may be {@code a} or {@code b}
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public static void add(float[] a, float[] b, float[] out, int start, int length) {
+        KERNEL.add(a, b, out, start, length);
+    }
+
+    /**
+     * Sets {@code out[i] = a[i] + b[i]} for each index in the range.
+     * @param a the first addend
+     * @param b the second addend
+     * @param out where results are stored; may be {@code a} or {@code b}
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public static void add(int[] a, int[] b, int[] out, int start, int length) {
+        KERNEL.add(a, b, out, start, length);
+    }
+
+    /**
+     * Sets {@code out[i] = a[i] - b[i]} for each index in the range.
+     * @param a the minuend
+     * @param b the subtrahend
+     * @param out where results are stored; may be {@code a} or {@code b}
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public static void sub(float[] a, float[] b, float[] out, int start, int length) {
+        KERNEL.sub(a, b, out, start, length);
+    }
+
+    /**
+     * Sets {@code out[i] = a[i] - b[i]} for each index in the range.
+     * @param a the minuend
+     * @param b the subtrahend
+     * @param out where results are stored; may be {@code a} or {@code b}
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public static void sub(int[] a, int[] b, int[] out, int start, int length) {
+        KERNEL.sub(a, b, out, start, length);
+    }
+
+    /**
+     * Sets {@code out[i] = a[i] * scalar} for each index in the range.
+     * @param a the items to scale
+     * @param scalar what to multiply each item by
+     * @param out where results are stored; may be {@code a}
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public static void scl(float[] a, float scalar, float[] out, int start, int length) {
+        KERNEL.scl(a, scalar, out, start, length);
+    }
+
+    /**
+     * Sets {@code out[i] = a[i] * scalar} for each index in the range.
+     * @param a the items to scale
+     * @param scalar what to multiply each item by
+     * @param out where results are stored; may be {@code a}
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public static void scl(int[] a, int scalar, int[] out, int start, int length) {
+        KERNEL.scl(a, scalar, out, start, length);
+    }
+
+    /**
+     * Sets {@code out[i] = a[i] + alpha * (b[i] - a[i])} for each index in the range; this is the same formula
+     * {@link Vector5#lerp(Vector5, float)} uses.
+     * @param a the items to interpolate from
+     * @param b the items to interpolate toward
+     * @param alpha between 0 and 1, inclusive
+     * @param out where results are stored; may be {@code a} or {@code b}
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public static void lerp(float[] a, float[] b, float alpha, float[] out, int start, int length) {
+        KERNEL.lerp(a, b, alpha, out, start, length);
+    }
+
+    /**
+     * Gets the sum of {@code a[i] * b[i]} over the range; if a and b each hold one point, this is their dot product.
+     * @param a the first array
+     * @param b the second array
+     * @param start the first index to process
+     * @param length how many items to process
+     * @return the sum of products of a and b in the range
+     */
+    public static float dot(float[] a, float[] b, int start, int length) {
+        return KERNEL.dot(a, b, start, length);
+    }
+
+    /**
+     * Gets the sum of {@code (a[i] - b[i]) * (a[i] - b[i])} over the range; if a and b each hold one point, this is
+     * their squared distance.
+     * @param a the first array
+     * @param b the second array
+     * @param start the first index to process
+     * @param length how many items to process
+     * @return the sum of squared differences between a and b in the range
+     */
+    public static float dst2(float[] a, float[] b, int start, int length) {
+        return KERNEL.dst2(a, b, start, length);
+    }
+
+    /**
+     * Stores the dot product of each 2D point in a with the 2D point at the same index in b.
+     * @param ax x-components of the first points
+     * @param ay y-components of the first points
+     * @param bx x-components of the second points
+     * @param by y-components of the second points
+     * @param out where dot products are stored
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public static void dot(float[] ax, float[] ay, float[] bx, float[] by, float[] out, int start, int length) {
+        KERNEL.dot(ax, ay, bx, by, out, start, length);
+    }
+
+    /**
+     * Stores the dot product of each 3D point in a with the 3D point at the same index in b.
+     * @param ax x-components of the first points
+     * @param ay y-components of the first points
+     * @param az z-components of the first points
+     * @param bx x-components of the second points
+     * @param by y-components of the second points
+     * @param bz z-components of the second points
+     * @param out where dot products are stored
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public static void dot(float[] ax, float[] ay, float[] az, float[] bx, float[] by, float[] bz, float[] out,
+                           int start, int length) {
+        KERNEL.dot(ax, ay, az, bx, by, bz, out, start, length);
+    }
+
+    /**
+     * Stores the squared distance between each 2D point in a and the 2D point at the same index in b.
+     * @param ax x-components of the first points
+     * @param ay y-components of the first points
+     * @param bx x-components of the second points
+     * @param by y-components of the second points
+     * @param out where squared distances are stored
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public static void dst2(float[] ax, float[] ay, float[] bx, float[] by, float[] out, int start, int length) {
+        KERNEL.dst2(ax, ay, bx, by, out, start, length);
+    }
+
+    /**
+     * Stores the squared distance between each 3D point in a and the 3D point at the same index in b.
+     * @param ax x-components of the first points
+     * @param ay y-components of the first points
+     * @param az z-components of the first points
+     * @param bx x-components of the second points
+     * @param by y-components of the second points
+     * @param bz z-components of the second points
+     * @param out where squared distances are stored
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public static void dst2(float[] ax, float[] ay, float[] az, float[] bx, float[] by, float[] bz, float[] out,
+                            int start, int length) {
+        KERNEL.dst2(ax, ay, az, bx, by, bz, out, start, length);
+    }
+
+    /**
+     * Normalizes each 2D point in-place, the same way {@link PointF2#nor()} does; points with length 0 or 1 are
+     * left unchanged.
+     * @param x x-components; will be modified
+     * @param y y-components; will be modified
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public static void nor(float[] x, float[] y, int start, int length) {
+        KERNEL.nor(x, y, start, length);
+    }
+
+    /**
+     * Normalizes each 3D point in-place, the same way {@link PointF3#nor()} does; points with length 0 or 1 are
+     * left unchanged.
+     * @param x x-components; will be modified
+     * @param y y-components; will be modified
+     * @param z z-components; will be modified
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public static void nor(float[] x, float[] y, float[] z, int start, int length) {
+        KERNEL.nor(x, y, z, start, length);
+    }
+
+    /**
+     * Stores the 2D Morton code ({@link #morton(int, int)}) for each point in the range.
+     * @param x x-components
+     * @param y y-components
+     * @param out where Morton codes are stored
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public static void morton(int[] x, int[] y, long[] out, int start, int length) {
+        KERNEL.morton(x, y, out, start, length);
+    }
+
+    /**
+     * Stores the 3D Morton code ({@link #morton(int, int, int)}) for each point in the range.
+     * @param x x-components
+     * @param y y-components
+     * @param z z-components
+     * @param out where Morton codes are stored
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public static void morton(int[] x, int[] y, int[] z, long[] out, int start, int length) {
+        KERNEL.morton(x, y, z, out, start, length);
+    }
+
+    /**
+     * Transforms each 3D point in-place by the given matrix, the same way {@link PointF3#mul(Matrix4)} does.
+     * @param matrix the transformation matrix
+     * @param x x-components; will be modified
+     * @param y y-components; will be modified
+     * @param z z-components; will be modified
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public static void mul(Matrix4 matrix, float[] x, float[] y, float[] z, int start, int length) {
+        final float[] m = matrix.val;
+        for (int i = start, end = start + length; i < end; i++) {
+            final float px = x[i], py = y[i], pz = z[i];
+            x[i] = px * m[Matrix4.M00] + py * m[Matrix4.M01] + pz * m[Matrix4.M02] + m[Matrix4.M03];
+            y[i] = px * m[Matrix4.M10] + py * m[Matrix4.M11] + pz * m[Matrix4.M12] + m[Matrix4.M13];
+            z[i] = px * m[Matrix4.M20] + py * m[Matrix4.M21] + pz * m[Matrix4.M22] + m[Matrix4.M23];
+        }
+    }
+
+    /**
+     * Multiplies each float by {@code scale} and rounds it to the nearest int, the same way
+     * {@link PointI3#PointI3(float, float, float)} rounds, storing the results in {@code out}.
+     * @param a the floats to quantize
+     * @param scale what to multiply each float by before rounding; the size of a grid cell is {@code 1f / scale}
+     * @param out where rounded ints are stored
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public static void quantize(float[] a, float scale, int[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = MathUtils.round(a[i] * scale);
+        }
+    }
+
+    /**
+     * Finds the smallest and largest value of each component over the range of 3D points, storing them in
+     * {@code min} and {@code max}. If length is 0, min will be set to positive infinity and max to negative infinity.
+     * @param x x-components
+     * @param y y-components
+     * @param z z-components
+     * @param start the first index to process
+     * @param length how many points to process
+     * @param min will be set to the smallest x, y, and z
+     * @param max will be set to the largest x, y, and z
+     */
+    public static void bounds(float[] x, float[] y, float[] z, int start, int length, PointF3 min, PointF3 max) {
+        float loX = Float.POSITIVE_INFINITY, loY = Float.POSITIVE_INFINITY, loZ = Float.POSITIVE_INFINITY;
+        float hiX = Float.NEGATIVE_INFINITY, hiY = Float.NEGATIVE_INFINITY, hiZ = Float.NEGATIVE_INFINITY;
+        for (int i = start, end = start + length; i < end; i++) {
+            loX = Math.min(loX, x[i]);
+            hiX = Math.max(hiX, x[i]);
+            loY = Math.min(loY, y[i]);
+            hiY = Math.max(hiY, y[i]);
+            loZ = Math.min(loZ, z[i]);
+            hiZ = Math.max(hiZ, z[i]);
+        }
+        min.set(loX, loY, loZ);
+        max.set(hiX, hiY, hiZ);
+    }
+
+    /**
+     * Finds the smallest and largest value of each component over the range of 3D points, storing them in
+     * {@code min} and {@code max}. If length is 0, min will be set to {@link Integer#MAX_VALUE} and max to
+     * {@link Integer#MIN_VALUE}.
+     * @param x x-components
+     * @param y y-components
+     * @param z z-components
+     * @param start the first index to process
+     * @param length how many points to process
+     * @param min will be set to the smallest x, y, and z; must be {@link PointI3#mutable() mutable}
+     * @param max will be set to the largest x, y, and z; must be {@link PointI3#mutable() mutable}
+     * @throws IllegalArgumentException if min or max is not mutable, such as a {@link ConstPointI3} key
+     */
+    public static void bounds(int[] x, int[] y, int[] z, int start, int length, PointI3 min, PointI3 max) {
+        if (!min.mutable() || !max.mutable())
+            throw new IllegalArgumentException("min and max must be mutable points.");
+        int loX = Integer.MAX_VALUE, loY = Integer.MAX_VALUE, loZ = Integer.MAX_VALUE;
+        int hiX = Integer.MIN_VALUE, hiY = Integer.MIN_VALUE, hiZ = Integer.MIN_VALUE;
+        for (int i = start, end = start + length; i < end; i++) {
+            loX = Math.min(loX, x[i]);
+            hiX = Math.max(hiX, x[i]);
+            loY = Math.min(loY, y[i]);
+            hiY = Math.max(hiY, y[i]);
+            loZ = Math.min(loZ, z[i]);
+            hiZ = Math.max(hiZ, z[i]);
+        }
+        min.set(loX, loY, loZ);
+        max.set(hiX, hiY, hiZ);
+    }
+
+    /**
+     * Adds up one block of at most {@link #REDUCTION_BLOCK} items, in order, using double precision.
+     * @param a the items to add
+     * @param start the first index to add
+     * @param end the index after the last one to add
+     * @return the total of the block
+     */
+    static double blockSum(float[] a, int start, int end) {
+        double sum = 0.0;
+        for (int i = start; i < end; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Adds up the floats in the range, using double precision, in blocks of {@link #REDUCTION_BLOCK} items.
+     * This gives exactly the same result as {@link ParallelBulk#sum(float[], int, int)}.
+     * @param a the items to add
+     * @param start the first index to process
+     * @param length how many items to process
+     * @return the total of the items in the range
+     */
+    public static double sum(float[] a, int start, int length) {
+        double sum = 0.0;
+        for (int i = start, end = start + length; i < end; i += REDUCTION_BLOCK) {
+            sum += blockSum(a, i, Math.min(end, i + REDUCTION_BLOCK));
+        }
+        return sum;
+    }
+
+    /**
+     * Finds the average position of the 3D points in the range, storing it in {@code out}. This gives exactly the
+     * same result as {@link ParallelBulk#centroid(float[], float[], float[], int, int, PointF3)}. If length is 0,
+     * out is set to (0,0,0).
+     * @param x x-components
+     * @param y y-components
+     * @param z z-components
+     * @param start the first index to process
+     * @param length how many points to process
+     * @param out will be set to the centroid
+     * @return out, after modifications
+     */
+    public static PointF3 centroid(float[] x, float[] y, float[] z, int start, int length, PointF3 out) {
+        if (length <= 0)
+            return out.set(0f, 0f, 0f);
+        return out.set((float) (sum(x, start, length) / length), (float) (sum(y, start, length) / length),
+                (float) (sum(z, start, length) / length));
+    }
+
+    /**
+     * Fills {@code order} from {@code start} to {@code start + length} with the indices in that range, sorted so
+     * their {@code keys} are in ascending unsigned order, such as for Morton codes from
+     * {@link #morton(int[], int[], int[], long[], int, int)}. The keys are not changed. The sort is stable, so items
+     * with equal keys stay in index order. This allocates one int array of size length as scratch space.
+     * @param keys the key for each index; only the range is read
+     * @param order will be filled with indices from the range, in sorted order
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public static void sortByKey(long[] keys, int[] order, int start, int length) {
+        final int end = start + length;
+        for (int i = start; i < end; i++) {
+            order[i] = i;
+        }
+        mergeSort(keys, order, new int[length], start, start, end);
+    }
+
+    /**
+     * Stable top-down merge sort of {@code order[from, to)} by unsigned keys, using {@code scratch} for merging.
+     * Scratch is indexed from {@code offset}, so {@code scratch[i - offset]} corresponds to {@code order[i]}.
+     */
+    static void mergeSort(long[] keys, int[] order, int[] scratch, int offset, int from, int to) {
+        if (to - from <= 32) {
+            insertionSort(keys, order, from, to);
+            return;
+        }
+        final int mid = from + to >>> 1;
+        mergeSort(keys, order, scratch, offset, from, mid);
+        mergeSort(keys, order, scratch, offset, mid, to);
+        merge(keys, order, scratch, offset, from, mid, to);
+    }
+
+    static void insertionSort(long[] keys, int[] order, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            final int item = order[i];
+            final long key = keys[item];
+            int j = i - 1;
+            while (j >= from && Long.compareUnsigned(keys[order[j]], key) > 0) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = item;
+        }
+    }
+
+    static void merge(long[] keys, int[] order, int[] scratch, int offset, int from, int mid, int to) {
+        if (Long.compareUnsigned(keys[order[mid - 1]], keys[order[mid]]) <= 0)
+            return;
+        System.arraycopy(order, from, scratch, from - offset, to - from);
+        int a = from, b = mid, o = from;
+        while (a < mid && b < to) {
+            final int ia = scratch[a - offset], ib = scratch[b - offset];
+            if (Long.compareUnsigned(keys[ib], keys[ia]) < 0) {
+                order[o++] = ib;
+                b++;
+            } else {
+                order[o++] = ia;
+                a++;
+            }
+        }
+        while (a < mid) order[o++] = scratch[a++ - offset];
+        while (b < to) order[o++] = scratch[b++ - offset];
+    }
+
+    /**
+     * Sorts the keys in the range in-place, in ascending unsigned order, and fills {@code order} with the index each
+     * key came from. This is a stable least-significant-digit radix sort, 8 bits at a time, which skips any pass
+     * where every key has the same byte; it gives the same order as {@link #sortByKey(long[], int[], int, int)}, but
+     * is usually much faster on large inputs. Keys would typically be Morton codes from
+     * {@link #morton(int[], int[], int[], long[], int, int)} or Hilbert codes from
+     * {@link #hilbert(int[], int[], long[], int, int)}. Use {@link #permute(float[], int[], int, int)} and its
+     * overloads to put component arrays in the same order afterward, or
+     * {@link #radixSort(long[], int[], int, int, float[]...)} to do both at once.
+     * This allocates scratch space for one long and one int per item.
+     * @param keys the keys to sort; the range will be modified
+     * @param order will be filled with the original index of each sorted key
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public static void radixSort(long[] keys, int[] order, int start, int length) {
+        final int end = start + length;
+        for (int i = start; i < end; i++) {
+            order[i] = i;
+        }
+        if (length < 2) return;
+        long[] srcK = keys, dstK = new long[length];
+        int[] srcO = order, dstO = new int[length];
+        int srcOff = start, dstOff = 0;
+        final int[] count = new int[256];
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(count, 0);
+            for (int i = srcOff, e = srcOff + length; i < e; i++) {
+                count[(int) (srcK[i] >>> shift) & 255]++;
+            }
+            if (count[(int) (srcK[srcOff] >>> shift) & 255] == length) continue;
+            for (int b = 0, sum = 0; b < 256; b++) {
+                final int c = count[b];
+                count[b] = sum;
+                sum += c;
+            }
+            for (int i = srcOff, e = srcOff + length; i < e; i++) {
+                final long k = srcK[i];
+                final int d = dstOff + count[(int) (k >>> shift) & 255]++;
+                dstK[d] = k;
+                dstO[d] = srcO[i];
+            }
+            final long[] tk = srcK; srcK = dstK; dstK = tk;
+            final int[] to = srcO; srcO = dstO; dstO = to;
+            final int toff = srcOff; srcOff = dstOff; dstOff = toff;
+        }
+        if (srcK != keys) {
+            System.arraycopy(srcK, srcOff, keys, start, length);
+            System.arraycopy(srcO, srcOff, order, start, length);
+        }
+    }
+
+    /**
+     * Radix-sorts the keys with {@link #radixSort(long[], int[], int, int)}, then puts each float array in
+     * {@code components} into the same order with {@link #permute(float[], int[], int, int)}. The components could be
+     * the x, y, and z arrays of PointF3 data, for instance.
+     * @param keys the keys to sort; the range will be modified
+     * @param order will be filled with the original index of each sorted key
+     * @param start the first index to process
+     * @param length how many items to process
+     * @param components each of these arrays will have its range permuted in-place to match the sorted keys
+     */
+    public static void radixSort(long[] keys, int[] order, int start, int length, float[]... components) {
+        radixSort(keys, order, start, length);
+        for (float[] c : components) {
+            permute(c, order, start, length);
+        }
+    }
+
+    /**
+     * Radix-sorts the keys with {@link #radixSort(long[], int[], int, int)}, then puts each int array in
+     * {@code components} into the same order with {@link #permute(int[], int[], int, int)}. The components could be
+     * the x and y arrays of PointI2 data, for instance.
+     * @param keys the keys to sort; the range will be modified
+     * @param order will be filled with the original index of each sorted key
+     * @param start the first index to process
+     * @param length how many items to process
+     * @param components each of these arrays will have its range permuted in-place to match the sorted keys
+     */
+    public static void radixSort(long[] keys, int[] order, int start, int length, int[]... components) {
+        radixSort(keys, order, start, length);
+        for (int[] c : components) {
+            permute(c, order, start, length);
+        }
+    }
+
+    /**
+     * Rearranges the range of {@code data} in-place so that {@code data[i]} becomes what was in
+     * {@code data[order[i]]}, as with the order produced by {@link #radixSort(long[], int[], int, int)}. This follows
+     * each cycle of the permutation, marking visited indices by temporarily flipping the bits of entries in order;
+     * order is restored before this returns. This doesn't allocate.
+     * @param data the array to permute in-place
+     * @param order a permutation of the indices in the range
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public static void permute(float[] data, int[] order, int start, int length) {
+        final int end = start + length;
+        for (int i = start; i < end; i++) {
+            if (order[i] < 0) continue;
+            final float first = data[i];
+            int j = i;
+            while (true) {
+                final int k = order[j];
+                order[j] = ~k;
+                if (k == i) {
+                    data[j] = first;
+                    break;
+                }
+                data[j] = data[k];
+                j = k;
+            }
+        }
+        for (int i = start; i < end; i++) {
+            order[i] = ~order[i];
+        }
+    }
+
+    /**
+     * Rearranges the range of {@code data} in-place so that {@code data[i]} becomes what was in
+     * {@code data[order[i]]}. See {@link #permute(float[], int[], int, int)}.
+     * @param data the array to permute in-place
+     * @param order a permutation of the indices in the range
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public static void permute(int[] data, int[] order, int start, int length) {
+        final int end = start + length;
+        for (int i = start; i < end; i++) {
+            if (order[i] < 0) continue;
+            final int first = data[i];
+            int j = i;
+            while (true) {
+                final int k = order[j];
+                order[j] = ~k;
+                if (k == i) {
+                    data[j] = first;
+                    break;
+                }
+                data[j] = data[k];
+                j = k;
+            }
+        }
+        for (int i = start; i < end; i++) {
+            order[i] = ~order[i];
+        }
+    }
+
+    /**
+     * Rearranges the range of {@code data} in-place so that {@code data[i]} becomes what was in
+     * {@code data[order[i]]}. See {@link #permute(float[], int[], int, int)}.
+     * @param data the array to permute in-place
+     * @param order a permutation of the indices in the range
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public static void permute(long[] data, int[] order, int start, int length) {
+        final int end = start + length;
+        for (int i = start; i < end; i++) {
+            if (order[i] < 0) continue;
+            final long first = data[i];
+            int j = i;
+            while (true) {
+                final int k = order[j];
+                order[j] = ~k;
+                if (k == i) {
+                    data[j] = first;
+                    break;
+                }
+                data[j] = data[k];
+                j = k;
+            }
+        }
+        for (int i = start; i < end; i++) {
+            order[i] = ~order[i];
+        }
+    }
+
+    /**
+     * Stores the 2D Hilbert curve index ({@link #hilbert(int, int)}) for each point in the range.
+     * @param x x-components
+     * @param y y-components
+     * @param out where Hilbert codes are stored
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public static void hilbert(int[] x, int[] y, long[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = hilbert(x[i], y[i]);
+        }
+    }
+
+    /**
+     * Gets the distance along a 2D Hilbert curve covering all pairs of ints, for the point x,y. Like
+     * {@link #morton(int, int)}, the sign bit of each coordinate is flipped first and results should be compared as
+     * unsigned longs. Points next to each other in Hilbert order are always adjacent in space, which is not true of
+     * Morton order, so Hilbert order usually keeps nearby points together a little better; it is slower to compute.
+     * @param x any int
+     * @param y any int
+     * @return a 64-bit Hilbert code; compare these as unsigned
+     */
+    public static long hilbert(int x, int y) {
+        long px = (x ^ 0x80000000) & 0xFFFFFFFFL, py = (y ^ 0x80000000) & 0xFFFFFFFFL, d = 0L;
+        for (long s = 0x80000000L; s != 0L; s >>>= 1) {
+            final long rx = (px & s) == 0L ? 0L : 1L, ry = (py & s) == 0L ? 0L : 1L;
+            d += s * s * ((3L * rx) ^ ry);
+            if (ry == 0L) {
+                if (rx == 1L) {
+                    px = ~px;
+                    py = ~py;
+                }
+                final long t = px;
+                px = py;
+                py = t;
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Interleaves the bits of x and y to get a 2D Morton code (also called a Z-order code), with bits of x in the even
+     * positions and bits of y in the odd positions. The sign bit of each coordinate is flipped first, so when the
+     * results are compared as unsigned longs (such as with {@link Long#compareUnsigned(long, long)}), negative
+     * coordinates come before positive ones. Every pair of ints produces a different result.
+     * @param x any int
+     * @param y any int
+     * @return a 64-bit Morton code; compare these as unsigned
+     */
+    public static long morton(int x, int y) {
+        return spread2((x ^ 0x80000000) & 0xFFFFFFFFL) | spread2((y ^ 0x80000000) & 0xFFFFFFFFL) << 1;
+    }
+
+    /**
+     * Interleaves the low 21 bits of x, y, and z to get a 3D Morton code (also called a Z-order code), with bits of x
+     * at positions 0, 3, 6..., y at 1, 4, 7..., and z at 2, 5, 8.... The 21-bit sign bit of each coordinate is flipped
+     * first, so coordinates from -1048576 to 1048575 are handled correctly, with negative coordinates sorting before
+     * positive ones. Results are never negative, so they can be compared as signed or unsigned.
+     * @param x an int between -1048576 and 1048575, inclusive
+     * @param y an int between -1048576 and 1048575, inclusive
+     * @param z an int between -1048576 and 1048575, inclusive
+     * @return a 63-bit Morton code
+     */
+    public static long morton(int x, int y, int z) {
+        return spread3((x ^ 0x100000) & 0x1FFFFFL)
+                | spread3((y ^ 0x100000) & 0x1FFFFFL) << 1
+                | spread3((z ^ 0x100000) & 0x1FFFFFL) << 2;
+    }
+
+    private static long spread2(long v) {
+        v = (v | v << 16) & 0x0000FFFF0000FFFFL;
+        v = (v | v << 8) & 0x00FF00FF00FF00FFL;
+        v = (v | v << 4) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | v << 2) & 0x3333333333333333L;
+        return (v | v << 1) & 0x5555555555555555L;
+    }
+
+    private static long spread3(long v) {
+        v = (v | v << 32) & 0x001F00000000FFFFL;
+        v = (v | v << 16) & 0x001F0000FF0000FFL;
+        v = (v | v << 8) & 0x100F00F00F00F00FL;
+        v = (v | v << 4) & 0x10C30C30C30C30C3L;
+        return (v | v << 2) & 0x1249249249249249L;
+    }
+}
@@ -0,0 +1,298 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Connected-component labelling and flood fill on 2D or 3D grids, without recursion and without allocating per cell.
+ * Cells are indexed by {@code x + width * (y + height * z)}, so a 2D grid is just a grid with a depth of 1, and its
+ * indices are {@code x + width * y}. Connectivity is either through faces only (4 neighbors in 2D, 6 in 3D) or through
+ * faces, edges, and corners (8 neighbors in 2D, 26 in 3D), chosen with a {@code moore} parameter as in
+ * {@link Neighborhood}.
+ * <br>
+ * {@link #label(boolean[], boolean, int[])} finds every component at once, with one pass that joins each cell to its
+ * earlier neighbors in a union-find forest and a second pass that gives each component a compact label, in the order
+ * their first cells appear. The size and bounding box of each component are recorded as the labels are written, and
+ * can be read back with {@link #size(int)} and {@link #bounds(int, BoxI3)}. {@link #flood(boolean[], int, int, int,
+ * boolean, int[], int)} fills just one component, a horizontal run at a time, using a reused stack of runs.
+ * <br>
+ * All scratch space belongs to this object, so it should only be used by one thread at a time.
+ */
+public class ConnectedComponents {
+    /** The number of cells along the x-axis. */
+    public final int width;
+    /** The number of cells along the y-axis. */
+    public final int height;
+    /** The number of cells along the z-axis; 1 for 2D grids. */
+    public final int depth;
+
+    private final int[] parents;
+    private final IntArray sizes = new IntArray();
+    /** Six ints per component: minX, minY, minZ, maxX, maxY, maxZ. */
+    private final IntArray bounds = new IntArray();
+    /** Pending runs for flood fills, as three ints each: x, y, z. */
+    private final IntArray stack = new IntArray();
+
+    /**
+     * Creates a ConnectedComponents for 2D grids with the given size.
+     * @param width the number of cells along the x-axis
+     * @param height the number of cells along the y-axis
+     */
+    public ConnectedComponents(int width, int height) {
+        this(width, height, 1);
+    }
+
+    /**
+     * Creates a ConnectedComponents for 3D grids with the given size.
+     * @param width the number of cells along the x-axis
+     * @param height the number of cells along the y-axis
+     * @param depth the number of cells along the z-axis
+     */
+    public ConnectedComponents(int width, int height, int depth) {
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        parents = new int[width * height * depth];
+    }
+
+    /**
+     * Labels every connected group of true cells. Each cell in a component gets the same label, from 0 to one less
+     * than the number of components; false cells get -1. Components are numbered in the order their lowest-index cell
+     * appears.
+     * @param cells true for cells that belong to some component, indexed by {@code x + width * (y + height * z)}; will
+     *              not be modified
+     * @param moore true to connect cells through faces, edges, and corners; false to connect them only through faces
+     * @param labels will be filled with the label of every cell
+     * @return how many components were found
+     */
+    public int label(boolean[] cells, boolean moore, int[] labels) {
+        final int size = width * height * depth;
+        for (int z = 0, i = 0; z < depth; z++) {
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++, i++) {
+                    parents[i] = i;
+                    if (cells[i]) joinEarlier(cells, moore, i, x, y, z);
+                }
+            }
+        }
+        sizes.clear();
+        bounds.clear();
+        for (int z = 0, i = 0; z < depth; z++) {
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++, i++) {
+                    if (!cells[i]) {
+                        labels[i] = -1;
+                        continue;
+                    }
+                    final int root = find(i);
+                    final int label;
+                    if (root == i) {
+                        // roots are always the lowest index in their component, so this is its first cell
+                        label = sizes.size;
+                        sizes.add(0);
+                        bounds.add(x, y, z);
+                        bounds.add(x, y, z);
+                    } else {
+                        label = labels[root];
+                        final int[] b = bounds.items;
+                        final int j = label * 6;
+                        b[j] = Math.min(b[j], x);
+                        b[j + 1] = Math.min(b[j + 1], y);
+                        b[j + 3] = Math.max(b[j + 3], x);
+                        b[j + 4] = Math.max(b[j + 4], y);
+                        b[j + 5] = Math.max(b[j + 5], z);
+                    }
+                    labels[i] = label;
+                    sizes.items[label]++;
+                }
+            }
+        }
+        return sizes.size;
+    }
+
+    /**
+     * Joins cell i with each true neighbor that comes before it in index order.
+     */
+    private void joinEarlier(boolean[] cells, boolean moore, int i, int x, int y, int z) {
+        for (int dz = -1; dz <= 0; dz++) {
+            final int nz = z + dz;
+            if (nz < 0) continue;
+            for (int dy = -1; dy <= 1; dy++) {
+                final int ny = y + dy;
+                if (ny < 0 || ny >= height) continue;
+                for (int dx = -1; dx <= 1; dx++) {
+                    if (dz == 0 && (dy > 0 || dy == 0 && dx >= 0)) break;
+                    final int nx = x + dx;
+                    if (nx < 0 || nx >= width || (!moore && (dx & 1) + (dy & 1) + (dz & 1) != 1)) continue;
+                    final int n = i + dx + width * (dy + height * dz);
+                    if (cells[n]) union(i, n);
+                }
+            }
+        }
+    }
+
+    private int find(int i) {
+        while (parents[i] != i) {
+            // path halving
+            final int p = parents[parents[i]];
+            parents[i] = p;
+            i = p;
+        }
+        return i;
+    }
+
+    private void union(int a, int b) {
+        a = find(a);
+        b = find(b);
+        if (a < b) parents[b] = a;
+        else if (b < a) parents[a] = b;
+    }
+
+    /**
+     * @return how many components the last call to {@link #label(boolean[], boolean, int[])} found
+     */
+    public int count() {
+        return sizes.size;
+    }
+
+    /**
+     * @param label a label from the last call to {@link #label(boolean[], boolean, int[])}
+     * @return how many cells have that label
+     */
+    public int size(int label) {
+        return sizes.get(label);
+    }
+
+    /**
+     * @return the label of the component with the most cells from the last labelling, or -1 if there were none
+     */
+    public int largest() {
+        int best = -1;
+        for (int i = 0, most = 0; i < sizes.size; i++) {
+            if (sizes.items[i] > most) {
+                most = sizes.items[i];
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Sets out to the smallest box containing every cell with the given label, ignoring z.
+     * @param label a label from the last call to {@link #label(boolean[], boolean, int[])}
+     * @param out will be modified
+     * @return out, after modifications
+     */
+    public BoxI2 bounds(int label, BoxI2 out) {
+        final int[] b = bounds.items;
+        final int j = label * 6;
+        out.min.seti(b[j], b[j + 1]);
+        out.max.seti(b[j + 3], b[j + 4]);
+        return out;
+    }
+
+    /**
+     * Sets out to the smallest box containing every cell with the given label.
+     * @param label a label from the last call to {@link #label(boolean[], boolean, int[])}
+     * @param out will be modified
+     * @return out, after modifications
+     */
+    public BoxI3 bounds(int label, BoxI3 out) {
+        final int[] b = bounds.items;
+        final int j = label * 6;
+        out.min.seti(b[j], b[j + 1], b[j + 2]);
+        out.max.seti(b[j + 3], b[j + 4], b[j + 5]);
+        return out;
+    }
+
+    /**
+     * Flood-fills the component containing x,y (in a 2D grid), writing label into labels for every cell reached.
+     * @param cells true for cells that can be filled; will not be modified
+     * @param x the x-coordinate to start from
+     * @param y the y-coordinate to start from
+     * @param moore true to spread through diagonals too; false to spread only orthogonally
+     * @param labels cells already holding label are treated as filled; each newly filled cell is set to label
+     * @param label the value to write
+     * @return how many cells were newly filled
+     */
+    public int flood(boolean[] cells, int x, int y, boolean moore, int[] labels, int label) {
+        return flood(cells, x, y, 0, moore, labels, label);
+    }
+
+    /**
+     * Flood-fills the component containing start (in a 2D grid), writing label into labels for every cell reached.
+     * @param cells true for cells that can be filled; will not be modified
+     * @param start the cell to start from; will not be modified
+     * @param moore true to spread through diagonals too; false to spread only orthogonally
+     * @param labels cells already holding label are treated as filled; each newly filled cell is set to label
+     * @param label the value to write
+     * @return how many cells were newly filled
+     */
+    public int flood(boolean[] cells, PointI2 start, boolean moore, int[] labels, int label) {
+        return flood(cells, start.x, start.y, 0, moore, labels, label);
+    }
+
+    /**
+     * Flood-fills the component containing start, writing label into labels for every cell reached.
+     * @param cells true for cells that can be filled; will not be modified
+     * @param start the cell to start from; will not be modified
+     * @param moore true to spread through faces, edges, and corners; false to spread only through faces
+     * @param labels cells already holding label are treated as filled; each newly filled cell is set to label
+     * @param label the value to write
+     * @return how many cells were newly filled
+     */
+    public int flood(boolean[] cells, PointI3 start, boolean moore, int[] labels, int label) {
+        return flood(cells, start.x, start.y, start.z, moore, labels, label);
+    }
+
+    /**
+     * Flood-fills the component containing x,y,z, writing label into labels for every cell reached. This fills one
+     * horizontal run at a time, then looks for unfilled runs in the rows next to it, so the stack holds runs rather
+     * than cells. Nothing happens if the start is outside the grid or not fillable.
+     * @param cells true for cells that can be filled, indexed by {@code x + width * (y + height * z)}; will not be
+     *              modified
+     * @param x the x-coordinate to start from
+     * @param y the y-coordinate to start from
+     * @param z the z-coordinate to start from; 0 for 2D grids
+     * @param moore true to spread through faces, edges, and corners; false to spread only through faces
+     * @param labels cells already holding label are treated as filled; each newly filled cell is set to label
+     * @param label the value to write
+     * @return how many cells were newly filled
+     */
+    public int flood(boolean[] cells, int x, int y, int z, boolean moore, int[] labels, int label) {
+        if (x < 0 || y < 0 || z < 0 || x >= width || y >= height || z >= depth) return 0;
+        int filled = 0;
+        stack.clear();
+        stack.add(x, y, z);
+        while (stack.size > 0) {
+            stack.size -= 3;
+            final int sx = stack.items[stack.size], sy = stack.items[stack.size + 1], sz = stack.items[stack.size + 2];
+            final int row = width * (sy + height * sz);
+            if (!cells[row + sx] || labels[row + sx] == label) continue;
+            int lx = sx, rx = sx;
+            while (lx > 0 && cells[row + lx - 1] && labels[row + lx - 1] != label) lx--;
+            while (rx < width - 1 && cells[row + rx + 1] && labels[row + rx + 1] != label) rx++;
+            for (int i = row + lx, end = row + rx; i <= end; i++) {
+                labels[i] = label;
+            }
+            filled += rx - lx + 1;
+            final int from = moore ? Math.max(lx - 1, 0) : lx, to = moore ? Math.min(rx + 1, width - 1) : rx;
+            for (int dz = -1; dz <= 1; dz++) {
+                final int nz = sz + dz;
+                if (nz < 0 || nz >= depth) continue;
+                for (int dy = -1; dy <= 1; dy++) {
+                    final int ny = sy + dy;
+                    if (ny < 0 || ny >= height || (dy | dz) == 0 || (!moore && dy != 0 && dz != 0)) continue;
+                    // push the first cell of each fillable run in the neighboring row
+                    final int nRow = width * (ny + height * nz);
+                    boolean inRun = false;
+                    for (int nx = from; nx <= to; nx++) {
+                        final boolean open = cells[nRow + nx] && labels[nRow + nx] != label;
+                        if (open && !inRun) stack.add(nx, ny, nz);
+                        inRun = open;
+                    }
+                }
+            }
+        }
+        return filled;
+    }
+}
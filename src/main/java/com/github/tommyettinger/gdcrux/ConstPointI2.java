@@ -0,0 +1,246 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonValue;
+import com.github.tommyettinger.crux.Point2;
+
+/**
+ * A {@link PointI2} that never changes, meant for use as a read-only key. It is equal to any PointI2 with the same
+ * components, and has the same hash code, so it can be looked up in maps and sets that hold either kind. Methods that
+ * would modify a PointI2 instead return a new, mutable PointI2 with the result, and {@link #mutable()} returns
+ * false. APIs in this library that write into points they are given return a new point instead of changing a
+ * ConstPointI2 passed as {@code out}, and replace ConstPointI2 items in arrays they fill with new points.
+ * <br>
+ * The public fields inherited from {@link GridPoint2} can't be made final, so they must not be assigned directly. If
+ * the fields of an interned key are changed anyway, {@link #of(int, int)} notices the next time it looks that key up,
+ * and interns a fresh key in its place, so the damage stays with whoever holds the changed instance. Java serialization
+ * keeps keys interned; libGDX Json reads keys into new instances, which are equal to the interned ones.
+ * <br>
+ * {@link #of(int, int)} (also available as {@link PointMaker#key(int, int)}) returns the same interned
+ * instance every time for components from -128 to 127, like {@link Integer#valueOf(int)}, so those keys allocate
+ * nothing and can often be compared by identity; other components get a new instance. Each interned key is
+ * created the first time it is asked for. If two threads ask for a new key at once, they may each get their own
+ * instance, and one of them is kept.
+ */
+public final class ConstPointI2 extends PointI2 {
+    private static final int LOW = 128, BITS = 8;
+    private static final ConstPointI2[] CACHE = new ConstPointI2[1 << BITS * 2];
+
+    /**
+     * Only used by libGDX Json, which fills in the components with {@link #read(Json, JsonValue)}.
+     */
+    private ConstPointI2() {
+        super();
+    }
+
+    private ConstPointI2(int x, int y) {
+        super(x, y);
+    }
+
+    /**
+     * Gets a ConstPointI2 with the given components, which is interned if every component is from -128 to 127.
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @return a ConstPointI2, which is the same object for the same components in the interned range
+     */
+    public static ConstPointI2 of(int x, int y) {
+        if ((x + LOW | y + LOW) >>> BITS == 0) {
+            final int i = (y + LOW) << BITS | x + LOW;
+            final ConstPointI2 key = CACHE[i];
+            // null until first requested, and different if someone assigned to the fields of an interned key
+            if (key != null && key.x == x && key.y == y) return key;
+            return CACHE[i] = new ConstPointI2(x, y);
+        }
+        return new ConstPointI2(x, y);
+    }
+
+    /**
+     * Gets a ConstPointI2 with the same components as point, which may be point itself if it is already a ConstPointI2.
+     * @param point any PointI2; will not be modified
+     * @return a ConstPointI2 equal to point
+     */
+    public static ConstPointI2 of(PointI2 point) {
+        if (point instanceof ConstPointI2) return (ConstPointI2) point;
+        return of(point.x, point.y);
+    }
+
+    /**
+     * @return false, because this never changes
+     */
+    @Override
+    public boolean mutable() {
+        return false;
+    }
+
+    /**
+     * @return a new, mutable PointI2 with the same components
+     */
+    @Override
+    public PointI2 cpy() {
+        return new PointI2(this);
+    }
+
+    @Override
+    public PointI2 set(PointI2 point) {
+        return new PointI2(this).set(point);
+    }
+
+    @Override
+    public PointI2 sub(PointI2 point) {
+        return new PointI2(this).sub(point);
+    }
+
+    @Override
+    public PointI2 add(PointI2 point) {
+        return new PointI2(this).add(point);
+    }
+
+    @Override
+    public PointI2 scl(PointI2 point) {
+        return new PointI2(this).scl(point);
+    }
+
+    @Override
+    public PointI2 div(PointI2 point) {
+        return new PointI2(this).div(point);
+    }
+
+    @Override
+    public PointI2 setZero() {
+        return new PointI2(this).setZero();
+    }
+
+    @Override
+    public PointI2 x(float next) {
+        return new PointI2(this).x(next);
+    }
+
+    @Override
+    public PointI2 xi(int next) {
+        return new PointI2(this).xi(next);
+    }
+
+    @Override
+    public PointI2 y(float next) {
+        return new PointI2(this).y(next);
+    }
+
+    @Override
+    public PointI2 yi(int next) {
+        return new PointI2(this).yi(next);
+    }
+
+    @Override
+    public PointI2 set(float x, float y) {
+        return new PointI2(this).set(x, y);
+    }
+
+    @Override
+    public PointI2 seti(int x, int y) {
+        return new PointI2(this).seti(x, y);
+    }
+
+    @Override
+    public PointI2 set(GridPoint2 point) {
+        return new PointI2(this).set(point);
+    }
+
+    @Override
+    public PointI2 set(int x, int y) {
+        return new PointI2(this).set(x, y);
+    }
+
+    @Override
+    public PointI2 set(Point2<?> pt) {
+        return new PointI2(this).set(pt);
+    }
+
+    @Override
+    public PointI2 add(GridPoint2 other) {
+        return new PointI2(this).add(other);
+    }
+
+    @Override
+    public PointI2 add(int x, int y) {
+        return new PointI2(this).add(x, y);
+    }
+
+    @Override
+    public PointI2 plus(float value) {
+        return new PointI2(this).plus(value);
+    }
+
+    @Override
+    public PointI2 sub(GridPoint2 other) {
+        return new PointI2(this).sub(other);
+    }
+
+    @Override
+    public PointI2 sub(int x, int y) {
+        return new PointI2(this).sub(x, y);
+    }
+
+    @Override
+    public PointI2 minus(float value) {
+        return new PointI2(this).minus(value);
+    }
+
+    @Override
+    public PointI2 scl(Point2<?> pt) {
+        return new PointI2(this).scl(pt);
+    }
+
+    @Override
+    public PointI2 times(float value) {
+        return new PointI2(this).times(value);
+    }
+
+    @Override
+    public PointI2 divide(float scalar) {
+        return new PointI2(this).divide(scalar);
+    }
+
+    @Override
+    public PointI2 scl(float ox, float oy) {
+        return new PointI2(this).scl(ox, oy);
+    }
+
+    @Override
+    public PointI2 mul(Point2<?> pt) {
+        return new PointI2(this).mul(pt);
+    }
+
+    @Override
+    public PointI2 mul(float value) {
+        return new PointI2(this).mul(value);
+    }
+
+    @Override
+    public PointI2 mul(float ox, float oy) {
+        return new PointI2(this).mul(ox, oy);
+    }
+
+    @Override
+    public PointI2 setAt(int index, int value) {
+        return new PointI2(this).setAt(index, value);
+    }
+
+    @Override
+    public PointI2 lerp(Point2<?> target, float alpha) {
+        return new PointI2(this).lerp(target, alpha);
+    }
+
+    @Override
+    public PointI2 fromString(String s) {
+        return new PointI2().fromString(s);
+    }
+
+    /**
+     * Replaces a key read by Java serialization with the interned key for its components, if there is one.
+     * @return the result of {@link #of(int, int)} for this key's components
+     */
+    private Object readResolve() {
+        return of(x, y);
+    }
+}
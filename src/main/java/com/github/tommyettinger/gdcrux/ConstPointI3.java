@@ -0,0 +1,257 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.math.GridPoint3;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonValue;
+import com.github.tommyettinger.crux.Point3;
+
+/**
+ * A {@link PointI3} that never changes, meant for use as a read-only key. It is equal to any PointI3 with the same
+ * components, and has the same hash code, so it can be looked up in maps and sets that hold either kind. Methods that
+ * would modify a PointI3 instead return a new, mutable PointI3 with the result, and {@link #mutable()} returns
+ * false. APIs in this library that write into points they are given return a new point instead of changing a
+ * ConstPointI3 passed as {@code out}, and replace ConstPointI3 items in arrays they fill with new points.
+ * <br>
+ * The public fields inherited from {@link GridPoint3} can't be made final, so they must not be assigned directly. If
+ * the fields of an interned key are changed anyway, {@link #of(int, int, int)} notices the next time it looks that key
+ * up, and interns a fresh key in its place, so the damage stays with whoever holds the changed instance. Java
+ * serialization keeps keys interned; libGDX Json reads keys into new instances, which are equal to the interned ones.
+ * <br>
+ * {@link #of(int, int, int)} (also available as {@link PointMaker#key(int, int, int)}) returns the same interned
+ * instance every time for components from -16 to 15, like {@link Integer#valueOf(int)}, so those keys allocate
+ * nothing and can often be compared by identity; other components get a new instance. Each interned key is
+ * created the first time it is asked for. If two threads ask for a new key at once, they may each get their own
+ * instance, and one of them is kept.
+ */
+public final class ConstPointI3 extends PointI3 {
+    private static final int LOW = 16, BITS = 5;
+    private static final ConstPointI3[] CACHE = new ConstPointI3[1 << BITS * 3];
+
+    /**
+     * Only used by libGDX Json, which fills in the components with {@link #read(Json, JsonValue)}.
+     */
+    private ConstPointI3() {
+        super();
+    }
+
+    private ConstPointI3(int x, int y, int z) {
+        super(x, y, z);
+    }
+
+    /**
+     * Gets a ConstPointI3 with the given components, which is interned if every component is from -16 to 15.
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @param z z-coordinate
+     * @return a ConstPointI3, which is the same object for the same components in the interned range
+     */
+    public static ConstPointI3 of(int x, int y, int z) {
+        if ((x + LOW | y + LOW | z + LOW) >>> BITS == 0) {
+            final int i = ((z + LOW) << BITS | y + LOW) << BITS | x + LOW;
+            final ConstPointI3 key = CACHE[i];
+            // null until first requested, and different if someone assigned to the fields of an interned key
+            if (key != null && key.x == x && key.y == y && key.z == z) return key;
+            return CACHE[i] = new ConstPointI3(x, y, z);
+        }
+        return new ConstPointI3(x, y, z);
+    }
+
+    /**
+     * Gets a ConstPointI3 with the same components as point, which may be point itself if it is already a ConstPointI3.
+     * @param point any PointI3; will not be modified
+     * @return a ConstPointI3 equal to point
+     */
+    public static ConstPointI3 of(PointI3 point) {
+        if (point instanceof ConstPointI3) return (ConstPointI3) point;
+        return of(point.x, point.y, point.z);
+    }
+
+    /**
+     * @return false, because this never changes
+     */
+    @Override
+    public boolean mutable() {
+        return false;
+    }
+
+    /**
+     * @return a new, mutable PointI3 with the same components
+     */
+    @Override
+    public PointI3 cpy() {
+        return new PointI3(this);
+    }
+
+    @Override
+    public PointI3 set(PointI3 point) {
+        return new PointI3(this).set(point);
+    }
+
+    @Override
+    public PointI3 sub(PointI3 point) {
+        return new PointI3(this).sub(point);
+    }
+
+    @Override
+    public PointI3 add(PointI3 point) {
+        return new PointI3(this).add(point);
+    }
+
+    @Override
+    public PointI3 scl(PointI3 point) {
+        return new PointI3(this).scl(point);
+    }
+
+    @Override
+    public PointI3 setZero() {
+        return new PointI3(this).setZero();
+    }
+
+    @Override
+    public PointI3 x(float next) {
+        return new PointI3(this).x(next);
+    }
+
+    @Override
+    public PointI3 xi(int next) {
+        return new PointI3(this).xi(next);
+    }
+
+    @Override
+    public PointI3 y(float next) {
+        return new PointI3(this).y(next);
+    }
+
+    @Override
+    public PointI3 yi(int next) {
+        return new PointI3(this).yi(next);
+    }
+
+    @Override
+    public PointI3 z(float next) {
+        return new PointI3(this).z(next);
+    }
+
+    @Override
+    public PointI3 zi(int next) {
+        return new PointI3(this).zi(next);
+    }
+
+    @Override
+    public PointI3 set(float x, float y, float z) {
+        return new PointI3(this).set(x, y, z);
+    }
+
+    @Override
+    public PointI3 seti(int x, int y, int z) {
+        return new PointI3(this).seti(x, y, z);
+    }
+
+    @Override
+    public PointI3 set(GridPoint3 point) {
+        return new PointI3(this).set(point);
+    }
+
+    @Override
+    public PointI3 set(int x, int y, int z) {
+        return new PointI3(this).set(x, y, z);
+    }
+
+    @Override
+    public PointI3 set(Point3<?> pt) {
+        return new PointI3(this).set(pt);
+    }
+
+    @Override
+    public PointI3 add(GridPoint3 other) {
+        return new PointI3(this).add(other);
+    }
+
+    @Override
+    public PointI3 add(int x, int y, int z) {
+        return new PointI3(this).add(x, y, z);
+    }
+
+    @Override
+    public PointI3 plus(float value) {
+        return new PointI3(this).plus(value);
+    }
+
+    @Override
+    public PointI3 sub(GridPoint3 other) {
+        return new PointI3(this).sub(other);
+    }
+
+    @Override
+    public PointI3 sub(int x, int y, int z) {
+        return new PointI3(this).sub(x, y, z);
+    }
+
+    @Override
+    public PointI3 minus(float value) {
+        return new PointI3(this).minus(value);
+    }
+
+    @Override
+    public PointI3 scl(Point3<?> pt) {
+        return new PointI3(this).scl(pt);
+    }
+
+    @Override
+    public PointI3 times(float value) {
+        return new PointI3(this).times(value);
+    }
+
+    @Override
+    public PointI3 divide(float scalar) {
+        return new PointI3(this).divide(scalar);
+    }
+
+    @Override
+    public PointI3 scl(float ox, float oy, float oz) {
+        return new PointI3(this).scl(ox, oy, oz);
+    }
+
+    @Override
+    public PointI3 div(PointI3 point) {
+        return new PointI3(this).div(point);
+    }
+
+    @Override
+    public PointI3 mul(Point3<?> pt) {
+        return new PointI3(this).mul(pt);
+    }
+
+    @Override
+    public PointI3 mul(float value) {
+        return new PointI3(this).mul(value);
+    }
+
+    @Override
+    public PointI3 mul(float ox, float oy, float oz) {
+        return new PointI3(this).mul(ox, oy, oz);
+    }
+
+    @Override
+    public PointI3 setAt(int index, int value) {
+        return new PointI3(this).setAt(index, value);
+    }
+
+    @Override
+    public PointI3 lerp(Point3<?> target, float alpha) {
+        return new PointI3(this).lerp(target, alpha);
+    }
+
+    @Override
+    public PointI3 fromString(String s) {
+        return new PointI3().fromString(s);
+    }
+
+    /**
+     * Replaces a key read by Java serialization with the interned key for its components, if there is one.
+     * @return the result of {@link #of(int, int, int)} for this key's components
+     */
+    private Object readResolve() {
+        return of(x, y, z);
+    }
+}
@@ -0,0 +1,748 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.NumberUtils;
+
+import java.util.Arrays;
+
+/**
+ * Convex hulls of 2D and 3D point sets, given as one float array per axis ("structure of arrays", as
+ * {@link BulkMath} uses) or as arrays of {@link PointF2} or {@link PointF3}. Results are indices into the input, written
+ * to a caller-supplied {@link IntArray}, so any data stored alongside the points can be looked up for hull points.
+ * <br>
+ * In 2D, this uses Andrew's monotone chain, which sorts the points by x and then y and walks them twice, taking
+ * O(n log n) time. The hull is given as its corner points in counterclockwise order (with y pointing up), starting at
+ * the point with the lowest x (and lowest y among ties). Points on an edge but not at a corner are left out, and
+ * duplicate points only appear once.
+ * <br>
+ * In 3D, this uses Quickhull, from Barber, Dobkin, and Huhdanpaa, "The Quickhull Algorithm for Convex Hulls", which
+ * grows a hull from a tetrahedron by repeatedly adding the point furthest outside some face. The hull is given as
+ * triangles, three indices per triangle, with each triangle's corners counterclockwise when seen from outside the hull.
+ * Coplanar faces are not merged, so a flat side of the hull may be split into several triangles. If every point is on
+ * one plane, there is no 3D hull, and nothing is written.
+ * <br>
+ * For large inputs (see {@link #filterThreshold}), both first use the Akl-Toussaint heuristic: the points that are
+ * furthest in a few fixed directions (8 in 2D, 14 in 3D) are all on the hull, so any point strictly inside their hull
+ * can't be on it, and is discarded before the main algorithm runs. For evenly spread points, this usually discards
+ * most of the input with a cheap linear scan. Methods that take a {@link ParallelBulk} run that scan, and the 2D sort,
+ * on many threads; this only pays off for inputs with many thousands of points.
+ * <br>
+ * A ConvexHull keeps its scratch space between calls, so it should only be used by one thread at a time.
+ */
+public class ConvexHull {
+    /**
+     * Inputs with at least this many points are filtered with the Akl-Toussaint heuristic before the main algorithm
+     * runs. Filtering never changes the result, only how long it takes to get it.
+     */
+    public int filterThreshold = 256;
+
+    /**
+     * Distances from a plane smaller than this, relative to the size of the coordinates, count as on the plane.
+     */
+    private static final double TOLERANCE = 0x1p-42;
+
+    /**
+     * Directions to find extreme points in; in counterclockwise order for 2D, and along axes and diagonals for 3D.
+     */
+    private static final float[] DIRECTIONS_2 = {-1, 0, -1, -1, 0, -1, 1, -1, 1, 0, 1, 1, 0, 1, -1, 1};
+    private static final float[] DIRECTIONS_3 = {1, 0, 0, -1, 0, 0, 0, 1, 0, 0, -1, 0, 0, 0, 1, 0, 0, -1,
+            1, 1, 1, 1, 1, -1, 1, -1, 1, 1, -1, -1, -1, 1, 1, -1, 1, -1, -1, -1, 1, -1, -1, -1};
+
+    private final IntArray candidates = new IntArray();
+    private final IntArray extremes = new IntArray();
+    private final IntArray polygon = new IntArray();
+    private final int[] extremeIndex = new int[14];
+    private final double[] extremeDot = new double[14];
+    private double[] planes = new double[0];
+    private int planeCount;
+    private long[] keys = new long[0];
+    private int[] order = new int[0];
+    private boolean[] keep = new boolean[0];
+    private float[] px = new float[0], py = new float[0], pz = new float[0];
+
+    private int faceCount;
+    private int[] faceVertices = new int[0], faceNeighbors = new int[0], outside = new int[0], marks = new int[0];
+    private double[] facePlanes = new double[0];
+    private boolean[] dead = new boolean[0];
+    private int[] nextOutside = new int[0];
+    private int mark;
+    private double epsilon;
+    private final IntArray stack = new IntArray();
+    private final IntArray visible = new IntArray();
+    private final IntArray horizon = new IntArray();
+
+    /**
+     * Creates a ConvexHull with {@link #filterThreshold} set to 256.
+     */
+    public ConvexHull() {
+    }
+
+    /**
+     * Finds the 2D convex hull of the points from start to start + length, and writes the indices of its corners to
+     * out, counterclockwise. Out is cleared first.
+     * @param x x-coordinates; will not be modified
+     * @param y y-coordinates; will not be modified
+     * @param start the first index to use
+     * @param length how many points to use
+     * @param out will be cleared and filled with the indices of hull corners, from start to start + length
+     * @return how many hull corners were written to out
+     */
+    public int hull(float[] x, float[] y, int start, int length, IntArray out) {
+        out.clear();
+        if (length <= 0)
+            return 0;
+        if (length >= filterThreshold) {
+            scan(x, y, null, DIRECTIONS_2, start, start + length, extremeIndex, extremeDot, 0);
+            collectExtremes(8);
+            polygonPlanes(x, y);
+            filter(x, y, null, start, length);
+        } else {
+            fill(start, length);
+        }
+        sortKeys(x, y, candidates);
+        BulkMath.sortByKey(keys, order, 0, candidates.size);
+        return chain(x, y, candidates, out);
+    }
+
+    /**
+     * Finds the 2D convex hull of the points from start to start + length, and writes the indices of its corners to
+     * out, counterclockwise. Out is cleared first.
+     * @param points the points to use; will not be modified
+     * @param start the first index to use
+     * @param length how many points to use
+     * @param out will be cleared and filled with the indices of hull corners, from start to start + length
+     * @return how many hull corners were written to out
+     */
+    public int hull(PointF2[] points, int start, int length, IntArray out) {
+        copy(points, start, length);
+        return offset(hull(px, py, 0, length, out), start, out);
+    }
+
+    /**
+     * Finds the 3D convex hull of the points from start to start + length, and writes its triangles to out, as three
+     * indices per triangle. Out is cleared first. If the points are all on one plane, nothing is written.
+     * @param x x-coordinates; will not be modified
+     * @param y y-coordinates; will not be modified
+     * @param z z-coordinates; will not be modified
+     * @param start the first index to use
+     * @param length how many points to use
+     * @param out will be cleared and filled with the indices of triangle corners, from start to start + length
+     * @return how many triangles were written to out, or 0 if the points are coplanar
+     */
+    public int hull(float[] x, float[] y, float[] z, int start, int length, IntArray out) {
+        out.clear();
+        if (length < 4)
+            return 0;
+        if (length >= filterThreshold) {
+            scan(x, y, z, DIRECTIONS_3, start, start + length, extremeIndex, extremeDot, 0);
+            collectExtremes(14);
+            polyhedronPlanes(x, y, z);
+            filter(x, y, z, start, length);
+        } else {
+            fill(start, length);
+        }
+        return quickhull(x, y, z, candidates, out);
+    }
+
+    /**
+     * Finds the 3D convex hull of the points from start to start + length, and writes its triangles to out, as three
+     * indices per triangle. Out is cleared first. If the points are all on one plane, nothing is written.
+     * @param points the points to use; will not be modified
+     * @param start the first index to use
+     * @param length how many points to use
+     * @param out will be cleared and filled with the indices of triangle corners, from start to start + length
+     * @return how many triangles were written to out, or 0 if the points are coplanar
+     */
+    public int hull(PointF3[] points, int start, int length, IntArray out) {
+        copy(points, start, length);
+        final int faces = hull(px, py, pz, 0, length, out);
+        offset(faces, start, out);
+        return faces;
+    }
+
+    /**
+     * Like {@link #hull(float[], float[], int, int, IntArray)}, but finds extreme points, filters, and sorts on many
+     * threads. This gives exactly the same result.
+     * @param parallel runs the parallel steps
+     * @param x x-coordinates; will not be modified
+     * @param y y-coordinates; will not be modified
+     * @param start the first index to use
+     * @param length how many points to use
+     * @param out will be cleared and filled with the indices of hull corners, from start to start + length
+     * @return how many hull corners were written to out
+     */
+    @GwtIncompatible
+    public int hull(ParallelBulk parallel, float[] x, float[] y, int start, int length, IntArray out) {
+        out.clear();
+        if (length <= 0)
+            return 0;
+        if (length >= filterThreshold) {
+            scan(parallel, x, y, null, DIRECTIONS_2, start, length);
+            collectExtremes(8);
+            polygonPlanes(x, y);
+            filter(parallel, x, y, null, start, length);
+        } else {
+            fill(start, length);
+        }
+        final int[] ids = candidates.items;
+        final int count = candidates.size;
+        final long[] k = ensureKeys(count);
+        parallel.forRange(0, count, (s, n) -> {
+            for (int j = s, e = s + n; j < e; j++) {
+                k[j] = key(x[ids[j]], y[ids[j]]);
+            }
+        });
+        parallel.sortByKey(k, order, 0, count);
+        return chain(x, y, candidates, out);
+    }
+
+    /**
+     * Like {@link #hull(float[], float[], float[], int, int, IntArray)}, but finds extreme points and filters on many
+     * threads. This gives exactly the same result.
+     * @param parallel runs the parallel steps
+     * @param x x-coordinates; will not be modified
+     * @param y y-coordinates; will not be modified
+     * @param z z-coordinates; will not be modified
+     * @param start the first index to use
+     * @param length how many points to use
+     * @param out will be cleared and filled with the indices of triangle corners, from start to start + length
+     * @return how many triangles were written to out, or 0 if the points are coplanar
+     */
+    @GwtIncompatible
+    public int hull(ParallelBulk parallel, float[] x, float[] y, float[] z, int start, int length, IntArray out) {
+        out.clear();
+        if (length < 4)
+            return 0;
+        if (length >= filterThreshold) {
+            scan(parallel, x, y, z, DIRECTIONS_3, start, length);
+            collectExtremes(14);
+            polyhedronPlanes(x, y, z);
+            filter(parallel, x, y, z, start, length);
+        } else {
+            fill(start, length);
+        }
+        return quickhull(x, y, z, candidates, out);
+    }
+
+    private void copy(PointF2[] points, int start, int length) {
+        if (px.length < length) {
+            px = new float[length];
+            py = new float[length];
+        }
+        for (int i = 0; i < length; i++) {
+            final PointF2 p = points[start + i];
+            px[i] = p.x;
+            py[i] = p.y;
+        }
+    }
+
+    private void copy(PointF3[] points, int start, int length) {
+        if (px.length < length || pz.length < length) {
+            px = new float[length];
+            py = new float[length];
+            pz = new float[length];
+        }
+        for (int i = 0; i < length; i++) {
+            final PointF3 p = points[start + i];
+            px[i] = p.x;
+            py[i] = p.y;
+            pz[i] = p.z;
+        }
+    }
+
+    private static int offset(int count, int start, IntArray out) {
+        final int[] items = out.items;
+        for (int i = 0; i < out.size; i++) {
+            items[i] += start;
+        }
+        return count;
+    }
+
+    private void fill(int start, int length) {
+        candidates.clear();
+        final int[] items = candidates.ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            items[i] = start + i;
+        }
+        candidates.size = length;
+    }
+
+    /**
+     * Finds the points in [from, to) that are furthest in each direction, storing their indices and dot products in
+     * best and dots, starting at offset. Ties go to the lowest index.
+     */
+    static void scan(float[] x, float[] y, float[] z, float[] directions, int from, int to, int[] best,
+                     double[] dots, int offset) {
+        final int dims = z == null ? 2 : 3, count = directions.length / dims;
+        Arrays.fill(best, offset, offset + count, from);
+        Arrays.fill(dots, offset, offset + count, Double.NEGATIVE_INFINITY);
+        for (int i = from; i < to; i++) {
+            final double xi = x[i], yi = y[i], zi = z == null ? 0.0 : z[i];
+            for (int d = 0, o = 0; d < count; d++, o += dims) {
+                double dot = directions[o] * xi + directions[o + 1] * yi;
+                if (dims == 3) dot += directions[o + 2] * zi;
+                if (dot > dots[offset + d]) {
+                    dots[offset + d] = dot;
+                    best[offset + d] = i;
+                }
+            }
+        }
+    }
+
+    @GwtIncompatible
+    private void scan(ParallelBulk parallel, float[] x, float[] y, float[] z, float[] directions, int start,
+                      int length) {
+        final int count = directions.length / (z == null ? 2 : 3);
+        final int blocks = (length + BulkMath.REDUCTION_BLOCK - 1) / BulkMath.REDUCTION_BLOCK;
+        final int[] best = new int[blocks * count];
+        final double[] dots = new double[blocks * count];
+        parallel.forBlocks(start, length, (b, from, to) -> scan(x, y, z, directions, from, to, best, dots, b * count));
+        for (int d = 0; d < count; d++) {
+            extremeIndex[d] = best[d];
+            extremeDot[d] = dots[d];
+            for (int b = 1; b < blocks; b++) {
+                if (dots[b * count + d] > extremeDot[d]) {
+                    extremeDot[d] = dots[b * count + d];
+                    extremeIndex[d] = best[b * count + d];
+                }
+            }
+        }
+    }
+
+    private void collectExtremes(int count) {
+        extremes.clear();
+        for (int d = 0; d < count; d++) {
+            if (!extremes.contains(extremeIndex[d]))
+                extremes.add(extremeIndex[d]);
+        }
+    }
+
+    /**
+     * Sets the filter to the edges of the 2D hull of the extreme points, if it has any area.
+     */
+    private void polygonPlanes(float[] x, float[] y) {
+        planeCount = 0;
+        sortKeys(x, y, extremes);
+        BulkMath.sortByKey(keys, order, 0, extremes.size);
+        final int n = chain(x, y, extremes, polygon);
+        if (n < 3)
+            return;
+        final int[] p = polygon.items;
+        double maxX = 0.0, maxY = 0.0;
+        for (int i = 0; i < n; i++) {
+            maxX = Math.max(maxX, Math.abs(x[p[i]]));
+            maxY = Math.max(maxY, Math.abs(y[p[i]]));
+        }
+        final double tolerance = (maxX + maxY) * TOLERANCE;
+        for (int i = 0; i < n; i++) {
+            final int a = p[i], b = p[(i + 1) % n];
+            double nx = (double) y[b] - y[a], ny = (double) x[a] - x[b];
+            final double len = Math.sqrt(nx * nx + ny * ny);
+            nx /= len;
+            ny /= len;
+            addPlane(nx, ny, 0.0, nx * x[a] + ny * y[a] - tolerance);
+        }
+    }
+
+    /**
+     * Sets the filter to the faces of the 3D hull of the extreme points, if it has any volume.
+     */
+    private void polyhedronPlanes(float[] x, float[] y, float[] z) {
+        planeCount = 0;
+        final int n = quickhull(x, y, z, extremes, polygon);
+        final int[] p = polygon.items;
+        for (int f = 0; f < n; f++) {
+            final int a = p[f * 3], b = p[f * 3 + 1], c = p[f * 3 + 2];
+            final double ux = (double) x[b] - x[a], uy = (double) y[b] - y[a], uz = (double) z[b] - z[a];
+            final double vx = (double) x[c] - x[a], vy = (double) y[c] - y[a], vz = (double) z[c] - z[a];
+            double nx = uy * vz - uz * vy, ny = uz * vx - ux * vz, nz = ux * vy - uy * vx;
+            final double len = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (len == 0.0)
+                continue;
+            nx /= len;
+            ny /= len;
+            nz /= len;
+            addPlane(nx, ny, nz, nx * x[a] + ny * y[a] + nz * z[a] - epsilon);
+        }
+        polygon.clear();
+    }
+
+    private void addPlane(double nx, double ny, double nz, double offset) {
+        if (planes.length < planeCount * 4 + 4)
+            planes = Arrays.copyOf(planes, Math.max(64, planes.length * 2));
+        final int p = planeCount++ * 4;
+        planes[p] = nx;
+        planes[p + 1] = ny;
+        planes[p + 2] = nz;
+        planes[p + 3] = offset;
+    }
+
+    /**
+     * True if point i is strictly inside every filter plane, so it can't be on the hull.
+     */
+    private boolean inside(float[] x, float[] y, float[] z, int i) {
+        final double xi = x[i], yi = y[i], zi = z == null ? 0.0 : z[i];
+        final double[] pl = planes;
+        for (int p = 0, n = planeCount * 4; p < n; p += 4) {
+            if (pl[p] * xi + pl[p + 1] * yi + pl[p + 2] * zi >= pl[p + 3])
+                return false;
+        }
+        return planeCount > 0;
+    }
+
+    private void filter(float[] x, float[] y, float[] z, int start, int length) {
+        candidates.clear();
+        candidates.ensureCapacity(length);
+        for (int i = start, e = start + length; i < e; i++) {
+            if (!inside(x, y, z, i))
+                candidates.add(i);
+        }
+    }
+
+    /**
+     * Marks which points survive the filter in parallel, counting them per block, then writes each block's survivors
+     * at the offset given by the counts of earlier blocks, so they stay in index order.
+     */
+    @GwtIncompatible
+    private void filter(ParallelBulk parallel, float[] x, float[] y, float[] z, int start, int length) {
+        final int blocks = (length + BulkMath.REDUCTION_BLOCK - 1) / BulkMath.REDUCTION_BLOCK;
+        final int[] counts = new int[blocks + 1];
+        if (keep.length < length)
+            keep = new boolean[length];
+        final boolean[] k = keep;
+        parallel.forBlocks(start, length, (b, from, to) -> {
+            int c = 0;
+            for (int i = from; i < to; i++) {
+                if (k[i - start] = !inside(x, y, z, i))
+                    c++;
+            }
+            counts[b + 1] = c;
+        });
+        for (int b = 0; b < blocks; b++) {
+            counts[b + 1] += counts[b];
+        }
+        candidates.clear();
+        final int[] items = candidates.ensureCapacity(counts[blocks]);
+        parallel.forBlocks(start, length, (b, from, to) -> {
+            int o = counts[b];
+            for (int i = from; i < to; i++) {
+                if (k[i - start])
+                    items[o++] = i;
+            }
+        });
+        candidates.size = counts[blocks];
+    }
+
+    private long[] ensureKeys(int count) {
+        if (keys.length < count) {
+            keys = new long[count];
+            order = new int[count];
+        }
+        return keys;
+    }
+
+    /**
+     * A key that sorts by x, then y, when compared as unsigned; -0f is treated as 0f.
+     */
+    private static long key(float x, float y) {
+        int a = NumberUtils.floatToIntBits(x + 0f), b = NumberUtils.floatToIntBits(y + 0f);
+        a ^= a >> 31 | 0x80000000;
+        b ^= b >> 31 | 0x80000000;
+        return (long) a << 32 | (b & 0xFFFFFFFFL);
+    }
+
+    private void sortKeys(float[] x, float[] y, IntArray ids) {
+        final int[] id = ids.items;
+        final long[] k = ensureKeys(ids.size);
+        for (int j = 0; j < ids.size; j++) {
+            k[j] = key(x[id[j]], y[id[j]]);
+        }
+    }
+
+    private static double cross(float[] x, float[] y, int a, int b, int p) {
+        return ((double) x[b] - x[a]) * ((double) y[p] - y[a]) - ((double) y[b] - y[a]) * ((double) x[p] - x[a]);
+    }
+
+    /**
+     * Andrew's monotone chain over ids, which must already be sorted into {@link #order} by their keys.
+     */
+    private int chain(float[] x, float[] y, IntArray ids, IntArray out) {
+        final int[] id = ids.items, ord = order;
+        final long[] k = keys;
+        int unique = 0;
+        for (int j = 0; j < ids.size; j++) {
+            if (unique == 0 || k[ord[j]] != k[ord[unique - 1]])
+                ord[unique++] = ord[j];
+        }
+        out.clear();
+        out.ensureCapacity(unique + 1);
+        for (int j = 0; j < unique; j++) {
+            final int p = id[ord[j]];
+            while (out.size >= 2 && cross(x, y, out.items[out.size - 2], out.items[out.size - 1], p) <= 0.0)
+                out.size--;
+            out.add(p);
+        }
+        final int lower = out.size + 1;
+        for (int j = unique - 2; j >= 0; j--) {
+            final int p = id[ord[j]];
+            while (out.size >= lower && cross(x, y, out.items[out.size - 2], out.items[out.size - 1], p) <= 0.0)
+                out.size--;
+            out.add(p);
+        }
+        if (out.size > 1)
+            out.size--;
+        return out.size;
+    }
+
+    private int addFace(float[] x, float[] y, float[] z, int[] id, int a, int b, int c) {
+        final int f = faceCount++;
+        if (dead.length < faceCount) {
+            final int cap = Math.max(16, faceCount * 2);
+            faceVertices = Arrays.copyOf(faceVertices, cap * 3);
+            faceNeighbors = Arrays.copyOf(faceNeighbors, cap * 3);
+            facePlanes = Arrays.copyOf(facePlanes, cap * 4);
+            outside = Arrays.copyOf(outside, cap);
+            marks = Arrays.copyOf(marks, cap);
+            dead = Arrays.copyOf(dead, cap);
+        }
+        faceVertices[f * 3] = a;
+        faceVertices[f * 3 + 1] = b;
+        faceVertices[f * 3 + 2] = c;
+        final int ia = id[a], ib = id[b], ic = id[c];
+        final double ux = (double) x[ib] - x[ia], uy = (double) y[ib] - y[ia], uz = (double) z[ib] - z[ia];
+        final double vx = (double) x[ic] - x[ia], vy = (double) y[ic] - y[ia], vz = (double) z[ic] - z[ia];
+        double nx = uy * vz - uz * vy, ny = uz * vx - ux * vz, nz = ux * vy - uy * vx;
+        final double len = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (len > 0.0) {
+            nx /= len;
+            ny /= len;
+            nz /= len;
+        }
+        facePlanes[f * 4] = nx;
+        facePlanes[f * 4 + 1] = ny;
+        facePlanes[f * 4 + 2] = nz;
+        facePlanes[f * 4 + 3] = nx * x[ia] + ny * y[ia] + nz * z[ia];
+        outside[f] = -1;
+        marks[f] = 0;
+        dead[f] = false;
+        return f;
+    }
+
+    private double distance(float[] x, float[] y, float[] z, int f, int i) {
+        final double[] p = facePlanes;
+        return p[f * 4] * x[i] + p[f * 4 + 1] * y[i] + p[f * 4 + 2] * z[i] - p[f * 4 + 3];
+    }
+
+    private void setNeighbors(int f, int n0, int n1, int n2) {
+        faceNeighbors[f * 3] = n0;
+        faceNeighbors[f * 3 + 1] = n1;
+        faceNeighbors[f * 3 + 2] = n2;
+    }
+
+    /**
+     * Which edge of face f borders face g.
+     */
+    private int edgeTo(int f, int g) {
+        return faceNeighbors[f * 3] == g ? 0 : faceNeighbors[f * 3 + 1] == g ? 1 : 2;
+    }
+
+    /**
+     * Adds point p (a position in ids) to the outside set of the first face in [from, to) it is outside of, if any.
+     */
+    private void assign(float[] x, float[] y, float[] z, int[] id, int p, int from, int to) {
+        for (int f = from; f < to; f++) {
+            if (!dead[f] && distance(x, y, z, f, id[p]) > epsilon) {
+                nextOutside[p] = outside[f];
+                outside[f] = p;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Quickhull over the points in ids; appends triangles to out, using the original indices, and returns how many.
+     */
+    private int quickhull(float[] x, float[] y, float[] z, IntArray ids, IntArray out) {
+        out.clear();
+        faceCount = 0;
+        final int m = ids.size;
+        final int[] id = ids.items;
+        if (m < 4)
+            return 0;
+        if (nextOutside.length < m)
+            nextOutside = new int[m];
+        final int[] axis = new int[6];
+        double maxX = 0.0, maxY = 0.0, maxZ = 0.0;
+        for (int j = 0; j < m; j++) {
+            final int i = id[j];
+            if (x[i] < x[id[axis[0]]]) axis[0] = j;
+            if (x[i] > x[id[axis[1]]]) axis[1] = j;
+            if (y[i] < y[id[axis[2]]]) axis[2] = j;
+            if (y[i] > y[id[axis[3]]]) axis[3] = j;
+            if (z[i] < z[id[axis[4]]]) axis[4] = j;
+            if (z[i] > z[id[axis[5]]]) axis[5] = j;
+            maxX = Math.max(maxX, Math.abs(x[i]));
+            maxY = Math.max(maxY, Math.abs(y[i]));
+            maxZ = Math.max(maxZ, Math.abs(z[i]));
+        }
+        epsilon = (maxX + maxY + maxZ) * TOLERANCE;
+
+        // the initial tetrahedron: the two furthest axis extremes, the point furthest from their line, and the point
+        // furthest from the plane through those three
+        int a = 0, b = 0;
+        double best = 0.0;
+        for (int k = 0; k < 6; k += 2) {
+            final int lo = id[axis[k]], hi = id[axis[k + 1]];
+            final double dx = (double) x[hi] - x[lo], dy = (double) y[hi] - y[lo], dz = (double) z[hi] - z[lo];
+            final double d2 = dx * dx + dy * dy + dz * dz;
+            if (d2 > best) {
+                best = d2;
+                a = axis[k];
+                b = axis[k + 1];
+            }
+        }
+        if (Math.sqrt(best) <= epsilon)
+            return 0;
+        final double ux = (double) x[id[b]] - x[id[a]], uy = (double) y[id[b]] - y[id[a]],
+                uz = (double) z[id[b]] - z[id[a]];
+        final double lineLength = Math.sqrt(best);
+        int c = -1;
+        best = 0.0;
+        for (int j = 0; j < m; j++) {
+            final int i = id[j];
+            final double vx = (double) x[i] - x[id[a]], vy = (double) y[i] - y[id[a]], vz = (double) z[i] - z[id[a]];
+            final double cx = uy * vz - uz * vy, cy = uz * vx - ux * vz, cz = ux * vy - uy * vx;
+            final double d2 = cx * cx + cy * cy + cz * cz;
+            if (d2 > best) {
+                best = d2;
+                c = j;
+            }
+        }
+        if (c < 0 || Math.sqrt(best) / lineLength <= epsilon)
+            return 0;
+        final int base = addFace(x, y, z, id, a, b, c);
+        int d = -1;
+        best = 0.0;
+        for (int j = 0; j < m; j++) {
+            final double dist = distance(x, y, z, base, id[j]);
+            if (Math.abs(dist) > Math.abs(best)) {
+                best = dist;
+                d = j;
+            }
+        }
+        if (d < 0 || Math.abs(best) <= epsilon) {
+            faceCount = 0;
+            return 0;
+        }
+        faceCount = 0;
+        if (best > 0.0) {
+            final int t = b;
+            b = c;
+            c = t;
+        }
+        addFace(x, y, z, id, a, b, c);
+        addFace(x, y, z, id, a, d, b);
+        addFace(x, y, z, id, b, d, c);
+        addFace(x, y, z, id, c, d, a);
+        setNeighbors(0, 1, 2, 3);
+        setNeighbors(1, 3, 2, 0);
+        setNeighbors(2, 1, 3, 0);
+        setNeighbors(3, 2, 1, 0);
+        for (int j = 0; j < m; j++) {
+            if (j != a && j != b && j != c && j != d)
+                assign(x, y, z, id, j, 0, 4);
+        }
+
+        for (int f = 0; f < faceCount; f++) {
+            if (dead[f] || outside[f] < 0)
+                continue;
+            int eye = outside[f];
+            double far = distance(x, y, z, f, id[eye]);
+            for (int p = nextOutside[eye]; p >= 0; p = nextOutside[p]) {
+                final double dist = distance(x, y, z, f, id[p]);
+                if (dist > far) {
+                    far = dist;
+                    eye = p;
+                }
+            }
+            findHorizon(x, y, z, id[eye], f);
+
+            // points outside any visible face may be outside a new one
+            int orphans = -1;
+            for (int v = 0; v < visible.size; v++) {
+                final int g = visible.items[v];
+                dead[g] = true;
+                for (int p = outside[g], next; p >= 0; p = next) {
+                    next = nextOutside[p];
+                    if (p != eye) {
+                        nextOutside[p] = orphans;
+                        orphans = p;
+                    }
+                }
+                outside[g] = -1;
+            }
+
+            final int h = horizon.size >> 2, first = faceCount;
+            final int[] hz = horizon.items;
+            for (int e = 0; e < h; e++) {
+                final int nf = addFace(x, y, z, id, hz[e * 4], hz[e * 4 + 1], eye);
+                final int across = hz[e * 4 + 2];
+                faceNeighbors[nf * 3] = across;
+                faceNeighbors[across * 3 + hz[e * 4 + 3]] = nf;
+            }
+            for (int e = 0; e < h; e++) {
+                final int cur = first + e, next = first + (e + 1) % h;
+                faceNeighbors[cur * 3 + 1] = next;
+                faceNeighbors[next * 3 + 2] = cur;
+            }
+            for (int p = orphans, next; p >= 0; p = next) {
+                next = nextOutside[p];
+                assign(x, y, z, id, p, first, faceCount);
+            }
+        }
+
+        int faces = 0;
+        for (int f = 0; f < faceCount; f++) {
+            if (!dead[f]) {
+                out.add(id[faceVertices[f * 3]], id[faceVertices[f * 3 + 1]], id[faceVertices[f * 3 + 2]]);
+                faces++;
+            }
+        }
+        return faces;
+    }
+
+    /**
+     * Finds the faces visible from point i (an original index), starting at face f, and the edges around them in
+     * counterclockwise order. Each horizon edge is stored as its two vertices, the face across it, and that face's
+     * edge back.
+     */
+    private void findHorizon(float[] x, float[] y, float[] z, int i, int f) {
+        final int stamp = ++mark;
+        visible.clear();
+        horizon.clear();
+        stack.clear();
+        marks[f] = stamp;
+        visible.add(f);
+        stack.add(f, 0, 0);
+        while (stack.size > 0) {
+            final int top = stack.size - 3;
+            final int g = stack.items[top], s = stack.items[top + 1], k = stack.items[top + 2];
+            if (k == 3) {
+                stack.size = top;
+                continue;
+            }
+            stack.items[top + 2] = k + 1;
+            final int e = (s + k) % 3;
+            final int n = faceNeighbors[g * 3 + e];
+            if (marks[n] == stamp)
+                continue;
+            if (distance(x, y, z, n, i) > epsilon) {
+                marks[n] = stamp;
+                visible.add(n);
+                stack.add(n, edgeTo(n, g) + 1, 0);
+            } else {
+                horizon.add(faceVertices[g * 3 + e], faceVertices[g * 3 + (e + 1) % 3], n, edgeTo(n, g));
+            }
+        }
+    }
+}
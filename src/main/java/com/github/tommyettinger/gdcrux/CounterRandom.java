@@ -0,0 +1,290 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import java.util.Random;
+
+/**
+ * A counter-based random number generator: the n-th output is a pure function of a key, a stream, and n, computed as
+ * {@code mix(key + n * stream)} with the SplitMix64 finalizer (the same approach as Java 8's SplittableRandom). Because
+ * nothing but the counter changes, any output can be looked up directly with {@link #at(long)}, and the generator can
+ * jump ahead any distance with {@link #skip(long)}.
+ * <br>
+ * For parallel work, give each worker its own generator. {@link #fork(long)} derives a generator for a numbered worker
+ * (or chunk, or entity) without changing this one, so the results only depend on the numbers given, not on which
+ * thread runs first. {@link #split()} does the same using this generator's next output, like SplittableRandom. Each
+ * generator is meant to be used by one thread; nothing here is synchronized.
+ * <br>
+ * This extends {@link Random}, so it can be passed to any {@code setToRandomDirection(Random)} method on points and
+ * vectors. Normal and other distributions come from {@link Distributor}, using one output per value:
+ * {@link #nextGaussian()} uses {@link Distributor#normal(long)}, and there are also {@link #nextNormalF()},
+ * {@link #nextExponential()}, {@link #nextGamma(double)}, {@link #nextBeta(double, double)},
+ * {@link #nextPoisson(double)}, and {@link #nextTriangular(double, double, double)}.
+ */
+public class CounterRandom extends Random {
+    private long key;
+    private long stream;
+    private long counter;
+
+    /**
+     * Creates a CounterRandom with a random seed, taken from {@link MathUtils#random}.
+     */
+    public CounterRandom() {
+        this(MathUtils.random.nextLong());
+    }
+
+    /**
+     * Creates a CounterRandom from a seed; the same seed always gives the same outputs.
+     * @param seed any long
+     */
+    public CounterRandom(long seed) {
+        super(seed);
+    }
+
+    /**
+     * Creates a CounterRandom with exact state, as returned by {@link #getKey()}, {@link #getStream()}, and
+     * {@link #getCounter()}.
+     * @param key any long
+     * @param stream any long; will be made odd if it isn't
+     * @param counter the index of the next output
+     */
+    public CounterRandom(long key, long stream, long counter) {
+        super(0L);
+        this.key = key;
+        this.stream = stream | 1L;
+        this.counter = counter;
+    }
+
+    /**
+     * Copies another CounterRandom exactly, so both will produce the same outputs from here on.
+     * @param other another CounterRandom to copy
+     */
+    public CounterRandom(CounterRandom other) {
+        this(other.key, other.stream, other.counter);
+    }
+
+    /**
+     * Resets this from a seed and sets the counter to 0. The key and stream are both derived from the seed.
+     * @param seed any long
+     */
+    @Override
+    public void setSeed(long seed) {
+        key = Distributor.mix(seed);
+        stream = makeStream(seed + Distributor.GOLDEN);
+        counter = 0L;
+    }
+
+    /**
+     * Makes an odd stream increment from any long. Increments with too few changes between adjacent bits mix poorly,
+     * so those are adjusted, as SplittableRandom does.
+     */
+    private static long makeStream(long s) {
+        s = Distributor.mix(s) | 1L;
+        return Long.bitCount(s ^ s >>> 1) < 24 ? s ^ 0xAAAAAAAAAAAAAAAAL : s;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public long getStream() {
+        return stream;
+    }
+
+    /**
+     * @return the index of the next output
+     */
+    public long getCounter() {
+        return counter;
+    }
+
+    /**
+     * Sets the index of the next output, which can move this forward or backward any distance.
+     * @param counter the index of the next output
+     * @return this, for chaining
+     */
+    public CounterRandom setCounter(long counter) {
+        this.counter = counter;
+        return this;
+    }
+
+    /**
+     * Moves forward (or backward, if negative) by the given number of outputs, in constant time.
+     * @param distance how many outputs to skip
+     * @return this, for chaining
+     */
+    public CounterRandom skip(long distance) {
+        counter += distance;
+        return this;
+    }
+
+    /**
+     * Gets the output at the given index without changing this generator. {@code at(getCounter())} is the same as
+     * what {@link #nextLong()} will return next.
+     * @param index any long
+     * @return the 64 random bits at that index
+     */
+    public long at(long index) {
+        return Distributor.mix(key + index * stream);
+    }
+
+    /**
+     * Makes a new generator for the given worker, chunk, or other number, without changing this one. Forking the same
+     * generator with the same index always gives the same result, and different indices give unrelated streams.
+     * @param index any long, such as a thread or task number
+     * @return a new CounterRandom with its counter at 0
+     */
+    public CounterRandom fork(long index) {
+        final long s = Distributor.mix(key ^ Distributor.mix(stream + index * Distributor.GOLDEN));
+        return new CounterRandom(Distributor.mix(s), makeStream(s + Distributor.GOLDEN), 0L);
+    }
+
+    /**
+     * Makes a new generator from this one's next two outputs, advancing this one. This matches how SplittableRandom
+     * splits, and is useful for recursive divide-and-conquer tasks.
+     * @return a new CounterRandom with its counter at 0
+     */
+    public CounterRandom split() {
+        return new CounterRandom(nextLong(), makeStream(nextLong()), 0L);
+    }
+
+    /**
+     * @return a copy of this, with the same state
+     */
+    public CounterRandom copy() {
+        return new CounterRandom(this);
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> 64 - bits);
+    }
+
+    @Override
+    public long nextLong() {
+        return Distributor.mix(key + counter++ * stream);
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0L;
+    }
+
+    @Override
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1p-24f;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1p-53;
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        for (int i = 0; i < bytes.length; ) {
+            for (long bits = nextLong(), n = Math.min(bytes.length - i, 8); n-- > 0; bits >>>= 8) {
+                bytes[i++] = (byte) bits;
+            }
+        }
+    }
+
+    /**
+     * Gets a normal-distributed double with mean 0 and standard deviation 1, using {@link Distributor#normal(long)}.
+     * Unlike {@link Random#nextGaussian()}, this doesn't keep a second value between calls, so it always uses exactly
+     * one output.
+     * @return a normal-distributed double
+     */
+    @Override
+    public double nextGaussian() {
+        return Distributor.normal(nextLong());
+    }
+
+    /**
+     * Gets a normal-distributed float with mean 0 and standard deviation 1, using {@link Distributor#normalF(long)}.
+     * @return a normal-distributed float
+     */
+    public float nextNormalF() {
+        return Distributor.normalF(nextLong());
+    }
+
+    /**
+     * @return an exponential-distributed double with rate 1, using {@link Distributor#exponential(long)}
+     */
+    public double nextExponential() {
+        return Distributor.exponential(nextLong());
+    }
+
+    /**
+     * @param shape the shape parameter; must be positive
+     * @return a gamma-distributed double with scale 1, using {@link Distributor#gamma(long, double)}
+     */
+    public double nextGamma(double shape) {
+        return Distributor.gamma(nextLong(), shape);
+    }
+
+    /**
+     * @param alpha the first shape parameter; must be positive
+     * @param beta the second shape parameter; must be positive
+     * @return a beta-distributed double between 0 and 1, using {@link Distributor#beta(long, double, double)}
+     */
+    public double nextBeta(double alpha, double beta) {
+        return Distributor.beta(nextLong(), alpha, beta);
+    }
+
+    /**
+     * @param lambda the expected number of events; should be non-negative
+     * @return a Poisson-distributed long, using {@link Distributor#poisson(long, double)}
+     */
+    public long nextPoisson(double lambda) {
+        return Distributor.poisson(nextLong(), lambda);
+    }
+
+    /**
+     * @param min the lowest possible result
+     * @param max the highest possible result
+     * @param mode the most likely result, between min and max
+     * @return a triangular-distributed double, using {@link Distributor#triangular(long, double, double, double)}
+     */
+    public double nextTriangular(double min, double max, double mode) {
+        return Distributor.triangular(nextLong(), min, max, mode);
+    }
+
+    /**
+     * Fills part of an array with normal-distributed floats, one output each, as by {@link #nextNormalF()}. Item
+     * {@code start + i} always uses the output at index {@code getCounter() + i}, so a large array can be split among
+     * threads by giving each a {@link #copy()} skipped to its part, and the result will be the same.
+     * @param out where results are stored
+     * @param start the first index to fill
+     * @param length how many items to fill
+     */
+    public void nextNormalF(float[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = Distributor.normalF(nextLong());
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CounterRandom that = (CounterRandom) o;
+        return key == that.key && stream == that.stream && counter == that.counter;
+    }
+
+    @Override
+    public int hashCode() {
+        long h = key ^ stream * 31L ^ counter * 961L;
+        return (int) (h ^ h >>> 32);
+    }
+
+    @Override
+    public String toString() {
+        return "CounterRandom{key=" + key + ", stream=" + stream + ", counter=" + counter + '}';
+    }
+}
@@ -0,0 +1,340 @@
+package com.github.tommyettinger.gdcrux;
+
+/**
+ * Distance transforms over 2D or 3D grids: for every cell, the distance to the nearest "site" cell (such as an
+ * obstacle, or the inside of a glyph for signed distance fields), and which site that is. Cells are indexed by
+ * {@code x + width * (y + height * z)}, so a 2D grid is just a grid with a depth of 1, and its indices are
+ * {@code x + width * y}.
+ * <br>
+ * {@link #euclidean(boolean[], float[], int[])} is exact, and takes linear time: it uses the lower envelope of
+ * parabolas from Felzenszwalb and Huttenlocher, "Distance Transforms of Sampled Functions", one axis at a time. The
+ * chamfer methods make two raster passes with a 3x3 (or 3x3x3) mask; with the right weights they give exact Manhattan
+ * and Chebyshev distances, and with others they approximate Euclidean distance somewhat faster. Every method can also
+ * write the index of the nearest site for each cell into an {@code int[]}; use {@link #point(int, PointI2)} or
+ * {@link #point(int, PointI3)} to turn that into coordinates. Cells with no site reachable get a distance of
+ * {@link Float#POSITIVE_INFINITY} and a nearest site of -1.
+ * <br>
+ * For large grids, {@link #euclidean(ParallelBulk, boolean[], float[], int[])} runs the lines of each axis in parallel
+ * and gives the same results. A DistanceTransform keeps scratch arrays for its grid size, so it should only be used by
+ * one thread at a time (other than the parallel method's own tasks).
+ */
+public class DistanceTransform {
+    /** Marks an empty entry in the squared-distance scratch array. */
+    private static final long NONE = Long.MAX_VALUE;
+
+    /** The number of cells along the x-axis. */
+    public final int width;
+    /** The number of cells along the y-axis. */
+    public final int height;
+    /** The number of cells along the z-axis; 1 for 2D grids. */
+    public final int depth;
+
+    private final long[] squared;
+    private final int[] sites;
+    private final Line line;
+
+    /**
+     * Creates a DistanceTransform for 2D grids with the given size.
+     * @param width the number of cells along the x-axis
+     * @param height the number of cells along the y-axis
+     */
+    public DistanceTransform(int width, int height) {
+        this(width, height, 1);
+    }
+
+    /**
+     * Creates a DistanceTransform for 3D grids with the given size.
+     * @param width the number of cells along the x-axis
+     * @param height the number of cells along the y-axis
+     * @param depth the number of cells along the z-axis
+     */
+    public DistanceTransform(int width, int height, int depth) {
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        squared = new long[width * height * depth];
+        sites = new int[width * height * depth];
+        line = new Line(Math.max(width, Math.max(height, depth)));
+    }
+
+    /**
+     * Sets {@code out} to the coordinates of the cell with the given index, ignoring z.
+     * @param index a cell index, such as a nearest site
+     * @param out will be modified
+     * @return out, after modifications, or a new point with the result if out is not mutable
+     */
+    public PointI2 point(int index, PointI2 out) {
+        return out.seti(index % width, index / width % height);
+    }
+
+    /**
+     * Sets {@code out} to the coordinates of the cell with the given index.
+     * @param index a cell index, such as a nearest site
+     * @param out will be modified
+     * @return out, after modifications, or a new point with the result if out is not mutable
+     */
+    public PointI3 point(int index, PointI3 out) {
+        return out.seti(index % width, index / width % height, index / (width * height));
+    }
+
+    /**
+     * Finds the exact Euclidean distance from every cell to the nearest site.
+     * @param isSite true for site cells, indexed by {@code x + width * (y + height * z)}; will not be modified
+     * @param distances will be filled with the distance to the nearest site for every cell
+     * @param nearest if not null, will be filled with the index of the nearest site for every cell, or -1
+     * @return distances, after modifications
+     */
+    public float[] euclidean(boolean[] isSite, float[] distances, int[] nearest) {
+        load(isSite);
+        for (int axis = 0; axis < 3; axis++) {
+            final int lines = lineCount(axis);
+            for (int l = 0; l < lines; l++) {
+                pass(axis, l, line);
+            }
+        }
+        return store(distances, nearest);
+    }
+
+    /**
+     * Finds the exact Euclidean distance from every cell to the nearest cell in sites.
+     * @param isSite the site cells; must have the same width and height as this, which must have a depth of 1
+     * @param distances will be filled with the distance to the nearest site for every cell
+     * @param nearest if not null, will be filled with the index of the nearest site for every cell, or -1
+     * @return distances, after modifications
+     */
+    public float[] euclidean(BitRegion2 isSite, float[] distances, int[] nearest) {
+        return euclidean(toSites(isSite), distances, nearest);
+    }
+
+    /**
+     * Finds the exact Euclidean distance from every cell to the nearest cell in sites.
+     * @param isSite the site cells; must have the same size as this
+     * @param distances will be filled with the distance to the nearest site for every cell
+     * @param nearest if not null, will be filled with the index of the nearest site for every cell, or -1
+     * @return distances, after modifications
+     */
+    public float[] euclidean(BitRegion3 isSite, float[] distances, int[] nearest) {
+        return euclidean(toSites(isSite), distances, nearest);
+    }
+
+    /**
+     * Parallel {@link #euclidean(boolean[], float[], int[])}. The lines along each axis are independent, so each axis
+     * is split into groups of lines covering about {@link ParallelBulk#grain} cells, which run at the same time.
+     * Results are identical to the sequential version.
+     * @param parallel the pool and grain size to use
+     * @param isSite true for site cells, indexed by {@code x + width * (y + height * z)}; will not be modified
+     * @param distances will be filled with the distance to the nearest site for every cell
+     * @param nearest if not null, will be filled with the index of the nearest site for every cell, or -1
+     * @return distances, after modifications
+     */
+    @GwtIncompatible
+    public float[] euclidean(ParallelBulk parallel, boolean[] isSite, float[] distances, int[] nearest) {
+        load(isSite);
+        final int longest = line.v.length;
+        for (int axis = 0; axis < 3; axis++) {
+            final int a = axis, lines = lineCount(axis), length = axis == 0 ? width : axis == 1 ? height : depth;
+            // each line is handled by the range that holds its first cell, so every line runs exactly once
+            parallel.forRange(0, lines * length, (start, n) -> {
+                final Line scratch = new Line(longest);
+                for (int l = (start + length - 1) / length, end = (start + n + length - 1) / length; l < end; l++) {
+                    pass(a, l, scratch);
+                }
+            });
+        }
+        return store(distances, nearest);
+    }
+
+    /**
+     * Finds distances with a two-pass chamfer transform, where moving to a neighbor that differs on one axis costs
+     * face, on two axes costs edge, and on three axes costs corner. Using 1, 1, 1 gives exact Chebyshev distance; 1,
+     * infinity, infinity gives exact Manhattan distance; and 1, sqrt(2), sqrt(3) approximates Euclidean distance.
+     * Weights must be positive; for sensible results, edge should be at most {@code 2 * face}, and corner at most
+     * {@code face + edge}.
+     * @param isSite true for site cells, indexed by {@code x + width * (y + height * z)}; will not be modified
+     * @param face the cost of a step along one axis
+     * @param edge the cost of a diagonal step along two axes
+     * @param corner the cost of a diagonal step along three axes; unused in 2D
+     * @param distances will be filled with the distance to the nearest site for every cell
+     * @param nearest if not null, will be filled with the index of the site each distance was measured from, or -1
+     * @return distances, after modifications
+     */
+    public float[] chamfer(boolean[] isSite, float face, float edge, float corner, float[] distances, int[] nearest) {
+        final int size = width * height * depth;
+        final int[] from = nearest == null ? sites : nearest;
+        for (int i = 0; i < size; i++) {
+            final boolean site = isSite[i];
+            distances[i] = site ? 0f : Float.POSITIVE_INFINITY;
+            from[i] = site ? i : -1;
+        }
+        final float[] weights = {0f, face, edge, corner};
+        // forward, with the 13 neighbors that come before a cell in index order
+        for (int z = 0, i = 0; z < depth; z++) {
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++, i++) {
+                    relax(distances, from, weights, i, x, y, z, 1);
+                }
+            }
+        }
+        // backward, with the 13 neighbors that come after a cell in index order
+        for (int z = depth - 1, i = size - 1; z >= 0; z--) {
+            for (int y = height - 1; y >= 0; y--) {
+                for (int x = width - 1; x >= 0; x--, i--) {
+                    relax(distances, from, weights, i, x, y, z, -1);
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Finds the exact Chebyshev distance (where diagonal moves cost the same as orthogonal ones) from every cell to the
+     * nearest site.
+     * @param isSite true for site cells, indexed by {@code x + width * (y + height * z)}; will not be modified
+     * @param distances will be filled with the distance to the nearest site for every cell
+     * @param nearest if not null, will be filled with the index of a nearest site for every cell, or -1
+     * @return distances, after modifications
+     */
+    public float[] chebyshev(boolean[] isSite, float[] distances, int[] nearest) {
+        return chamfer(isSite, 1f, 1f, 1f, distances, nearest);
+    }
+
+    /**
+     * Finds the exact Manhattan distance (where only orthogonal moves are allowed) from every cell to the nearest
+     * site.
+     * @param isSite true for site cells, indexed by {@code x + width * (y + height * z)}; will not be modified
+     * @param distances will be filled with the distance to the nearest site for every cell
+     * @param nearest if not null, will be filled with the index of a nearest site for every cell, or -1
+     * @return distances, after modifications
+     */
+    public float[] manhattan(boolean[] isSite, float[] distances, int[] nearest) {
+        return chamfer(isSite, 1f, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, distances, nearest);
+    }
+
+    private void relax(float[] distances, int[] from, float[] weights, int i, int x, int y, int z, int sign) {
+        float best = distances[i];
+        int bestFrom = from[i];
+        for (int dz = -1; dz <= 1; dz++) {
+            final int nz = z + dz * sign;
+            if (nz < 0 || nz >= depth) continue;
+            for (int dy = -1; dy <= 1; dy++) {
+                final int ny = y + dy * sign;
+                if (ny < 0 || ny >= height) continue;
+                for (int dx = -1; dx <= 1; dx++) {
+                    // only neighbors strictly before (or after, going backward) this cell in index order
+                    if (dz == 0 && (dy > 0 || dy == 0 && dx >= 0)) break;
+                    final int nx = x + dx * sign;
+                    if (nx < 0 || nx >= width) continue;
+                    final int n = i + sign * (dx + width * (dy + height * dz));
+                    final float d = distances[n] + weights[(dx & 1) + (dy & 1) + (dz & 1)];
+                    if (d < best) {
+                        best = d;
+                        bestFrom = from[n];
+                    }
+                }
+            }
+            if (dz == 0) break;
+        }
+        distances[i] = best;
+        from[i] = bestFrom;
+    }
+
+    private boolean[] toSites(BitRegion2 region) {
+        final boolean[] isSite = new boolean[width * height * depth];
+        for (int c = region.nextCell(0); c >= 0; c = region.nextCell(c + 1)) {
+            isSite[c] = true;
+        }
+        return isSite;
+    }
+
+    private boolean[] toSites(BitRegion3 region) {
+        final boolean[] isSite = new boolean[width * height * depth];
+        for (int c = region.nextCell(0); c >= 0; c = region.nextCell(c + 1)) {
+            isSite[c] = true;
+        }
+        return isSite;
+    }
+
+    private void load(boolean[] isSite) {
+        for (int i = 0, size = squared.length; i < size; i++) {
+            final boolean site = isSite[i];
+            squared[i] = site ? 0L : NONE;
+            sites[i] = site ? i : -1;
+        }
+    }
+
+    private float[] store(float[] distances, int[] nearest) {
+        for (int i = 0, size = squared.length; i < size; i++) {
+            final long s = squared[i];
+            distances[i] = s == NONE ? Float.POSITIVE_INFINITY : (float) Math.sqrt(s);
+        }
+        if (nearest != null) System.arraycopy(sites, 0, nearest, 0, sites.length);
+        return distances;
+    }
+
+    private int lineCount(int axis) {
+        return axis == 0 ? height * depth : axis == 1 ? width * depth : width * height;
+    }
+
+    /**
+     * Runs the one-dimensional transform on line l along the given axis, in place.
+     */
+    private void pass(int axis, int l, Line s) {
+        final int start, stride, n;
+        if (axis == 0) {
+            start = l * width;
+            stride = 1;
+            n = width;
+        } else if (axis == 1) {
+            start = l % width + l / width * width * height;
+            stride = width;
+            n = height;
+        } else {
+            start = l;
+            stride = width * height;
+            n = depth;
+        }
+        if (n == 1) return;
+        final long[] f = s.f;
+        final int[] fs = s.sites, v = s.v;
+        final double[] z = s.z;
+        int k = -1;
+        for (int q = 0, i = start; q < n; q++, i += stride) {
+            f[q] = squared[i];
+            fs[q] = sites[i];
+            if (f[q] == NONE) continue;
+            double boundary = Double.NEGATIVE_INFINITY;
+            while (k >= 0) {
+                final int p = v[k];
+                boundary = ((f[q] + (long) q * q) - (f[p] + (long) p * p)) / (2.0 * (q - p));
+                if (boundary <= z[k]) k--;
+                else break;
+            }
+            k++;
+            v[k] = q;
+            z[k] = k == 0 ? Double.NEGATIVE_INFINITY : boundary;
+        }
+        if (k < 0) return;
+        for (int q = 0, j = 0, i = start; q < n; q++, i += stride) {
+            while (j < k && z[j + 1] < q) j++;
+            final int p = v[j];
+            squared[i] = (long) (q - p) * (q - p) + f[p];
+            sites[i] = fs[p];
+        }
+    }
+
+    /**
+     * Scratch space for the transform of one line.
+     */
+    private static final class Line {
+        final long[] f;
+        final int[] sites, v;
+        final double[] z;
+
+        Line(int length) {
+            f = new long[length];
+            sites = new int[length];
+            v = new int[length];
+            z = new double[length];
+        }
+    }
+}
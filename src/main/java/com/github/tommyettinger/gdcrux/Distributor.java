@@ -24,6 +24,12 @@ import com.badlogic.gdx.utils.NumberUtils;
  * {@link #normalRough(long)} gets quite close to a good normal distribution given a uniformly random long input.
  * {@link #normalRougher(long)} isn't as close; the distribution it has is "pointy" on top instead of rounded.
  * Both normalRough and normalRougher have a maximum output of 7.92908, and a minimum of -7.92908 .
+ * <br>
+ * {@link #normalF(long)} is a float Ziggurat that is faster than normal() and much more accurate than normalRough().
+ * Other distributions take a random {@code long} state the same way normal() does: {@link #exponential(long)},
+ * {@link #gamma(long, double)}, {@link #beta(long, double, double)}, {@link #poisson(long, double)}, and
+ * {@link #triangular(long, double, double, double)}. Each also has a bulk form that fills part of an array from one
+ * seed, without allocating.
  */
 public final class Distributor {
 
@@ -47,6 +53,62 @@ public final class Distributor {
         ZIG_TABLE[ZIG_TABLE_ITEMS] = 0.0;
     }
 
+    private static final double EXP_R    = 7.69711747013104972;
+    private static final double EXP_AREA = 0.0039496598225815571993;
+    private static final double[] EXP_TABLE = new double[257];
+    private static final double[] EXP_F = new double[257];
+
+    static {
+        double f = Math.exp(-EXP_R);
+        EXP_TABLE[0] = EXP_AREA / f;
+        EXP_TABLE[1] = EXP_R;
+        for (int i = 2; i < ZIG_TABLE_ITEMS; i++) {
+            EXP_TABLE[i] = -Math.log(EXP_AREA / EXP_TABLE[i - 1] + f);
+            f = Math.exp(-EXP_TABLE[i]);
+        }
+        EXP_TABLE[ZIG_TABLE_ITEMS] = 0.0;
+        for (int i = 0; i <= ZIG_TABLE_ITEMS; i++) {
+            EXP_F[i] = Math.exp(-EXP_TABLE[i]);
+        }
+    }
+
+    /* Tables for normalF(), a 128-layer float Ziggurat as in Marsaglia and Tsang (2000). */
+    private static final float ZIGF_R = 3.442619855899f;
+    private static final int[] ZIGF_K = new int[128];
+    private static final float[] ZIGF_W = new float[128];
+    private static final float[] ZIGF_F = new float[128];
+
+    static {
+        final double m1 = 2147483648.0, vn = 9.91256303526217e-3;
+        double dn = 3.442619855899, tn = dn;
+        final double q = vn / Math.exp(-0.5 * dn * dn);
+        ZIGF_K[0] = (int) (dn / q * m1);
+        ZIGF_K[1] = 0;
+        ZIGF_W[0] = (float) (q / m1);
+        ZIGF_W[127] = (float) (dn / m1);
+        ZIGF_F[0] = 1f;
+        ZIGF_F[127] = (float) Math.exp(-0.5 * dn * dn);
+        for (int i = 126; i >= 1; i--) {
+            dn = Math.sqrt(-2.0 * Math.log(vn / dn + Math.exp(-0.5 * dn * dn)));
+            ZIGF_K[i + 1] = (int) (dn / tn * m1);
+            tn = dn;
+            ZIGF_F[i] = (float) Math.exp(-0.5 * dn * dn);
+            ZIGF_W[i] = (float) (dn / m1);
+        }
+    }
+
+    /** Added to a state to move it along a sequence; this is 2 to the 64 divided by the golden ratio. */
+    static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The SplitMix64 finalizer; turns a state that changes by {@link #GOLDEN} each time into random-seeming bits.
+     */
+    static long mix(long s) {
+        s = (s ^ s >>> 30) * 0xBF58476D1CE4E5B9L;
+        s = (s ^ s >>> 27) * 0x94D049BB133111EBL;
+        return s ^ s >>> 31;
+    }
+
     // constants used by probitI() and probitF()
     private static final float
             a0f = 0.195740115269792f,
@@ -344,6 +406,311 @@ public final class Distributor {
 
     }
 
+    /**
+     * Given a long where all bits are sufficiently (independently) random, this produces a normal-distributed
+     * (Gaussian) float with mean 0 and standard deviation 1, using a 128-layer Ziggurat with float tables, as in
+     * Marsaglia and Tsang, "The Ziggurat Method for Generating Random Variables" (2000). About 98.8% of inputs only need
+     * one int comparison and one multiply; the rest use the wedge or tail tests, which get more bits by mixing the state.
+     * The original method took its layer index from the same bits as its value, which skews results slightly; here, the
+     * layer comes from the lowest 7 bits and the value from the upper 32 bits, which don't overlap.
+     * <br>
+     * This is much closer to a true normal distribution than {@link #normalRough(long)}, and faster than
+     * {@link #normal(long)} because it avoids double math on its common path. Like normal(), it does not preserve
+     * patterns in its input.
+     *
+     * @param state a long that should be sufficiently random; quasi-random longs may not be enough
+     * @return a normal-distributed float with mean 0 and standard deviation 1
+     */
+    public static float normalF(long state) {
+        while (true) {
+            final int hz = (int) (state >>> 32), iz = (int) (state & 127L);
+            /* hz ^ hz >> 31 is |hz| for non-negative hz and |hz| - 1 otherwise, which can't overflow */
+            if ((hz ^ hz >> 31) < ZIGF_K[iz])
+                return hz * ZIGF_W[iz];
+            state = mix(state += GOLDEN);
+            if (iz == 0) {
+                /* the tail past R, by Marsaglia's 1964 method */
+                float x, y;
+                do {
+                    x = (float) -Math.log(((state >>> 40) + 1L) * 0x1p-24) / ZIGF_R;
+                    y = (float) -Math.log(((state & 0xFFFFFFL) + 1L) * 0x1p-24);
+                    state = mix(state += GOLDEN);
+                } while (y + y < x * x);
+                return hz > 0 ? ZIGF_R + x : -ZIGF_R - x;
+            }
+            final float x = hz * ZIGF_W[iz];
+            if (ZIGF_F[iz] + (state >>> 40) * 0x1p-24f * (ZIGF_F[iz - 1] - ZIGF_F[iz]) < (float) Math.exp(-0.5f * x * x))
+                return x;
+            state = mix(state + GOLDEN);
+        }
+    }
+
+    /**
+     * Fills part of an array with normal-distributed floats, as by {@link #normalF(long)}. Each item gets its own
+     * state, made by mixing the seed and the item's position, so the same seed always gives the same results and
+     * nothing is allocated.
+     *
+     * @param seed any long
+     * @param out where results are stored
+     * @param start the first index to fill
+     * @param length how many items to fill
+     */
+    public static void normalF(long seed, float[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = normalF(mix(seed += GOLDEN));
+        }
+    }
+
+    /**
+     * Given a long where all bits are sufficiently (independently) random, this produces an exponential-distributed
+     * double with rate (lambda) 1.0, so its mean is 1.0. Divide the result by a rate to get other rates. This uses the
+     * Ziggurat algorithm with 256 layers, as described by Marsaglia and Tsang, "The Ziggurat Method for Generating
+     * Random Variables" (2000), using the input bits the same way {@link #normal(long)} does; it only needs more bits
+     * in rare cases, and gets them by mixing the state.
+     *
+     * @param state a long that should be sufficiently random; quasi-random longs may not be enough
+     * @return an exponential-distributed double with rate 1.0, which is always non-negative
+     */
+    public static double exponential(long state) {
+        while (true) {
+            final int idx = (int) (state & (ZIG_TABLE_ITEMS - 1));
+            final double u = (state >>> 11) * 0x1p-53 * EXP_TABLE[idx];
+            if (u < EXP_TABLE[idx + 1])
+                return u;
+            state = mix(state += GOLDEN);
+            if (idx == 0) {
+                /* The tail past R is just R plus another exponential variable. */
+                return EXP_R - Math.log(((state >>> 11) + 1L) * 0x1p-53);
+            }
+            if (EXP_F[idx] + (state >>> 11) * 0x1p-53 * (EXP_F[idx + 1] - EXP_F[idx]) < Math.exp(-u))
+                return u;
+            state = mix(state + GOLDEN);
+        }
+    }
+
+    /**
+     * Given a long where all bits are sufficiently (independently) random, this produces a gamma-distributed double
+     * with the given shape and a scale of 1.0, so its mean is {@code shape}. Multiply the result by a scale to get other
+     * scales. This uses the method by Marsaglia and Tsang, "A Simple Method for Generating Gamma Variables" (2000),
+     * with {@link #normal(long)} for its normal variables; shapes below 1 use the boost {@code U^(1/shape)} from the same
+     * paper. Rejections are rare (under 5% for any shape), and extra bits come from mixing the state.
+     *
+     * @param state a long that should be sufficiently random
+     * @param shape the shape parameter (often called k or alpha); must be positive
+     * @return a gamma-distributed double, which is always non-negative
+     */
+    public static double gamma(long state, double shape) {
+        double boost = 1.0;
+        if (shape < 1.0) {
+            boost = Math.pow(((mix(state ^ GOLDEN) >>> 11) + 1L) * 0x1p-53, 1.0 / shape);
+            shape += 1.0;
+        }
+        final double d = shape - 1.0 / 3.0, c = 1.0 / Math.sqrt(9.0 * d);
+        while (true) {
+            double x, v;
+            do {
+                x = normal(state);
+                state = mix(state += GOLDEN);
+                v = 1.0 + c * x;
+            } while (v <= 0.0);
+            v = v * v * v;
+            final double u = ((state >>> 11) + 1L) * 0x1p-53, x2 = x * x;
+            state = mix(state + GOLDEN);
+            if (u < 1.0 - 0.0331 * x2 * x2 || Math.log(u) < 0.5 * x2 + d * (1.0 - v + Math.log(v)))
+                return d * v * boost;
+        }
+    }
+
+    /**
+     * Given a long where all bits are sufficiently (independently) random, this produces a beta-distributed double
+     * with the shape parameters alpha and beta, as {@code X / (X + Y)} where X and Y are
+     * {@link #gamma(long, double) gamma} variables with shapes alpha and beta.
+     *
+     * @param state a long that should be sufficiently random
+     * @param alpha the first shape parameter; must be positive
+     * @param beta the second shape parameter; must be positive
+     * @return a beta-distributed double between 0.0 and 1.0, inclusive
+     */
+    public static double beta(long state, double alpha, double beta) {
+        final double x = gamma(state, alpha), y = gamma(mix(state + GOLDEN + GOLDEN), beta);
+        final double sum = x + y;
+        return sum == 0.0 ? (alpha >= beta ? 1.0 : 0.0) : x / sum;
+    }
+
+    /**
+     * Given a long where the upper 53 bits are sufficiently random, this produces a triangular-distributed double
+     * between min and max, most likely to be near mode, using the inverse of the distribution's CDF. Unlike most other
+     * distributions here, this keeps the order of its inputs: higher states give higher results.
+     *
+     * @param state a long whose upper bits should be sufficiently random
+     * @param min the lowest possible result
+     * @param max the highest possible result; should be greater than min
+     * @param mode the most likely result; should be between min and max, inclusive
+     * @return a triangular-distributed double between min and max
+     */
+    public static double triangular(long state, double min, double max, double mode) {
+        final double u = (state >>> 11) * 0x1p-53, range = max - min, low = mode - min;
+        return u * range < low
+                ? min + Math.sqrt(u * range * low)
+                : max - Math.sqrt((1.0 - u) * range * (max - mode));
+    }
+
+    /**
+     * Given a long where all bits are sufficiently (independently) random, this produces a Poisson-distributed long:
+     * the number of events that happen in a fixed span when they happen independently, on average lambda times per
+     * span. When lambda is less than 10, this searches the CDF from 0 with one uniform variable, which takes time
+     * proportional to lambda. Otherwise, it uses the transformed rejection method "PTRS" from H&ouml;rmann, "The transformed
+     * rejection method for generating Poisson random variables" (1993), which takes about the same time for any lambda.
+     *
+     * @param state a long that should be sufficiently random
+     * @param lambda the expected number of events; should be non-negative
+     * @return a Poisson-distributed non-negative long
+     */
+    public static long poisson(long state, double lambda) {
+        if (lambda < 10.0) {
+            double p = Math.exp(-lambda), cdf = p;
+            final double u = (state >>> 11) * 0x1p-53;
+            long k = 0L;
+            while (u > cdf && p > 0.0) {
+                p *= lambda / ++k;
+                cdf += p;
+            }
+            return k;
+        }
+        final double sqrtLambda = Math.sqrt(lambda), logLambda = Math.log(lambda);
+        final double b = 0.931 + 2.53 * sqrtLambda, a = -0.059 + 0.02483 * b;
+        final double logInvAlpha = Math.log(1.1239 + 1.1328 / (b - 3.4)), vr = 0.9277 - 3.6224 / (b - 2.0);
+        while (true) {
+            final double u = (state >>> 11) * 0x1p-53 - 0.5;
+            state = mix(state += GOLDEN);
+            final double v = ((state >>> 11) + 1L) * 0x1p-53;
+            state = mix(state + GOLDEN);
+            final double us = 0.5 - Math.abs(u);
+            final long k = (long) Math.floor((2.0 * a / us + b) * u + lambda + 0.43);
+            if (us >= 0.07 && v <= vr)
+                return k;
+            if (k < 0L || (us < 0.013 && v > us))
+                continue;
+            if (Math.log(v) + logInvAlpha - Math.log(a / (us * us) + b) <= -lambda + k * logLambda - logGamma(k + 1.0))
+                return k;
+        }
+    }
+
+    /**
+     * The natural logarithm of the gamma function, using a Stirling series after shifting x up to at least 7.
+     * Accurate to about 15 digits for positive x.
+     *
+     * @param x should be positive
+     * @return the natural logarithm of the gamma function of x
+     */
+    public static double logGamma(double x) {
+        if (x == 1.0 || x == 2.0) return 0.0;
+        int n = 0;
+        double x0 = x;
+        if (x <= 7.0) {
+            n = (int) (7.0 - x);
+            x0 = x + n;
+        }
+        final double x2 = 1.0 / (x0 * x0);
+        double series = -1.39243221690590e+00;
+        series = series * x2 + 1.796443723688307e-01;
+        series = series * x2 - 2.955065359477124e-02;
+        series = series * x2 + 6.410256410256410e-03;
+        series = series * x2 - 1.917526917526918e-03;
+        series = series * x2 + 8.417508417508418e-04;
+        series = series * x2 - 5.952380952380952e-04;
+        series = series * x2 + 7.936507936507937e-04;
+        series = series * x2 - 2.777777777777778e-03;
+        series = series * x2 + 8.333333333333333e-02;
+        double result = series / x0 + 0.9189385332046728 + (x0 - 0.5) * Math.log(x0) - x0;
+        for (int k = 0; k < n; k++) {
+            x0 -= 1.0;
+            result -= Math.log(x0);
+        }
+        return result;
+    }
+
+    /**
+     * Fills part of an array with exponential-distributed floats with rate 1.0, as by {@link #exponential(long)}. Each
+     * item gets its own state, made by mixing the seed and the item's position, so the same seed always gives the same
+     * results and nothing is allocated.
+     *
+     * @param seed any long
+     * @param out where results are stored
+     * @param start the first index to fill
+     * @param length how many items to fill
+     */
+    public static void exponential(long seed, float[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = (float) exponential(mix(seed += GOLDEN));
+        }
+    }
+
+    /**
+     * Fills part of an array with gamma-distributed floats, as by {@link #gamma(long, double)}.
+     *
+     * @param seed any long
+     * @param shape the shape parameter; must be positive
+     * @param out where results are stored
+     * @param start the first index to fill
+     * @param length how many items to fill
+     */
+    public static void gamma(long seed, double shape, float[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = (float) gamma(mix(seed += GOLDEN), shape);
+        }
+    }
+
+    /**
+     * Fills part of an array with beta-distributed floats, as by {@link #beta(long, double, double)}.
+     *
+     * @param seed any long
+     * @param alpha the first shape parameter; must be positive
+     * @param beta the second shape parameter; must be positive
+     * @param out where results are stored
+     * @param start the first index to fill
+     * @param length how many items to fill
+     */
+    public static void beta(long seed, double alpha, double beta, float[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = (float) beta(mix(seed += GOLDEN), alpha, beta);
+        }
+    }
+
+    /**
+     * Fills part of an array with triangular-distributed floats, as by
+     * {@link #triangular(long, double, double, double)}.
+     *
+     * @param seed any long
+     * @param min the lowest possible result
+     * @param max the highest possible result
+     * @param mode the most likely result
+     * @param out where results are stored
+     * @param start the first index to fill
+     * @param length how many items to fill
+     */
+    public static void triangular(long seed, double min, double max, double mode, float[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = (float) triangular(mix(seed += GOLDEN), min, max, mode);
+        }
+    }
+
+    /**
+     * Fills part of an array with Poisson-distributed ints, as by {@link #poisson(long, double)}. Results that don't
+     * fit in an int are clamped to {@link Integer#MAX_VALUE}.
+     *
+     * @param seed any long
+     * @param lambda the expected number of events; should be non-negative
+     * @param out where results are stored
+     * @param start the first index to fill
+     * @param length how many items to fill
+     */
+    public static void poisson(long seed, double lambda, int[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = (int) Math.min(poisson(mix(seed += GOLDEN), lambda), Integer.MAX_VALUE);
+        }
+    }
+
     /**
      * This is an alias for {@link #probitD(double)}.
      *
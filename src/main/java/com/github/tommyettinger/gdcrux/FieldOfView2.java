@@ -0,0 +1,276 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Field-of-view on a 2D grid, using symmetric shadowcasting as described by Albert Ford. A cell is visible when it is
+ * within the radius and there is an unobstructed line from the center of the origin to the center of that cell; walls
+ * are also visible when they are next to such a line, so room edges light up as expected. Visibility is symmetric for
+ * transparent cells: if A can see B, B can see A. The origin is always visible.
+ * <br>
+ * The map is a {@code boolean[]} where true means light passes through a cell, indexed by {@code x + y * width}; cells
+ * outside the grid are treated as walls. Results go into a reusable {@link BitRegion2}, or into a {@code float[]} of
+ * light levels that are 1 at the origin and fall off linearly with distance to just above 0 at the radius. Rows of each
+ * quadrant are scanned with an explicit stack instead of recursion, and that stack is shared by every call, so
+ * recomputing FOV each turn (or for many origins at once with the batch methods) doesn't allocate after the first few
+ * calls. One FieldOfView2 should only be used by one thread at a time.
+ */
+public class FieldOfView2 {
+    /**
+     * How distance from the origin is measured when deciding if a cell is within the radius.
+     */
+    public enum Metric {
+        /** Diagonal moves count as 1, so the lit area is a square. */
+        CHEBYSHEV,
+        /** Diagonal moves count as 2, so the lit area is a diamond. */
+        MANHATTAN,
+        /** Straight-line distance, so the lit area is a circle. */
+        EUCLIDEAN;
+
+        /**
+         * @param dx the absolute x-distance
+         * @param dy the absolute y-distance
+         * @return the distance using this metric
+         */
+        public float distance(int dx, int dy) {
+            switch (this) {
+                case CHEBYSHEV:
+                    return Math.max(dx, dy);
+                case MANHATTAN:
+                    return dx + dy;
+                default:
+                    return (float) Math.sqrt(dx * dx + dy * dy);
+            }
+        }
+    }
+
+    /** For each quadrant, how a (depth, column) pair maps to x and y offsets: x = depth * XD + col * XC, and so on. */
+    private static final int[] XD = {0, 1, 0, -1}, XC = {1, 0, 1, 0}, YD = {1, 0, -1, 0}, YC = {0, 1, 0, 1};
+
+    /** The number of cells along the x-axis. */
+    public final int width;
+    /** The number of cells along the y-axis. */
+    public final int height;
+    /** How distance is measured for the radius; defaults to {@link Metric#EUCLIDEAN}. */
+    public Metric metric = Metric.EUCLIDEAN;
+
+    /** Pending rows, 5 ints each: depth, start slope numerator and denominator, end slope numerator and denominator. */
+    private final IntArray rows = new IntArray(80);
+    private BitRegion2 region;
+    private float[] light;
+
+    /**
+     * Creates a FieldOfView2 for grids with the given size.
+     * @param width the number of cells along the x-axis
+     * @param height the number of cells along the y-axis
+     */
+    public FieldOfView2(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Finds every cell visible from ox,oy within radius, clearing out and then adding those cells to it.
+     * @param transparent true for cells light passes through, indexed by {@code x + y * width}; will not be modified
+     * @param ox the x-coordinate of the viewer
+     * @param oy the y-coordinate of the viewer
+     * @param radius the furthest distance that can be seen, using {@link #metric}
+     * @param out will be cleared and then hold every visible cell; must have the same size as this
+     * @return out, after modifications
+     */
+    public BitRegion2 calculate(boolean[] transparent, int ox, int oy, float radius, BitRegion2 out) {
+        return calculateUnion(transparent, ox, oy, radius, out.clear());
+    }
+
+    /**
+     * Finds every cell visible from origin within radius, clearing out and then adding those cells to it.
+     * @param transparent true for cells light passes through, indexed by {@code x + y * width}; will not be modified
+     * @param origin the position of the viewer; will not be modified
+     * @param radius the furthest distance that can be seen, using {@link #metric}
+     * @param out will be cleared and then hold every visible cell; must have the same size as this
+     * @return out, after modifications
+     */
+    public BitRegion2 calculate(boolean[] transparent, PointI2 origin, float radius, BitRegion2 out) {
+        return calculate(transparent, origin.x, origin.y, radius, out);
+    }
+
+    /**
+     * Adds every cell visible from ox,oy within radius to out, without clearing it first.
+     * @param transparent true for cells light passes through, indexed by {@code x + y * width}; will not be modified
+     * @param ox the x-coordinate of the viewer
+     * @param oy the y-coordinate of the viewer
+     * @param radius the furthest distance that can be seen, using {@link #metric}
+     * @param out visible cells will be added here; must have the same size as this
+     * @return out, after modifications
+     */
+    public BitRegion2 calculateUnion(boolean[] transparent, int ox, int oy, float radius, BitRegion2 out) {
+        region = out;
+        light = null;
+        cast(transparent, ox, oy, radius);
+        region = null;
+        return out;
+    }
+
+    /**
+     * Finds the light level of every cell as seen from ox,oy within radius. Visible cells get
+     * {@code 1 - distance / (radius + 1)}, and all other cells get 0.
+     * @param transparent true for cells light passes through, indexed by {@code x + y * width}; will not be modified
+     * @param ox the x-coordinate of the viewer
+     * @param oy the y-coordinate of the viewer
+     * @param radius the furthest distance that can be seen, using {@link #metric}
+     * @param out will be filled with light levels, indexed by {@code x + y * width}; must have at least
+     *            {@code width * height} items
+     * @return out, after modifications
+     */
+    public float[] calculateLight(boolean[] transparent, int ox, int oy, float radius, float[] out) {
+        Arrays.fill(out, 0, width * height, 0f);
+        return calculateLightUnion(transparent, ox, oy, radius, out);
+    }
+
+    /**
+     * Finds the light level of every cell as seen from origin within radius. See
+     * {@link #calculateLight(boolean[], int, int, float, float[])}.
+     * @param transparent true for cells light passes through, indexed by {@code x + y * width}; will not be modified
+     * @param origin the position of the viewer; will not be modified
+     * @param radius the furthest distance that can be seen, using {@link #metric}
+     * @param out will be filled with light levels, indexed by {@code x + y * width}
+     * @return out, after modifications
+     */
+    public float[] calculateLight(boolean[] transparent, PointI2 origin, float radius, float[] out) {
+        return calculateLight(transparent, origin.x, origin.y, radius, out);
+    }
+
+    /**
+     * Like {@link #calculateLight(boolean[], int, int, float, float[])}, but doesn't clear out first; each visible cell
+     * keeps the greater of its current value and the light from ox,oy.
+     * @param transparent true for cells light passes through, indexed by {@code x + y * width}; will not be modified
+     * @param ox the x-coordinate of the viewer
+     * @param oy the y-coordinate of the viewer
+     * @param radius the furthest distance that can be seen, using {@link #metric}
+     * @param out light levels, indexed by {@code x + y * width}, will be raised where ox,oy lights them
+     * @return out, after modifications
+     */
+    public float[] calculateLightUnion(boolean[] transparent, int ox, int oy, float radius, float[] out) {
+        region = null;
+        light = out;
+        cast(transparent, ox, oy, radius);
+        light = null;
+        return out;
+    }
+
+    /**
+     * Finds every cell visible from any of the given origins, each with the same radius, clearing out first. This
+     * shares one scan stack across all origins.
+     * @param transparent true for cells light passes through, indexed by {@code x + y * width}; will not be modified
+     * @param origins cell indices of every viewer, as {@code x + y * width}; will not be modified
+     * @param radius the furthest distance that can be seen, using {@link #metric}
+     * @param out will be cleared and then hold every cell visible to at least one origin
+     * @return out, after modifications
+     */
+    public BitRegion2 calculateUnion(boolean[] transparent, IntArray origins, float radius, BitRegion2 out) {
+        out.clear();
+        for (int i = 0; i < origins.size; i++) {
+            final int o = origins.get(i);
+            calculateUnion(transparent, o % width, o / width, radius, out);
+        }
+        return out;
+    }
+
+    /**
+     * Finds the cells visible from each of the given origins separately, writing the FOV of {@code origins.get(i)}
+     * into {@code out[i]}. This shares one scan stack across all origins.
+     * @param transparent true for cells light passes through, indexed by {@code x + y * width}; will not be modified
+     * @param origins cell indices of every viewer, as {@code x + y * width}; will not be modified
+     * @param radius the furthest distance that can be seen, using {@link #metric}
+     * @param out must have at least {@code origins.size} regions, each with the same size as this; each will be
+     *            cleared and then hold the cells visible from the matching origin
+     * @return out, after modifications
+     */
+    public BitRegion2[] calculate(boolean[] transparent, IntArray origins, float radius, BitRegion2[] out) {
+        for (int i = 0; i < origins.size; i++) {
+            final int o = origins.get(i);
+            calculate(transparent, o % width, o / width, radius, out[i]);
+        }
+        return out;
+    }
+
+    /**
+     * Finds the greatest light level at each cell from any of the given origins, each with the same radius, clearing
+     * out first. This shares one scan stack across all origins.
+     * @param transparent true for cells light passes through, indexed by {@code x + y * width}; will not be modified
+     * @param origins cell indices of every light source, as {@code x + y * width}; will not be modified
+     * @param radius the furthest distance light reaches, using {@link #metric}
+     * @param out will be filled with light levels, indexed by {@code x + y * width}
+     * @return out, after modifications
+     */
+    public float[] calculateLight(boolean[] transparent, IntArray origins, float radius, float[] out) {
+        Arrays.fill(out, 0, width * height, 0f);
+        for (int i = 0; i < origins.size; i++) {
+            final int o = origins.get(i);
+            calculateLightUnion(transparent, o % width, o / width, radius, out);
+        }
+        return out;
+    }
+
+    private void reveal(int x, int y, float distance, float radius) {
+        if (region != null) {
+            region.set(x, y);
+        } else {
+            final int i = x + y * width;
+            light[i] = Math.max(light[i], 1f - distance / (radius + 1f));
+        }
+    }
+
+    private boolean blocks(boolean[] transparent, int x, int y) {
+        return x < 0 || y < 0 || x >= width || y >= height || !transparent[x + y * width];
+    }
+
+    private void cast(boolean[] transparent, int ox, int oy, float radius) {
+        if (ox < 0 || oy < 0 || ox >= width || oy >= height || !(radius >= 0f)) return;
+        reveal(ox, oy, 0f, radius);
+        final int maxDepth = (int) Math.min(radius, Math.max(width, height));
+        for (int q = 0; q < 4; q++) {
+            final int xd = XD[q], xc = XC[q], yd = YD[q], yc = YC[q];
+            rows.clear();
+            rows.add(1, -1, 1);
+            rows.add(1, 1);
+            while (rows.size > 0) {
+                rows.size -= 5;
+                final int[] r = rows.items;
+                final int depth = r[rows.size];
+                int sn = r[rows.size + 1], sd = r[rows.size + 2];
+                final int en = r[rows.size + 3], ed = r[rows.size + 4];
+                if (depth > maxDepth) continue;
+                // the columns whose centers are within the slopes, rounding ties outward
+                final int minCol = Math.floorDiv(2 * depth * sn + sd, 2 * sd);
+                final int maxCol = -Math.floorDiv(-(2 * depth * en - ed), 2 * ed);
+                int previous = 0; // 0 for none yet, 1 for a wall, 2 for a transparent cell
+                for (int col = minCol; col <= maxCol; col++) {
+                    final int x = ox + depth * xd + col * xc, y = oy + depth * yd + col * yc;
+                    final boolean wall = blocks(transparent, x, y);
+                    if (x >= 0 && y >= 0 && x < width && y < height
+                            && (wall || (col * sd >= depth * sn && col * ed <= depth * en))) {
+                        final float d = metric.distance(depth, Math.abs(col));
+                        if (d <= radius) reveal(x, y, d, radius);
+                    }
+                    if (previous == 1 && !wall) {
+                        // the start slope moves to the left edge of this cell
+                        sn = 2 * col - 1;
+                        sd = 2 * depth;
+                    }
+                    if (previous == 2 && wall) {
+                        rows.add(depth + 1, sn, sd);
+                        rows.add(2 * col - 1, 2 * depth);
+                    }
+                    previous = wall ? 1 : 2;
+                }
+                if (previous == 2) {
+                    rows.add(depth + 1, sn, sd);
+                    rows.add(en, ed);
+                }
+            }
+        }
+    }
+}
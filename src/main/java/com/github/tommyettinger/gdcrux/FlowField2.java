@@ -0,0 +1,374 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * A flow field over a 2D grid, for moving many agents toward the same goal (or set of goals) without running a
+ * separate search for each one. {@link #build(float[], IntArray)} computes an integration field, which holds the cost
+ * to reach the nearest goal from every cell, and then picks a direction for every cell that leads one step closer to
+ * a goal; any agent can then look up {@link #directionX(int, int)} and {@link #directionY(int, int)} for its cell in
+ * constant time. Directions are stored packed, as one byte per cell.
+ * <br>
+ * Costs follow the same rules as {@link GridPathfinder2}: each cell in the {@code float[]} holds the cost to enter
+ * that cell, {@link Float#POSITIVE_INFINITY} (or NaN) marks a wall, and diagonal moves (if {@link #diagonal} is true)
+ * cost {@code sqrt(2)} times as much and can't cut the corner of a wall. The costs array is kept by reference, so after
+ * changing a few costs in place, {@link #update(int, int, int, int)} recomputes only the cells whose paths could have
+ * been affected, instead of the whole field.
+ * <br>
+ * All scratch space is allocated in the constructor, so building and updating don't allocate.
+ */
+public class FlowField2 {
+    private static final float SQRT2 = 1.4142135f;
+    private static final float HALF_SQRT2 = 0.70710677f;
+    private static final int[] DX = {1, -1, 0, 0, 1, -1, 1, -1};
+    private static final int[] DY = {0, 0, 1, -1, 1, 1, -1, -1};
+    private static final int[] OPPOSITE = {1, 0, 3, 2, 7, 6, 5, 4};
+    private static final byte NONE = -1;
+
+    /** The number of cells along the x-axis. */
+    public final int width;
+    /** The number of cells along the y-axis. */
+    public final int height;
+    /**
+     * If true, agents may move diagonally (8-way movement); if false, only orthogonally (4-way). Defaults to true.
+     * Changing this only takes effect on the next {@link #build(float[], IntArray)}.
+     */
+    public boolean diagonal = true;
+
+    private final float[] integration;
+    private final byte[] directions;
+    private final boolean[] goalCells;
+    private final IndexedFloatHeap open;
+    private final int[] marks;
+    private int generation;
+    private final IntArray goals = new IntArray();
+    private final IntArray affected = new IntArray();
+    private final IntArray changed = new IntArray();
+    private float[] costs;
+    private boolean builtDiagonal;
+
+    /**
+     * Creates a FlowField2 for grids with the given size, allocating all of its scratch space. Nothing can be sampled
+     * until {@link #build(float[], IntArray)} has been called.
+     * @param width the number of cells along the x-axis
+     * @param height the number of cells along the y-axis
+     */
+    public FlowField2(int width, int height) {
+        this.width = width;
+        this.height = height;
+        final int size = width * height;
+        integration = new float[size];
+        directions = new byte[size];
+        goalCells = new boolean[size];
+        open = new IndexedFloatHeap(size);
+        marks = new int[size];
+        Arrays.fill(integration, Float.POSITIVE_INFINITY);
+        Arrays.fill(directions, NONE);
+    }
+
+    /**
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @return the index of that cell, as used in cost arrays and goal lists
+     */
+    public int index(int x, int y) {
+        return x + y * width;
+    }
+
+    /**
+     * Computes the whole flow field toward one goal cell.
+     * @param costs the cost to enter each cell; must have at least {@code width * height} items; kept by reference
+     * @param goal the goal cell; will not be modified
+     * @return this, for chaining
+     */
+    public FlowField2 build(float[] costs, PointI2 goal) {
+        goals.clear();
+        goals.add(index(goal.x, goal.y));
+        return rebuild(costs);
+    }
+
+    /**
+     * Computes the whole flow field toward the nearest of several goal cells.
+     * @param costs the cost to enter each cell; must have at least {@code width * height} items; kept by reference
+     * @param goals the goal cells; will not be modified
+     * @return this, for chaining
+     */
+    public FlowField2 build(float[] costs, Array<PointI2> goals) {
+        this.goals.clear();
+        for (int i = 0; i < goals.size; i++) {
+            final PointI2 g = goals.get(i);
+            this.goals.add(index(g.x, g.y));
+        }
+        return rebuild(costs);
+    }
+
+    /**
+     * Computes the whole flow field toward the nearest of several goal cells, given as cell indices.
+     * @param costs the cost to enter each cell; must have at least {@code width * height} items; kept by reference
+     * @param goals the indices of the goal cells; will not be modified
+     * @return this, for chaining
+     */
+    public FlowField2 build(float[] costs, IntArray goals) {
+        this.goals.clear();
+        this.goals.addAll(goals);
+        return rebuild(costs);
+    }
+
+    private FlowField2 rebuild(float[] costs) {
+        this.costs = costs;
+        builtDiagonal = diagonal;
+        final int size = width * height;
+        Arrays.fill(goalCells, false);
+        Arrays.fill(integration, 0, size, Float.POSITIVE_INFINITY);
+        open.clear();
+        for (int i = 0; i < goals.size; i++) {
+            final int g = goals.get(i);
+            goalCells[g] = true;
+            integration[g] = 0f;
+            open.add(g, 0f);
+        }
+        changed.clear();
+        integrate();
+        for (int i = 0; i < size; i++) {
+            pointCell(i);
+        }
+        return this;
+    }
+
+    /**
+     * Recomputes the part of the flow field that depends on the cells from minX,minY to maxX,maxY (inclusive), which
+     * should be called after changing the costs of those cells in the array given to the last build. Only the changed
+     * cells, the cells whose current paths lead through them, and whatever cells end up with a different cost are
+     * visited, so this is much faster than a full build when the region is small. The result is the same as a full
+     * build, other than which direction is chosen when two directions are equally good.
+     * @param minX the lowest x-coordinate of a changed cell
+     * @param minY the lowest y-coordinate of a changed cell
+     * @param maxX the highest x-coordinate of a changed cell
+     * @param maxY the highest y-coordinate of a changed cell
+     * @return this, for chaining
+     */
+    public FlowField2 update(int minX, int minY, int maxX, int maxY) {
+        // a diagonal move can be blocked by a wall next to both of its cells, so widen the region by one
+        final int grow = builtDiagonal ? 1 : 0;
+        minX = Math.max(minX - grow, 0);
+        minY = Math.max(minY - grow, 0);
+        maxX = Math.min(maxX + grow, width - 1);
+        maxY = Math.min(maxY + grow, height - 1);
+        nextGeneration();
+        affected.clear();
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                final int i = x + y * width;
+                marks[i] = generation;
+                affected.add(i);
+            }
+        }
+        final int dirs = builtDiagonal ? 8 : 4;
+        // everything whose direction leads into an affected cell is affected too
+        for (int a = 0; a < affected.size; a++) {
+            final int current = affected.get(a), x = current % width, y = current / width;
+            for (int d = 0; d < dirs; d++) {
+                final int nx = x + DX[d], ny = y + DY[d];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                final int next = nx + ny * width;
+                if (marks[next] != generation && directions[next] == OPPOSITE[d]) {
+                    marks[next] = generation;
+                    affected.add(next);
+                }
+            }
+        }
+        open.clear();
+        for (int a = 0; a < affected.size; a++) {
+            integration[affected.get(a)] = Float.POSITIVE_INFINITY;
+        }
+        for (int i = 0; i < goals.size; i++) {
+            final int g = goals.get(i);
+            if (marks[g] == generation) {
+                integration[g] = 0f;
+                open.add(g, 0f);
+            }
+        }
+        // unaffected cells next to affected ones still have correct costs, so the search restarts from them
+        for (int a = 0; a < affected.size; a++) {
+            final int current = affected.get(a), x = current % width, y = current / width;
+            for (int d = 0; d < dirs; d++) {
+                final int nx = x + DX[d], ny = y + DY[d];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                final int next = nx + ny * width;
+                if (marks[next] != generation && integration[next] < Float.POSITIVE_INFINITY)
+                    open.add(next, integration[next]);
+            }
+        }
+        changed.clear();
+        changed.addAll(affected);
+        integrate();
+        for (int c = 0; c < changed.size; c++) {
+            final int current = changed.get(c), x = current % width, y = current / width;
+            pointCell(current);
+            for (int d = 0; d < dirs; d++) {
+                final int nx = x + DX[d], ny = y + DY[d];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                pointCell(nx + ny * width);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Recomputes the part of the flow field that depends on the cells in region; see
+     * {@link #update(int, int, int, int)}.
+     * @param region the box of cells whose costs changed; will not be modified
+     * @return this, for chaining
+     */
+    public FlowField2 update(BoxI2 region) {
+        return update(region.min.x, region.min.y, region.max.x, region.max.y);
+    }
+
+    /**
+     * Gets the cost to reach the nearest goal from the given cell, or {@link Float#POSITIVE_INFINITY} if no goal can
+     * be reached from there.
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @return the cost to reach the nearest goal
+     */
+    public float integration(int x, int y) {
+        return integration[x + y * width];
+    }
+
+    /**
+     * Returns true if there is a direction to move in from the given cell; this is false for goals, walls, and cells
+     * that can't reach any goal.
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @return true if an agent at that cell should move
+     */
+    public boolean hasDirection(int x, int y) {
+        return directions[x + y * width] != NONE;
+    }
+
+    /**
+     * Gets the x part of the direction an agent at the given cell should move in: -1, 0, or 1.
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @return the change in x for the next step, or 0 if there is no direction
+     */
+    public int directionX(int x, int y) {
+        final int d = directions[x + y * width];
+        return d == NONE ? 0 : DX[d];
+    }
+
+    /**
+     * Gets the y part of the direction an agent at the given cell should move in: -1, 0, or 1.
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @return the change in y for the next step, or 0 if there is no direction
+     */
+    public int directionY(int x, int y) {
+        final int d = directions[x + y * width];
+        return d == NONE ? 0 : DY[d];
+    }
+
+    /**
+     * Sets out to the step an agent at the given cell should take, with each component -1, 0, or 1. If there is no
+     * direction, out is set to 0,0.
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @param out will be set to the next step
+     * @return out, after modifications, or a new point with the result if out is not mutable
+     */
+    public PointI2 direction(int x, int y, PointI2 out) {
+        final int d = directions[x + y * width];
+        return d == NONE ? out.seti(0, 0) : out.seti(DX[d], DY[d]);
+    }
+
+    /**
+     * Sets out to the unit-length direction an agent at the given cell should move in. If there is no direction, out
+     * is set to 0,0.
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @param out will be set to the direction
+     * @return out, after modifications
+     */
+    public PointF2 direction(int x, int y, PointF2 out) {
+        final int d = directions[x + y * width];
+        if (d == NONE) return out.set(0f, 0f);
+        final float scale = d < 4 ? 1f : HALF_SQRT2;
+        return out.set(DX[d] * scale, DY[d] * scale);
+    }
+
+    private void nextGeneration() {
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(marks, 0);
+            generation = 0;
+        }
+        generation++;
+    }
+
+    /**
+     * Gets the cost to move from the cell at x,y by the given direction, or infinity if that move isn't possible.
+     */
+    private float moveCost(int x, int y, int d) {
+        final int nx = x + DX[d], ny = y + DY[d];
+        if (nx < 0 || ny < 0 || nx >= width || ny >= height) return Float.POSITIVE_INFINITY;
+        final float c = costs[nx + ny * width];
+        if (d < 4) return c;
+        if (!(costs[x + ny * width] < Float.POSITIVE_INFINITY && costs[nx + y * width] < Float.POSITIVE_INFINITY))
+            return Float.POSITIVE_INFINITY;
+        return c * SQRT2;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm outward from whatever is in the open heap, lowering integration values; each cell that
+     * gets lowered is added to {@link #changed}.
+     */
+    private void integrate() {
+        final int dirs = builtDiagonal ? 8 : 4;
+        while (!open.isEmpty()) {
+            final int current = open.pop();
+            final int x = current % width, y = current / width;
+            final float g = integration[current];
+            for (int d = 0; d < dirs; d++) {
+                final int nx = x + DX[d], ny = y + DY[d];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                final int next = nx + ny * width;
+                if (!(costs[next] < Float.POSITIVE_INFINITY)) continue;
+                // an agent at next would move the opposite way, into current
+                final float c = moveCost(nx, ny, OPPOSITE[d]);
+                if (!(c < Float.POSITIVE_INFINITY)) continue;
+                final float ng = g + c;
+                if (ng < integration[next]) {
+                    integration[next] = ng;
+                    open.add(next, ng);
+                    changed.add(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Picks the direction for one cell, choosing the move that leads to the lowest total cost.
+     */
+    private void pointCell(int cell) {
+        if (goalCells[cell] || !(integration[cell] < Float.POSITIVE_INFINITY)) {
+            directions[cell] = NONE;
+            return;
+        }
+        final int x = cell % width, y = cell / width;
+        final int dirs = builtDiagonal ? 8 : 4;
+        float best = Float.POSITIVE_INFINITY;
+        byte bestDir = NONE;
+        for (int d = 0; d < dirs; d++) {
+            final float c = moveCost(x, y, d);
+            if (!(c < Float.POSITIVE_INFINITY)) continue;
+            final float total = integration[x + DX[d] + (y + DY[d]) * width] + c;
+            if (total < best) {
+                best = total;
+                bestDir = (byte) d;
+            }
+        }
+        directions[cell] = bestDir;
+    }
+}
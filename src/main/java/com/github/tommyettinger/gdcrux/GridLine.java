@@ -0,0 +1,247 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.github.tommyettinger.crux.PointPair;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A reusable cursor over the grid cells on a Bresenham line between two int points, in any rank from 2 to 6. The line
+ * includes both endpoints, and moves one step along its longest axis for every cell, so consecutive cells touch at a
+ * face, edge, or corner.
+ * <br>
+ * Call {@link #reset(PointIShared, PointIShared)} or {@link #reset(PointPair)}, then loop while {@link #hasNext()} is
+ * true, writing each cell into the same point with {@link #next(PointIShared)}. Nothing is allocated after
+ * construction. For writing whole lines into an {@link IntArray} of cell indices, there are static rasterize() methods
+ * for 2D, 3D, and any rank.
+ */
+public class GridLine {
+    private final int[] current = new int[6];
+    private final int[] steps = new int[6];
+    private final long[] deltas = new long[6];
+    private final long[] errors = new long[6];
+    private int rank;
+    private long length;
+    private long index;
+
+    /**
+     * Creates a GridLine with no cells; a reset() method must be called before it produces anything.
+     */
+    public GridLine() {
+    }
+
+    /**
+     * Starts over with the line from start to end, inclusive. Both must have the same rank, from 2 to 6.
+     * @param start the first cell on the line; will not be modified
+     * @param end the last cell on the line; will not be modified
+     * @return this, for chaining
+     */
+    public GridLine reset(PointIShared<?, ?> start, PointIShared<?, ?> end) {
+        rank = start.rank();
+        long longest = 0L;
+        for (int axis = 0; axis < rank; axis++) {
+            final long d = (long) end.get(axis) - start.get(axis);
+            current[axis] = start.get(axis);
+            steps[axis] = Long.signum(d);
+            deltas[axis] = Math.abs(d);
+            longest = Math.max(longest, deltas[axis]);
+        }
+        for (int axis = 0; axis < rank; axis++) {
+            errors[axis] = 2 * deltas[axis] - longest;
+        }
+        length = longest + 1;
+        index = 0;
+        return this;
+    }
+
+    /**
+     * Starts over with the line from {@code pair.a} to {@code pair.b}, inclusive.
+     * @param pair the endpoints of the line, such as from {@link PointMaker#pair(int, int, int, int)}; will not be
+     *             modified
+     * @return this, for chaining
+     * @param <P> the type of point, such as {@link PointI2} or {@link PointI3}
+     */
+    public <P extends PointIShared<P, ?>> GridLine reset(PointPair<P> pair) {
+        return reset(pair.a, pair.b);
+    }
+
+    /**
+     * @return how many cells are on the whole line, including both endpoints
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * @return true if there is at least one more cell on the line
+     */
+    public boolean hasNext() {
+        return index < length;
+    }
+
+    /**
+     * Writes the next cell on the line into out, and moves past it.
+     * @param out will be modified to hold the next cell; must have the same rank as the endpoints
+     * @return out, after modifications, or a new point with the result if out is not mutable
+     * @throws NoSuchElementException if there are no more cells
+     * @param <P> the type of point
+     */
+    public <P extends PointIShared<P, ?>> P next(P out) {
+        if (index >= length) throw new NoSuchElementException("No more cells.");
+        for (int axis = 0; axis < rank; axis++) {
+            out = out.setAt(axis, current[axis]);
+        }
+        advance();
+        return out;
+    }
+
+    private void advance() {
+        final long longest = length - 1;
+        for (int axis = 0; axis < rank; axis++) {
+            if (errors[axis] > 0) {
+                current[axis] += steps[axis];
+                errors[axis] -= 2 * longest;
+            }
+            errors[axis] += 2 * deltas[axis];
+        }
+        index++;
+    }
+
+    /**
+     * Appends the index {@code x + width * y} of every cell on the line from x0,y0 to x1,y1 (inclusive) to out,
+     * skipping any cells outside a grid with the given width and height.
+     * @param x0 the x-coordinate of the first cell
+     * @param y0 the y-coordinate of the first cell
+     * @param x1 the x-coordinate of the last cell
+     * @param y1 the y-coordinate of the last cell
+     * @param width the number of cells along the x-axis of the grid
+     * @param height the number of cells along the y-axis of the grid
+     * @param out cell indices will be appended here
+     * @return how many cell indices were appended
+     */
+    public static int rasterize(int x0, int y0, int x1, int y1, int width, int height, IntArray out) {
+        final int dx = Math.abs(x1 - x0), dy = Math.abs(y1 - y0), sx = Integer.signum(x1 - x0), sy = Integer.signum(y1 - y0);
+        final int longest = Math.max(dx, dy);
+        int ex = 2 * dx - longest, ey = 2 * dy - longest, x = x0, y = y0, added = 0;
+        out.ensureCapacity(longest + 1);
+        for (int i = 0; i <= longest; i++) {
+            if (x >= 0 && y >= 0 && x < width && y < height) {
+                out.add(x + width * y);
+                added++;
+            }
+            if (ex > 0) {
+                x += sx;
+                ex -= 2 * longest;
+            }
+            if (ey > 0) {
+                y += sy;
+                ey -= 2 * longest;
+            }
+            ex += 2 * dx;
+            ey += 2 * dy;
+        }
+        return added;
+    }
+
+    /**
+     * Appends the index {@code x + width * y} of every cell on the line between the given points (inclusive) to out,
+     * skipping any cells outside a grid with the given width and height.
+     * @param line the endpoints of the line; will not be modified
+     * @param width the number of cells along the x-axis of the grid
+     * @param height the number of cells along the y-axis of the grid
+     * @param out cell indices will be appended here
+     * @return how many cell indices were appended
+     */
+    public static int rasterize(PointPair<PointI2> line, int width, int height, IntArray out) {
+        return rasterize(line.a.x, line.a.y, line.b.x, line.b.y, width, height, out);
+    }
+
+    /**
+     * Appends the index {@code x + width * (y + height * z)} of every cell on the line from x0,y0,z0 to x1,y1,z1
+     * (inclusive) to out, skipping any cells outside a grid with the given width, height, and depth.
+     * @param x0 the x-coordinate of the first cell
+     * @param y0 the y-coordinate of the first cell
+     * @param z0 the z-coordinate of the first cell
+     * @param x1 the x-coordinate of the last cell
+     * @param y1 the y-coordinate of the last cell
+     * @param z1 the z-coordinate of the last cell
+     * @param width the number of cells along the x-axis of the grid
+     * @param height the number of cells along the y-axis of the grid
+     * @param depth the number of cells along the z-axis of the grid
+     * @param out cell indices will be appended here
+     * @return how many cell indices were appended
+     */
+    public static int rasterize(int x0, int y0, int z0, int x1, int y1, int z1, int width, int height, int depth,
+                                IntArray out) {
+        final int dx = Math.abs(x1 - x0), dy = Math.abs(y1 - y0), dz = Math.abs(z1 - z0);
+        final int sx = Integer.signum(x1 - x0), sy = Integer.signum(y1 - y0), sz = Integer.signum(z1 - z0);
+        final int longest = Math.max(dx, Math.max(dy, dz));
+        int ex = 2 * dx - longest, ey = 2 * dy - longest, ez = 2 * dz - longest, x = x0, y = y0, z = z0, added = 0;
+        out.ensureCapacity(longest + 1);
+        for (int i = 0; i <= longest; i++) {
+            if (x >= 0 && y >= 0 && z >= 0 && x < width && y < height && z < depth) {
+                out.add(x + width * (y + height * z));
+                added++;
+            }
+            if (ex > 0) {
+                x += sx;
+                ex -= 2 * longest;
+            }
+            if (ey > 0) {
+                y += sy;
+                ey -= 2 * longest;
+            }
+            if (ez > 0) {
+                z += sz;
+                ez -= 2 * longest;
+            }
+            ex += 2 * dx;
+            ey += 2 * dy;
+            ez += 2 * dz;
+        }
+        return added;
+    }
+
+    /**
+     * Appends the index {@code x + width * (y + height * z)} of every cell on the line between the given points
+     * (inclusive) to out, skipping any cells outside a grid with the given width, height, and depth.
+     * @param line the endpoints of the line; will not be modified
+     * @param width the number of cells along the x-axis of the grid
+     * @param height the number of cells along the y-axis of the grid
+     * @param depth the number of cells along the z-axis of the grid
+     * @param out cell indices will be appended here
+     * @return how many cell indices were appended
+     */
+    public static int rasterize(PointPair<PointI3> line, int width, int height, int depth, IntArray out) {
+        return rasterize(line.a.x, line.a.y, line.a.z, line.b.x, line.b.y, line.b.z, width, height, depth, out);
+    }
+
+    /**
+     * Appends the row-major index of every cell on the current line to out, skipping any cells outside a grid with the
+     * given size, and moves to the end of the line. The index of a cell is its first component, plus {@code size[0]}
+     * times its second component, plus {@code size[0] * size[1]} times its third component, and so on. This works for
+     * any rank, and is mainly meant for ranks 4 to 6, which don't have their own rasterize() methods.
+     * @param size the number of cells along each axis of the grid; will not be modified
+     * @param out cell indices will be appended here
+     * @return how many cell indices were appended
+     */
+    public int rasterize(int[] size, IntArray out) {
+        int added = 0;
+        outer:
+        while (index < length) {
+            int cell = 0;
+            for (int axis = rank - 1; axis >= 0; axis--) {
+                final int c = current[axis];
+                if (c < 0 || c >= size[axis]) {
+                    advance();
+                    continue outer;
+                }
+                cell = cell * size[axis] + c;
+            }
+            out.add(cell);
+            added++;
+            advance();
+        }
+        return added;
+    }
+}
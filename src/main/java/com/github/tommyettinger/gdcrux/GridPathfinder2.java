@@ -0,0 +1,287 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * A* and Dijkstra pathfinding on a 2D grid, where each cell is identified by an int index {@code x + y * width}, and
+ * the cost to enter each cell comes from a {@code float[]} with one item per cell. A cost of
+ * {@link Float#POSITIVE_INFINITY} (or NaN) marks a wall that can't be entered; every other cost must be
+ * non-negative. Moves are orthogonal only, or also diagonal if {@link #diagonal} is true; a diagonal move costs
+ * {@code sqrt(2)} times the cost of the cell it enters, and isn't allowed if it would cut the corner of a wall.
+ * <br>
+ * All the scratch space a search needs is allocated once, in the constructor, and is reset in constant time between
+ * searches, so the same GridPathfinder2 can be used for many queries without allocating or boxing anything. This
+ * also means one GridPathfinder2 should only be used by one thread at a time. Paths can be written as cell indices
+ * into an {@link IntArray}, or as {@link PointI2} items into an {@link Array}, reusing any PointI2 already there.
+ * <br>
+ * {@link #distanceMap(float[], IntArray, float, float[])} runs Dijkstra's algorithm from any number of sources at
+ * once, producing the cost to reach the nearest source from every cell.
+ */
+public class GridPathfinder2 {
+    private static final float SQRT2 = 1.4142135f;
+    private static final int[] DX = {1, -1, 0, 0, 1, -1, 1, -1};
+    private static final int[] DY = {0, 0, 1, -1, 1, 1, -1, -1};
+
+    /** The number of cells along the x-axis. */
+    public final int width;
+    /** The number of cells along the y-axis. */
+    public final int height;
+    /**
+     * If true, paths may move diagonally (8-way movement); if false, only orthogonally (4-way). Defaults to true.
+     */
+    public boolean diagonal = true;
+    /**
+     * Multiplies the A* heuristic. For A* to find the shortest path, this must be no greater than the lowest cost of
+     * any passable cell, so the default of 1 works for grids where every cost is at least 1. Larger values make A*
+     * faster, but may produce longer paths; 0 makes A* the same as Dijkstra's algorithm.
+     */
+    public float heuristicScale = 1f;
+
+    private final float[] gScores;
+    private final int[] parents;
+    private final int[] seen;
+    private final int[] closed;
+    private int generation;
+    private final IndexedFloatHeap open;
+    private final IntArray cellScratch = new IntArray();
+
+    /**
+     * Creates a GridPathfinder2 for grids with the given size, allocating all of its scratch space.
+     * @param width the number of cells along the x-axis
+     * @param height the number of cells along the y-axis
+     */
+    public GridPathfinder2(int width, int height) {
+        this.width = width;
+        this.height = height;
+        final int size = width * height;
+        gScores = new float[size];
+        parents = new int[size];
+        seen = new int[size];
+        closed = new int[size];
+        open = new IndexedFloatHeap(size);
+    }
+
+    /**
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @return the index of that cell, as used in cost arrays and index paths
+     */
+    public int index(int x, int y) {
+        return x + y * width;
+    }
+
+    /**
+     * Sets {@code out} to the coordinates of the cell with the given index.
+     * @param index a cell index, as produced by {@link #index(int, int)}
+     * @param out will be modified to hold the cell's coordinates
+     * @return out, after modifications, or a new point with the result if out is not mutable
+     */
+    public PointI2 point(int index, PointI2 out) {
+        return out.seti(index % width, index / width);
+    }
+
+    /**
+     * Finds the lowest-cost path from the start cell to the goal cell with A*, and writes the cell indices of that path
+     * (including start and goal) into {@code path}, in order from start to goal. If there is no path, path is left
+     * empty. Start may be a wall; goal may not be.
+     * @param costs the cost to enter each cell; must have at least {@code width * height} items
+     * @param startX the x-coordinate of the start cell
+     * @param startY the y-coordinate of the start cell
+     * @param goalX the x-coordinate of the goal cell
+     * @param goalY the y-coordinate of the goal cell
+     * @param path will be cleared, then given the cell indices of the path, if there is one
+     * @return the total cost of the path, or {@link Float#POSITIVE_INFINITY} if there is no path
+     */
+    public float findPath(float[] costs, int startX, int startY, int goalX, int goalY, IntArray path) {
+        return search(costs, index(startX, startY), index(goalX, goalY), heuristicScale, path);
+    }
+
+    /**
+     * Finds the lowest-cost path from start to goal with A*, and writes that path (including start and goal) into
+     * {@code path}, in order from start to goal. Any mutable PointI2 items already in path are reused, and others (such
+     * as {@link ConstPointI2} keys) are replaced. If there is no path, path is left empty.
+     * @param costs the cost to enter each cell; must have at least {@code width * height} items
+     * @param start the start cell; will not be modified
+     * @param goal the goal cell; will not be modified
+     * @param path will be filled with the path, if there is one
+     * @return the total cost of the path, or {@link Float#POSITIVE_INFINITY} if there is no path
+     */
+    public float findPath(float[] costs, PointI2 start, PointI2 goal, Array<PointI2> path) {
+        final float cost = search(costs, index(start.x, start.y), index(goal.x, goal.y), heuristicScale, cellScratch);
+        toPoints(cellScratch, path);
+        return cost;
+    }
+
+    /**
+     * Like {@link #findPath(float[], int, int, int, int, IntArray)}, but uses Dijkstra's algorithm instead of A*. This
+     * always finds the shortest path regardless of {@link #heuristicScale}, but usually visits more cells.
+     * @param costs the cost to enter each cell; must have at least {@code width * height} items
+     * @param startX the x-coordinate of the start cell
+     * @param startY the y-coordinate of the start cell
+     * @param goalX the x-coordinate of the goal cell
+     * @param goalY the y-coordinate of the goal cell
+     * @param path will be cleared, then given the cell indices of the path, if there is one
+     * @return the total cost of the path, or {@link Float#POSITIVE_INFINITY} if there is no path
+     */
+    public float findPathDijkstra(float[] costs, int startX, int startY, int goalX, int goalY, IntArray path) {
+        return search(costs, index(startX, startY), index(goalX, goalY), 0f, path);
+    }
+
+    /**
+     * Like {@link #findPath(float[], PointI2, PointI2, Array)}, but uses Dijkstra's algorithm instead of A*. This
+     * always finds the shortest path regardless of {@link #heuristicScale}, but usually visits more cells.
+     * @param costs the cost to enter each cell; must have at least {@code width * height} items
+     * @param start the start cell; will not be modified
+     * @param goal the goal cell; will not be modified
+     * @param path will be filled with the path, if there is one
+     * @return the total cost of the path, or {@link Float#POSITIVE_INFINITY} if there is no path
+     */
+    public float findPathDijkstra(float[] costs, PointI2 start, PointI2 goal, Array<PointI2> path) {
+        final float cost = search(costs, index(start.x, start.y), index(goal.x, goal.y), 0f, cellScratch);
+        toPoints(cellScratch, path);
+        return cost;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from every source cell at once, writing the cost to reach each cell from its nearest
+     * source into {@code out}. Cells that can't be reached, or that would cost more than maxDistance to reach, are set
+     * to {@link Float#POSITIVE_INFINITY}. Source cells are always set to 0, even if they are walls.
+     * @param costs the cost to enter each cell; must have at least {@code width * height} items
+     * @param sources the cell indices to start from
+     * @param maxDistance the highest cost to search up to; use {@link Float#POSITIVE_INFINITY} to search everything
+     * @param out will receive the distance to every cell; must have at least {@code width * height} items
+     * @return out, after modifications
+     */
+    public float[] distanceMap(float[] costs, IntArray sources, float maxDistance, float[] out) {
+        Arrays.fill(out, 0, width * height, Float.POSITIVE_INFINITY);
+        open.clear();
+        for (int i = 0; i < sources.size; i++) {
+            final int s = sources.get(i);
+            out[s] = 0f;
+            open.add(s, 0f);
+        }
+        expand(costs, maxDistance, out);
+        return out;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from every source cell at once, writing the cost to reach each cell from its nearest
+     * source into {@code out}. Cells that can't be reached, or that would cost more than maxDistance to reach, are set
+     * to {@link Float#POSITIVE_INFINITY}. Source cells are always set to 0, even if they are walls.
+     * @param costs the cost to enter each cell; must have at least {@code width * height} items
+     * @param sources the cells to start from; will not be modified
+     * @param maxDistance the highest cost to search up to; use {@link Float#POSITIVE_INFINITY} to search everything
+     * @param out will receive the distance to every cell; must have at least {@code width * height} items
+     * @return out, after modifications
+     */
+    public float[] distanceMap(float[] costs, Array<PointI2> sources, float maxDistance, float[] out) {
+        cellScratch.clear();
+        for (int i = 0; i < sources.size; i++) {
+            final PointI2 s = sources.get(i);
+            cellScratch.add(index(s.x, s.y));
+        }
+        return distanceMap(costs, cellScratch, maxDistance, out);
+    }
+
+    private float heuristic(int x, int y, int goalX, int goalY) {
+        final int dx = Math.abs(x - goalX), dy = Math.abs(y - goalY);
+        if (diagonal) {
+            return dx < dy ? SQRT2 * dx + (dy - dx) : SQRT2 * dy + (dx - dy);
+        }
+        return dx + dy;
+    }
+
+    private void nextGeneration() {
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            generation = 0;
+        }
+        generation++;
+    }
+
+    /**
+     * Gets the cost to move from the cell at x,y by the given direction, or infinity if that move isn't possible.
+     */
+    private float moveCost(float[] costs, int x, int y, int d) {
+        final int nx = x + DX[d], ny = y + DY[d];
+        if (nx < 0 || ny < 0 || nx >= width || ny >= height) return Float.POSITIVE_INFINITY;
+        final float c = costs[nx + ny * width];
+        if (d < 4) return c;
+        if (!(costs[x + ny * width] < Float.POSITIVE_INFINITY && costs[nx + y * width] < Float.POSITIVE_INFINITY))
+            return Float.POSITIVE_INFINITY;
+        return c * SQRT2;
+    }
+
+    private float search(float[] costs, int start, int goal, float hScale, IntArray path) {
+        path.clear();
+        nextGeneration();
+        open.clear();
+        final int goalX = goal % width, goalY = goal / width;
+        final int dirs = diagonal ? 8 : 4;
+        gScores[start] = 0f;
+        parents[start] = -1;
+        seen[start] = generation;
+        open.add(start, 0f);
+        while (!open.isEmpty()) {
+            final int current = open.pop();
+            if (current == goal) {
+                for (int c = goal; c != -1; c = parents[c]) {
+                    path.add(c);
+                }
+                path.reverse();
+                return gScores[goal];
+            }
+            closed[current] = generation;
+            final int x = current % width, y = current / width;
+            final float g = gScores[current];
+            for (int d = 0; d < dirs; d++) {
+                final float c = moveCost(costs, x, y, d);
+                if (!(c < Float.POSITIVE_INFINITY)) continue;
+                final int nx = x + DX[d], ny = y + DY[d], next = nx + ny * width;
+                if (closed[next] == generation) continue;
+                final float ng = g + c;
+                if (seen[next] != generation || ng < gScores[next]) {
+                    seen[next] = generation;
+                    gScores[next] = ng;
+                    parents[next] = current;
+                    open.add(next, ng + hScale * heuristic(nx, ny, goalX, goalY));
+                }
+            }
+        }
+        return Float.POSITIVE_INFINITY;
+    }
+
+    private void expand(float[] costs, float maxDistance, float[] out) {
+        final int dirs = diagonal ? 8 : 4;
+        while (!open.isEmpty()) {
+            final int current = open.pop();
+            final int x = current % width, y = current / width;
+            final float g = out[current];
+            for (int d = 0; d < dirs; d++) {
+                final float c = moveCost(costs, x, y, d);
+                final float ng = g + c;
+                if (!(c < Float.POSITIVE_INFINITY && ng <= maxDistance)) continue;
+                final int next = x + DX[d] + (y + DY[d]) * width;
+                if (ng < out[next]) {
+                    out[next] = ng;
+                    open.add(next, ng);
+                }
+            }
+        }
+    }
+
+    private void toPoints(IntArray cells, Array<PointI2> out) {
+        final int n = cells.size;
+        for (int i = 0; i < n; i++) {
+            final int c = cells.get(i);
+            final PointI2 p = i < out.size ? out.get(i) : null;
+            if (i < out.size) out.set(i, point(c, p == null ? new PointI2() : p));
+            else out.add(point(c, new PointI2()));
+        }
+        out.truncate(n);
+    }
+}
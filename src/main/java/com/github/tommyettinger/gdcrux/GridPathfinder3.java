@@ -0,0 +1,316 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * A* and Dijkstra pathfinding on a 3D grid, where each cell is identified by an int index
+ * {@code x + width * (y + height * z)}, and the cost to enter each cell comes from a {@code float[]} with one item per
+ * cell. A cost of {@link Float#POSITIVE_INFINITY} (or NaN) marks a wall that can't be entered; every other cost must
+ * be non-negative. Moves go only through faces (6-way), or also through edges and corners (26-way) if
+ * {@link #diagonal} is true. A move that changes 2 or 3 coordinates costs {@code sqrt(2)} or {@code sqrt(3)} times the
+ * cost of the cell it enters, and isn't allowed if any cell one step along a single one of its axes is a wall.
+ * <br>
+ * This is the 3D counterpart to {@link GridPathfinder2}, and works the same way: all scratch space is allocated once,
+ * in the constructor, and is reset in constant time between searches, so one GridPathfinder3 can answer many queries
+ * without allocating or boxing anything, but should only be used by one thread at a time.
+ */
+public class GridPathfinder3 {
+    private static final float SQRT2 = 1.4142135f;
+    private static final float SQRT3 = 1.7320508f;
+    /** Face neighbors come first, so the first 6 items are used for 6-way movement. */
+    private static final int[] DX = new int[26], DY = new int[26], DZ = new int[26];
+    private static final float[] MULTIPLIERS = new float[26];
+
+    static {
+        int d = 0;
+        for (int axes = 1; axes <= 3; axes++) {
+            for (int z = -1; z <= 1; z++) {
+                for (int y = -1; y <= 1; y++) {
+                    for (int x = -1; x <= 1; x++) {
+                        if ((x & 1) + (y & 1) + (z & 1) != axes) continue;
+                        DX[d] = x;
+                        DY[d] = y;
+                        DZ[d] = z;
+                        MULTIPLIERS[d++] = axes == 1 ? 1f : axes == 2 ? SQRT2 : SQRT3;
+                    }
+                }
+            }
+        }
+    }
+
+    /** The number of cells along the x-axis. */
+    public final int width;
+    /** The number of cells along the y-axis. */
+    public final int height;
+    /** The number of cells along the z-axis. */
+    public final int depth;
+    /**
+     * If true, paths may move through edges and corners (26-way movement); if false, only through faces (6-way).
+     * Defaults to true.
+     */
+    public boolean diagonal = true;
+    /**
+     * Multiplies the A* heuristic. For A* to find the shortest path, this must be no greater than the lowest cost of
+     * any passable cell, so the default of 1 works for grids where every cost is at least 1. Larger values make A*
+     * faster, but may produce longer paths; 0 makes A* the same as Dijkstra's algorithm.
+     */
+    public float heuristicScale = 1f;
+
+    private final float[] gScores;
+    private final int[] parents;
+    private final int[] seen;
+    private final int[] closed;
+    private int generation;
+    private final IndexedFloatHeap open;
+    private final IntArray cellScratch = new IntArray();
+
+    /**
+     * Creates a GridPathfinder3 for grids with the given size, allocating all of its scratch space.
+     * @param width the number of cells along the x-axis
+     * @param height the number of cells along the y-axis
+     * @param depth the number of cells along the z-axis
+     */
+    public GridPathfinder3(int width, int height, int depth) {
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        final int size = width * height * depth;
+        gScores = new float[size];
+        parents = new int[size];
+        seen = new int[size];
+        closed = new int[size];
+        open = new IndexedFloatHeap(size);
+    }
+
+    /**
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @param z the z-coordinate of a cell
+     * @return the index of that cell, as used in cost arrays and index paths
+     */
+    public int index(int x, int y, int z) {
+        return x + width * (y + height * z);
+    }
+
+    /**
+     * Sets {@code out} to the coordinates of the cell with the given index.
+     * @param index a cell index, as produced by {@link #index(int, int, int)}
+     * @param out will be modified to hold the cell's coordinates
+     * @return out, after modifications, or a new point with the result if out is not mutable
+     */
+    public PointI3 point(int index, PointI3 out) {
+        final int yz = index / width;
+        return out.seti(index - yz * width, yz % height, yz / height);
+    }
+
+    /**
+     * Finds the lowest-cost path from the start cell to the goal cell with A*, and writes the cell indices of that path
+     * (including start and goal) into {@code path}, in order from start to goal. If there is no path, path is left
+     * empty. Start may be a wall; goal may not be.
+     * @param costs the cost to enter each cell; must have at least {@code width * height * depth} items
+     * @param start the start cell; will not be modified
+     * @param goal the goal cell; will not be modified
+     * @param path will be cleared, then given the cell indices of the path, if there is one
+     * @return the total cost of the path, or {@link Float#POSITIVE_INFINITY} if there is no path
+     */
+    public float findPath(float[] costs, PointI3 start, PointI3 goal, IntArray path) {
+        return search(costs, index(start.x, start.y, start.z), index(goal.x, goal.y, goal.z), heuristicScale, path);
+    }
+
+    /**
+     * Finds the lowest-cost path from start to goal with A*, and writes that path (including start and goal) into
+     * {@code path}, in order from start to goal. Any mutable PointI3 items already in path are reused, and others (such
+     * as {@link ConstPointI3} keys) are replaced. If there is no path, path is left empty.
+     * @param costs the cost to enter each cell; must have at least {@code width * height * depth} items
+     * @param start the start cell; will not be modified
+     * @param goal the goal cell; will not be modified
+     * @param path will be filled with the path, if there is one
+     * @return the total cost of the path, or {@link Float#POSITIVE_INFINITY} if there is no path
+     */
+    public float findPath(float[] costs, PointI3 start, PointI3 goal, Array<PointI3> path) {
+        final float cost = findPath(costs, start, goal, cellScratch);
+        toPoints(cellScratch, path);
+        return cost;
+    }
+
+    /**
+     * Like {@link #findPath(float[], PointI3, PointI3, IntArray)}, but uses Dijkstra's algorithm instead of A*. This
+     * always finds the shortest path regardless of {@link #heuristicScale}, but usually visits more cells.
+     * @param costs the cost to enter each cell; must have at least {@code width * height * depth} items
+     * @param start the start cell; will not be modified
+     * @param goal the goal cell; will not be modified
+     * @param path will be cleared, then given the cell indices of the path, if there is one
+     * @return the total cost of the path, or {@link Float#POSITIVE_INFINITY} if there is no path
+     */
+    public float findPathDijkstra(float[] costs, PointI3 start, PointI3 goal, IntArray path) {
+        return search(costs, index(start.x, start.y, start.z), index(goal.x, goal.y, goal.z), 0f, path);
+    }
+
+    /**
+     * Like {@link #findPath(float[], PointI3, PointI3, Array)}, but uses Dijkstra's algorithm instead of A*. This
+     * always finds the shortest path regardless of {@link #heuristicScale}, but usually visits more cells.
+     * @param costs the cost to enter each cell; must have at least {@code width * height * depth} items
+     * @param start the start cell; will not be modified
+     * @param goal the goal cell; will not be modified
+     * @param path will be filled with the path, if there is one
+     * @return the total cost of the path, or {@link Float#POSITIVE_INFINITY} if there is no path
+     */
+    public float findPathDijkstra(float[] costs, PointI3 start, PointI3 goal, Array<PointI3> path) {
+        final float cost = findPathDijkstra(costs, start, goal, cellScratch);
+        toPoints(cellScratch, path);
+        return cost;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from every source cell at once, writing the cost to reach each cell from its nearest
+     * source into {@code out}. Cells that can't be reached, or that would cost more than maxDistance to reach, are set
+     * to {@link Float#POSITIVE_INFINITY}. Source cells are always set to 0, even if they are walls.
+     * @param costs the cost to enter each cell; must have at least {@code width * height * depth} items
+     * @param sources the cell indices to start from
+     * @param maxDistance the highest cost to search up to; use {@link Float#POSITIVE_INFINITY} to search everything
+     * @param out will receive the distance to every cell; must have at least {@code width * height * depth} items
+     * @return out, after modifications
+     */
+    public float[] distanceMap(float[] costs, IntArray sources, float maxDistance, float[] out) {
+        Arrays.fill(out, 0, width * height * depth, Float.POSITIVE_INFINITY);
+        open.clear();
+        for (int i = 0; i < sources.size; i++) {
+            final int s = sources.get(i);
+            out[s] = 0f;
+            open.add(s, 0f);
+        }
+        expand(costs, maxDistance, out);
+        return out;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from every source cell at once, writing the cost to reach each cell from its nearest
+     * source into {@code out}. Cells that can't be reached, or that would cost more than maxDistance to reach, are set
+     * to {@link Float#POSITIVE_INFINITY}. Source cells are always set to 0, even if they are walls.
+     * @param costs the cost to enter each cell; must have at least {@code width * height * depth} items
+     * @param sources the cells to start from; will not be modified
+     * @param maxDistance the highest cost to search up to; use {@link Float#POSITIVE_INFINITY} to search everything
+     * @param out will receive the distance to every cell; must have at least {@code width * height * depth} items
+     * @return out, after modifications
+     */
+    public float[] distanceMap(float[] costs, Array<PointI3> sources, float maxDistance, float[] out) {
+        cellScratch.clear();
+        for (int i = 0; i < sources.size; i++) {
+            final PointI3 s = sources.get(i);
+            cellScratch.add(index(s.x, s.y, s.z));
+        }
+        return distanceMap(costs, cellScratch, maxDistance, out);
+    }
+
+    private float heuristic(int x, int y, int z, int goalX, int goalY, int goalZ) {
+        int a = Math.abs(x - goalX), b = Math.abs(y - goalY), c = Math.abs(z - goalZ);
+        if (!diagonal) return a + b + c;
+        // sort so a >= b >= c
+        int t;
+        if (a < b) { t = a; a = b; b = t; }
+        if (b < c) { t = b; b = c; c = t; }
+        if (a < b) { t = a; a = b; b = t; }
+        return SQRT3 * c + SQRT2 * (b - c) + (a - b);
+    }
+
+    private void nextGeneration() {
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            generation = 0;
+        }
+        generation++;
+    }
+
+    private static boolean passable(float cost) {
+        return cost < Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Gets the cost to move from the cell at x,y,z by the given direction, or infinity if that move isn't possible.
+     */
+    private float moveCost(float[] costs, int x, int y, int z, int d) {
+        final int dx = DX[d], dy = DY[d], dz = DZ[d];
+        final int nx = x + dx, ny = y + dy, nz = z + dz;
+        if (nx < 0 || ny < 0 || nz < 0 || nx >= width || ny >= height || nz >= depth) return Float.POSITIVE_INFINITY;
+        final float c = costs[nx + width * (ny + height * nz)];
+        if (d < 6) return c;
+        if ((dx != 0 && !passable(costs[nx + width * (y + height * z)]))
+                || (dy != 0 && !passable(costs[x + width * (ny + height * z)]))
+                || (dz != 0 && !passable(costs[x + width * (y + height * nz)])))
+            return Float.POSITIVE_INFINITY;
+        return c * MULTIPLIERS[d];
+    }
+
+    private float search(float[] costs, int start, int goal, float hScale, IntArray path) {
+        path.clear();
+        nextGeneration();
+        open.clear();
+        final int goalYZ = goal / width, goalX = goal - goalYZ * width, goalY = goalYZ % height, goalZ = goalYZ / height;
+        final int dirs = diagonal ? 26 : 6;
+        gScores[start] = 0f;
+        parents[start] = -1;
+        seen[start] = generation;
+        open.add(start, 0f);
+        while (!open.isEmpty()) {
+            final int current = open.pop();
+            if (current == goal) {
+                for (int c = goal; c != -1; c = parents[c]) {
+                    path.add(c);
+                }
+                path.reverse();
+                return gScores[goal];
+            }
+            closed[current] = generation;
+            final int yz = current / width, x = current - yz * width, y = yz % height, z = yz / height;
+            final float g = gScores[current];
+            for (int d = 0; d < dirs; d++) {
+                final float c = moveCost(costs, x, y, z, d);
+                if (!passable(c)) continue;
+                final int nx = x + DX[d], ny = y + DY[d], nz = z + DZ[d], next = nx + width * (ny + height * nz);
+                if (closed[next] == generation) continue;
+                final float ng = g + c;
+                if (seen[next] != generation || ng < gScores[next]) {
+                    seen[next] = generation;
+                    gScores[next] = ng;
+                    parents[next] = current;
+                    open.add(next, ng + hScale * heuristic(nx, ny, nz, goalX, goalY, goalZ));
+                }
+            }
+        }
+        return Float.POSITIVE_INFINITY;
+    }
+
+    private void expand(float[] costs, float maxDistance, float[] out) {
+        final int dirs = diagonal ? 26 : 6;
+        while (!open.isEmpty()) {
+            final int current = open.pop();
+            final int yz = current / width, x = current - yz * width, y = yz % height, z = yz / height;
+            final float g = out[current];
+            for (int d = 0; d < dirs; d++) {
+                final float c = moveCost(costs, x, y, z, d);
+                final float ng = g + c;
+                if (!(c < Float.POSITIVE_INFINITY && ng <= maxDistance)) continue;
+                final int next = x + DX[d] + width * (y + DY[d] + height * (z + DZ[d]));
+                if (ng < out[next]) {
+                    out[next] = ng;
+                    open.add(next, ng);
+                }
+            }
+        }
+    }
+
+    private void toPoints(IntArray cells, Array<PointI3> out) {
+        final int n = cells.size;
+        for (int i = 0; i < n; i++) {
+            final int c = cells.get(i);
+            final PointI3 p = i < out.size ? out.get(i) : null;
+            if (i < out.size) out.set(i, point(c, p == null ? new PointI3() : p));
+            else out.add(point(c, new PointI3()));
+        }
+        out.truncate(n);
+    }
+}
@@ -0,0 +1,209 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.NumberUtils;
+import com.github.tommyettinger.crux.Point3;
+
+/**
+ * An immutable counterpart to {@link PointF3}, with final fields and a hash code computed once when it is created.
+ * It implements the same {@link Point3} interface, but {@link #mutable()} returns false, and every method that
+ * would change a PointF3 returns another ImmutablePointF3 instead. Since it can never change, it can be stored in
+ * maps, sets, and caches without copying it first, and {@link #cpy()} just returns this.
+ * <br>
+ * This has no fields except its components and the hash, and no object identity is needed to use it, so short-lived
+ * instances created in a hot loop are good candidates for scalar replacement by the JIT's escape analysis.
+ * {@link #hashCode()} matches PointF3's for the same components, but the two types are never equal to each other;
+ * convert with {@link #of(Point3)} and {@link #toMutable()}.
+ */
+public final class ImmutablePointF3 implements Point3<ImmutablePointF3> {
+    /** The origin, with all components 0. */
+    public static final ImmutablePointF3 ZERO = new ImmutablePointF3(0f, 0f, 0f);
+
+    public final float x, y, z;
+    private final int hash;
+
+    public ImmutablePointF3(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        final int h = NumberUtils.floatToIntBits(x) + 53 * NumberUtils.floatToIntBits(y) +
+                113 * NumberUtils.floatToIntBits(z);
+        hash = h ^ h >>> 16;
+    }
+
+    public ImmutablePointF3(Point3<?> p) {
+        this(p.x(), p.y(), p.z());
+    }
+
+    /**
+     * Gets an immutable point with the same components as p, which is p itself if it is already an ImmutablePointF3.
+     * @param p any Point3, such as a PointF3; will not be modified
+     * @return an ImmutablePointF3 with the same components as p
+     */
+    public static ImmutablePointF3 of(Point3<?> p) {
+        return p instanceof ImmutablePointF3 ? (ImmutablePointF3) p : new ImmutablePointF3(p);
+    }
+
+    /**
+     * @return a new, mutable PointF3 with the same components as this
+     */
+    public PointF3 toMutable() {
+        return new PointF3(x, y, z);
+    }
+
+    /**
+     * Sets the components of out to match this, without allocating.
+     * @param out a PointF3 that will be modified
+     * @return out, after modifications
+     */
+    public PointF3 toMutable(PointF3 out) {
+        out.x = x;
+        out.y = y;
+        out.z = z;
+        return out;
+    }
+
+    @Override
+    public int rank() {
+        return 3;
+    }
+
+    @Override
+    public boolean floatingPoint() {
+        return true;
+    }
+
+    /**
+     * @return false, because this can never change
+     */
+    @Override
+    public boolean mutable() {
+        return false;
+    }
+
+    /**
+     * @return this, because an immutable point never needs to be copied
+     */
+    @Override
+    public ImmutablePointF3 cpy() {
+        return this;
+    }
+
+    @Override
+    public float len2() {
+        return x * x + y * y + z * z;
+    }
+
+    @Override
+    public float dst2(ImmutablePointF3 point) {
+        final float dx = point.x - x;
+        final float dy = point.y - y;
+        final float dz = point.z - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    @Override
+    public ImmutablePointF3 set(ImmutablePointF3 point) {
+        return point;
+    }
+
+    @Override
+    public ImmutablePointF3 setZero() {
+        return ZERO;
+    }
+
+    @Override
+    public ImmutablePointF3 add(ImmutablePointF3 point) {
+        return new ImmutablePointF3(x + point.x, y + point.y, z + point.z);
+    }
+
+    @Override
+    public ImmutablePointF3 sub(ImmutablePointF3 point) {
+        return new ImmutablePointF3(x - point.x, y - point.y, z - point.z);
+    }
+
+    @Override
+    public ImmutablePointF3 scl(ImmutablePointF3 point) {
+        return new ImmutablePointF3(x * point.x, y * point.y, z * point.z);
+    }
+
+    @Override
+    public ImmutablePointF3 div(ImmutablePointF3 point) {
+        return new ImmutablePointF3(x / point.x, y / point.y, z / point.z);
+    }
+
+    @Override
+    public ImmutablePointF3 plus(float value) {
+        return new ImmutablePointF3(x + value, y + value, z + value);
+    }
+
+    @Override
+    public ImmutablePointF3 minus(float value) {
+        return new ImmutablePointF3(x - value, y - value, z - value);
+    }
+
+    @Override
+    public ImmutablePointF3 times(float value) {
+        return new ImmutablePointF3(x * value, y * value, z * value);
+    }
+
+    @Override
+    public ImmutablePointF3 divide(float value) {
+        return new ImmutablePointF3(x / value, y / value, z / value);
+    }
+
+    @Override
+    public float x() {
+        return x;
+    }
+
+    @Override
+    public ImmutablePointF3 x(float next) {
+        return new ImmutablePointF3(next, y, z);
+    }
+
+    @Override
+    public float y() {
+        return y;
+    }
+
+    @Override
+    public ImmutablePointF3 y(float next) {
+        return new ImmutablePointF3(x, next, z);
+    }
+
+    @Override
+    public float z() {
+        return z;
+    }
+
+    @Override
+    public ImmutablePointF3 z(float next) {
+        return new ImmutablePointF3(x, y, next);
+    }
+
+    @Override
+    public ImmutablePointF3 set(float x, float y, float z) {
+        return new ImmutablePointF3(x, y, z);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ImmutablePointF3)) return false;
+        final ImmutablePointF3 p = (ImmutablePointF3) o;
+        return hash == p.hash
+                && NumberUtils.floatToIntBits(x) == NumberUtils.floatToIntBits(p.x)
+                && NumberUtils.floatToIntBits(y) == NumberUtils.floatToIntBits(p.y)
+                && NumberUtils.floatToIntBits(z) == NumberUtils.floatToIntBits(p.z);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + "," + z + ")";
+    }
+}
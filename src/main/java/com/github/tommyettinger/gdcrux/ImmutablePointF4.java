@@ -0,0 +1,223 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.NumberUtils;
+import com.github.tommyettinger.crux.Point4;
+
+/**
+ * An immutable counterpart to {@link PointF4}, with final fields and a hash code computed once when it is created.
+ * It implements the same {@link Point4} interface, but {@link #mutable()} returns false, and every method that
+ * would change a PointF4 returns another ImmutablePointF4 instead. Since it can never change, it can be stored in
+ * maps, sets, and caches without copying it first, and {@link #cpy()} just returns this.
+ * <br>
+ * This has no fields except its components and the hash, and no object identity is needed to use it, so short-lived
+ * instances created in a hot loop are good candidates for scalar replacement by the JIT's escape analysis.
+ * {@link #hashCode()} matches PointF4's for the same components, but the two types are never equal to each other;
+ * convert with {@link #of(Point4)} and {@link #toMutable()}.
+ */
+public final class ImmutablePointF4 implements Point4<ImmutablePointF4> {
+    /** The origin, with all components 0. */
+    public static final ImmutablePointF4 ZERO = new ImmutablePointF4(0f, 0f, 0f, 0f);
+
+    public final float x, y, z, w;
+    private final int hash;
+
+    public ImmutablePointF4(float x, float y, float z, float w) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+        final int h = NumberUtils.floatToIntBits(x) + 53 * NumberUtils.floatToIntBits(y) +
+                113 * NumberUtils.floatToIntBits(z) + 151 * NumberUtils.floatToIntBits(w);
+        hash = h ^ h >>> 16;
+    }
+
+    public ImmutablePointF4(Point4<?> p) {
+        this(p.x(), p.y(), p.z(), p.w());
+    }
+
+    /**
+     * Gets an immutable point with the same components as p, which is p itself if it is already an ImmutablePointF4.
+     * @param p any Point4, such as a PointF4; will not be modified
+     * @return an ImmutablePointF4 with the same components as p
+     */
+    public static ImmutablePointF4 of(Point4<?> p) {
+        return p instanceof ImmutablePointF4 ? (ImmutablePointF4) p : new ImmutablePointF4(p);
+    }
+
+    /**
+     * @return a new, mutable PointF4 with the same components as this
+     */
+    public PointF4 toMutable() {
+        return new PointF4(x, y, z, w);
+    }
+
+    /**
+     * Sets the components of out to match this, without allocating.
+     * @param out a PointF4 that will be modified
+     * @return out, after modifications
+     */
+    public PointF4 toMutable(PointF4 out) {
+        out.x = x;
+        out.y = y;
+        out.z = z;
+        out.w = w;
+        return out;
+    }
+
+    @Override
+    public int rank() {
+        return 4;
+    }
+
+    @Override
+    public boolean floatingPoint() {
+        return true;
+    }
+
+    /**
+     * @return false, because this can never change
+     */
+    @Override
+    public boolean mutable() {
+        return false;
+    }
+
+    /**
+     * @return this, because an immutable point never needs to be copied
+     */
+    @Override
+    public ImmutablePointF4 cpy() {
+        return this;
+    }
+
+    @Override
+    public float len2() {
+        return x * x + y * y + z * z + w * w;
+    }
+
+    @Override
+    public float dst2(ImmutablePointF4 point) {
+        final float dx = point.x - x;
+        final float dy = point.y - y;
+        final float dz = point.z - z;
+        final float dw = point.w - w;
+        return dx * dx + dy * dy + dz * dz + dw * dw;
+    }
+
+    @Override
+    public ImmutablePointF4 set(ImmutablePointF4 point) {
+        return point;
+    }
+
+    @Override
+    public ImmutablePointF4 setZero() {
+        return ZERO;
+    }
+
+    @Override
+    public ImmutablePointF4 add(ImmutablePointF4 point) {
+        return new ImmutablePointF4(x + point.x, y + point.y, z + point.z, w + point.w);
+    }
+
+    @Override
+    public ImmutablePointF4 sub(ImmutablePointF4 point) {
+        return new ImmutablePointF4(x - point.x, y - point.y, z - point.z, w - point.w);
+    }
+
+    @Override
+    public ImmutablePointF4 scl(ImmutablePointF4 point) {
+        return new ImmutablePointF4(x * point.x, y * point.y, z * point.z, w * point.w);
+    }
+
+    @Override
+    public ImmutablePointF4 div(ImmutablePointF4 point) {
+        return new ImmutablePointF4(x / point.x, y / point.y, z / point.z, w / point.w);
+    }
+
+    @Override
+    public ImmutablePointF4 plus(float value) {
+        return new ImmutablePointF4(x + value, y + value, z + value, w + value);
+    }
+
+    @Override
+    public ImmutablePointF4 minus(float value) {
+        return new ImmutablePointF4(x - value, y - value, z - value, w - value);
+    }
+
+    @Override
+    public ImmutablePointF4 times(float value) {
+        return new ImmutablePointF4(x * value, y * value, z * value, w * value);
+    }
+
+    @Override
+    public ImmutablePointF4 divide(float value) {
+        return new ImmutablePointF4(x / value, y / value, z / value, w / value);
+    }
+
+    @Override
+    public float x() {
+        return x;
+    }
+
+    @Override
+    public ImmutablePointF4 x(float next) {
+        return new ImmutablePointF4(next, y, z, w);
+    }
+
+    @Override
+    public float y() {
+        return y;
+    }
+
+    @Override
+    public ImmutablePointF4 y(float next) {
+        return new ImmutablePointF4(x, next, z, w);
+    }
+
+    @Override
+    public float z() {
+        return z;
+    }
+
+    @Override
+    public ImmutablePointF4 z(float next) {
+        return new ImmutablePointF4(x, y, next, w);
+    }
+
+    @Override
+    public float w() {
+        return w;
+    }
+
+    @Override
+    public ImmutablePointF4 w(float next) {
+        return new ImmutablePointF4(x, y, z, next);
+    }
+
+    @Override
+    public ImmutablePointF4 set(float x, float y, float z, float w) {
+        return new ImmutablePointF4(x, y, z, w);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ImmutablePointF4)) return false;
+        final ImmutablePointF4 p = (ImmutablePointF4) o;
+        return hash == p.hash
+                && NumberUtils.floatToIntBits(x) == NumberUtils.floatToIntBits(p.x)
+                && NumberUtils.floatToIntBits(y) == NumberUtils.floatToIntBits(p.y)
+                && NumberUtils.floatToIntBits(z) == NumberUtils.floatToIntBits(p.z)
+                && NumberUtils.floatToIntBits(w) == NumberUtils.floatToIntBits(p.w);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + "," + z + "," + w + ")";
+    }
+}
@@ -0,0 +1,238 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.NumberUtils;
+import com.github.tommyettinger.crux.Point5;
+
+/**
+ * An immutable counterpart to {@link PointF5}, with final fields and a hash code computed once when it is created.
+ * It implements the same {@link Point5} interface, but {@link #mutable()} returns false, and every method that
+ * would change a PointF5 returns another ImmutablePointF5 instead. Since it can never change, it can be stored in
+ * maps, sets, and caches without copying it first, and {@link #cpy()} just returns this.
+ * <br>
+ * This has no fields except its components and the hash, and no object identity is needed to use it, so short-lived
+ * instances created in a hot loop are good candidates for scalar replacement by the JIT's escape analysis.
+ * {@link #hashCode()} matches PointF5's for the same components, but the two types are never equal to each other;
+ * convert with {@link #of(Point5)} and {@link #toMutable()}.
+ */
+public final class ImmutablePointF5 implements Point5<ImmutablePointF5> {
+    /** The origin, with all components 0. */
+    public static final ImmutablePointF5 ZERO = new ImmutablePointF5(0f, 0f, 0f, 0f, 0f);
+
+    public final float x, y, z, w, u;
+    private final int hash;
+
+    public ImmutablePointF5(float x, float y, float z, float w, float u) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+        this.u = u;
+        final int h = NumberUtils.floatToIntBits(x) + 53 * NumberUtils.floatToIntBits(y) +
+                113 * NumberUtils.floatToIntBits(z) + 151 * NumberUtils.floatToIntBits(w) +
+                211 * NumberUtils.floatToIntBits(u);
+        hash = h ^ h >>> 16;
+    }
+
+    public ImmutablePointF5(Point5<?> p) {
+        this(p.x(), p.y(), p.z(), p.w(), p.u());
+    }
+
+    /**
+     * Gets an immutable point with the same components as p, which is p itself if it is already an ImmutablePointF5.
+     * @param p any Point5, such as a PointF5; will not be modified
+     * @return an ImmutablePointF5 with the same components as p
+     */
+    public static ImmutablePointF5 of(Point5<?> p) {
+        return p instanceof ImmutablePointF5 ? (ImmutablePointF5) p : new ImmutablePointF5(p);
+    }
+
+    /**
+     * @return a new, mutable PointF5 with the same components as this
+     */
+    public PointF5 toMutable() {
+        return new PointF5(x, y, z, w, u);
+    }
+
+    /**
+     * Sets the components of out to match this, without allocating.
+     * @param out a PointF5 that will be modified
+     * @return out, after modifications
+     */
+    public PointF5 toMutable(PointF5 out) {
+        out.x = x;
+        out.y = y;
+        out.z = z;
+        out.w = w;
+        out.u = u;
+        return out;
+    }
+
+    @Override
+    public int rank() {
+        return 5;
+    }
+
+    @Override
+    public boolean floatingPoint() {
+        return true;
+    }
+
+    /**
+     * @return false, because this can never change
+     */
+    @Override
+    public boolean mutable() {
+        return false;
+    }
+
+    /**
+     * @return this, because an immutable point never needs to be copied
+     */
+    @Override
+    public ImmutablePointF5 cpy() {
+        return this;
+    }
+
+    @Override
+    public float len2() {
+        return x * x + y * y + z * z + w * w + u * u;
+    }
+
+    @Override
+    public float dst2(ImmutablePointF5 point) {
+        final float dx = point.x - x;
+        final float dy = point.y - y;
+        final float dz = point.z - z;
+        final float dw = point.w - w;
+        final float du = point.u - u;
+        return dx * dx + dy * dy + dz * dz + dw * dw + du * du;
+    }
+
+    @Override
+    public ImmutablePointF5 set(ImmutablePointF5 point) {
+        return point;
+    }
+
+    @Override
+    public ImmutablePointF5 setZero() {
+        return ZERO;
+    }
+
+    @Override
+    public ImmutablePointF5 add(ImmutablePointF5 point) {
+        return new ImmutablePointF5(x + point.x, y + point.y, z + point.z, w + point.w, u + point.u);
+    }
+
+    @Override
+    public ImmutablePointF5 sub(ImmutablePointF5 point) {
+        return new ImmutablePointF5(x - point.x, y - point.y, z - point.z, w - point.w, u - point.u);
+    }
+
+    @Override
+    public ImmutablePointF5 scl(ImmutablePointF5 point) {
+        return new ImmutablePointF5(x * point.x, y * point.y, z * point.z, w * point.w, u * point.u);
+    }
+
+    @Override
+    public ImmutablePointF5 div(ImmutablePointF5 point) {
+        return new ImmutablePointF5(x / point.x, y / point.y, z / point.z, w / point.w, u / point.u);
+    }
+
+    @Override
+    public ImmutablePointF5 plus(float value) {
+        return new ImmutablePointF5(x + value, y + value, z + value, w + value, u + value);
+    }
+
+    @Override
+    public ImmutablePointF5 minus(float value) {
+        return new ImmutablePointF5(x - value, y - value, z - value, w - value, u - value);
+    }
+
+    @Override
+    public ImmutablePointF5 times(float value) {
+        return new ImmutablePointF5(x * value, y * value, z * value, w * value, u * value);
+    }
+
+    @Override
+    public ImmutablePointF5 divide(float value) {
+        return new ImmutablePointF5(x / value, y / value, z / value, w / value, u / value);
+    }
+
+    @Override
+    public float x() {
+        return x;
+    }
+
+    @Override
+    public ImmutablePointF5 x(float next) {
+        return new ImmutablePointF5(next, y, z, w, u);
+    }
+
+    @Override
+    public float y() {
+        return y;
+    }
+
+    @Override
+    public ImmutablePointF5 y(float next) {
+        return new ImmutablePointF5(x, next, z, w, u);
+    }
+
+    @Override
+    public float z() {
+        return z;
+    }
+
+    @Override
+    public ImmutablePointF5 z(float next) {
+        return new ImmutablePointF5(x, y, next, w, u);
+    }
+
+    @Override
+    public float w() {
+        return w;
+    }
+
+    @Override
+    public ImmutablePointF5 w(float next) {
+        return new ImmutablePointF5(x, y, z, next, u);
+    }
+
+    @Override
+    public float u() {
+        return u;
+    }
+
+    @Override
+    public ImmutablePointF5 u(float next) {
+        return new ImmutablePointF5(x, y, z, w, next);
+    }
+
+    @Override
+    public ImmutablePointF5 set(float x, float y, float z, float w, float u) {
+        return new ImmutablePointF5(x, y, z, w, u);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ImmutablePointF5)) return false;
+        final ImmutablePointF5 p = (ImmutablePointF5) o;
+        return hash == p.hash
+                && NumberUtils.floatToIntBits(x) == NumberUtils.floatToIntBits(p.x)
+                && NumberUtils.floatToIntBits(y) == NumberUtils.floatToIntBits(p.y)
+                && NumberUtils.floatToIntBits(z) == NumberUtils.floatToIntBits(p.z)
+                && NumberUtils.floatToIntBits(w) == NumberUtils.floatToIntBits(p.w)
+                && NumberUtils.floatToIntBits(u) == NumberUtils.floatToIntBits(p.u);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + "," + z + "," + w + "," + u + ")";
+    }
+}
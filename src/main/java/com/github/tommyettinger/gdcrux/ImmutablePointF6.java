@@ -0,0 +1,252 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.NumberUtils;
+import com.github.tommyettinger.crux.Point6;
+
+/**
+ * An immutable counterpart to {@link PointF6}, with final fields and a hash code computed once when it is created.
+ * It implements the same {@link Point6} interface, but {@link #mutable()} returns false, and every method that
+ * would change a PointF6 returns another ImmutablePointF6 instead. Since it can never change, it can be stored in
+ * maps, sets, and caches without copying it first, and {@link #cpy()} just returns this.
+ * <br>
+ * This has no fields except its components and the hash, and no object identity is needed to use it, so short-lived
+ * instances created in a hot loop are good candidates for scalar replacement by the JIT's escape analysis.
+ * {@link #hashCode()} matches PointF6's for the same components, but the two types are never equal to each other;
+ * convert with {@link #of(Point6)} and {@link #toMutable()}.
+ */
+public final class ImmutablePointF6 implements Point6<ImmutablePointF6> {
+    /** The origin, with all components 0. */
+    public static final ImmutablePointF6 ZERO = new ImmutablePointF6(0f, 0f, 0f, 0f, 0f, 0f);
+
+    public final float x, y, z, w, u, v;
+    private final int hash;
+
+    public ImmutablePointF6(float x, float y, float z, float w, float u, float v) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+        this.u = u;
+        this.v = v;
+        final int h = NumberUtils.floatToIntBits(x) + 53 * NumberUtils.floatToIntBits(y) +
+                113 * NumberUtils.floatToIntBits(z) + 151 * NumberUtils.floatToIntBits(w) +
+                211 * NumberUtils.floatToIntBits(u) + 253 * NumberUtils.floatToIntBits(v);
+        hash = h ^ h >>> 16;
+    }
+
+    public ImmutablePointF6(Point6<?> p) {
+        this(p.x(), p.y(), p.z(), p.w(), p.u(), p.v());
+    }
+
+    /**
+     * Gets an immutable point with the same components as p, which is p itself if it is already an ImmutablePointF6.
+     * @param p any Point6, such as a PointF6; will not be modified
+     * @return an ImmutablePointF6 with the same components as p
+     */
+    public static ImmutablePointF6 of(Point6<?> p) {
+        return p instanceof ImmutablePointF6 ? (ImmutablePointF6) p : new ImmutablePointF6(p);
+    }
+
+    /**
+     * @return a new, mutable PointF6 with the same components as this
+     */
+    public PointF6 toMutable() {
+        return new PointF6(x, y, z, w, u, v);
+    }
+
+    /**
+     * Sets the components of out to match this, without allocating.
+     * @param out a PointF6 that will be modified
+     * @return out, after modifications
+     */
+    public PointF6 toMutable(PointF6 out) {
+        out.x = x;
+        out.y = y;
+        out.z = z;
+        out.w = w;
+        out.u = u;
+        out.v = v;
+        return out;
+    }
+
+    @Override
+    public int rank() {
+        return 6;
+    }
+
+    @Override
+    public boolean floatingPoint() {
+        return true;
+    }
+
+    /**
+     * @return false, because this can never change
+     */
+    @Override
+    public boolean mutable() {
+        return false;
+    }
+
+    /**
+     * @return this, because an immutable point never needs to be copied
+     */
+    @Override
+    public ImmutablePointF6 cpy() {
+        return this;
+    }
+
+    @Override
+    public float len2() {
+        return x * x + y * y + z * z + w * w + u * u + v * v;
+    }
+
+    @Override
+    public float dst2(ImmutablePointF6 point) {
+        final float dx = point.x - x;
+        final float dy = point.y - y;
+        final float dz = point.z - z;
+        final float dw = point.w - w;
+        final float du = point.u - u;
+        final float dv = point.v - v;
+        return dx * dx + dy * dy + dz * dz + dw * dw + du * du + dv * dv;
+    }
+
+    @Override
+    public ImmutablePointF6 set(ImmutablePointF6 point) {
+        return point;
+    }
+
+    @Override
+    public ImmutablePointF6 setZero() {
+        return ZERO;
+    }
+
+    @Override
+    public ImmutablePointF6 add(ImmutablePointF6 point) {
+        return new ImmutablePointF6(x + point.x, y + point.y, z + point.z, w + point.w, u + point.u, v + point.v);
+    }
+
+    @Override
+    public ImmutablePointF6 sub(ImmutablePointF6 point) {
+        return new ImmutablePointF6(x - point.x, y - point.y, z - point.z, w - point.w, u - point.u, v - point.v);
+    }
+
+    @Override
+    public ImmutablePointF6 scl(ImmutablePointF6 point) {
+        return new ImmutablePointF6(x * point.x, y * point.y, z * point.z, w * point.w, u * point.u, v * point.v);
+    }
+
+    @Override
+    public ImmutablePointF6 div(ImmutablePointF6 point) {
+        return new ImmutablePointF6(x / point.x, y / point.y, z / point.z, w / point.w, u / point.u, v / point.v);
+    }
+
+    @Override
+    public ImmutablePointF6 plus(float value) {
+        return new ImmutablePointF6(x + value, y + value, z + value, w + value, u + value, v + value);
+    }
+
+    @Override
+    public ImmutablePointF6 minus(float value) {
+        return new ImmutablePointF6(x - value, y - value, z - value, w - value, u - value, v - value);
+    }
+
+    @Override
+    public ImmutablePointF6 times(float value) {
+        return new ImmutablePointF6(x * value, y * value, z * value, w * value, u * value, v * value);
+    }
+
+    @Override
+    public ImmutablePointF6 divide(float value) {
+        return new ImmutablePointF6(x / value, y / value, z / value, w / value, u / value, v / value);
+    }
+
+    @Override
+    public float x() {
+        return x;
+    }
+
+    @Override
+    public ImmutablePointF6 x(float next) {
+        return new ImmutablePointF6(next, y, z, w, u, v);
+    }
+
+    @Override
+    public float y() {
+        return y;
+    }
+
+    @Override
+    public ImmutablePointF6 y(float next) {
+        return new ImmutablePointF6(x, next, z, w, u, v);
+    }
+
+    @Override
+    public float z() {
+        return z;
+    }
+
+    @Override
+    public ImmutablePointF6 z(float next) {
+        return new ImmutablePointF6(x, y, next, w, u, v);
+    }
+
+    @Override
+    public float w() {
+        return w;
+    }
+
+    @Override
+    public ImmutablePointF6 w(float next) {
+        return new ImmutablePointF6(x, y, z, next, u, v);
+    }
+
+    @Override
+    public float u() {
+        return u;
+    }
+
+    @Override
+    public ImmutablePointF6 u(float next) {
+        return new ImmutablePointF6(x, y, z, w, next, v);
+    }
+
+    @Override
+    public float v() {
+        return v;
+    }
+
+    @Override
+    public ImmutablePointF6 v(float next) {
+        return new ImmutablePointF6(x, y, z, w, u, next);
+    }
+
+    @Override
+    public ImmutablePointF6 set(float x, float y, float z, float w, float u, float v) {
+        return new ImmutablePointF6(x, y, z, w, u, v);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ImmutablePointF6)) return false;
+        final ImmutablePointF6 p = (ImmutablePointF6) o;
+        return hash == p.hash
+                && NumberUtils.floatToIntBits(x) == NumberUtils.floatToIntBits(p.x)
+                && NumberUtils.floatToIntBits(y) == NumberUtils.floatToIntBits(p.y)
+                && NumberUtils.floatToIntBits(z) == NumberUtils.floatToIntBits(p.z)
+                && NumberUtils.floatToIntBits(w) == NumberUtils.floatToIntBits(p.w)
+                && NumberUtils.floatToIntBits(u) == NumberUtils.floatToIntBits(p.u)
+                && NumberUtils.floatToIntBits(v) == NumberUtils.floatToIntBits(p.v);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + "," + z + "," + w + "," + u + "," + v + ")";
+    }
+}
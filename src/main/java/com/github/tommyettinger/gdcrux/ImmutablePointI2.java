@@ -0,0 +1,218 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.github.tommyettinger.crux.Point2;
+
+/**
+ * An immutable counterpart to {@link PointI2}, with final fields and a hash code computed once when it is created.
+ * It implements the same {@link Point2} interface, but {@link #mutable()} returns false, and every method that
+ * would change a PointI2 returns another ImmutablePointI2 instead. Since it can never change, it can be stored in
+ * maps, sets, and caches without copying it first, and {@link #cpy()} just returns this.
+ * <br>
+ * This has no fields except its components and the hash, and no object identity is needed to use it, so short-lived
+ * instances created in a hot loop are good candidates for scalar replacement by the JIT's escape analysis.
+ * {@link #hashCode()} matches PointI2's for the same components, but the two types are never equal to each other;
+ * convert with {@link #of(Point2)} and {@link #toMutable()}.
+ */
+public final class ImmutablePointI2 implements Point2<ImmutablePointI2> {
+    /** The origin, with all components 0. */
+    public static final ImmutablePointI2 ZERO = new ImmutablePointI2(0, 0);
+
+    public final int x, y;
+    private final int hash;
+
+    public ImmutablePointI2(int x, int y) {
+        this.x = x;
+        this.y = y;
+        hash = x * 0x1827F5 ^ y * 0x123C21;
+    }
+
+    public ImmutablePointI2(float x, float y) {
+        this(MathUtils.round(x), MathUtils.round(y));
+    }
+
+    public ImmutablePointI2(Point2<?> p) {
+        this(p.xi(), p.yi());
+    }
+
+    /**
+     * Gets an immutable point with the same components as p, which is p itself if it is already an ImmutablePointI2.
+     * @param p any Point2, such as a PointI2; will not be modified
+     * @return an ImmutablePointI2 with the same components as p
+     */
+    public static ImmutablePointI2 of(Point2<?> p) {
+        return p instanceof ImmutablePointI2 ? (ImmutablePointI2) p : new ImmutablePointI2(p);
+    }
+
+    /**
+     * @return a new, mutable PointI2 with the same components as this
+     */
+    public PointI2 toMutable() {
+        return new PointI2(x, y);
+    }
+
+    /**
+     * Sets the components of out to match this, without allocating.
+     * @param out a PointI2 that will be modified
+     * @return out, after modifications, or a new point with the result if out is not mutable
+     */
+    public PointI2 toMutable(PointI2 out) {
+        return out.seti(x, y);
+    }
+
+    @Override
+    public int rank() {
+        return 2;
+    }
+
+    @Override
+    public boolean floatingPoint() {
+        return false;
+    }
+
+    /**
+     * @return false, because this can never change
+     */
+    @Override
+    public boolean mutable() {
+        return false;
+    }
+
+    /**
+     * @return this, because an immutable point never needs to be copied
+     */
+    @Override
+    public ImmutablePointI2 cpy() {
+        return this;
+    }
+
+    @Override
+    public float len2() {
+        return (float) x * x + y * y;
+    }
+
+    @Override
+    public float dst2(ImmutablePointI2 point) {
+        final float dx = point.x - x;
+        final float dy = point.y - y;
+        return dx * dx + dy * dy;
+    }
+
+    @Override
+    public ImmutablePointI2 set(ImmutablePointI2 point) {
+        return point;
+    }
+
+    @Override
+    public ImmutablePointI2 setZero() {
+        return ZERO;
+    }
+
+    @Override
+    public ImmutablePointI2 add(ImmutablePointI2 point) {
+        return new ImmutablePointI2(x + point.x, y + point.y);
+    }
+
+    @Override
+    public ImmutablePointI2 sub(ImmutablePointI2 point) {
+        return new ImmutablePointI2(x - point.x, y - point.y);
+    }
+
+    @Override
+    public ImmutablePointI2 scl(ImmutablePointI2 point) {
+        return new ImmutablePointI2(x * point.x, y * point.y);
+    }
+
+    @Override
+    public ImmutablePointI2 div(ImmutablePointI2 point) {
+        return new ImmutablePointI2(x / point.x, y / point.y);
+    }
+
+    @Override
+    public ImmutablePointI2 plus(float value) {
+        return new ImmutablePointI2((int) (x + value), (int) (y + value));
+    }
+
+    @Override
+    public ImmutablePointI2 minus(float value) {
+        return new ImmutablePointI2((int) (x - value), (int) (y - value));
+    }
+
+    @Override
+    public ImmutablePointI2 times(float value) {
+        return new ImmutablePointI2((int) (x * value), (int) (y * value));
+    }
+
+    @Override
+    public ImmutablePointI2 divide(float value) {
+        return new ImmutablePointI2((int) (x / value), (int) (y / value));
+    }
+
+    @Override
+    public float x() {
+        return x;
+    }
+
+    @Override
+    public ImmutablePointI2 x(float next) {
+        return new ImmutablePointI2(MathUtils.round(next), y);
+    }
+
+    @Override
+    public int xi() {
+        return x;
+    }
+
+    @Override
+    public ImmutablePointI2 xi(int next) {
+        return new ImmutablePointI2(next, y);
+    }
+
+    @Override
+    public float y() {
+        return y;
+    }
+
+    @Override
+    public ImmutablePointI2 y(float next) {
+        return new ImmutablePointI2(x, MathUtils.round(next));
+    }
+
+    @Override
+    public int yi() {
+        return y;
+    }
+
+    @Override
+    public ImmutablePointI2 yi(int next) {
+        return new ImmutablePointI2(x, next);
+    }
+
+    @Override
+    public ImmutablePointI2 set(float x, float y) {
+        return new ImmutablePointI2(x, y);
+    }
+
+    @Override
+    public ImmutablePointI2 seti(int x, int y) {
+        return new ImmutablePointI2(x, y);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ImmutablePointI2)) return false;
+        final ImmutablePointI2 p = (ImmutablePointI2) o;
+        return hash == p.hash && x == p.x && y == p.y;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + ")";
+    }
+}
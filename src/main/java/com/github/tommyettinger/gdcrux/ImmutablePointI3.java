@@ -0,0 +1,240 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.github.tommyettinger.crux.Point3;
+
+/**
+ * An immutable counterpart to {@link PointI3}, with final fields and a hash code computed once when it is created.
+ * It implements the same {@link Point3} interface, but {@link #mutable()} returns false, and every method that
+ * would change a PointI3 returns another ImmutablePointI3 instead. Since it can never change, it can be stored in
+ * maps, sets, and caches without copying it first, and {@link #cpy()} just returns this.
+ * <br>
+ * This has no fields except its components and the hash, and no object identity is needed to use it, so short-lived
+ * instances created in a hot loop are good candidates for scalar replacement by the JIT's escape analysis.
+ * {@link #hashCode()} matches PointI3's for the same components, but the two types are never equal to each other;
+ * convert with {@link #of(Point3)} and {@link #toMutable()}.
+ */
+public final class ImmutablePointI3 implements Point3<ImmutablePointI3> {
+    /** The origin, with all components 0. */
+    public static final ImmutablePointI3 ZERO = new ImmutablePointI3(0, 0, 0);
+
+    public final int x, y, z;
+    private final int hash;
+
+    public ImmutablePointI3(int x, int y, int z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        hash = x * 0x1A36A9 ^ y * 0x157931 ^ z * 0x119725;
+    }
+
+    public ImmutablePointI3(float x, float y, float z) {
+        this(MathUtils.round(x), MathUtils.round(y), MathUtils.round(z));
+    }
+
+    public ImmutablePointI3(Point3<?> p) {
+        this(p.xi(), p.yi(), p.zi());
+    }
+
+    /**
+     * Gets an immutable point with the same components as p, which is p itself if it is already an ImmutablePointI3.
+     * @param p any Point3, such as a PointI3; will not be modified
+     * @return an ImmutablePointI3 with the same components as p
+     */
+    public static ImmutablePointI3 of(Point3<?> p) {
+        return p instanceof ImmutablePointI3 ? (ImmutablePointI3) p : new ImmutablePointI3(p);
+    }
+
+    /**
+     * @return a new, mutable PointI3 with the same components as this
+     */
+    public PointI3 toMutable() {
+        return new PointI3(x, y, z);
+    }
+
+    /**
+     * Sets the components of out to match this, without allocating.
+     * @param out a PointI3 that will be modified
+     * @return out, after modifications, or a new point with the result if out is not mutable
+     */
+    public PointI3 toMutable(PointI3 out) {
+        return out.seti(x, y, z);
+    }
+
+    @Override
+    public int rank() {
+        return 3;
+    }
+
+    @Override
+    public boolean floatingPoint() {
+        return false;
+    }
+
+    /**
+     * @return false, because this can never change
+     */
+    @Override
+    public boolean mutable() {
+        return false;
+    }
+
+    /**
+     * @return this, because an immutable point never needs to be copied
+     */
+    @Override
+    public ImmutablePointI3 cpy() {
+        return this;
+    }
+
+    @Override
+    public float len2() {
+        return (float) x * x + y * y + z * z;
+    }
+
+    @Override
+    public float dst2(ImmutablePointI3 point) {
+        final float dx = point.x - x;
+        final float dy = point.y - y;
+        final float dz = point.z - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    @Override
+    public ImmutablePointI3 set(ImmutablePointI3 point) {
+        return point;
+    }
+
+    @Override
+    public ImmutablePointI3 setZero() {
+        return ZERO;
+    }
+
+    @Override
+    public ImmutablePointI3 add(ImmutablePointI3 point) {
+        return new ImmutablePointI3(x + point.x, y + point.y, z + point.z);
+    }
+
+    @Override
+    public ImmutablePointI3 sub(ImmutablePointI3 point) {
+        return new ImmutablePointI3(x - point.x, y - point.y, z - point.z);
+    }
+
+    @Override
+    public ImmutablePointI3 scl(ImmutablePointI3 point) {
+        return new ImmutablePointI3(x * point.x, y * point.y, z * point.z);
+    }
+
+    @Override
+    public ImmutablePointI3 div(ImmutablePointI3 point) {
+        return new ImmutablePointI3(x / point.x, y / point.y, z / point.z);
+    }
+
+    @Override
+    public ImmutablePointI3 plus(float value) {
+        return new ImmutablePointI3((int) (x + value), (int) (y + value), (int) (z + value));
+    }
+
+    @Override
+    public ImmutablePointI3 minus(float value) {
+        return new ImmutablePointI3((int) (x - value), (int) (y - value), (int) (z - value));
+    }
+
+    @Override
+    public ImmutablePointI3 times(float value) {
+        return new ImmutablePointI3((int) (x * value), (int) (y * value), (int) (z * value));
+    }
+
+    @Override
+    public ImmutablePointI3 divide(float value) {
+        return new ImmutablePointI3((int) (x / value), (int) (y / value), (int) (z / value));
+    }
+
+    @Override
+    public float x() {
+        return x;
+    }
+
+    @Override
+    public ImmutablePointI3 x(float next) {
+        return new ImmutablePointI3(MathUtils.round(next), y, z);
+    }
+
+    @Override
+    public int xi() {
+        return x;
+    }
+
+    @Override
+    public ImmutablePointI3 xi(int next) {
+        return new ImmutablePointI3(next, y, z);
+    }
+
+    @Override
+    public float y() {
+        return y;
+    }
+
+    @Override
+    public ImmutablePointI3 y(float next) {
+        return new ImmutablePointI3(x, MathUtils.round(next), z);
+    }
+
+    @Override
+    public int yi() {
+        return y;
+    }
+
+    @Override
+    public ImmutablePointI3 yi(int next) {
+        return new ImmutablePointI3(x, next, z);
+    }
+
+    @Override
+    public float z() {
+        return z;
+    }
+
+    @Override
+    public ImmutablePointI3 z(float next) {
+        return new ImmutablePointI3(x, y, MathUtils.round(next));
+    }
+
+    @Override
+    public int zi() {
+        return z;
+    }
+
+    @Override
+    public ImmutablePointI3 zi(int next) {
+        return new ImmutablePointI3(x, y, next);
+    }
+
+    @Override
+    public ImmutablePointI3 set(float x, float y, float z) {
+        return new ImmutablePointI3(x, y, z);
+    }
+
+    @Override
+    public ImmutablePointI3 seti(int x, int y, int z) {
+        return new ImmutablePointI3(x, y, z);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ImmutablePointI3)) return false;
+        final ImmutablePointI3 p = (ImmutablePointI3) o;
+        return hash == p.hash && x == p.x && y == p.y && z == p.z;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + "," + z + ")";
+    }
+}
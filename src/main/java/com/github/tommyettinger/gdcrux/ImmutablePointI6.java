@@ -0,0 +1,317 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.github.tommyettinger.crux.Point6;
+
+/**
+ * An immutable counterpart to {@link PointI6}, with final fields and a hash code computed once when it is created.
+ * It implements the same {@link Point6} interface, but {@link #mutable()} returns false, and every method that
+ * would change a PointI6 returns another ImmutablePointI6 instead. Since it can never change, it can be stored in
+ * maps, sets, and caches without copying it first, and {@link #cpy()} just returns this.
+ * <br>
+ * This has no fields except its components and the hash, and no object identity is needed to use it, so short-lived
+ * instances created in a hot loop are good candidates for scalar replacement by the JIT's escape analysis.
+ * {@link #hashCode()} matches PointI6's for the same components, but the two types are never equal to each other;
+ * convert with {@link #of(Point6)} and {@link #toMutable()}.
+ */
+public final class ImmutablePointI6 implements Point6<ImmutablePointI6> {
+    /** The origin, with all components 0. */
+    public static final ImmutablePointI6 ZERO = new ImmutablePointI6(0, 0, 0, 0, 0, 0);
+
+    public final int x, y, z, w, u, v;
+    private final int hash;
+
+    public ImmutablePointI6(int x, int y, int z, int w, int u, int v) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+        this.u = u;
+        this.v = v;
+        hash = x * 0x1CC1C5 ^ y * 0x19D7AF ^ z * 0x173935 ^ w * 0x14DEAF ^ u * 0x12C139 ^ v * 0x10DAA3;
+    }
+
+    public ImmutablePointI6(float x, float y, float z, float w, float u, float v) {
+        this(MathUtils.round(x), MathUtils.round(y), MathUtils.round(z), MathUtils.round(w), MathUtils.round(u),
+                MathUtils.round(v));
+    }
+
+    public ImmutablePointI6(Point6<?> p) {
+        this(p.xi(), p.yi(), p.zi(), p.wi(), p.ui(), p.vi());
+    }
+
+    /**
+     * Gets an immutable point with the same components as p, which is p itself if it is already an ImmutablePointI6.
+     * @param p any Point6, such as a PointI6; will not be modified
+     * @return an ImmutablePointI6 with the same components as p
+     */
+    public static ImmutablePointI6 of(Point6<?> p) {
+        return p instanceof ImmutablePointI6 ? (ImmutablePointI6) p : new ImmutablePointI6(p);
+    }
+
+    /**
+     * @return a new, mutable PointI6 with the same components as this
+     */
+    public PointI6 toMutable() {
+        return new PointI6(x, y, z, w, u, v);
+    }
+
+    /**
+     * Sets the components of out to match this, without allocating.
+     * @param out a PointI6 that will be modified
+     * @return out, after modifications
+     */
+    public PointI6 toMutable(PointI6 out) {
+        out.x = x;
+        out.y = y;
+        out.z = z;
+        out.w = w;
+        out.u = u;
+        out.v = v;
+        return out;
+    }
+
+    @Override
+    public int rank() {
+        return 6;
+    }
+
+    @Override
+    public boolean floatingPoint() {
+        return false;
+    }
+
+    /**
+     * @return false, because this can never change
+     */
+    @Override
+    public boolean mutable() {
+        return false;
+    }
+
+    /**
+     * @return this, because an immutable point never needs to be copied
+     */
+    @Override
+    public ImmutablePointI6 cpy() {
+        return this;
+    }
+
+    @Override
+    public float len2() {
+        return (float) x * x + y * y + z * z + w * w + u * u + v * v;
+    }
+
+    @Override
+    public float dst2(ImmutablePointI6 point) {
+        final float dx = point.x - x;
+        final float dy = point.y - y;
+        final float dz = point.z - z;
+        final float dw = point.w - w;
+        final float du = point.u - u;
+        final float dv = point.v - v;
+        return dx * dx + dy * dy + dz * dz + dw * dw + du * du + dv * dv;
+    }
+
+    @Override
+    public ImmutablePointI6 set(ImmutablePointI6 point) {
+        return point;
+    }
+
+    @Override
+    public ImmutablePointI6 setZero() {
+        return ZERO;
+    }
+
+    @Override
+    public ImmutablePointI6 add(ImmutablePointI6 point) {
+        return new ImmutablePointI6(x + point.x, y + point.y, z + point.z, w + point.w, u + point.u, v + point.v);
+    }
+
+    @Override
+    public ImmutablePointI6 sub(ImmutablePointI6 point) {
+        return new ImmutablePointI6(x - point.x, y - point.y, z - point.z, w - point.w, u - point.u, v - point.v);
+    }
+
+    @Override
+    public ImmutablePointI6 scl(ImmutablePointI6 point) {
+        return new ImmutablePointI6(x * point.x, y * point.y, z * point.z, w * point.w, u * point.u, v * point.v);
+    }
+
+    @Override
+    public ImmutablePointI6 div(ImmutablePointI6 point) {
+        return new ImmutablePointI6(x / point.x, y / point.y, z / point.z, w / point.w, u / point.u, v / point.v);
+    }
+
+    @Override
+    public ImmutablePointI6 plus(float value) {
+        return new ImmutablePointI6((int) (x + value), (int) (y + value), (int) (z + value), (int) (w + value),
+                (int) (u + value), (int) (v + value));
+    }
+
+    @Override
+    public ImmutablePointI6 minus(float value) {
+        return new ImmutablePointI6((int) (x - value), (int) (y - value), (int) (z - value), (int) (w - value),
+                (int) (u - value), (int) (v - value));
+    }
+
+    @Override
+    public ImmutablePointI6 times(float value) {
+        return new ImmutablePointI6((int) (x * value), (int) (y * value), (int) (z * value), (int) (w * value),
+                (int) (u * value), (int) (v * value));
+    }
+
+    @Override
+    public ImmutablePointI6 divide(float value) {
+        return new ImmutablePointI6((int) (x / value), (int) (y / value), (int) (z / value), (int) (w / value),
+                (int) (u / value), (int) (v / value));
+    }
+
+    @Override
+    public float x() {
+        return x;
+    }
+
+    @Override
+    public ImmutablePointI6 x(float next) {
+        return new ImmutablePointI6(MathUtils.round(next), y, z, w, u, v);
+    }
+
+    @Override
+    public int xi() {
+        return x;
+    }
+
+    @Override
+    public ImmutablePointI6 xi(int next) {
+        return new ImmutablePointI6(next, y, z, w, u, v);
+    }
+
+    @Override
+    public float y() {
+        return y;
+    }
+
+    @Override
+    public ImmutablePointI6 y(float next) {
+        return new ImmutablePointI6(x, MathUtils.round(next), z, w, u, v);
+    }
+
+    @Override
+    public int yi() {
+        return y;
+    }
+
+    @Override
+    public ImmutablePointI6 yi(int next) {
+        return new ImmutablePointI6(x, next, z, w, u, v);
+    }
+
+    @Override
+    public float z() {
+        return z;
+    }
+
+    @Override
+    public ImmutablePointI6 z(float next) {
+        return new ImmutablePointI6(x, y, MathUtils.round(next), w, u, v);
+    }
+
+    @Override
+    public int zi() {
+        return z;
+    }
+
+    @Override
+    public ImmutablePointI6 zi(int next) {
+        return new ImmutablePointI6(x, y, next, w, u, v);
+    }
+
+    @Override
+    public float w() {
+        return w;
+    }
+
+    @Override
+    public ImmutablePointI6 w(float next) {
+        return new ImmutablePointI6(x, y, z, MathUtils.round(next), u, v);
+    }
+
+    @Override
+    public int wi() {
+        return w;
+    }
+
+    @Override
+    public ImmutablePointI6 wi(int next) {
+        return new ImmutablePointI6(x, y, z, next, u, v);
+    }
+
+    @Override
+    public float u() {
+        return u;
+    }
+
+    @Override
+    public ImmutablePointI6 u(float next) {
+        return new ImmutablePointI6(x, y, z, w, MathUtils.round(next), v);
+    }
+
+    @Override
+    public int ui() {
+        return u;
+    }
+
+    @Override
+    public ImmutablePointI6 ui(int next) {
+        return new ImmutablePointI6(x, y, z, w, next, v);
+    }
+
+    @Override
+    public float v() {
+        return v;
+    }
+
+    @Override
+    public ImmutablePointI6 v(float next) {
+        return new ImmutablePointI6(x, y, z, w, u, MathUtils.round(next));
+    }
+
+    @Override
+    public int vi() {
+        return v;
+    }
+
+    @Override
+    public ImmutablePointI6 vi(int next) {
+        return new ImmutablePointI6(x, y, z, w, u, next);
+    }
+
+    @Override
+    public ImmutablePointI6 set(float x, float y, float z, float w, float u, float v) {
+        return new ImmutablePointI6(x, y, z, w, u, v);
+    }
+
+    @Override
+    public ImmutablePointI6 seti(int x, int y, int z, int w, int u, int v) {
+        return new ImmutablePointI6(x, y, z, w, u, v);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ImmutablePointI6)) return false;
+        final ImmutablePointI6 p = (ImmutablePointI6) o;
+        return hash == p.hash && x == p.x && y == p.y && z == p.z && w == p.w && u == p.u && v == p.v;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + "," + z + "," + w + "," + u + "," + v + ")";
+    }
+}
@@ -0,0 +1,155 @@
+package com.github.tommyettinger.gdcrux;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of int nodes, each with a float priority, where every node is an int from 0 (inclusive) up to a
+ * fixed capacity (exclusive), such as a cell index in a grid. Because the heap tracks where each node is stored, a
+ * node's priority can be lowered in-place with {@link #add(int, float)} instead of adding a duplicate entry, and
+ * {@link #contains(int)} is constant-time. Nothing is boxed, and nothing is allocated after construction.
+ * <br>
+ * This is used by {@link GridPathfinder2} and {@link GridPathfinder3}, but works for any graph with int nodes.
+ */
+public class IndexedFloatHeap {
+    private final int[] nodes;
+    private final float[] priorities;
+    /** For each node, its position in {@link #nodes}, or -1 if it isn't in the heap. */
+    private final int[] positions;
+    private int size;
+
+    /**
+     * Creates an empty heap that can hold the nodes from 0 to {@code capacity - 1}.
+     * @param capacity how many different nodes this can hold
+     */
+    public IndexedFloatHeap(int capacity) {
+        nodes = new int[capacity];
+        priorities = new float[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * @return how many different nodes this can hold
+     */
+    public int capacity() {
+        return nodes.length;
+    }
+
+    /**
+     * @return how many nodes are currently in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the heap has no nodes in it
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns true if the node is currently in the heap.
+     * @param node a node from 0 to {@link #capacity()} - 1
+     * @return true if node is in the heap
+     */
+    public boolean contains(int node) {
+        return positions[node] >= 0;
+    }
+
+    /**
+     * Gets the current priority of a node in the heap; if the node isn't in the heap, the result is meaningless.
+     * @param node a node that is in the heap
+     * @return the priority of node
+     */
+    public float priority(int node) {
+        return priorities[positions[node]];
+    }
+
+    /**
+     * Adds node with the given priority if it isn't in the heap, or lowers its priority if it is in the heap with a
+     * higher priority. If the node is already present with a lower or equal priority, this does nothing.
+     * @param node a node from 0 to {@link #capacity()} - 1
+     * @param priority the priority to use; lower priorities are removed first
+     * @return true if the heap changed
+     */
+    public boolean add(int node, float priority) {
+        int pos = positions[node];
+        if (pos < 0) {
+            pos = size++;
+        } else if (priorities[pos] <= priority) {
+            return false;
+        }
+        siftUp(pos, node, priority);
+        return true;
+    }
+
+    /**
+     * @return the node with the lowest priority, without removing it; the heap must not be empty
+     */
+    public int peek() {
+        return nodes[0];
+    }
+
+    /**
+     * @return the lowest priority in the heap; the heap must not be empty
+     */
+    public float peekPriority() {
+        return priorities[0];
+    }
+
+    /**
+     * Removes and returns the node with the lowest priority. The heap must not be empty.
+     * @return the node that had the lowest priority
+     */
+    public int pop() {
+        final int top = nodes[0];
+        positions[top] = -1;
+        if (--size > 0) {
+            siftDown(0, nodes[size], priorities[size]);
+        }
+        return top;
+    }
+
+    /**
+     * Removes every node from the heap. This only takes time proportional to how many nodes are in the heap.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[nodes[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int pos, int node, float priority) {
+        while (pos > 0) {
+            final int parent = pos - 1 >>> 1;
+            if (priorities[parent] <= priority) break;
+            nodes[pos] = nodes[parent];
+            priorities[pos] = priorities[parent];
+            positions[nodes[pos]] = pos;
+            pos = parent;
+        }
+        nodes[pos] = node;
+        priorities[pos] = priority;
+        positions[node] = pos;
+    }
+
+    private void siftDown(int pos, int node, float priority) {
+        final int half = size >>> 1;
+        while (pos < half) {
+            int child = (pos << 1) + 1;
+            final int right = child + 1;
+            if (right < size && priorities[right] < priorities[child]) child = right;
+            if (priority <= priorities[child]) break;
+            nodes[pos] = nodes[child];
+            priorities[pos] = priorities[child];
+            positions[nodes[pos]] = pos;
+            pos = child;
+        }
+        nodes[pos] = node;
+        priorities[pos] = priority;
+        positions[node] = pos;
+    }
+}
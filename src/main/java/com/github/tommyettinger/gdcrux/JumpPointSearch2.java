@@ -0,0 +1,362 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Jump Point Search with precomputed jump distances (often called JPS+) on a 2D grid where every passable cell costs
+ * the same to enter. Orthogonal moves cost 1 and diagonal moves cost {@code sqrt(2)}, and diagonal moves can't cut the
+ * corner of a wall, so paths and costs match what {@link GridPathfinder2} finds on a grid where every passable cell
+ * costs 1. On open maps, this expands far fewer nodes than A*, because it only stops at cells where a path could need
+ * to turn.
+ * <br>
+ * The map is a {@code boolean[]} where true means passable, indexed by {@code x + y * width}. It is kept by reference
+ * when given to {@link #setMap(boolean[])}, which computes a jump distance for every cell in each of the 8 directions.
+ * These distances are reused by every query. After changing some cells of the map in place, call
+ * {@link #update(int, int, int, int)} with the changed area; this only recomputes the distances that area can affect.
+ * <br>
+ * Paths are written the same way as in GridPathfinder2: as every cell index from start to goal in an {@link IntArray},
+ * or as {@link PointI2} items in an {@link Array}, reusing any PointI2 already there. All scratch space is allocated
+ * in the constructor, so one JumpPointSearch2 can answer many queries without allocating, but it should only be used
+ * by one thread at a time.
+ */
+public class JumpPointSearch2 {
+    private static final float SQRT2 = 1.4142135f;
+    /** Directions 0-3 are orthogonal (E, W, N, S) and 4-7 are diagonal (NE, NW, SE, SW), where N is positive y. */
+    private static final int[] DX = {1, -1, 0, 0, 1, -1, 1, -1};
+    private static final int[] DY = {0, 0, 1, -1, 1, 1, -1, -1};
+    /** For each direction a node was reached from (or 8 for the start), the directions worth searching next. */
+    private static final int[][] NEXT = {
+            {0, 2, 3, 4, 6}, {1, 2, 3, 5, 7}, {2, 0, 1, 4, 5}, {3, 0, 1, 6, 7},
+            {4, 0, 2}, {5, 1, 2}, {6, 0, 3}, {7, 1, 3},
+            {0, 1, 2, 3, 4, 5, 6, 7}
+    };
+    private static final byte START = 8;
+
+    /** The number of cells along the x-axis. */
+    public final int width;
+    /** The number of cells along the y-axis. */
+    public final int height;
+    /**
+     * Multiplies the heuristic. The default of 1 always finds the shortest path; larger values can be faster, but may
+     * find longer paths.
+     */
+    public float heuristicScale = 1f;
+
+    private boolean[] passable;
+    /**
+     * For each cell and direction, at {@code cell * 8 + direction}: a positive number is the distance to the next jump
+     * point in that direction, and zero or a negative number is the negated distance that can be moved before a wall.
+     */
+    private final int[] jumps;
+    private final float[] gScores;
+    private final int[] parents;
+    private final byte[] arrivals;
+    private final int[] seen;
+    private final int[] closed;
+    private int generation;
+    private final IndexedFloatHeap open;
+    private final IntArray cellScratch = new IntArray();
+
+    /**
+     * Creates a JumpPointSearch2 for grids with the given size, allocating all of its scratch space. Nothing can be
+     * searched until {@link #setMap(boolean[])} has been called.
+     * @param width the number of cells along the x-axis
+     * @param height the number of cells along the y-axis
+     */
+    public JumpPointSearch2(int width, int height) {
+        this.width = width;
+        this.height = height;
+        final int size = width * height;
+        jumps = new int[size * 8];
+        gScores = new float[size];
+        parents = new int[size];
+        arrivals = new byte[size];
+        seen = new int[size];
+        closed = new int[size];
+        open = new IndexedFloatHeap(size);
+    }
+
+    /**
+     * @param x the x-coordinate of a cell
+     * @param y the y-coordinate of a cell
+     * @return the index of that cell, as used in the map and in index paths
+     */
+    public int index(int x, int y) {
+        return x + y * width;
+    }
+
+    /**
+     * Sets {@code out} to the coordinates of the cell with the given index.
+     * @param index a cell index, as produced by {@link #index(int, int)}
+     * @param out will be modified to hold the cell's coordinates
+     * @return out, after modifications, or a new point with the result if out is not mutable
+     */
+    public PointI2 point(int index, PointI2 out) {
+        return out.seti(index % width, index / width);
+    }
+
+    /**
+     * Sets the map to search, and computes every jump distance for it.
+     * @param passable true for each cell that can be entered; must have at least {@code width * height} items; kept by
+     *                 reference
+     * @return this, for chaining
+     */
+    public JumpPointSearch2 setMap(boolean[] passable) {
+        this.passable = passable;
+        for (int y = 0; y < height; y++) {
+            computeRow(y);
+        }
+        for (int x = 0; x < width; x++) {
+            computeColumn(x);
+        }
+        for (int d = 4; d < 8; d++) {
+            for (int r = 0; r < height; r++) {
+                final int y = DY[d] > 0 ? height - 1 - r : r;
+                for (int x = 0; x < width; x++) {
+                    computeDiagonal(x, y, d);
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Recomputes the jump distances that depend on the cells from minX,minY to maxX,maxY (inclusive), which should be
+     * called after changing those cells in the map given to {@link #setMap(boolean[])}. This recomputes the orthogonal
+     * distances in the rows and columns near the changed area, and diagonal distances only as far as they actually
+     * change, so it is much faster than calling setMap() again when the area is small.
+     * @param minX the lowest x-coordinate of a changed cell
+     * @param minY the lowest y-coordinate of a changed cell
+     * @param maxX the highest x-coordinate of a changed cell
+     * @param maxY the highest y-coordinate of a changed cell
+     * @return this, for chaining
+     */
+    public JumpPointSearch2 update(int minX, int minY, int maxX, int maxY) {
+        // whether a cell is a jump point depends on the cells around it, so orthogonal distances change within 1 row
+        // or column of the changed area
+        for (int y = Math.max(minY - 1, 0), end = Math.min(maxY + 1, height - 1); y <= end; y++) {
+            computeRow(y);
+        }
+        for (int x = Math.max(minX - 1, 0), end = Math.min(maxX + 1, width - 1); x <= end; x++) {
+            computeColumn(x);
+        }
+        // a diagonal distance depends on the cell it steps to, so anything one step outside those rows and columns
+        // can change, and then any change travels backward along its diagonal until a distance stays the same
+        final int r0 = Math.max(minY - 2, 0), r1 = Math.min(maxY + 2, height - 1);
+        final int c0 = Math.max(minX - 2, 0), c1 = Math.min(maxX + 2, width - 1);
+        for (int d = 4; d < 8; d++) {
+            for (int r = 0; r < height; r++) {
+                final int y = DY[d] > 0 ? height - 1 - r : r;
+                if (y >= r0 && y <= r1) {
+                    for (int x = 0; x < width; x++) {
+                        propagateDiagonal(x, y, d);
+                    }
+                } else {
+                    for (int x = c0; x <= c1; x++) {
+                        propagateDiagonal(x, y, d);
+                    }
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Update jump distances for a changed box of cells; see {@link #update(int, int, int, int)}.
+     * @param region the box of cells that changed; will not be modified
+     * @return this, for chaining
+     */
+    public JumpPointSearch2 update(BoxI2 region) {
+        return update(region.min.x, region.min.y, region.max.x, region.max.y);
+    }
+
+    /**
+     * Finds the shortest path from the start cell to the goal cell, and writes the index of every cell on that path
+     * (including start and goal) into {@code path}, in order from start to goal. If there is no path, path is left
+     * empty. Start may be impassable; goal may not be.
+     * @param startX the x-coordinate of the start cell
+     * @param startY the y-coordinate of the start cell
+     * @param goalX the x-coordinate of the goal cell
+     * @param goalY the y-coordinate of the goal cell
+     * @param path will be cleared, then given the cell indices of the path, if there is one
+     * @return the length of the path, or {@link Float#POSITIVE_INFINITY} if there is no path
+     */
+    public float findPath(int startX, int startY, int goalX, int goalY, IntArray path) {
+        return search(index(startX, startY), index(goalX, goalY), path);
+    }
+
+    /**
+     * Finds the shortest path from start to goal, and writes every cell on that path (including start and goal) into
+     * {@code path}, in order from start to goal. Any mutable PointI2 items already in path are reused, and others (such
+     * as {@link ConstPointI2} keys) are replaced. If there is no path, path is left empty.
+     * @param start the start cell; will not be modified
+     * @param goal the goal cell; will not be modified
+     * @param path will be filled with the path, if there is one
+     * @return the length of the path, or {@link Float#POSITIVE_INFINITY} if there is no path
+     */
+    public float findPath(PointI2 start, PointI2 goal, Array<PointI2> path) {
+        final float cost = search(index(start.x, start.y), index(goal.x, goal.y), cellScratch);
+        final int n = cellScratch.size;
+        for (int i = 0; i < n; i++) {
+            final int c = cellScratch.get(i);
+            final PointI2 p = i < path.size ? path.get(i) : null;
+            if (i < path.size) path.set(i, point(c, p == null ? new PointI2() : p));
+            else path.add(point(c, new PointI2()));
+        }
+        path.truncate(n);
+        return cost;
+    }
+
+    private boolean open(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && passable[x + y * width];
+    }
+
+    /**
+     * Returns true if moving into x,y with the orthogonal direction d would reveal a neighbor that can only be reached
+     * well by going through x,y.
+     */
+    private boolean isJumpPoint(int x, int y, int d) {
+        final int dx = DX[d], dy = DY[d], px = dy, py = dx;
+        return (open(x + px, y + py) && !open(x - dx + px, y - dy + py))
+                || (open(x - px, y - py) && !open(x - dx - px, y - dy - py));
+    }
+
+    private int orthogonal(int x, int y, int d) {
+        final int nx = x + DX[d], ny = y + DY[d];
+        if (!open(nx, ny)) return 0;
+        if (isJumpPoint(nx, ny, d)) return 1;
+        final int next = jumps[(nx + ny * width) * 8 + d];
+        return next > 0 ? next + 1 : next - 1;
+    }
+
+    private void computeRow(int y) {
+        for (int x = width - 1; x >= 0; x--) {
+            jumps[(x + y * width) * 8] = orthogonal(x, y, 0);
+        }
+        for (int x = 0; x < width; x++) {
+            jumps[(x + y * width) * 8 + 1] = orthogonal(x, y, 1);
+        }
+    }
+
+    private void computeColumn(int x) {
+        for (int y = height - 1; y >= 0; y--) {
+            jumps[(x + y * width) * 8 + 2] = orthogonal(x, y, 2);
+        }
+        for (int y = 0; y < height; y++) {
+            jumps[(x + y * width) * 8 + 3] = orthogonal(x, y, 3);
+        }
+    }
+
+    private int diagonal(int x, int y, int d) {
+        final int dx = DX[d], dy = DY[d], nx = x + dx, ny = y + dy;
+        if (!(open(nx, ny) && open(nx, y) && open(x, ny))) return 0;
+        final int n = (nx + ny * width) * 8;
+        if (jumps[n + (dx > 0 ? 0 : 1)] > 0 || jumps[n + (dy > 0 ? 2 : 3)] > 0) return 1;
+        final int next = jumps[n + d];
+        return next > 0 ? next + 1 : next - 1;
+    }
+
+    private void computeDiagonal(int x, int y, int d) {
+        jumps[(x + y * width) * 8 + d] = diagonal(x, y, d);
+    }
+
+    private void propagateDiagonal(int x, int y, int d) {
+        final int dx = DX[d], dy = DY[d];
+        do {
+            final int i = (x + y * width) * 8 + d, value = diagonal(x, y, d);
+            if (jumps[i] == value) return;
+            jumps[i] = value;
+            x -= dx;
+            y -= dy;
+        } while (x >= 0 && y >= 0 && x < width && y < height);
+    }
+
+    private float heuristic(int x, int y, int goalX, int goalY) {
+        final int dx = Math.abs(x - goalX), dy = Math.abs(y - goalY);
+        return dx < dy ? SQRT2 * dx + (dy - dx) : SQRT2 * dy + (dx - dy);
+    }
+
+    private void nextGeneration() {
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            generation = 0;
+        }
+        generation++;
+    }
+
+    private float search(int start, int goal, IntArray path) {
+        path.clear();
+        if (!passable[goal]) return Float.POSITIVE_INFINITY;
+        nextGeneration();
+        open.clear();
+        final int goalX = goal % width, goalY = goal / width;
+        gScores[start] = 0f;
+        parents[start] = -1;
+        arrivals[start] = START;
+        seen[start] = generation;
+        open.add(start, 0f);
+        while (!open.isEmpty()) {
+            final int current = open.pop();
+            if (current == goal) {
+                writePath(goal, path);
+                return gScores[goal];
+            }
+            closed[current] = generation;
+            final int x = current % width, y = current / width;
+            final int gapX = goalX - x, gapY = goalY - y;
+            final int distX = Math.abs(gapX), distY = Math.abs(gapY);
+            final float g = gScores[current];
+            for (int d : NEXT[arrivals[current]]) {
+                final int dx = DX[d], dy = DY[d], jump = jumps[current * 8 + d], reach = Math.abs(jump);
+                int steps;
+                if (d < 4) {
+                    // stop at the goal if it is straight ahead and nothing is in the way
+                    if (dx != 0 ? (gapY == 0 && Integer.signum(gapX) == dx && distX <= reach)
+                            : (gapX == 0 && Integer.signum(gapY) == dy && distY <= reach))
+                        steps = dx != 0 ? distX : distY;
+                    else if (jump > 0) steps = jump;
+                    else continue;
+                } else {
+                    // stop where the goal's row or column is crossed, if the goal is in this direction
+                    if (Integer.signum(gapX) == dx && Integer.signum(gapY) == dy && (distX <= reach || distY <= reach))
+                        steps = Math.min(distX, distY);
+                    else if (jump > 0) steps = jump;
+                    else continue;
+                }
+                final int nx = x + dx * steps, ny = y + dy * steps, next = nx + ny * width;
+                if (closed[next] == generation) continue;
+                final float ng = g + (d < 4 ? steps : steps * SQRT2);
+                if (seen[next] != generation || ng < gScores[next]) {
+                    seen[next] = generation;
+                    gScores[next] = ng;
+                    parents[next] = current;
+                    arrivals[next] = (byte) d;
+                    open.add(next, ng + heuristicScale * heuristic(nx, ny, goalX, goalY));
+                }
+            }
+        }
+        return Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Fills in every cell between each pair of jump points, from the goal backward, then reverses the result.
+     */
+    private void writePath(int goal, IntArray path) {
+        int current = goal;
+        path.add(current);
+        for (int parent = parents[current]; parent != -1; current = parent, parent = parents[current]) {
+            final int sx = Integer.signum(parent % width - current % width);
+            final int sy = Integer.signum(parent / width - current / width);
+            final int step = sx + sy * width;
+            for (int c = current + step; c != parent; c += step) {
+                path.add(c);
+            }
+            path.add(parent);
+        }
+        path.reverse();
+    }
+}
@@ -0,0 +1,295 @@
+package com.github.tommyettinger.gdcrux;
+
+/**
+ * Low-discrepancy ("quasi-random") sequences in ranks 2 to 6, which cover the unit hypercube much more evenly than
+ * random points do, so Monte Carlo estimates made with them converge faster. Every value is a float from 0.0
+ * (inclusive) to 1.0 (exclusive). Three sequences are available:
+ * <ul>
+ *     <li>Rd, Martin Roberts' generalization of the golden ratio sequence, which adds an irrational constant per axis
+ *     for each index. It is the fastest, works for any number of points, and can use long indices.</li>
+ *     <li>Halton, which uses the radical inverse of the index in a different prime base (2, 3, 5, 7, 11, 13) for each
+ *     axis.</li>
+ *     <li>Sobol, using the direction numbers from Joe and Kuo and Gray-code order, which is especially even when the
+ *     number of points is a power of two.</li>
+ * </ul>
+ * Single values can be looked up by index and axis. The bulk methods fill either one array per axis ("structure of
+ * arrays", like {@link BulkMath}), where the rank is how many arrays are given, or an array of PointF objects, where the
+ * rank is the rank of those points. The items from {@code start} (inclusive) to {@code start + length} (exclusive) are
+ * filled with consecutive points of the sequence, beginning at the point numbered {@code first}.
+ * <br>
+ * Because {@link Distributor#probitF(float)} keeps the order of its inputs, running these values through it keeps them
+ * evenly spread; {@link #gaussian(int, int, float[]...)} does that to get low-discrepancy normal-distributed samples,
+ * and {@link #directions(int, int, float[]...)} normalizes those to get evenly spread directions on a sphere.
+ */
+public final class LowDiscrepancy {
+    private LowDiscrepancy() {
+    }
+
+    /** For each rank from 2 to 6, the fixed-point Rd increment for each axis, as a fraction of 2 to the 64. */
+    private static final long[][] RD = new long[7][];
+    private static final int[] PRIMES = {2, 3, 5, 7, 11, 13};
+    /** For each axis, 32 Sobol direction numbers, one per bit of the Gray-coded index. */
+    private static final int[][] SOBOL = new int[6][32];
+
+    static {
+        for (int rank = 2; rank <= 6; rank++) {
+            // the unique positive root of x^(rank+1) = x + 1, found with Newton's method
+            double phi = 2.0;
+            for (int i = 0; i < 30; i++) {
+                phi -= (Math.pow(phi, rank + 1) - phi - 1.0) / ((rank + 1) * Math.pow(phi, rank) - 1.0);
+            }
+            final long[] increments = new long[rank];
+            for (int axis = 0; axis < rank; axis++) {
+                increments[axis] = (long) (Math.pow(phi, -(axis + 1)) * 0x1p63) << 1;
+            }
+            RD[rank] = increments;
+        }
+        // primitive polynomials (degree s, coefficients a) and initial numbers m, from new-joe-kuo-6.21201
+        final int[] degrees = {1, 2, 3, 3, 4};
+        final int[] coefficients = {0, 1, 1, 2, 1};
+        final int[][] initial = {{1}, {1, 3}, {1, 3, 1}, {1, 1, 1}, {1, 1, 3, 3}};
+        for (int bit = 0; bit < 32; bit++) {
+            SOBOL[0][bit] = 1 << 31 - bit;
+        }
+        for (int axis = 1; axis < 6; axis++) {
+            final int s = degrees[axis - 1], a = coefficients[axis - 1];
+            final int[] m = initial[axis - 1], v = SOBOL[axis];
+            for (int i = 0; i < s; i++) {
+                v[i] = m[i] << 31 - i;
+            }
+            for (int i = s; i < 32; i++) {
+                v[i] = v[i - s] ^ v[i - s] >>> s;
+                for (int k = 1; k < s; k++) {
+                    v[i] ^= (a >>> s - 1 - k & 1) * v[i - k];
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets one component of a point in the Rd sequence.
+     * @param index which point to get; any long
+     * @param rank how many components each point has, from 2 to 6
+     * @param axis which component to get, from 0 to {@code rank - 1}
+     * @return a float from 0.0 (inclusive) to 1.0 (exclusive)
+     */
+    public static float rd(long index, int rank, int axis) {
+        return ((0x8000000000000000L + index * RD[rank][axis]) >>> 40) * 0x1p-24f;
+    }
+
+    /**
+     * Gets one component of a point in the Halton sequence, which uses the radical inverse of index in the
+     * {@code axis}-th prime base.
+     * @param index which point to get; should be non-negative
+     * @param axis which component to get, from 0 to 5
+     * @return a float from 0.0 (inclusive) to 1.0 (exclusive)
+     */
+    public static float halton(long index, int axis) {
+        if (axis == 0) return (Long.reverse(index) >>> 40) * 0x1p-24f;
+        final int base = PRIMES[axis];
+        final double inverse = 1.0 / base;
+        double result = 0.0, fraction = inverse;
+        while (index > 0L) {
+            result += (index % base) * fraction;
+            index /= base;
+            fraction *= inverse;
+        }
+        return Math.min((float) result, 0x1.fffffep-1f);
+    }
+
+    /**
+     * Gets one component of a point in the Sobol sequence, in Gray-code order.
+     * @param index which point to get; treated as an unsigned 32-bit number
+     * @param axis which component to get, from 0 to 5
+     * @return a float from 0.0 (inclusive) to 1.0 (exclusive)
+     */
+    public static float sobol(int index, int axis) {
+        return (sobolBits(index, axis) >>> 8) * 0x1p-24f;
+    }
+
+    private static int sobolBits(int index, int axis) {
+        final int[] v = SOBOL[axis];
+        int gray = index ^ index >>> 1, result = 0;
+        for (int bit = 0; gray != 0; bit++, gray >>>= 1) {
+            if ((gray & 1) != 0) result ^= v[bit];
+        }
+        return result;
+    }
+
+    /**
+     * Fills one array per axis with consecutive points of the Rd sequence, whose rank is {@code axes.length}.
+     * @param first the index of the first point to use
+     * @param start the first index to fill in each array
+     * @param length how many points to fill
+     * @param axes from 2 to 6 arrays, one per component
+     */
+    public static void rd(long first, int start, int length, float[]... axes) {
+        final long[] increments = RD[axes.length];
+        for (int axis = 0; axis < axes.length; axis++) {
+            final float[] out = axes[axis];
+            final long inc = increments[axis];
+            long state = 0x8000000000000000L + first * inc;
+            for (int i = start, end = start + length; i < end; i++, state += inc) {
+                out[i] = (state >>> 40) * 0x1p-24f;
+            }
+        }
+    }
+
+    /**
+     * Fills one array per axis with consecutive points of the Halton sequence, whose rank is {@code axes.length}.
+     * @param first the index of the first point to use; should be non-negative
+     * @param start the first index to fill in each array
+     * @param length how many points to fill
+     * @param axes from 2 to 6 arrays, one per component
+     */
+    public static void halton(long first, int start, int length, float[]... axes) {
+        for (int axis = 0; axis < axes.length; axis++) {
+            final float[] out = axes[axis];
+            long index = first;
+            for (int i = start, end = start + length; i < end; i++, index++) {
+                out[i] = halton(index, axis);
+            }
+        }
+    }
+
+    /**
+     * Fills one array per axis with consecutive points of the Sobol sequence, whose rank is {@code axes.length}. Only
+     * the first point is computed from scratch; each later one changes by a single direction number.
+     * @param first the index of the first point to use; treated as an unsigned 32-bit number
+     * @param start the first index to fill in each array
+     * @param length how many points to fill
+     * @param axes from 2 to 6 arrays, one per component
+     */
+    public static void sobol(int first, int start, int length, float[]... axes) {
+        for (int axis = 0; axis < axes.length; axis++) {
+            final float[] out = axes[axis];
+            final int[] v = SOBOL[axis];
+            int bits = sobolBits(first, axis), index = first;
+            for (int i = start, end = start + length; i < end; i++) {
+                out[i] = (bits >>> 8) * 0x1p-24f;
+                bits ^= v[Integer.numberOfTrailingZeros(++index) & 31];
+            }
+        }
+    }
+
+    /**
+     * Sets each point to the next point of the Rd sequence, using the rank of the points.
+     * @param first the index of the first point to use
+     * @param points the points to modify; all must have the same rank, from 2 to 6
+     * @param start the first index to fill in points
+     * @param length how many points to fill
+     * @return points, after modifications
+     * @param <P> the type of point, such as {@link PointF2}
+     */
+    public static <P extends PointFShared<P, ?>> P[] rd(long first, P[] points, int start, int length) {
+        if (length <= 0) return points;
+        final int rank = points[start].rank();
+        final long[] increments = RD[rank];
+        for (int i = start, end = start + length; i < end; i++, first++) {
+            final P p = points[i];
+            for (int axis = 0; axis < rank; axis++) {
+                p.setAt(axis, ((0x8000000000000000L + first * increments[axis]) >>> 40) * 0x1p-24f);
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Sets each point to the next point of the Halton sequence, using the rank of the points.
+     * @param first the index of the first point to use; should be non-negative
+     * @param points the points to modify; all must have the same rank, from 2 to 6
+     * @param start the first index to fill in points
+     * @param length how many points to fill
+     * @return points, after modifications
+     * @param <P> the type of point, such as {@link PointF2}
+     */
+    public static <P extends PointFShared<P, ?>> P[] halton(long first, P[] points, int start, int length) {
+        if (length <= 0) return points;
+        final int rank = points[start].rank();
+        for (int i = start, end = start + length; i < end; i++, first++) {
+            final P p = points[i];
+            for (int axis = 0; axis < rank; axis++) {
+                p.setAt(axis, halton(first, axis));
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Sets each point to the next point of the Sobol sequence, using the rank of the points.
+     * @param first the index of the first point to use; treated as an unsigned 32-bit number
+     * @param points the points to modify; all must have the same rank, from 2 to 6
+     * @param start the first index to fill in points
+     * @param length how many points to fill
+     * @return points, after modifications
+     * @param <P> the type of point, such as {@link PointF2}
+     */
+    public static <P extends PointFShared<P, ?>> P[] sobol(int first, P[] points, int start, int length) {
+        if (length <= 0) return points;
+        final int rank = points[start].rank();
+        final int[] bits = new int[rank];
+        for (int axis = 0; axis < rank; axis++) {
+            bits[axis] = sobolBits(first, axis);
+        }
+        for (int i = start, end = start + length; i < end; i++) {
+            final P p = points[i];
+            final int bit = Integer.numberOfTrailingZeros(++first) & 31;
+            for (int axis = 0; axis < rank; axis++) {
+                p.setAt(axis, (bits[axis] >>> 8) * 0x1p-24f);
+                bits[axis] ^= SOBOL[axis][bit];
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Turns uniform values from 0 to 1 into normal-distributed values with mean 0 and standard deviation 1, in place,
+     * using {@link Distributor#probitF(float)}. Because probit keeps the order of its inputs, low-discrepancy inputs
+     * give low-discrepancy Gaussian samples.
+     * <br>
+     * Point 0 of the Halton and Sobol sequences is 0 on every axis, which becomes about -13.0 here, far outside the
+     * range of the other samples. Callers must start those sequences at point 1 (pass 1 as {@code first}) when the
+     * values will go through this. Rd doesn't have that point.
+     * @param start the first index to change in each array
+     * @param length how many items to change in each array
+     * @param axes any number of arrays of values from 0 to 1
+     */
+    public static void gaussian(int start, int length, float[]... axes) {
+        for (float[] out : axes) {
+            for (int i = start, end = start + length; i < end; i++) {
+                out[i] = Distributor.probitF(out[i]);
+            }
+        }
+    }
+
+    /**
+     * Turns points with uniform components from 0 to 1 into unit-length directions, in place, evenly spread over the
+     * sphere (or circle, or hypersphere) with rank {@code axes.length}. Each point is made Gaussian with
+     * {@link #gaussian(int, int, float[]...)} and then normalized; a point that lands exactly on the origin becomes a
+     * unit vector along the first axis.
+     * <br>
+     * A point that is 0.5 on every axis lands on the origin, and so has no direction of its own. Point 0 of Rd and
+     * point 1 of Sobol are such points, and point 0 of Halton and Sobol is the outlier described in
+     * {@link #gaussian(int, int, float[]...)}. Callers must start Rd and Halton at point 1, and Sobol at point 2.
+     * @param start the first index to change in each array
+     * @param length how many points to change
+     * @param axes one array per component, holding values from 0 to 1
+     */
+    public static void directions(int start, int length, float[]... axes) {
+        gaussian(start, length, axes);
+        for (int i = start, end = start + length; i < end; i++) {
+            float len2 = 0f;
+            for (float[] axis : axes) {
+                len2 += axis[i] * axis[i];
+            }
+            if (len2 == 0f) {
+                axes[0][i] = 1f;
+                continue;
+            }
+            final float inv = 1f / (float) Math.sqrt(len2);
+            for (float[] axis : axes) {
+                axis[i] *= inv;
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.github.tommyettinger.gdcrux;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A reusable cursor over the neighbors of an int grid cell, in any rank from 2 to 6. The neighbors can be the Von
+ * Neumann neighborhood (the {@code 2 * rank} cells that share a face with the center) or the Moore neighborhood (the
+ * {@code 3^rank - 1} cells that share a face, edge, or corner with the center). The offsets for each are computed once,
+ * for every rank, and shared by every Neighborhood.
+ * <br>
+ * Typical use is to create one Neighborhood per rank and kind, then for each cell call {@link #reset(PointIShared)}
+ * and loop while {@link #hasNext()} is true, writing each neighbor into the same point with
+ * {@link #next(PointIShared)}, or getting it as a packed long with {@link #nextPacked()}. If bounds were given with
+ * {@link #clip(PointIShared, PointIShared)}, neighbors outside those bounds are skipped. Nothing here allocates after
+ * construction, so it is suitable for flood fills and cellular automata in higher dimensions.
+ * <br>
+ * The packed long format stores each component in {@code 64 / rank} bits (32 bits for rank 2, 21 for rank 3, 16 for
+ * rank 4, 12 for rank 5, and 10 for rank 6), as signed values, with x in the lowest bits. See {@link #pack(PointIShared)}
+ * and {@link #unpack(long, PointIShared)}.
+ */
+public class Neighborhood {
+    private static final int[][] VON_NEUMANN = new int[7][];
+    private static final int[][] MOORE = new int[7][];
+    private static final int[] BITS = {0, 64, 32, 21, 16, 12, 10};
+
+    static {
+        for (int rank = 2; rank <= 6; rank++) {
+            final int[] vn = new int[2 * rank * rank];
+            for (int axis = 0; axis < rank; axis++) {
+                vn[2 * axis * rank + axis] = -1;
+                vn[(2 * axis + 1) * rank + axis] = 1;
+            }
+            VON_NEUMANN[rank] = vn;
+            int total = 1;
+            for (int i = 0; i < rank; i++) total *= 3;
+            final int[] moore = new int[(total - 1) * rank];
+            for (int n = 0, k = 0; n < total; n++) {
+                if (n == total >> 1) continue; // the center itself
+                for (int axis = rank - 1, rest = n; axis >= 0; axis--, rest /= 3) {
+                    moore[k * rank + axis] = rest % 3 - 1;
+                }
+                k++;
+            }
+            MOORE[rank] = moore;
+        }
+    }
+
+    /**
+     * Gets the shared offset table for the given rank and kind of neighborhood. The table has {@link #count(int, boolean)}
+     * neighbors, each stored as {@code rank} consecutive components; every component is -1, 0, or 1. Because this is
+     * shared, it must not be modified.
+     * @param rank the dimension, from 2 to 6
+     * @param moore true for the Moore neighborhood, false for the Von Neumann neighborhood
+     * @return the shared offset table; do not modify
+     */
+    public static int[] offsets(int rank, boolean moore) {
+        return moore ? MOORE[rank] : VON_NEUMANN[rank];
+    }
+
+    /**
+     * Gets how many neighbors a cell has with the given rank and kind of neighborhood.
+     * @param rank the dimension, from 2 to 6
+     * @param moore true for the Moore neighborhood, false for the Von Neumann neighborhood
+     * @return {@code 3^rank - 1} for Moore neighborhoods, or {@code 2 * rank} for Von Neumann neighborhoods
+     */
+    public static int count(int rank, boolean moore) {
+        return offsets(rank, moore).length / rank;
+    }
+
+    /** The dimension of the cells this works with, from 2 to 6. */
+    public final int rank;
+    /** True if this uses the Moore neighborhood, false if it uses the Von Neumann neighborhood. */
+    public final boolean moore;
+    /** How many neighbors there are before any clipping. */
+    public final int count;
+
+    private final int[] table;
+    private final int[] center = new int[6];
+    private final int[] min = new int[6];
+    private final int[] max = new int[6];
+    private boolean clipped;
+    private int index;
+
+    /**
+     * Creates a Neighborhood for cells with the given rank. No neighbors are available until a reset() method is called.
+     * @param rank the dimension, from 2 to 6
+     * @param moore true for the Moore neighborhood, false for the Von Neumann neighborhood
+     */
+    public Neighborhood(int rank, boolean moore) {
+        this.rank = rank;
+        this.moore = moore;
+        table = offsets(rank, moore);
+        count = table.length / rank;
+        index = count;
+    }
+
+    /**
+     * Only produces neighbors with every component between the matching components of min and max, inclusive.
+     * @param min the lowest allowed value for each component; will not be modified
+     * @param max the highest allowed value for each component; will not be modified
+     * @return this, for chaining
+     */
+    public Neighborhood clip(PointIShared<?, ?> min, PointIShared<?, ?> max) {
+        for (int axis = 0; axis < rank; axis++) {
+            this.min[axis] = min.get(axis);
+            this.max[axis] = max.get(axis);
+        }
+        clipped = true;
+        return this;
+    }
+
+    /**
+     * Only produces neighbors with every component at least 0 and less than the matching item in size, such as for a
+     * grid stored in an array.
+     * @param size the number of cells along each axis; must have at least {@link #rank} items; will not be modified
+     * @return this, for chaining
+     */
+    public Neighborhood clip(int[] size) {
+        for (int axis = 0; axis < rank; axis++) {
+            min[axis] = 0;
+            max[axis] = size[axis] - 1;
+        }
+        clipped = true;
+        return this;
+    }
+
+    /**
+     * Removes any bounds set by a clip() method, so all neighbors will be produced.
+     * @return this, for chaining
+     */
+    public Neighborhood unclip() {
+        clipped = false;
+        return this;
+    }
+
+    /**
+     * Starts over with the neighbors of the given cell.
+     * @param center the cell whose neighbors will be produced; will not be modified
+     * @return this, for chaining
+     */
+    public Neighborhood reset(PointIShared<?, ?> center) {
+        for (int axis = 0; axis < rank; axis++) {
+            this.center[axis] = center.get(axis);
+        }
+        index = 0;
+        return this;
+    }
+
+    /**
+     * Starts over with the neighbors of the given cell, given in the packed format of {@link #pack(PointIShared)}.
+     * @param packedCenter the cell whose neighbors will be produced, as a packed long
+     * @return this, for chaining
+     */
+    public Neighborhood reset(long packedCenter) {
+        for (int axis = 0; axis < rank; axis++) {
+            center[axis] = unpack(packedCenter, rank, axis);
+        }
+        index = 0;
+        return this;
+    }
+
+    /**
+     * @return true if there is at least one more neighbor, within bounds if clipped
+     */
+    public boolean hasNext() {
+        if (clipped) {
+            outer:
+            for (; index < count; index++) {
+                for (int axis = 0, i = index * rank; axis < rank; axis++, i++) {
+                    final int c = center[axis] + table[i];
+                    if (c < min[axis] || c > max[axis]) continue outer;
+                }
+                break;
+            }
+        }
+        return index < count;
+    }
+
+    /**
+     * Writes the next neighbor into out, and moves past it.
+     * @param out will be modified to hold the next neighbor; must have the same {@link #rank}
+     * @return out, after modifications, or a new point with the result if out is not mutable
+     * @throws NoSuchElementException if there are no more neighbors
+     * @param <P> the type of point
+     */
+    public <P extends PointIShared<P, ?>> P next(P out) {
+        if (!hasNext()) throw new NoSuchElementException("No more neighbors.");
+        for (int axis = 0, i = index * rank; axis < rank; axis++, i++) {
+            out = out.setAt(axis, center[axis] + table[i]);
+        }
+        index++;
+        return out;
+    }
+
+    /**
+     * Gets the next neighbor in the packed format of {@link #pack(PointIShared)}, and moves past it.
+     * @return the next neighbor, as a packed long
+     * @throws NoSuchElementException if there are no more neighbors
+     */
+    public long nextPacked() {
+        if (!hasNext()) throw new NoSuchElementException("No more neighbors.");
+        final int bits = BITS[rank];
+        final long mask = -1L >>> 64 - bits;
+        long packed = 0L;
+        for (int axis = 0, i = index * rank; axis < rank; axis++, i++) {
+            packed |= (center[axis] + table[i] & mask) << axis * bits;
+        }
+        index++;
+        return packed;
+    }
+
+    /**
+     * Packs the components of an int point into one long, using {@code 64 / rank} bits per component. Components must
+     * fit in that many bits as signed values: from -2147483648 to 2147483647 for rank 2, -1048576 to 1048575 for
+     * rank 3, -32768 to 32767 for rank 4, -2048 to 2047 for rank 5, and -512 to 511 for rank 6.
+     * @param point a point with rank from 2 to 6; will not be modified
+     * @return the packed components
+     */
+    public static long pack(PointIShared<?, ?> point) {
+        final int rank = point.rank(), bits = BITS[rank];
+        final long mask = -1L >>> 64 - bits;
+        long packed = 0L;
+        for (int axis = 0; axis < rank; axis++) {
+            packed |= (point.get(axis) & mask) << axis * bits;
+        }
+        return packed;
+    }
+
+    /**
+     * Gets one component from a packed long made by {@link #pack(PointIShared)}.
+     * @param packed a packed long
+     * @param rank the rank of the point that was packed, from 2 to 6
+     * @param axis which component to get, from 0 to {@code rank - 1}
+     * @return the component
+     */
+    public static int unpack(long packed, int rank, int axis) {
+        final int bits = BITS[rank];
+        return (int) (packed << 64 - (axis + 1) * bits >> 64 - bits);
+    }
+
+    /**
+     * Sets every component of out from a packed long made by {@link #pack(PointIShared)}.
+     * @param packed a packed long
+     * @param out will be modified to hold the unpacked components; its rank determines how they are unpacked
+     * @return out, after modifications, or a new point with the result if out is not mutable
+     * @param <P> the type of point
+     */
+    public static <P extends PointIShared<P, ?>> P unpack(long packed, P out) {
+        final int rank = out.rank();
+        for (int axis = 0; axis < rank; axis++) {
+            out = out.setAt(axis, unpack(packed, rank, axis));
+        }
+        return out;
+    }
+}
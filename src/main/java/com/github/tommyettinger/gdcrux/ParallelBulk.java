@@ -0,0 +1,672 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.math.Matrix4;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel versions of the bulk operations in {@link BulkMath}, for very large point buffers. Work is split into
+ * ranges of at most {@link #grain} items, which are run as tasks in a {@link ForkJoinPool}. Every method here gives
+ * exactly the same results as its counterpart in BulkMath, regardless of the pool's parallelism or the grain size:
+ * per-item operations don't depend on how ranges are split, bounds only use min and max, sums are added in fixed
+ * blocks of {@link BulkMath#REDUCTION_BLOCK} and then in order, and the sort is stable.
+ * <br>
+ * This uses threads, so it is not available on GWT.
+ */
+@GwtIncompatible
+public class ParallelBulk {
+    /**
+     * The grain size used by {@link #ParallelBulk()}.
+     */
+    public static final int DEFAULT_GRAIN = 1 << 16;
+
+    /**
+     * The pool tasks are submitted to.
+     */
+    public final ForkJoinPool pool;
+    /**
+     * The largest number of items one task will process without splitting its range further. Larger grain sizes
+     * mean less overhead from tasks, and smaller ones mean better load balancing.
+     */
+    public final int grain;
+
+    /**
+     * Uses {@link ForkJoinPool#commonPool()} and {@link #DEFAULT_GRAIN}.
+     */
+    public ParallelBulk() {
+        this(ForkJoinPool.commonPool(), DEFAULT_GRAIN);
+    }
+
+    /**
+     * Uses {@link ForkJoinPool#commonPool()} and the given grain size.
+     * @param grain the most items one task should process; will be at least 1
+     */
+    public ParallelBulk(int grain) {
+        this(ForkJoinPool.commonPool(), grain);
+    }
+
+    /**
+     * @param pool the ForkJoinPool to run tasks in
+     * @param grain the most items one task should process; will be at least 1
+     */
+    public ParallelBulk(ForkJoinPool pool, int grain) {
+        this.pool = pool;
+        this.grain = Math.max(1, grain);
+    }
+
+    /**
+     * Some operation on a range of items, given by its first index and how many items it covers.
+     */
+    public interface RangeAction {
+        void run(int start, int length);
+    }
+
+    /**
+     * Splits a range in half until it is at most {@code grain} items, then runs a {@link RangeAction} on it.
+     */
+    static final class RangeTask extends RecursiveAction {
+        private final RangeAction action;
+        private final int start, end, grain;
+
+        RangeTask(RangeAction action, int start, int end, int grain) {
+            this.action = action;
+            this.start = start;
+            this.end = end;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= grain) {
+                action.run(start, end - start);
+            } else {
+                final int mid = start + end >>> 1;
+                invokeAll(new RangeTask(action, start, mid, grain), new RangeTask(action, mid, end, grain));
+            }
+        }
+    }
+
+    /**
+     * Runs {@code action} on sub-ranges of at most {@link #grain} items that together cover the given range, in
+     * parallel, and waits for all of them to finish. Ranges that are small enough run on the calling thread.
+     * @param start the first index to process
+     * @param length how many items to process
+     * @param action what to run on each sub-range
+     */
+    public void forRange(int start, int length, RangeAction action) {
+        if (length <= grain) {
+            if (length > 0)
+                action.run(start, length);
+        } else {
+            pool.invoke(new RangeTask(action, start, start + length, grain));
+        }
+    }
+
+    /**
+     * Parallel {@link BulkMath#add(float[], float[], float[], int, int)}.
+     * @param a the first addend
+     * @param b the second addend
+     * @param out where results are stored; may be {@code a} or {@code b}
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public void add(float[] a, float[] b, float[] out, int start, int length) {
+        forRange(start, length, (s, n) -> BulkMath.add(a, b, out, s, n));
+    }
+
+    /**
+     * Parallel {@link BulkMath#add(int[], int[], int[], int, int)}.
+     * @param a the first addend
+     * @param b the second addend
+     * @param out where results are stored; may be {@code a} or {@code b}
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public void add(int[] a, int[] b, int[] out, int start, int length) {
+        forRange(start, length, (s, n) -> BulkMath.add(a, b, out, s, n));
+    }
+
+    /**
+     * Parallel {@link BulkMath#sub(float[], float[], float[], int, int)}.
+     * @param a the minuend
+     * @param b the subtrahend
+     * @param out where results are stored; may be {@code a} or {@code b}
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public void sub(float[] a, float[] b, float[] out, int start, int length) {
+        forRange(start, length, (s, n) -> BulkMath.sub(a, b, out, s, n));
+    }
+
+    /**
+     * Parallel {@link BulkMath#sub(int[], int[], int[], int, int)}.
+     * @param a the minuend
+     * @param b the subtrahend
+     * @param out where results are stored; may be {@code a} or {@code b}
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public void sub(int[] a, int[] b, int[] out, int start, int length) {
+        forRange(start, length, (s, n) -> BulkMath.sub(a, b, out, s, n));
+    }
+
+    /**
+     * Parallel {@link BulkMath#scl(float[], float, float[], int, int)}.
+     * @param a the items to scale
+     * @param scalar what to multiply each item by
+     * @param out where results are stored; may be {@code a}
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public void scl(float[] a, float scalar, float[] out, int start, int length) {
+        forRange(start, length, (s, n) -> BulkMath.scl(a, scalar, out, s, n));
+    }
+
+    /**
+     * Parallel {@link BulkMath#scl(int[], int, int[], int, int)}.
+     * @param a the items to scale
+     * @param scalar what to multiply each item by
+     * @param out where results are stored; may be {@code a}
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public void scl(int[] a, int scalar, int[] out, int start, int length) {
+        forRange(start, length, (s, n) -> BulkMath.scl(a, scalar, out, s, n));
+    }
+
+    /**
+     * Parallel {@link BulkMath#lerp(float[], float[], float, float[], int, int)}.
+     * @param a the items to interpolate from
+     * @param b the items to interpolate toward
+     * @param alpha between 0 and 1, inclusive
+     * @param out where results are stored; may be {@code a} or {@code b}
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public void lerp(float[] a, float[] b, float alpha, float[] out, int start, int length) {
+        forRange(start, length, (s, n) -> BulkMath.lerp(a, b, alpha, out, s, n));
+    }
+
+    /**
+     * Parallel {@link BulkMath#mul(Matrix4, float[], float[], float[], int, int)}.
+     * @param matrix the transformation matrix; must not be changed while this runs
+     * @param x x-components; will be modified
+     * @param y y-components; will be modified
+     * @param z z-components; will be modified
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public void mul(Matrix4 matrix, float[] x, float[] y, float[] z, int start, int length) {
+        forRange(start, length, (s, n) -> BulkMath.mul(matrix, x, y, z, s, n));
+    }
+
+    /**
+     * Parallel {@link BulkMath#nor(float[], float[], int, int)}.
+     * @param x x-components; will be modified
+     * @param y y-components; will be modified
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public void nor(float[] x, float[] y, int start, int length) {
+        forRange(start, length, (s, n) -> BulkMath.nor(x, y, s, n));
+    }
+
+    /**
+     * Parallel {@link BulkMath#nor(float[], float[], float[], int, int)}.
+     * @param x x-components; will be modified
+     * @param y y-components; will be modified
+     * @param z z-components; will be modified
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public void nor(float[] x, float[] y, float[] z, int start, int length) {
+        forRange(start, length, (s, n) -> BulkMath.nor(x, y, z, s, n));
+    }
+
+    /**
+     * Parallel {@link BulkMath#quantize(float[], float, int[], int, int)}.
+     * @param a the floats to quantize
+     * @param scale what to multiply each float by before rounding
+     * @param out where rounded ints are stored
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public void quantize(float[] a, float scale, int[] out, int start, int length) {
+        forRange(start, length, (s, n) -> BulkMath.quantize(a, scale, out, s, n));
+    }
+
+    /**
+     * Parallel {@link BulkMath#morton(int[], int[], long[], int, int)}.
+     * @param x x-components
+     * @param y y-components
+     * @param out where Morton codes are stored
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public void morton(int[] x, int[] y, long[] out, int start, int length) {
+        forRange(start, length, (s, n) -> BulkMath.morton(x, y, out, s, n));
+    }
+
+    /**
+     * Parallel {@link BulkMath#morton(int[], int[], int[], long[], int, int)}.
+     * @param x x-components
+     * @param y y-components
+     * @param z z-components
+     * @param out where Morton codes are stored
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public void morton(int[] x, int[] y, int[] z, long[] out, int start, int length) {
+        forRange(start, length, (s, n) -> BulkMath.morton(x, y, z, out, s, n));
+    }
+
+    /**
+     * Parallel {@link BulkMath#hilbert(int[], int[], long[], int, int)}.
+     * @param x x-components
+     * @param y y-components
+     * @param out where Hilbert codes are stored
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public void hilbert(int[] x, int[] y, long[] out, int start, int length) {
+        forRange(start, length, (s, n) -> BulkMath.hilbert(x, y, out, s, n));
+    }
+
+    /**
+     * Runs {@code action} once per reduction block (of {@link BulkMath#REDUCTION_BLOCK} items) in the range, in
+     * parallel; the action receives the block's index, counting from 0 at {@code start}.
+     */
+    void forBlocks(int start, int length, BlockAction action) {
+        final int blocks = (length + BulkMath.REDUCTION_BLOCK - 1) / BulkMath.REDUCTION_BLOCK;
+        final int blockGrain = Math.max(1, grain / BulkMath.REDUCTION_BLOCK);
+        final RangeAction ranges = (s, n) -> {
+            for (int b = s, e = s + n; b < e; b++) {
+                final int from = start + b * BulkMath.REDUCTION_BLOCK;
+                action.run(b, from, Math.min(start + length, from + BulkMath.REDUCTION_BLOCK));
+            }
+        };
+        if (blocks <= blockGrain)
+            ranges.run(0, blocks);
+        else
+            pool.invoke(new RangeTask(ranges, 0, blocks, blockGrain));
+    }
+
+    interface BlockAction {
+        void run(int block, int from, int to);
+    }
+
+    /**
+     * Parallel {@link CounterRandom#nextNormalF(float[], int, int)}; this gives exactly the same results, because each
+     * task works on a copy of random skipped ahead to the first item of its range. Afterwards, random is advanced past
+     * every output used, as if the sequential version had run.
+     * @param random the generator to draw from; will be advanced by length
+     * @param out where results are stored
+     * @param start the first index to fill
+     * @param length how many items to fill
+     */
+    public void normalF(CounterRandom random, float[] out, int start, int length) {
+        forRange(start, length, (s, n) -> random.copy().skip(s - start).nextNormalF(out, s, n));
+        random.skip(Math.max(length, 0));
+    }
+
+    /**
+     * Parallel {@link BulkMath#sum(float[], int, int)}; this gives exactly the same result.
+     * This allocates one double per {@link BulkMath#REDUCTION_BLOCK} items to hold partial sums.
+     * @param a the items to add
+     * @param start the first index to process
+     * @param length how many items to process
+     * @return the total of the items in the range
+     */
+    public double sum(float[] a, int start, int length) {
+        if (length <= 0) return 0.0;
+        final double[] partial = new double[(length + BulkMath.REDUCTION_BLOCK - 1) / BulkMath.REDUCTION_BLOCK];
+        forBlocks(start, length, (b, from, to) -> partial[b] = BulkMath.blockSum(a, from, to));
+        double sum = 0.0;
+        for (double p : partial) {
+            sum += p;
+        }
+        return sum;
+    }
+
+    /**
+     * Parallel {@link BulkMath#centroid(float[], float[], float[], int, int, PointF3)}; this gives exactly the same
+     * result.
+     * @param x x-components
+     * @param y y-components
+     * @param z z-components
+     * @param start the first index to process
+     * @param length how many points to process
+     * @param out will be set to the centroid
+     * @return out, after modifications
+     */
+    public PointF3 centroid(float[] x, float[] y, float[] z, int start, int length, PointF3 out) {
+        if (length <= 0)
+            return out.set(0f, 0f, 0f);
+        return out.set((float) (sum(x, start, length) / length), (float) (sum(y, start, length) / length),
+                (float) (sum(z, start, length) / length));
+    }
+
+    /**
+     * Parallel {@link BulkMath#bounds(float[], float[], float[], int, int, PointF3, PointF3)}.
+     * This allocates a small amount of memory per {@link BulkMath#REDUCTION_BLOCK} items to hold partial bounds.
+     * @param x x-components
+     * @param y y-components
+     * @param z z-components
+     * @param start the first index to process
+     * @param length how many points to process
+     * @param min will be set to the smallest x, y, and z
+     * @param max will be set to the largest x, y, and z
+     */
+    public void bounds(float[] x, float[] y, float[] z, int start, int length, PointF3 min, PointF3 max) {
+        if (length <= grain) {
+            BulkMath.bounds(x, y, z, start, length, min, max);
+            return;
+        }
+        final int blocks = (length + BulkMath.REDUCTION_BLOCK - 1) / BulkMath.REDUCTION_BLOCK;
+        final float[] partial = new float[blocks * 6];
+        forBlocks(start, length, (b, from, to) -> {
+            float loX = Float.POSITIVE_INFINITY, loY = Float.POSITIVE_INFINITY, loZ = Float.POSITIVE_INFINITY;
+            float hiX = Float.NEGATIVE_INFINITY, hiY = Float.NEGATIVE_INFINITY, hiZ = Float.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                loX = Math.min(loX, x[i]);
+                hiX = Math.max(hiX, x[i]);
+                loY = Math.min(loY, y[i]);
+                hiY = Math.max(hiY, y[i]);
+                loZ = Math.min(loZ, z[i]);
+                hiZ = Math.max(hiZ, z[i]);
+            }
+            final int o = b * 6;
+            partial[o] = loX;
+            partial[o + 1] = loY;
+            partial[o + 2] = loZ;
+            partial[o + 3] = hiX;
+            partial[o + 4] = hiY;
+            partial[o + 5] = hiZ;
+        });
+        float loX = Float.POSITIVE_INFINITY, loY = Float.POSITIVE_INFINITY, loZ = Float.POSITIVE_INFINITY;
+        float hiX = Float.NEGATIVE_INFINITY, hiY = Float.NEGATIVE_INFINITY, hiZ = Float.NEGATIVE_INFINITY;
+        for (int o = 0; o < partial.length; o += 6) {
+            loX = Math.min(loX, partial[o]);
+            loY = Math.min(loY, partial[o + 1]);
+            loZ = Math.min(loZ, partial[o + 2]);
+            hiX = Math.max(hiX, partial[o + 3]);
+            hiY = Math.max(hiY, partial[o + 4]);
+            hiZ = Math.max(hiZ, partial[o + 5]);
+        }
+        min.set(loX, loY, loZ);
+        max.set(hiX, hiY, hiZ);
+    }
+
+    /**
+     * Parallel {@link BulkMath#bounds(int[], int[], int[], int, int, PointI3, PointI3)}.
+     * This allocates a small amount of memory per {@link BulkMath#REDUCTION_BLOCK} items to hold partial bounds.
+     * @param x x-components
+     * @param y y-components
+     * @param z z-components
+     * @param start the first index to process
+     * @param length how many points to process
+     * @param min will be set to the smallest x, y, and z; must be {@link PointI3#mutable() mutable}
+     * @param max will be set to the largest x, y, and z; must be {@link PointI3#mutable() mutable}
+     * @throws IllegalArgumentException if min or max is not mutable, such as a {@link ConstPointI3} key
+     */
+    public void bounds(int[] x, int[] y, int[] z, int start, int length, PointI3 min, PointI3 max) {
+        if (!min.mutable() || !max.mutable())
+            throw new IllegalArgumentException("min and max must be mutable points.");
+        if (length <= grain) {
+            BulkMath.bounds(x, y, z, start, length, min, max);
+            return;
+        }
+        final int blocks = (length + BulkMath.REDUCTION_BLOCK - 1) / BulkMath.REDUCTION_BLOCK;
+        final int[] partial = new int[blocks * 6];
+        forBlocks(start, length, (b, from, to) -> {
+            int loX = Integer.MAX_VALUE, loY = Integer.MAX_VALUE, loZ = Integer.MAX_VALUE;
+            int hiX = Integer.MIN_VALUE, hiY = Integer.MIN_VALUE, hiZ = Integer.MIN_VALUE;
+            for (int i = from; i < to; i++) {
+                loX = Math.min(loX, x[i]);
+                hiX = Math.max(hiX, x[i]);
+                loY = Math.min(loY, y[i]);
+                hiY = Math.max(hiY, y[i]);
+                loZ = Math.min(loZ, z[i]);
+                hiZ = Math.max(hiZ, z[i]);
+            }
+            final int o = b * 6;
+            partial[o] = loX;
+            partial[o + 1] = loY;
+            partial[o + 2] = loZ;
+            partial[o + 3] = hiX;
+            partial[o + 4] = hiY;
+            partial[o + 5] = hiZ;
+        });
+        int loX = Integer.MAX_VALUE, loY = Integer.MAX_VALUE, loZ = Integer.MAX_VALUE;
+        int hiX = Integer.MIN_VALUE, hiY = Integer.MIN_VALUE, hiZ = Integer.MIN_VALUE;
+        for (int o = 0; o < partial.length; o += 6) {
+            loX = Math.min(loX, partial[o]);
+            loY = Math.min(loY, partial[o + 1]);
+            loZ = Math.min(loZ, partial[o + 2]);
+            hiX = Math.max(hiX, partial[o + 3]);
+            hiY = Math.max(hiY, partial[o + 4]);
+            hiZ = Math.max(hiZ, partial[o + 5]);
+        }
+        min.set(loX, loY, loZ);
+        max.set(hiX, hiY, hiZ);
+    }
+
+    /**
+     * Sorts halves in parallel, then merges them; ranges of at most {@code grain} items are sorted sequentially.
+     */
+    static final class SortTask extends RecursiveAction {
+        private final long[] keys;
+        private final int[] order, scratch;
+        private final int offset, from, to, grain;
+
+        SortTask(long[] keys, int[] order, int[] scratch, int offset, int from, int to, int grain) {
+            this.keys = keys;
+            this.order = order;
+            this.scratch = scratch;
+            this.offset = offset;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                BulkMath.mergeSort(keys, order, scratch, offset, from, to);
+            } else {
+                final int mid = from + to >>> 1;
+                invokeAll(new SortTask(keys, order, scratch, offset, from, mid, grain),
+                        new SortTask(keys, order, scratch, offset, mid, to, grain));
+                BulkMath.merge(keys, order, scratch, offset, from, mid, to);
+            }
+        }
+    }
+
+    /**
+     * Parallel {@link BulkMath#sortByKey(long[], int[], int, int)}. Because the sort is stable, the order this
+     * produces is exactly the same as the sequential version.
+     * @param keys the key for each index; only the range is read
+     * @param order will be filled with indices from the range, in sorted order
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public void sortByKey(long[] keys, int[] order, int start, int length) {
+        forRange(start, length, (s, n) -> {
+            for (int i = s, e = s + n; i < e; i++) {
+                order[i] = i;
+            }
+        });
+        if (length > 1)
+            pool.invoke(new SortTask(keys, order, new int[length], start, start, start + length, grain));
+    }
+
+    /**
+     * Computes the 3D Morton code of each point in parallel, storing them in {@code keys}, then fills {@code order}
+     * with the indices of the points sorted by Morton code. Points that are close in space tend to be close in this
+     * order. To sort the points themselves, copy each component array using order as the source indices.
+     * @param x x-components
+     * @param y y-components
+     * @param z z-components
+     * @param keys will be filled with Morton codes for each point in the range
+     * @param order will be filled with indices from the range, in Morton order
+     * @param start the first index to process
+     * @param length how many points to process
+     */
+    public void sortByMorton(int[] x, int[] y, int[] z, long[] keys, int[] order, int start, int length) {
+        morton(x, y, z, keys, start, length);
+        sortByKey(keys, order, start, length);
+    }
+
+    /**
+     * Parallel {@link BulkMath#radixSort(long[], int[], int, int)}; this produces exactly the same keys and order.
+     * The range is split into up to four chunks per thread in the pool (fewer if that would make chunks smaller than
+     * {@link #grain}). For each 8-bit digit, every chunk counts its digits in parallel, the counts are turned into
+     * starting offsets in (digit, chunk) order, and then every chunk scatters its items in parallel. Because chunks
+     * are laid out in index order and each scatters its items in order, the sort stays stable.
+     * This allocates scratch space for one long and one int per item, plus 256 ints per chunk.
+     * @param keys the keys to sort; the range will be modified
+     * @param order will be filled with the original index of each sorted key
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public void radixSort(long[] keys, int[] order, int start, int length) {
+        final int chunks = Math.min((length + grain - 1) / grain, pool.getParallelism() * 4);
+        if (chunks <= 1) {
+            BulkMath.radixSort(keys, order, start, length);
+            return;
+        }
+        forRange(start, length, (s, n) -> {
+            for (int i = s, e = s + n; i < e; i++) {
+                order[i] = i;
+            }
+        });
+        final int chunkSize = (length + chunks - 1) / chunks;
+        final long[][] k = {keys, new long[length]};
+        final int[][] o = {order, new int[length]};
+        final int[] off = {start, 0};
+        final int[] counts = new int[chunks << 8];
+        int src = 0;
+        for (int shift = 0; shift < 64; shift += 8) {
+            final int sh = shift, from = src;
+            final long[] srcK = k[from], dstK = k[from ^ 1];
+            final int[] srcO = o[from], dstO = o[from ^ 1];
+            final int srcOff = off[from], dstOff = off[from ^ 1];
+            Arrays.fill(counts, 0);
+            pool.invoke(new RangeTask((c, n) -> {
+                for (int ch = c, ce = c + n; ch < ce; ch++) {
+                    final int base = ch << 8;
+                    for (int i = srcOff + ch * chunkSize, e = srcOff + Math.min(length, (ch + 1) * chunkSize); i < e; i++) {
+                        counts[base + ((int) (srcK[i] >>> sh) & 255)]++;
+                    }
+                }
+            }, 0, chunks, 1));
+            final int firstDigit = (int) (srcK[srcOff] >>> sh) & 255;
+            int total = 0;
+            for (int ch = 0; ch < chunks; ch++) {
+                total += counts[ch << 8 | firstDigit];
+            }
+            if (total == length) continue;
+            for (int d = 0, sum = 0; d < 256; d++) {
+                for (int ch = 0; ch < chunks; ch++) {
+                    final int c = counts[ch << 8 | d];
+                    counts[ch << 8 | d] = sum;
+                    sum += c;
+                }
+            }
+            pool.invoke(new RangeTask((c, n) -> {
+                for (int ch = c, ce = c + n; ch < ce; ch++) {
+                    final int base = ch << 8;
+                    for (int i = srcOff + ch * chunkSize, e = srcOff + Math.min(length, (ch + 1) * chunkSize); i < e; i++) {
+                        final long key = srcK[i];
+                        final int d = dstOff + counts[base + ((int) (key >>> sh) & 255)]++;
+                        dstK[d] = key;
+                        dstO[d] = srcO[i];
+                    }
+                }
+            }, 0, chunks, 1));
+            src ^= 1;
+        }
+        if (src != 0) {
+            final long[] sortedK = k[1];
+            final int[] sortedO = o[1];
+            forRange(0, length, (s, n) -> {
+                System.arraycopy(sortedK, s, keys, start + s, n);
+                System.arraycopy(sortedO, s, order, start + s, n);
+            });
+        }
+    }
+
+    /**
+     * Parallel {@link BulkMath#radixSort(long[], int[], int, int, float[]...)}.
+     * @param keys the keys to sort; the range will be modified
+     * @param order will be filled with the original index of each sorted key
+     * @param start the first index to process
+     * @param length how many items to process
+     * @param components each of these arrays will have its range permuted to match the sorted keys
+     */
+    public void radixSort(long[] keys, int[] order, int start, int length, float[]... components) {
+        radixSort(keys, order, start, length);
+        if (components.length == 0) return;
+        final float[] scratch = new float[length];
+        for (float[] c : components) {
+            permute(c, order, start, length, scratch);
+        }
+    }
+
+    /**
+     * Parallel {@link BulkMath#radixSort(long[], int[], int, int, int[]...)}.
+     * @param keys the keys to sort; the range will be modified
+     * @param order will be filled with the original index of each sorted key
+     * @param start the first index to process
+     * @param length how many items to process
+     * @param components each of these arrays will have its range permuted to match the sorted keys
+     */
+    public void radixSort(long[] keys, int[] order, int start, int length, int[]... components) {
+        radixSort(keys, order, start, length);
+        if (components.length == 0) return;
+        final int[] scratch = new int[length];
+        for (int[] c : components) {
+            permute(c, order, start, length, scratch);
+        }
+    }
+
+    /**
+     * Rearranges the range of {@code data} so that {@code data[i]} becomes what was in {@code data[order[i]]}, the
+     * same as {@link BulkMath#permute(float[], int[], int, int)}. Unlike that method, this gathers into
+     * {@code scratch} in parallel and then copies back, so it needs scratch space but doesn't modify order.
+     * @param data the array to permute
+     * @param order a permutation of the indices in the range
+     * @param start the first index to process
+     * @param length how many items to process
+     * @param scratch must have a length of at least {@code length}; its contents will be overwritten
+     */
+    public void permute(float[] data, int[] order, int start, int length, float[] scratch) {
+        forRange(start, length, (s, n) -> {
+            for (int i = s, e = s + n; i < e; i++) {
+                scratch[i - start] = data[order[i]];
+            }
+        });
+        forRange(start, length, (s, n) -> System.arraycopy(scratch, s - start, data, s, n));
+    }
+
+    /**
+     * Rearranges the range of {@code data} so that {@code data[i]} becomes what was in {@code data[order[i]]}, the
+     * same as {@link BulkMath#permute(int[], int[], int, int)}. Unlike that method, this gathers into
+     * {@code scratch} in parallel and then copies back, so it needs scratch space but doesn't modify order.
+     * @param data the array to permute
+     * @param order a permutation of the indices in the range
+     * @param start the first index to process
+     * @param length how many items to process
+     * @param scratch must have a length of at least {@code length}; its contents will be overwritten
+     */
+    public void permute(int[] data, int[] order, int start, int length, int[] scratch) {
+        forRange(start, length, (s, n) -> {
+            for (int i = s, e = s + n; i < e; i++) {
+                scratch[i - start] = data[order[i]];
+            }
+        });
+        forRange(start, length, (s, n) -> System.arraycopy(scratch, s - start, data, s, n));
+    }
+}
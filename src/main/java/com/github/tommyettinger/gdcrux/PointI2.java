@@ -360,6 +360,19 @@ public class PointI2 extends GridPoint2 implements Point2<PointI2>, PointIShared
         return this;
     }
 
+    /**
+     * Equal to any PointI2 with the same components, including a {@link ConstPointI2}.
+     * @param o any Object; will not be modified
+     * @return true if o is a PointI2 with the same components as this
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PointI2)) return false;
+        PointI2 p = (PointI2) o;
+        return x == p.x && y == p.y;
+    }
+
     @Override
     public int hashCode() {
         return x * 0x1827F5 ^ y * 0x123C21;
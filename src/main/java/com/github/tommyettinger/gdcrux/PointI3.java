@@ -400,6 +400,19 @@ public class PointI3 extends GridPoint3 implements Point3<PointI3>, PointIShared
         return this;
     }
 
+    /**
+     * Equal to any PointI3 with the same components, including a {@link ConstPointI3}.
+     * @param o any Object; will not be modified
+     * @return true if o is a PointI3 with the same components as this
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PointI3)) return false;
+        PointI3 p = (PointI3) o;
+        return x == p.x && y == p.y && z == p.z;
+    }
+
     @Override
     public int hashCode() {
         return x * 0x1A36A9 ^ y * 0x157931 ^ z * 0x119725;
@@ -7,7 +7,8 @@ import com.github.tommyettinger.crux.PointPair;
  * Utility class for constructing the various {@link PointN} types using types inferred from the parameter types.
  * This is meant to be statically imported, so you can call {@link #pt} with {@code PointI2 grid = pt(1, 2);} or
  * {@code PointF3 = pt(1f, 2f, 3f);} . You can also create {@link PointPair} objects with this in a similar way, just
- * using twice as many parameters for {@link #pair}.
+ * using twice as many parameters for {@link #pair}. For read-only {@link PointI2} or {@link PointI3} keys, {@link #key}
+ * returns cached, unchangeable points that don't allocate for small coordinates.
  */
 public final class PointMaker {
     private PointMaker() {
@@ -133,6 +134,29 @@ public final class PointMaker {
         return new PointF6(x, y, z, w, u, v);
     }
 
+    /**
+     * Gets an unchangeable {@link ConstPointI2} from the given ints, x and y, for use as a read-only key. If both are
+     * from -128 to 127, this returns the same cached instance every time, without allocating.
+     * @param x x-coordinate, as an int
+     * @param y y-coordinate, as an int
+     * @return a {@link ConstPointI2}, shared if it is in the cached range
+     */
+    public static ConstPointI2 key(int x, int y) {
+        return ConstPointI2.of(x, y);
+    }
+
+    /**
+     * Gets an unchangeable {@link ConstPointI3} from the given ints, x, y, and z, for use as a read-only key. If all
+     * are from -16 to 15, this returns the same cached instance every time, without allocating.
+     * @param x x-coordinate, as an int
+     * @param y y-coordinate, as an int
+     * @param z z-coordinate, as an int
+     * @return a {@link ConstPointI3}, shared if it is in the cached range
+     */
+    public static ConstPointI3 key(int x, int y, int z) {
+        return ConstPointI3.of(x, y, z);
+    }
+
     /**
      * Creates a {@link PointPair} of {@link PointI2} from the given ints for point A and then for point B.
      * @param xA x-coordinate for point A, as an int
@@ -0,0 +1,187 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+import com.github.tommyettinger.crux.PointN;
+
+/**
+ * A libGDX {@link Pool} of points that counts how it is used. Points are set to zero when they are freed, so every
+ * point from {@link #obtain()} starts at the origin; {@link #obtain(PointN)} is a drop-in replacement for
+ * {@code cpy()} that reuses a pooled point instead of allocating.
+ * <br>
+ * The counters are public fields, and can be cleared with {@link #resetCounters()}: {@link #borrows} counts every
+ * obtain, {@link #misses} counts obtains that had to create a new point because the pool was empty,
+ * {@link #outstanding} is how many points are currently obtained and not yet freed, and {@link #highWater} is the
+ * most that were ever outstanding at once. If misses keep rising after a warm-up period, something is not freeing its
+ * points.
+ * <br>
+ * There is a shared pool for each point type, such as {@link #F2} for {@link PointF2} and {@link #I3} for
+ * {@link PointI3}. Like libGDX's own pools, these are not synchronized, so the shared pools should only be used from
+ * one thread (usually the render thread); other threads can subclass PointPool to make their own, or use
+ * {@link PointScratch}.
+ * @param <P> the type of point this holds
+ */
+public abstract class PointPool<P extends PointN<P>> extends Pool<P> {
+    /** The shared pool of {@link PointF2}. */
+    public static final PointPool<PointF2> F2 = new PointPool<PointF2>() {
+        @Override
+        protected PointF2 newObject() {
+            return new PointF2();
+        }
+    };
+    /** The shared pool of {@link PointF3}. */
+    public static final PointPool<PointF3> F3 = new PointPool<PointF3>() {
+        @Override
+        protected PointF3 newObject() {
+            return new PointF3();
+        }
+    };
+    /** The shared pool of {@link PointF4}. */
+    public static final PointPool<PointF4> F4 = new PointPool<PointF4>() {
+        @Override
+        protected PointF4 newObject() {
+            return new PointF4();
+        }
+    };
+    /** The shared pool of {@link PointF5}. */
+    public static final PointPool<PointF5> F5 = new PointPool<PointF5>() {
+        @Override
+        protected PointF5 newObject() {
+            return new PointF5();
+        }
+    };
+    /** The shared pool of {@link PointF6}. */
+    public static final PointPool<PointF6> F6 = new PointPool<PointF6>() {
+        @Override
+        protected PointF6 newObject() {
+            return new PointF6();
+        }
+    };
+    /** The shared pool of {@link PointI2}. */
+    public static final PointPool<PointI2> I2 = new PointPool<PointI2>() {
+        @Override
+        protected PointI2 newObject() {
+            return new PointI2();
+        }
+    };
+    /** The shared pool of {@link PointI3}. */
+    public static final PointPool<PointI3> I3 = new PointPool<PointI3>() {
+        @Override
+        protected PointI3 newObject() {
+            return new PointI3();
+        }
+    };
+    /** The shared pool of {@link PointI4}. */
+    public static final PointPool<PointI4> I4 = new PointPool<PointI4>() {
+        @Override
+        protected PointI4 newObject() {
+            return new PointI4();
+        }
+    };
+    /** The shared pool of {@link PointI5}. */
+    public static final PointPool<PointI5> I5 = new PointPool<PointI5>() {
+        @Override
+        protected PointI5 newObject() {
+            return new PointI5();
+        }
+    };
+    /** The shared pool of {@link PointI6}. */
+    public static final PointPool<PointI6> I6 = new PointPool<PointI6>() {
+        @Override
+        protected PointI6 newObject() {
+            return new PointI6();
+        }
+    };
+
+    /** How many times {@link #obtain()} has been called. */
+    public long borrows;
+    /** How many times {@link #obtain()} had to create a new point. */
+    public long misses;
+    /** How many points have been obtained and not yet freed. */
+    public int outstanding;
+    /** The largest {@link #outstanding} has been. */
+    public int highWater;
+
+    /**
+     * Creates a pool with an initial capacity of 16 and no maximum.
+     */
+    public PointPool() {
+        super();
+    }
+
+    /**
+     * @param initialCapacity how many free points the pool can hold before it has to resize
+     * @param max the most free points this will hold; more than that will be discarded
+     */
+    public PointPool(int initialCapacity, int max) {
+        super(initialCapacity, max);
+    }
+
+    @Override
+    public P obtain() {
+        borrows++;
+        if (getFree() == 0) misses++;
+        if (++outstanding > highWater) highWater = outstanding;
+        return super.obtain();
+    }
+
+    /**
+     * Obtains a point and sets it to the same value as source; this is like {@code source.cpy()} without allocating
+     * when the pool has a free point.
+     * @param source the point to copy; will not be modified
+     * @return a pooled point equal to source
+     */
+    public P obtain(P source) {
+        return obtain().set(source);
+    }
+
+    /**
+     * Returns a point to the pool, so a later {@link #obtain()} can reuse it.
+     * @param object the point to free; must be {@link PointN#mutable() mutable}
+     * @throws IllegalArgumentException if object is null or is not mutable, such as a {@link ConstPointI2} key
+     */
+    @Override
+    public void free(P object) {
+        if (object != null && !object.mutable())
+            throw new IllegalArgumentException("Only mutable points can be pooled.");
+        super.free(object);
+        outstanding--;
+    }
+
+    /**
+     * Frees every point in objects. Null items are skipped, as {@link Pool#freeAll(Array)} does, so they don't count
+     * toward {@link #outstanding}.
+     * @param objects the points to free; may contain nulls, but every other item must be mutable
+     * @throws IllegalArgumentException if any item is not mutable; then, no items are freed
+     */
+    @Override
+    public void freeAll(Array<P> objects) {
+        for (int i = 0, n = objects.size; i < n; i++) {
+            final P object = objects.get(i);
+            if (object != null && !object.mutable())
+                throw new IllegalArgumentException("Only mutable points can be pooled.");
+        }
+        super.freeAll(objects);
+        for (int i = 0, n = objects.size; i < n; i++) {
+            if (objects.get(i) != null) outstanding--;
+        }
+    }
+
+    /**
+     * Sets the point to zero, so points from {@link #obtain()} always start at the origin.
+     * @param object a point being freed
+     */
+    @Override
+    protected void reset(P object) {
+        object.setZero();
+    }
+
+    /**
+     * Sets all counters back to 0, except {@link #outstanding}, which is also used as the starting {@link #highWater}.
+     */
+    public void resetCounters() {
+        borrows = 0L;
+        misses = 0L;
+        highWater = outstanding;
+    }
+}
@@ -0,0 +1,254 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.github.tommyettinger.crux.PointN;
+
+/**
+ * A stack of temporary points for math-heavy code, where allocating a point for every intermediate result would
+ * cause garbage collection pauses. Call {@link #mark()} before taking temporaries with methods like {@link #f3()} or
+ * {@link #i2()}, and {@link #release()} when they are no longer needed; every temporary taken since the matching mark
+ * becomes available again, without any per-point bookkeeping. Marks nest, so a method that uses temporaries can call
+ * another that does the same. Temporaries are always set to zero when they are taken, and should never be stored
+ * anywhere that outlives their mark.
+ * <pre>
+ * PointScratch scratch = PointScratch.get();
+ * int mark = scratch.mark();
+ * try {
+ *     PointF3 mid = scratch.f3().set(a).add(b).scl(0.5f);
+ *     ...
+ * } finally {
+ *     scratch.release(mark);
+ * }
+ * </pre>
+ * Points are only created the first time the stack grows that deep, so after warming up, nothing is allocated. The
+ * public counters show how it is used: {@link #borrows} counts every temporary taken, {@link #misses} counts the ones
+ * that had to be created, and {@link #highWater} is the most that were ever in use at once, over all types.
+ * <br>
+ * A PointScratch must only be used by one thread. {@link #get()} gives each thread its own; on GWT, where there is
+ * only one thread anyway, construct one and keep it.
+ */
+public class PointScratch {
+    @GwtIncompatible
+    private static final ThreadLocal<PointScratch> LOCAL = new ThreadLocal<PointScratch>() {
+        @Override
+        protected PointScratch initialValue() {
+            return new PointScratch();
+        }
+    };
+
+    /**
+     * Gets the PointScratch for the current thread, creating it the first time.
+     * @return the current thread's PointScratch
+     */
+    @GwtIncompatible
+    public static PointScratch get() {
+        return LOCAL.get();
+    }
+
+    /** How many temporaries have been taken. */
+    public long borrows;
+    /** How many temporaries had to be created because the stack had not been that deep before. */
+    public long misses;
+    /** The most temporaries, of all types together, that have been in use at once. */
+    public int highWater;
+
+    private int inUse;
+    /** For each mark, the depth of each of the 10 stacks when it was made. */
+    private final IntArray marks = new IntArray();
+
+    private final Stack<PointF2> f2 = new Stack<PointF2>() {
+        @Override
+        PointF2 create() {
+            return new PointF2();
+        }
+    };
+    private final Stack<PointF3> f3 = new Stack<PointF3>() {
+        @Override
+        PointF3 create() {
+            return new PointF3();
+        }
+    };
+    private final Stack<PointF4> f4 = new Stack<PointF4>() {
+        @Override
+        PointF4 create() {
+            return new PointF4();
+        }
+    };
+    private final Stack<PointF5> f5 = new Stack<PointF5>() {
+        @Override
+        PointF5 create() {
+            return new PointF5();
+        }
+    };
+    private final Stack<PointF6> f6 = new Stack<PointF6>() {
+        @Override
+        PointF6 create() {
+            return new PointF6();
+        }
+    };
+    private final Stack<PointI2> i2 = new Stack<PointI2>() {
+        @Override
+        PointI2 create() {
+            return new PointI2();
+        }
+    };
+    private final Stack<PointI3> i3 = new Stack<PointI3>() {
+        @Override
+        PointI3 create() {
+            return new PointI3();
+        }
+    };
+    private final Stack<PointI4> i4 = new Stack<PointI4>() {
+        @Override
+        PointI4 create() {
+            return new PointI4();
+        }
+    };
+    private final Stack<PointI5> i5 = new Stack<PointI5>() {
+        @Override
+        PointI5 create() {
+            return new PointI5();
+        }
+    };
+    private final Stack<PointI6> i6 = new Stack<PointI6>() {
+        @Override
+        PointI6 create() {
+            return new PointI6();
+        }
+    };
+    private final Stack<?>[] stacks = {f2, f3, f4, f5, f6, i2, i3, i4, i5, i6};
+
+    /**
+     * Remembers how many temporaries are in use, so {@link #release()} or {@link #release(int)} can return to it.
+     * @return a token that can be passed to {@link #release(int)}
+     */
+    public int mark() {
+        for (Stack<?> stack : stacks) {
+            marks.add(stack.top);
+        }
+        return marks.size / stacks.length;
+    }
+
+    /**
+     * Makes every temporary taken since the last {@link #mark()} available again, and removes that mark.
+     * @throws IllegalStateException if there is no mark to release
+     */
+    public void release() {
+        if (marks.size == 0) throw new IllegalStateException("release() without a matching mark()");
+        for (int i = stacks.length - 1; i >= 0; i--) {
+            final Stack<?> stack = stacks[i];
+            final int top = marks.pop();
+            inUse -= stack.top - top;
+            stack.top = top;
+        }
+    }
+
+    /**
+     * Releases back to (and including) the given mark, which also releases any later marks that were never released,
+     * such as when an exception skipped them.
+     * @param mark a token returned by {@link #mark()}
+     */
+    public void release(int mark) {
+        while (marks.size >= mark * stacks.length && marks.size > 0) {
+            release();
+        }
+    }
+
+    /**
+     * @return how many marks have been made and not released
+     */
+    public int depth() {
+        return marks.size / stacks.length;
+    }
+
+    /**
+     * @return how many temporaries, of all types together, are in use now
+     */
+    public int inUse() {
+        return inUse;
+    }
+
+    /**
+     * Sets {@link #borrows} and {@link #misses} to 0, and {@link #highWater} to the current number in use.
+     */
+    public void resetCounters() {
+        borrows = 0L;
+        misses = 0L;
+        highWater = inUse;
+    }
+
+    /** @return a temporary PointF2, set to zero */
+    public PointF2 f2() {
+        return f2.take(this);
+    }
+
+    /** @return a temporary PointF3, set to zero */
+    public PointF3 f3() {
+        return f3.take(this);
+    }
+
+    /** @return a temporary PointF4, set to zero */
+    public PointF4 f4() {
+        return f4.take(this);
+    }
+
+    /** @return a temporary PointF5, set to zero */
+    public PointF5 f5() {
+        return f5.take(this);
+    }
+
+    /** @return a temporary PointF6, set to zero */
+    public PointF6 f6() {
+        return f6.take(this);
+    }
+
+    /** @return a temporary PointI2, set to zero */
+    public PointI2 i2() {
+        return i2.take(this);
+    }
+
+    /** @return a temporary PointI3, set to zero */
+    public PointI3 i3() {
+        return i3.take(this);
+    }
+
+    /** @return a temporary PointI4, set to zero */
+    public PointI4 i4() {
+        return i4.take(this);
+    }
+
+    /** @return a temporary PointI5, set to zero */
+    public PointI5 i5() {
+        return i5.take(this);
+    }
+
+    /** @return a temporary PointI6, set to zero */
+    public PointI6 i6() {
+        return i6.take(this);
+    }
+
+    private abstract static class Stack<P extends PointN<P>> {
+        Object[] items = new Object[8];
+        int top;
+
+        abstract P create();
+
+        @SuppressWarnings("unchecked")
+        P take(PointScratch owner) {
+            if (top == items.length) {
+                final Object[] bigger = new Object[top << 1];
+                System.arraycopy(items, 0, bigger, 0, top);
+                items = bigger;
+            }
+            P p = (P) items[top];
+            if (p == null) {
+                items[top] = p = create();
+                owner.misses++;
+            }
+            top++;
+            owner.borrows++;
+            if (++owner.inUse > owner.highWater) owner.highWater = owner.inUse;
+            return p.setZero();
+        }
+    }
+}
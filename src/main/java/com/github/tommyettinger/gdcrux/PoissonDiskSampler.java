@@ -0,0 +1,354 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Poisson-disk sampling with Bridson's algorithm, "Fast Poisson Disk Sampling in Arbitrary Dimensions", in any rank from
+ * 2 to 6. This fills a box with points that are never closer together than a minimum radius, but are packed about as
+ * tightly as that allows, which looks like blue noise: even coverage without visible grid patterns. It takes time
+ * linear in the number of points, because candidates are only checked against points in nearby cells of a background
+ * grid.
+ * <br>
+ * The radius can be fixed, or can vary across the box with a {@link RadiusFunction}, such as to scatter foliage more
+ * densely near water. With a varying radius, each new point stays at least its own radius away from every earlier
+ * point, and new candidates are placed between one and two times the radius of the point they grow from. The background
+ * grid uses cells as wide as the maximum radius, so keep the ratio between the maximum and minimum radius modest.
+ * <br>
+ * Results are appended to one {@link FloatArray} per axis ("structure of arrays", as {@link BulkMath} uses), or to an
+ * {@link Array} of {@link PointF2} or {@link PointF3}, reusing any points already there. The same seed, bounds, and
+ * radius always give the same points. A PoissonDiskSampler keeps its scratch space between calls, so it should only
+ * be used by one thread at a time.
+ */
+public class PoissonDiskSampler {
+    /**
+     * Gives the minimum spacing between points at some position.
+     */
+    public interface RadiusFunction {
+        /**
+         * @param position the coordinates of a candidate point, with one item per axis; do not modify
+         * @return the minimum distance from this position to any other point; will be clamped to the sampler's
+         * minimum and maximum radius
+         */
+        float radius(float[] position);
+    }
+
+    /**
+     * How many candidates are tried around an active point before it is retired. Bridson suggests 30; lower values
+     * are faster but leave more gaps.
+     */
+    public int attempts = 30;
+
+    private final RandomXS128 random = new RandomXS128();
+    private final FloatArray points = new FloatArray();
+    private final FloatArray radii = new FloatArray();
+    private final IntArray active = new IntArray();
+    private final IntArray nextInCell = new IntArray();
+    private int[] heads = new int[0];
+    private final int[] cells = new int[6], low = new int[6], high = new int[6], cursor = new int[6];
+    private final float[] candidate = new float[6], lower = new float[6], upper = new float[6];
+    private float[] position = new float[0];
+
+    /**
+     * Creates a PoissonDiskSampler with {@link #attempts} set to 30.
+     */
+    public PoissonDiskSampler() {
+    }
+
+    /**
+     * Fills a 2D box with points at least radius apart, appending their coordinates to x and y.
+     * @param bounds the box to fill, including its min corner but not its max corner; will not be modified
+     * @param radius the minimum distance between points
+     * @param seed any long; the same seed always gives the same points
+     * @param x x-coordinates will be appended here
+     * @param y y-coordinates will be appended here
+     * @return how many points were appended
+     */
+    public int sample(BoxF2 bounds, float radius, long seed, FloatArray x, FloatArray y) {
+        return sample(bounds, radius, radius, null, seed, x, y);
+    }
+
+    /**
+     * Fills a 2D box with points whose spacing is given by a radius function, appending their coordinates to x and y.
+     * @param bounds the box to fill, including its min corner but not its max corner; will not be modified
+     * @param minRadius the smallest radius the function can give
+     * @param maxRadius the largest radius the function can give
+     * @param radius gives the spacing at each position; if null, minRadius is used everywhere
+     * @param seed any long; the same seed always gives the same points
+     * @param x x-coordinates will be appended here
+     * @param y y-coordinates will be appended here
+     * @return how many points were appended
+     */
+    public int sample(BoxF2 bounds, float minRadius, float maxRadius, RadiusFunction radius, long seed,
+                      FloatArray x, FloatArray y) {
+        lower[0] = bounds.min.x;
+        lower[1] = bounds.min.y;
+        upper[0] = bounds.max.x;
+        upper[1] = bounds.max.y;
+        final int n = run(2, minRadius, maxRadius, radius, seed);
+        final float[] p = points.items;
+        x.ensureCapacity(n);
+        y.ensureCapacity(n);
+        for (int i = 0; i < n; i++) {
+            x.add(p[i * 2]);
+            y.add(p[i * 2 + 1]);
+        }
+        return n;
+    }
+
+    /**
+     * Fills a 2D box with points at least radius apart, writing them into out. Any PointF2 items already in out are
+     * reused, and out is truncated to hold exactly the new points.
+     * @param bounds the box to fill, including its min corner but not its max corner; will not be modified
+     * @param radius the minimum distance between points
+     * @param seed any long; the same seed always gives the same points
+     * @param out will be filled with the points
+     * @return out, after modifications
+     */
+    public Array<PointF2> sample(BoxF2 bounds, float radius, long seed, Array<PointF2> out) {
+        lower[0] = bounds.min.x;
+        lower[1] = bounds.min.y;
+        upper[0] = bounds.max.x;
+        upper[1] = bounds.max.y;
+        final int n = run(2, radius, radius, null, seed);
+        final float[] p = points.items;
+        for (int i = 0; i < n; i++) {
+            if (i < out.size) out.get(i).set(p[i * 2], p[i * 2 + 1]);
+            else out.add(new PointF2(p[i * 2], p[i * 2 + 1]));
+        }
+        out.truncate(n);
+        return out;
+    }
+
+    /**
+     * Fills a 3D box with points at least radius apart, appending their coordinates to x, y, and z.
+     * @param bounds the box to fill, including its min corner but not its max corner; will not be modified
+     * @param radius the minimum distance between points
+     * @param seed any long; the same seed always gives the same points
+     * @param x x-coordinates will be appended here
+     * @param y y-coordinates will be appended here
+     * @param z z-coordinates will be appended here
+     * @return how many points were appended
+     */
+    public int sample(BoxF3 bounds, float radius, long seed, FloatArray x, FloatArray y, FloatArray z) {
+        return sample(bounds, radius, radius, null, seed, x, y, z);
+    }
+
+    /**
+     * Fills a 3D box with points whose spacing is given by a radius function, appending their coordinates to x, y,
+     * and z.
+     * @param bounds the box to fill, including its min corner but not its max corner; will not be modified
+     * @param minRadius the smallest radius the function can give
+     * @param maxRadius the largest radius the function can give
+     * @param radius gives the spacing at each position; if null, minRadius is used everywhere
+     * @param seed any long; the same seed always gives the same points
+     * @param x x-coordinates will be appended here
+     * @param y y-coordinates will be appended here
+     * @param z z-coordinates will be appended here
+     * @return how many points were appended
+     */
+    public int sample(BoxF3 bounds, float minRadius, float maxRadius, RadiusFunction radius, long seed,
+                      FloatArray x, FloatArray y, FloatArray z) {
+        lower[0] = bounds.min.x;
+        lower[1] = bounds.min.y;
+        lower[2] = bounds.min.z;
+        upper[0] = bounds.max.x;
+        upper[1] = bounds.max.y;
+        upper[2] = bounds.max.z;
+        final int n = run(3, minRadius, maxRadius, radius, seed);
+        final float[] p = points.items;
+        x.ensureCapacity(n);
+        y.ensureCapacity(n);
+        z.ensureCapacity(n);
+        for (int i = 0; i < n; i++) {
+            x.add(p[i * 3]);
+            y.add(p[i * 3 + 1]);
+            z.add(p[i * 3 + 2]);
+        }
+        return n;
+    }
+
+    /**
+     * Fills a 3D box with points at least radius apart, writing them into out. Any PointF3 items already in out are
+     * reused, and out is truncated to hold exactly the new points.
+     * @param bounds the box to fill, including its min corner but not its max corner; will not be modified
+     * @param radius the minimum distance between points
+     * @param seed any long; the same seed always gives the same points
+     * @param out will be filled with the points
+     * @return out, after modifications
+     */
+    public Array<PointF3> sample(BoxF3 bounds, float radius, long seed, Array<PointF3> out) {
+        lower[0] = bounds.min.x;
+        lower[1] = bounds.min.y;
+        lower[2] = bounds.min.z;
+        upper[0] = bounds.max.x;
+        upper[1] = bounds.max.y;
+        upper[2] = bounds.max.z;
+        final int n = run(3, radius, radius, null, seed);
+        final float[] p = points.items;
+        for (int i = 0; i < n; i++) {
+            if (i < out.size) out.get(i).set(p[i * 3], p[i * 3 + 1], p[i * 3 + 2]);
+            else out.add(new PointF3(p[i * 3], p[i * 3 + 1], p[i * 3 + 2]));
+        }
+        out.truncate(n);
+        return out;
+    }
+
+    /**
+     * Fills a box of any rank from 2 to 6 with points whose spacing is given by a radius function, appending the
+     * coordinates on each axis to the matching FloatArray in out. The rank is the length of min.
+     * @param min the lowest corner of the box, inclusive; will not be modified
+     * @param max the highest corner of the box, exclusive; must have the same length as min; will not be modified
+     * @param minRadius the smallest radius the function can give
+     * @param maxRadius the largest radius the function can give
+     * @param radius gives the spacing at each position; if null, minRadius is used everywhere
+     * @param seed any long; the same seed always gives the same points
+     * @param out one FloatArray per axis, at least as many as the rank; coordinates will be appended to each
+     * @return how many points were appended
+     */
+    public int sample(float[] min, float[] max, float minRadius, float maxRadius, RadiusFunction radius, long seed,
+                      FloatArray[] out) {
+        final int rank = min.length;
+        if (rank < 2 || rank > 6) throw new IllegalArgumentException("rank must be from 2 to 6, but was " + rank);
+        System.arraycopy(min, 0, lower, 0, rank);
+        System.arraycopy(max, 0, upper, 0, rank);
+        final int n = run(rank, minRadius, maxRadius, radius, seed);
+        final float[] p = points.items;
+        for (int axis = 0; axis < rank; axis++) {
+            final FloatArray o = out[axis];
+            o.ensureCapacity(n);
+            for (int i = 0; i < n; i++) {
+                o.add(p[i * rank + axis]);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Runs Bridson's algorithm in the box from lower to upper, leaving the points in {@link #points}, rank floats each.
+     * @return how many points were made
+     */
+    private int run(int rank, float minRadius, float maxRadius, RadiusFunction radius, long seed) {
+        if (!(minRadius > 0f)) throw new IllegalArgumentException("minRadius must be positive, but was " + minRadius);
+        if (radius == null || maxRadius < minRadius) maxRadius = minRadius;
+        if (position.length != rank) position = new float[rank];
+        random.setSeed(seed);
+        points.clear();
+        radii.clear();
+        active.clear();
+        nextInCell.clear();
+        final float cellSize = maxRadius;
+        long total = 1L;
+        for (int axis = 0; axis < rank; axis++) {
+            if (!(upper[axis] > lower[axis])) return 0;
+            cells[axis] = Math.max(1, (int) Math.ceil((upper[axis] - lower[axis]) / cellSize));
+            total *= cells[axis];
+        }
+        if (total > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("The radius is too small for this box; it would need " + total + " grid cells.");
+        if (heads.length < total) heads = new int[(int) total];
+        Arrays.fill(heads, 0, (int) total, -1);
+
+        for (int axis = 0; axis < rank; axis++) {
+            candidate[axis] = lower[axis] + random.nextFloat() * (upper[axis] - lower[axis]);
+        }
+        add(rank, radiusAt(rank, radius, minRadius, maxRadius), cellSize);
+        while (active.size > 0) {
+            final int slot = random.nextInt(active.size), s = active.items[slot];
+            final float r = radii.items[s];
+            boolean placed = false;
+            for (int attempt = 0; attempt < attempts && !placed; attempt++) {
+                // a random direction from normal-distributed components, at a distance from r to 2r
+                float len2 = 0f;
+                for (int axis = 0; axis < rank; axis++) {
+                    final float g = Distributor.probitI(random.nextInt());
+                    candidate[axis] = g;
+                    len2 += g * g;
+                }
+                if (len2 == 0f) continue;
+                final float scale = r * (1f + random.nextFloat()) / (float) Math.sqrt(len2);
+                boolean inside = true;
+                for (int axis = 0; axis < rank; axis++) {
+                    final float c = points.items[s * rank + axis] + candidate[axis] * scale;
+                    candidate[axis] = c;
+                    inside &= c >= lower[axis] && c < upper[axis];
+                }
+                if (!inside) continue;
+                final float cr = radiusAt(rank, radius, minRadius, maxRadius);
+                if (isFar(rank, cr, cellSize)) {
+                    add(rank, cr, cellSize);
+                    placed = true;
+                }
+            }
+            if (!placed) {
+                active.items[slot] = active.items[--active.size];
+            }
+        }
+        return radii.size;
+    }
+
+    private float radiusAt(int rank, RadiusFunction radius, float minRadius, float maxRadius) {
+        if (radius == null) return minRadius;
+        System.arraycopy(candidate, 0, position, 0, rank);
+        return Math.min(Math.max(radius.radius(position), minRadius), maxRadius);
+    }
+
+    private int cellOf(int rank, float cellSize) {
+        int cell = 0;
+        for (int axis = rank - 1; axis >= 0; axis--) {
+            final int c = Math.min((int) ((candidate[axis] - lower[axis]) / cellSize), cells[axis] - 1);
+            cell = cell * cells[axis] + c;
+        }
+        return cell;
+    }
+
+    private void add(int rank, float r, float cellSize) {
+        final int index = radii.size, cell = cellOf(rank, cellSize);
+        for (int axis = 0; axis < rank; axis++) {
+            points.add(candidate[axis]);
+        }
+        radii.add(r);
+        nextInCell.add(heads[cell]);
+        heads[cell] = index;
+        active.add(index);
+    }
+
+    /**
+     * Checks that no point is closer to the candidate than r, looking at every grid cell within r of it.
+     */
+    private boolean isFar(int rank, float r, float cellSize) {
+        for (int axis = 0; axis < rank; axis++) {
+            low[axis] = Math.max(0, (int) ((candidate[axis] - r - lower[axis]) / cellSize));
+            high[axis] = Math.min(cells[axis] - 1, (int) ((candidate[axis] + r - lower[axis]) / cellSize));
+            cursor[axis] = low[axis];
+        }
+        final float r2 = r * r;
+        final float[] p = points.items;
+        while (true) {
+            int cell = 0;
+            for (int axis = rank - 1; axis >= 0; axis--) {
+                cell = cell * cells[axis] + cursor[axis];
+            }
+            for (int i = heads[cell]; i >= 0; i = nextInCell.items[i]) {
+                float d2 = 0f;
+                for (int axis = 0, j = i * rank; axis < rank; axis++, j++) {
+                    final float d = p[j] - candidate[axis];
+                    d2 += d * d;
+                }
+                if (d2 < r2) return false;
+            }
+            // move to the next cell in the neighborhood, like an odometer
+            int axis = 0;
+            while (axis < rank && cursor[axis] == high[axis]) {
+                cursor[axis] = low[axis];
+                axis++;
+            }
+            if (axis == rank) return true;
+            cursor[axis]++;
+        }
+    }
+}
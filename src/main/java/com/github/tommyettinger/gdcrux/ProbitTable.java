@@ -0,0 +1,257 @@
+package com.github.tommyettinger.gdcrux;
+
+/**
+ * A probit (inverse normal CDF) function built from tables of cubic polynomials, with an accuracy you choose. The
+ * constructor takes the largest absolute error you can accept, then builds just enough segments to reach it. Smaller
+ * errors need bigger tables; each segment takes 4 doubles.
+ * <br>
+ * The central region, where p is from {@link #TAIL} to {@code 1 - TAIL}, is split into segments of equal width in p.
+ * The tails are split into segments of equal width in {@code r = sqrt(-2 * ln(p))}, because the probit is nearly
+ * linear in r there. This reaches all the way to {@link Double#MIN_VALUE}. Each segment holds a Chebyshev
+ * interpolant, which is close to the minimax polynomial for its degree. Evaluating one costs an index calculation and
+ * a cubic. Tails also need a log and a square root. The results are checked against a reference probit refined to
+ * near double precision; see {@link #maxError()}.
+ * <br>
+ * For comparison, these are the largest absolute errors of the probit methods already in {@link Distributor},
+ * measured against the same reference at the exact probability each input stands for:
+ * <ul>
+ *     <li>{@link Distributor#probitD(double)}: about 2.5e-5 near p = 0.05, and about 2.7e-5 in the far tails, for p
+ *     from 1e-300 to 1 - 1e-15</li>
+ *     <li>{@link Distributor#probitL(long)}: about 2.5e-5 while {@code p = 0.5 + l / 2^64} is at least 1e-12 from 0
+ *     and 1. Closer to the ends, l is rounded to a double before it is scaled, so the error grows to about 1e-3 at
+ *     4e-15 and 0.05 at 5e-17; the 512 or so longs at each end round to p = 0 or 1 and return about 38.47, up to 30
+ *     away from the true probit.</li>
+ *     <li>{@link Distributor#probitF(float)}: about 4.9e-5 for normal floats (p from {@link Float#MIN_NORMAL} up),
+ *     mostly because of the rough logarithm it uses in the tails. That logarithm reads the exponent bits, so it is
+ *     wrong for subnormal floats, where the error reaches about 1.1.</li>
+ *     <li>{@link Distributor#probitI(int)}: about 5e-5 while {@code p = 0.5 + i / 2^32} is at least 5e-4 from 0 and
+ *     1. Closer to the ends, i is rounded to a float before it is scaled, so the error grows to about 2.5e-4 at
+ *     1.5e-5, 3e-3 at 1e-6, and 0.07 at 3e-8; the 64 or so ints at each end round to p = 0 or 1 and return about
+ *     13.0, up to 7.5 away from the true probit.</li>
+ * </ul>
+ * A ProbitTable needs 128 segments (4 KB) to reach 1e-5, which is already more accurate than those, 1536 segments
+ * (48 KB) to reach 1e-9, and 8192 segments (256 KB) to reach 1e-12, the smallest error it allows.
+ * <br>
+ * A ProbitTable is immutable after it is constructed, so it can be shared between threads.
+ */
+public class ProbitTable {
+    /** Where the central region ends and the tail begins, as a probability. */
+    public static final double TAIL = 0.025;
+    /** The largest r (for {@link Double#MIN_VALUE}) that a tail segment has to cover. */
+    private static final double R_MAX = Math.sqrt(-2.0 * Math.log(Double.MIN_VALUE));
+    private static final double R_TAIL = Math.sqrt(-2.0 * Math.log(TAIL));
+    private static final double LOG_SQRT_2PI = 0.9189385332046728;
+    private static final int MAX_SEGMENTS = 1 << 16;
+
+    private final double[] central, tail;
+    private final double centralScale, tailScale;
+    private final double maxError;
+
+    /**
+     * Builds a ProbitTable whose results are within maxError of the true probit, for any p.
+     * @param maxError the largest absolute error allowed; must be at least 1e-12
+     * @throws IllegalArgumentException if maxError is less than 1e-12, or not a number
+     */
+    public ProbitTable(double maxError) {
+        if (!(maxError >= 1e-12))
+            throw new IllegalArgumentException("maxError must be at least 1e-12, but was " + maxError);
+        double[] c = null, t = null;
+        double errorC = Double.POSITIVE_INFINITY, errorT = Double.POSITIVE_INFINITY;
+        for (int n = 8; errorC > maxError; n <<= 1) {
+            if (n > MAX_SEGMENTS) throw new IllegalArgumentException("Can't reach an error of " + maxError);
+            c = new double[n * 4];
+            errorC = fit(c, n, false);
+        }
+        for (int n = 8; errorT > maxError; n <<= 1) {
+            if (n > MAX_SEGMENTS) throw new IllegalArgumentException("Can't reach an error of " + maxError);
+            t = new double[n * 4];
+            errorT = fit(t, n, true);
+        }
+        central = c;
+        tail = t;
+        centralScale = (central.length >> 2) / (0.5 - TAIL);
+        tailScale = (tail.length >> 2) / (R_MAX - R_TAIL);
+        this.maxError = Math.max(errorC, errorT);
+    }
+
+    /**
+     * Gets the largest absolute error found when this was built, by comparing every segment against the reference at
+     * 16 evenly-spaced points. This is at most the maxError given to the constructor.
+     * @return the largest absolute error measured
+     */
+    public double maxError() {
+        return maxError;
+    }
+
+    /**
+     * @return how many polynomial segments this uses, counting the central region and one tail
+     */
+    public int segments() {
+        return (central.length + tail.length) >> 2;
+    }
+
+    /**
+     * Computes the probit of p: the x for which the standard normal CDF gives p.
+     * @param p a probability; 0 or less is treated as {@link Double#MIN_VALUE}, and 1 or more as 1 minus that
+     * @return a normal-distributed double, from about -38.5 to 38.5, with mean 0 and standard deviation 1 for uniform p
+     */
+    public double probit(double p) {
+        if (p != p) return p;
+        final boolean upper = p > 0.5;
+        double q = upper ? 1.0 - p : p;
+        if (q < Double.MIN_VALUE) q = Double.MIN_VALUE;
+        final double[] table;
+        double s;
+        if (q >= TAIL) {
+            table = central;
+            s = (q - TAIL) * centralScale;
+        } else {
+            table = tail;
+            s = Math.max(Math.sqrt(-2.0 * Math.log(q)) - R_TAIL, 0.0) * tailScale;
+        }
+        final int i = Math.min((int) s, (table.length >> 2) - 1), j = i << 2;
+        final double t = 2.0 * (s - i) - 1.0;
+        final double x = ((table[j + 3] * t + table[j + 2]) * t + table[j + 1]) * t + table[j];
+        return upper ? -x : x;
+    }
+
+    /**
+     * Computes the probit of p in float precision, as by {@link #probit(double)}.
+     * @param p a probability; 0 or less is treated as {@link Double#MIN_VALUE}, and 1 or more as 1 minus that
+     * @return a normal-distributed float
+     */
+    public float probit(float p) {
+        return (float) probit((double) p);
+    }
+
+    /**
+     * Computes the probit of each item from {@code start} to {@code start + length} in values, writing into out.
+     * @param values probabilities; will not be modified unless it is the same as out
+     * @param out where results are stored; may be the same as values
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public void probit(double[] values, double[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = probit(values[i]);
+        }
+    }
+
+    /**
+     * Computes the probit of each item from {@code start} to {@code start + length} in values, writing into out.
+     * @param values probabilities; will not be modified unless it is the same as out
+     * @param out where results are stored; may be the same as values
+     * @param start the first index to process
+     * @param length how many items to process
+     */
+    public void probit(float[] values, float[] out, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            out[i] = (float) probit((double) values[i]);
+        }
+    }
+
+    /**
+     * Fills a table with Chebyshev interpolants at 4 nodes per segment, and measures the largest error.
+     */
+    private static double fit(double[] table, int n, boolean isTail) {
+        final double width = isTail ? (R_MAX - R_TAIL) / n : (0.5 - TAIL) / n;
+        final double lowest = isTail ? R_TAIL : TAIL;
+        final double[] f = new double[4];
+        double worst = 0.0;
+        for (int i = 0; i < n; i++) {
+            final double a = lowest + i * width;
+            for (int k = 0; k < 4; k++) {
+                final double node = Math.cos((2 * k + 1) * Math.PI / 8.0);
+                f[k] = reference(isTail, a + (node + 1.0) * 0.5 * width);
+            }
+            // Chebyshev coefficients, then converted to powers of t
+            double c0 = 0, c1 = 0, c2 = 0, c3 = 0;
+            for (int k = 0; k < 4; k++) {
+                final double node = Math.cos((2 * k + 1) * Math.PI / 8.0);
+                c0 += f[k];
+                c1 += f[k] * node;
+                c2 += f[k] * (2 * node * node - 1);
+                c3 += f[k] * (4 * node * node - 3) * node;
+            }
+            c0 *= 0.25;
+            c1 *= 0.5;
+            c2 *= 0.5;
+            c3 *= 0.5;
+            final int j = i << 2;
+            table[j] = c0 - c2;
+            table[j + 1] = c1 - 3 * c3;
+            table[j + 2] = 2 * c2;
+            table[j + 3] = 4 * c3;
+            for (int k = 0; k <= 16; k++) {
+                final double t = k / 8.0 - 1.0;
+                final double approx = ((table[j + 3] * t + table[j + 2]) * t + table[j + 1]) * t + table[j];
+                worst = Math.max(worst, Math.abs(approx - reference(isTail, a + k / 16.0 * width)));
+            }
+        }
+        return worst;
+    }
+
+    private static double reference(boolean isTail, double position) {
+        if (isTail) {
+            // position is r; p = exp(-r * r / 2), kept in log form because it can be far below Double.MIN_VALUE
+            return referenceFromLog(-0.5 * position * position);
+        }
+        return reference(position);
+    }
+
+    /**
+     * A probit accurate to about 1e-14, found by starting from {@link Distributor#probitD(double)} and refining with
+     * Newton's method on the normal CDF. This is much too slow for general use; it exists to build and test tables.
+     * @param p a probability, greater than 0 and less than 1
+     * @return the probit of p
+     */
+    static double reference(double p) {
+        if (p > 0.5) return -reference(1.0 - p);
+        return referenceFromLog(Math.log(p));
+    }
+
+    /**
+     * Like {@link #reference(double)}, but given the natural log of a probability no greater than 0.5.
+     */
+    private static double referenceFromLog(double logP) {
+        double x = logP < -700.0 ? -Math.sqrt(-2.0 * logP) : Distributor.probitD(Math.exp(logP));
+        for (int iteration = 0; iteration < 100; iteration++) {
+            final double step;
+            if (x > -3.0) {
+                // 0.5 + phi(x) * (x + x^3/3 + x^5/15 + ...), with every term positive for positive x
+                double term = x, sum = x;
+                for (int k = 1; k < 200 && Math.abs(term) > 1e-18; k++) {
+                    term *= x * x / (2 * k + 1);
+                    sum += term;
+                }
+                final double phi = Math.exp(-0.5 * x * x - LOG_SQRT_2PI);
+                step = (0.5 + phi * sum - Math.exp(logP)) / phi;
+            } else {
+                // in the lower tail, Newton's method on the log of the CDF, using the Mills ratio M(-x)
+                final double mills = mills(-x);
+                final double logCdf = -0.5 * x * x - LOG_SQRT_2PI + Math.log(mills);
+                step = (logCdf - logP) * mills;
+            }
+            x -= step;
+            if (Math.abs(step) <= 1e-15 * Math.max(1.0, Math.abs(x))) break;
+        }
+        return x;
+    }
+
+    /**
+     * The Mills ratio {@code (1 - CDF(z)) / pdf(z)} for z of at least 3, by its continued fraction, using Lentz's
+     * method.
+     */
+    private static double mills(double z) {
+        double f = z, c = z, d = 0.0;
+        for (int k = 1; k < 5000; k++) {
+            d = z + k * d;
+            c = z + k / c;
+            d = 1.0 / d;
+            final double delta = c * d;
+            f *= delta;
+            if (Math.abs(delta - 1.0) < 1e-16) break;
+        }
+        return 1.0 / f;
+    }
+}
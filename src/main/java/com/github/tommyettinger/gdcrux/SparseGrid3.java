@@ -0,0 +1,262 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Shared code for sparse 3D grids that are split into cubic chunks, where only chunks holding at least one non-empty
+ * cell are stored. Chunks are {@link #chunkSize} cells on a side, always a power of two, and are kept in a
+ * {@link LongMap} keyed by their chunk coordinates packed with {@link #chunkKey(int, int, int)}. Memory use scales
+ * with how much of the world is occupied, not with its bounds; a chunk is removed as soon as its last non-empty cell is
+ * set back to the empty value.
+ * <br>
+ * This class handles the chunk bookkeeping; subclasses such as {@link SparseByteGrid3}, {@link SparseShortGrid3},
+ * {@link SparseIntGrid3}, and {@link SparseFloatGrid3} store the actual values in one primitive array per chunk. In each
+ * chunk's array, the cell at local position lx,ly,lz is at index {@code lx + chunkSize * (ly + chunkSize * lz)}; see
+ * {@link #localIndex(int, int, int)}.
+ * <br>
+ * To visit every stored chunk, iterate over {@link #chunks()}; each {@link Chunk} has its chunk coordinates and its
+ * data array. Chunk coordinates are cell coordinates shifted right by {@link #chunkShift}, and must fit in 21 bits as
+ * signed values (the same as {@link Neighborhood#pack(PointIShared)} uses for rank 3).
+ *
+ * @param <A> the primitive array type each chunk stores, such as {@code byte[]}
+ */
+public abstract class SparseGrid3<A> {
+    /**
+     * One stored chunk of a SparseGrid3.
+     * @param <A> the primitive array type this stores, such as {@code byte[]}
+     */
+    public static class Chunk<A> {
+        /** The chunk coordinates of this chunk; multiply by the chunk size to get the cell coordinates of its corner. */
+        public final int x, y, z;
+        /** The packed key of this chunk in its grid's map, from {@link SparseGrid3#chunkKey(int, int, int)}. */
+        public final long key;
+        /** The values of every cell in this chunk; see {@link SparseGrid3#localIndex(int, int, int)}. */
+        public final A data;
+        /** How many cells in {@link #data} do not hold the empty value; this is never 0 for a chunk in a grid. */
+        public int occupied;
+
+        public Chunk(int x, int y, int z, A data) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.key = chunkKey(x, y, z);
+            this.data = data;
+        }
+
+        /**
+         * Sets out to the cell coordinates of the lowest corner of this chunk.
+         * @param chunkShift the {@link SparseGrid3#chunkShift} of the grid this belongs to
+         * @param out will be modified
+         * @return out, after modifications, or a new point with the result if out is not mutable
+         */
+        public PointI3 origin(int chunkShift, PointI3 out) {
+            return out.seti(x << chunkShift, y << chunkShift, z << chunkShift);
+        }
+    }
+
+    /** How many bits of each cell coordinate select a cell within a chunk; the chunk size is {@code 1 << chunkShift}. */
+    public final int chunkShift;
+    /** How many cells are along each side of a chunk. */
+    public final int chunkSize;
+    /** How many cells are in each chunk; this is {@code chunkSize * chunkSize * chunkSize}. */
+    public final int chunkVolume;
+
+    protected final int chunkMask;
+    protected final LongMap<Chunk<A>> chunks = new LongMap<>();
+
+    /**
+     * @param chunkShift from 1 to 10; 4 gives 16x16x16 chunks, and 5 gives 32x32x32 chunks
+     */
+    protected SparseGrid3(int chunkShift) {
+        if (chunkShift < 1 || chunkShift > 10)
+            throw new IllegalArgumentException("chunkShift must be from 1 to 10, but was " + chunkShift);
+        this.chunkShift = chunkShift;
+        chunkSize = 1 << chunkShift;
+        chunkMask = chunkSize - 1;
+        chunkVolume = 1 << 3 * chunkShift;
+    }
+
+    /**
+     * Packs three chunk coordinates into one long, using 21 signed bits each, with x in the lowest bits.
+     * @param cx chunk x-coordinate
+     * @param cy chunk y-coordinate
+     * @param cz chunk z-coordinate
+     * @return the packed key
+     */
+    public static long chunkKey(int cx, int cy, int cz) {
+        return (cx & 0x1FFFFFL) | (cy & 0x1FFFFFL) << 21 | (cz & 0x1FFFFFL) << 42;
+    }
+
+    /**
+     * Gets the key of the chunk that contains the given cell.
+     * @param x cell x-coordinate
+     * @param y cell y-coordinate
+     * @param z cell z-coordinate
+     * @return the packed key of the chunk containing x,y,z
+     */
+    public long chunkKeyOf(int x, int y, int z) {
+        return chunkKey(x >> chunkShift, y >> chunkShift, z >> chunkShift);
+    }
+
+    /**
+     * Gets the index of the given cell in the data array of the chunk that contains it.
+     * @param x cell x-coordinate
+     * @param y cell y-coordinate
+     * @param z cell z-coordinate
+     * @return the index into {@link Chunk#data}
+     */
+    public int localIndex(int x, int y, int z) {
+        return (x & chunkMask) | ((y & chunkMask) | (z & chunkMask) << chunkShift) << chunkShift;
+    }
+
+    /**
+     * Gets the chunk that contains the given cell, or null if that chunk is empty.
+     * @param x cell x-coordinate
+     * @param y cell y-coordinate
+     * @param z cell z-coordinate
+     * @return the chunk holding x,y,z, or null if none is stored
+     */
+    public Chunk<A> chunkOf(int x, int y, int z) {
+        return chunks.get(chunkKeyOf(x, y, z));
+    }
+
+    /**
+     * Gets the chunk with the given chunk coordinates, or null if that chunk is empty.
+     * @param cx chunk x-coordinate
+     * @param cy chunk y-coordinate
+     * @param cz chunk z-coordinate
+     * @return the chunk at cx,cy,cz, or null if none is stored
+     */
+    public Chunk<A> chunk(int cx, int cy, int cz) {
+        return chunks.get(chunkKey(cx, cy, cz));
+    }
+
+    /**
+     * Gets every stored chunk, in no particular order. The returned iterator is reused by the map unless
+     * {@code Collections.allocateIterators} is true, so don't nest calls. Chunks must not be added or removed while
+     * iterating, which means no set() or fill() calls that could empty a chunk or fill a new one.
+     * @return an iterable and iterator over every stored chunk
+     */
+    public LongMap.Values<Chunk<A>> chunks() {
+        return chunks.values();
+    }
+
+    /**
+     * @return how many chunks are stored
+     */
+    public int chunkCount() {
+        return chunks.size;
+    }
+
+    /**
+     * @return how many cells in the whole grid do not hold the empty value
+     */
+    public long count() {
+        long total = 0L;
+        for (Chunk<A> chunk : chunks.values()) {
+            total += chunk.occupied;
+        }
+        return total;
+    }
+
+    /**
+     * @return true if every cell holds the empty value
+     */
+    public boolean isEmpty() {
+        return chunks.size == 0;
+    }
+
+    /**
+     * Sets every cell to the empty value, removing all chunks.
+     */
+    public void clear() {
+        chunks.clear();
+    }
+
+    /**
+     * Creates a new data array for one chunk, with {@link #chunkVolume} items all set to the empty value.
+     * @return a new data array
+     */
+    protected abstract A allocate();
+
+    /**
+     * Writes the pending fill value to data from index from (inclusive) to to (exclusive).
+     * @param data a chunk's data array
+     * @param from the first index to write
+     * @param to the index after the last one to write
+     * @return how much the number of non-empty cells changed
+     */
+    protected abstract int fillSpan(A data, int from, int to);
+
+    /**
+     * Gets the chunk that contains the given cell, creating and storing it if it wasn't already.
+     */
+    protected Chunk<A> obtain(int x, int y, int z) {
+        final long key = chunkKeyOf(x, y, z);
+        Chunk<A> chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = new Chunk<>(x >> chunkShift, y >> chunkShift, z >> chunkShift, allocate());
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Writes the pending fill value over a box of cells, inclusive on both corners, using
+     * {@link #fillSpan(Object, int, int)} one row at a time. Chunks are skipped if they would stay empty, created if
+     * they would gain non-empty cells, and removed if they become empty.
+     * @param emptyValue true if the pending fill value is the empty value
+     */
+    protected void fillBox(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, boolean emptyValue) {
+        if (minX > maxX || minY > maxY || minZ > maxZ) return;
+        for (int cz = minZ >> chunkShift, czEnd = maxZ >> chunkShift; cz <= czEnd; cz++) {
+            final int z0 = Math.max(minZ, cz << chunkShift) & chunkMask, z1 = Math.min(maxZ, (cz << chunkShift) + chunkMask) & chunkMask;
+            for (int cy = minY >> chunkShift, cyEnd = maxY >> chunkShift; cy <= cyEnd; cy++) {
+                final int y0 = Math.max(minY, cy << chunkShift) & chunkMask, y1 = Math.min(maxY, (cy << chunkShift) + chunkMask) & chunkMask;
+                for (int cx = minX >> chunkShift, cxEnd = maxX >> chunkShift; cx <= cxEnd; cx++) {
+                    final int x0 = Math.max(minX, cx << chunkShift) & chunkMask, x1 = Math.min(maxX, (cx << chunkShift) + chunkMask) & chunkMask;
+                    final long key = chunkKey(cx, cy, cz);
+                    final boolean whole = (x0 | y0 | z0) == 0 && (x1 & y1 & z1) == chunkMask;
+                    Chunk<A> chunk = chunks.get(key);
+                    if (emptyValue) {
+                        if (chunk == null) continue;
+                        if (whole) {
+                            chunks.remove(key);
+                            continue;
+                        }
+                    } else if (chunk == null) {
+                        chunk = new Chunk<>(cx, cy, cz, allocate());
+                        chunks.put(key, chunk);
+                    }
+                    if (whole) {
+                        chunk.occupied += fillSpan(chunk.data, 0, chunkVolume);
+                    } else {
+                        for (int z = z0; z <= z1; z++) {
+                            for (int y = y0; y <= y1; y++) {
+                                final int row = (y | z << chunkShift) << chunkShift;
+                                chunk.occupied += fillSpan(chunk.data, row + x0, row + x1 + 1);
+                            }
+                        }
+                    }
+                    if (chunk.occupied == 0) chunks.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adjusts the occupied count of a chunk after one cell changed, removing the chunk if it became empty.
+     * @param chunk a stored chunk
+     * @param wasEmpty true if the cell held the empty value before
+     * @param isEmpty true if the cell holds the empty value now
+     */
+    protected void changed(Chunk<A> chunk, boolean wasEmpty, boolean isEmpty) {
+        if (wasEmpty != isEmpty) {
+            if (isEmpty) {
+                if (--chunk.occupied == 0) chunks.remove(chunk.key);
+            } else {
+                chunk.occupied++;
+            }
+        }
+    }
+}
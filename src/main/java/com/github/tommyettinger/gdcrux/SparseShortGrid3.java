@@ -0,0 +1,136 @@
+package com.github.tommyettinger.gdcrux;
+
+import java.util.Arrays;
+
+/**
+ * A sparse, unbounded 3D grid of short values, stored in cubic chunks that only exist where some cell is not
+ * {@link #empty}. See {@link SparseGrid3} for how chunks are keyed, iterated, and removed.
+ */
+public class SparseShortGrid3 extends SparseGrid3<short[]> {
+    /** The value every cell has until it is set; cells holding this take no memory unless their chunk is stored. */
+    public final short empty;
+    private short pending;
+
+    /**
+     * Creates an empty grid with 16x16x16 chunks, where the empty value is 0.
+     */
+    public SparseShortGrid3() {
+        this(4, (short) 0);
+    }
+
+    /**
+     * Creates an empty grid with chunks {@code 1 << chunkShift} cells on a side, where the empty value is 0.
+     * @param chunkShift from 1 to 10; 4 gives 16x16x16 chunks, and 5 gives 32x32x32 chunks
+     */
+    public SparseShortGrid3(int chunkShift) {
+        this(chunkShift, (short) 0);
+    }
+
+    /**
+     * Creates an empty grid with chunks {@code 1 << chunkShift} cells on a side.
+     * @param chunkShift from 1 to 10; 4 gives 16x16x16 chunks, and 5 gives 32x32x32 chunks
+     * @param empty the value every cell starts with
+     */
+    public SparseShortGrid3(int chunkShift, short empty) {
+        super(chunkShift);
+        this.empty = empty;
+    }
+
+    /**
+     * @param x cell x-coordinate
+     * @param y cell y-coordinate
+     * @param z cell z-coordinate
+     * @return the value at x,y,z, or {@link #empty} if it was never set
+     */
+    public short get(int x, int y, int z) {
+        final Chunk<short[]> chunk = chunks.get(chunkKeyOf(x, y, z));
+        return chunk == null ? empty : chunk.data[localIndex(x, y, z)];
+    }
+
+    /**
+     * @param point the cell to look up; will not be modified
+     * @return the value at point, or {@link #empty} if it was never set
+     */
+    public short get(PointI3 point) {
+        return get(point.x, point.y, point.z);
+    }
+
+    /**
+     * Sets one cell. Setting a cell to {@link #empty} may remove its chunk; setting it to anything else may create one.
+     * @param x cell x-coordinate
+     * @param y cell y-coordinate
+     * @param z cell z-coordinate
+     * @param value the value to store
+     * @return this, for chaining
+     */
+    public SparseShortGrid3 set(int x, int y, int z, short value) {
+        final Chunk<short[]> chunk;
+        if (value == empty) {
+            chunk = chunks.get(chunkKeyOf(x, y, z));
+            if (chunk == null) return this;
+        } else {
+            chunk = obtain(x, y, z);
+        }
+        final int i = localIndex(x, y, z);
+        final boolean wasEmpty = chunk.data[i] == empty;
+        chunk.data[i] = value;
+        changed(chunk, wasEmpty, value == empty);
+        return this;
+    }
+
+    /**
+     * Sets one cell. Setting a cell to {@link #empty} may remove its chunk; setting it to anything else may create one.
+     * @param point the cell to set; will not be modified
+     * @param value the value to store
+     * @return this, for chaining
+     */
+    public SparseShortGrid3 set(PointI3 point, short value) {
+        return set(point.x, point.y, point.z, value);
+    }
+
+    /**
+     * Sets every cell in a box, inclusive on both corners, one row at a time. Filling with {@link #empty} removes any
+     * chunks that become empty, and chunks wholly inside the box are dropped without touching their cells.
+     * @param minX the lowest x-coordinate to set
+     * @param minY the lowest y-coordinate to set
+     * @param minZ the lowest z-coordinate to set
+     * @param maxX the highest x-coordinate to set
+     * @param maxY the highest y-coordinate to set
+     * @param maxZ the highest z-coordinate to set
+     * @param value the value to store
+     * @return this, for chaining
+     */
+    public SparseShortGrid3 fill(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, short value) {
+        pending = value;
+        fillBox(minX, minY, minZ, maxX, maxY, maxZ, value == empty);
+        return this;
+    }
+
+    /**
+     * Sets every cell in a box, inclusive on both corners. See {@link #fill(int, int, int, int, int, int, short)}.
+     * @param box the cells to set; will not be modified
+     * @param value the value to store
+     * @return this, for chaining
+     */
+    public SparseShortGrid3 fill(BoxI3 box, short value) {
+        return fill(box.min.x, box.min.y, box.min.z, box.max.x, box.max.y, box.max.z, value);
+    }
+
+    @Override
+    protected short[] allocate() {
+        final short[] data = new short[chunkVolume];
+        if (empty != 0) Arrays.fill(data, empty);
+        return data;
+    }
+
+    @Override
+    protected int fillSpan(short[] data, int from, int to) {
+        final short value = pending;
+        int before = 0;
+        for (int i = from; i < to; i++) {
+            if (data[i] != empty) before++;
+        }
+        Arrays.fill(data, from, to, value);
+        return (value == empty ? 0 : to - from) - before;
+    }
+}
@@ -606,6 +606,151 @@ public class Vector5 implements Vector<Vector5> {
         return dot(vector) < 0;
     }
 
+    /** Gets the squared magnitude of the wedge (exterior) product of two 5D vectors, each given as 5 components.
+     * This is the sum of the squares of every pairwise 2x2 determinant, such as {@code x1 * y2 - y1 * x2}; it is 0
+     * exactly when the two vectors are linearly dependent, and does not need any division to compute.
+     * In 3D, this is the same as the squared length of the cross product.
+     * @return the squared magnitude of the wedge product of the two vectors */
+    public static float wedge2 (float x1, float y1, float z1, float w1, float u1,
+                                float x2, float y2, float z2, float w2, float u2) {
+        final float xy = x1 * y2 - y1 * x2;
+        final float xz = x1 * z2 - z1 * x2;
+        final float xw = x1 * w2 - w1 * x2;
+        final float xu = x1 * u2 - u1 * x2;
+        final float yz = y1 * z2 - z1 * y2;
+        final float yw = y1 * w2 - w1 * y2;
+        final float yu = y1 * u2 - u1 * y2;
+        final float zw = z1 * w2 - w1 * z2;
+        final float zu = z1 * u2 - u1 * z2;
+        final float wu = w1 * u2 - u1 * w2;
+        return xy * xy + xz * xz + xw * xw + xu * xu + yz * yz + yw * yw + yu * yu + zw * zw + zu * zu + wu * wu;
+    }
+
+    /** Gets the squared magnitude of the wedge (exterior) product of this vector and another vector. This is 0 when
+     * the vectors are on the same line through the origin, and grows with both the lengths of the vectors and the sine
+     * of the angle between them. See {@link #wedge2(float, float, float, float, float, float, float, float, float, float)}.
+     * @param other another Vector5
+     * @return the squared magnitude of the wedge product of this and other */
+    public float wedge2 (final Vector5 other) {
+        return wedge2(x, y, z, w, u, other.x, other.y, other.z, other.w, other.u);
+    }
+
+    /** Returns true if this vector is on the same line as the other vector when infinite lines are drawn through the
+     * origin and the given vectors. Unlike {@link #isOnLine(Vector5, float)}, this doesn't divide, and instead checks
+     * that every pairwise 2x2 determinant is close to 0, using {@link #wedge2(Vector5)}. This matches how
+     * {@link Vector3#isOnLine(Vector3, float)} works, so epsilon is compared with a squared value that depends on the
+     * lengths of both vectors. A zero vector is considered on the same line as any other vector.
+     *
+     * @param other the other vector to draw a line into from the origin
+     * @param epsilon the tolerance for the squared magnitude of the wedge product
+     * @return true if this vector is in line with the other vector (either in the same or the opposite direction) */
+    public boolean isOnLineWedge (final Vector5 other, float epsilon) {
+        return wedge2(x, y, z, w, u, other.x, other.y, other.z, other.w, other.u) <= epsilon;
+    }
+
+    /** Returns true if this vector is on the same line as the other vector, without any division.
+     * Uses {@link MathUtils#FLOAT_ROUNDING_ERROR} as the tolerance.
+     * @param other the other vector to draw a line into from the origin
+     * @return true if this vector is in line with the other vector (either in the same or the opposite direction)
+     * @see #isOnLineWedge(Vector5, float) */
+    public boolean isOnLineWedge (final Vector5 other) {
+        return wedge2(x, y, z, w, u, other.x, other.y, other.z, other.w, other.u) <= MathUtils.FLOAT_ROUNDING_ERROR;
+    }
+
+    /** Returns true if this vector is collinear with the other vector and points in the same direction, without any
+     * division ({@link #isOnLineWedge(Vector5, float)} and {@link #hasSameDirection(Vector5)}).
+     * @param other the other vector to draw a line into from the origin
+     * @param epsilon the tolerance for the squared magnitude of the wedge product
+     * @return true if this vector is collinear with the other vector and has the same direction */
+    public boolean isCollinearWedge (final Vector5 other, float epsilon) {
+        return isOnLineWedge(other, epsilon) && hasSameDirection(other);
+    }
+
+    /** Returns true if this vector is collinear with the other vector and points in the opposite direction, without
+     * any division ({@link #isOnLineWedge(Vector5, float)} and {@link #hasOppositeDirection(Vector5)}).
+     * @param other the other vector to draw a line into from the origin
+     * @param epsilon the tolerance for the squared magnitude of the wedge product
+     * @return true if this vector is collinear with the other vector and has the opposite direction */
+    public boolean isCollinearOppositeWedge (final Vector5 other, float epsilon) {
+        return isOnLineWedge(other, epsilon) && hasOppositeDirection(other);
+    }
+
+    /** Checks each vector in {@code others} with {@link #isOnLineWedge(Vector5, float)}, storing the result for
+     * {@code others[i]} in {@code results[i]}. This doesn't allocate. Only as many items are checked as the shorter
+     * array can hold.
+     * @param others the vectors to compare with this one; none may be null
+     * @param results will be modified to store the result of each comparison
+     * @param epsilon the tolerance for the squared magnitude of the wedge product
+     * @return how many vectors in others were on the same line as this one */
+    public int isOnLineWedge (final Vector5[] others, final boolean[] results, float epsilon) {
+        final int n = Math.min(others.length, results.length);
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            final Vector5 o = others[i];
+            final boolean b = wedge2(x, y, z, w, u, o.x, o.y, o.z, o.w, o.u) <= epsilon;
+            results[i] = b;
+            if (b) count++;
+        }
+        return count;
+    }
+
+    /** Checks each vector in {@code others} with {@link #isCollinearWedge(Vector5, float)}, storing the result for
+     * {@code others[i]} in {@code results[i]}. This doesn't allocate. Only as many items are checked as the shorter
+     * array can hold.
+     * @param others the vectors to compare with this one; none may be null
+     * @param results will be modified to store the result of each comparison
+     * @param epsilon the tolerance for the squared magnitude of the wedge product
+     * @return how many vectors in others were collinear with this one and had the same direction */
+    public int isCollinearWedge (final Vector5[] others, final boolean[] results, float epsilon) {
+        final int n = Math.min(others.length, results.length);
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            final Vector5 o = others[i];
+            final boolean b = wedge2(x, y, z, w, u, o.x, o.y, o.z, o.w, o.u) <= epsilon
+                    && dot(x, y, z, w, u, o.x, o.y, o.z, o.w, o.u) > 0;
+            results[i] = b;
+            if (b) count++;
+        }
+        return count;
+    }
+
+    /** Checks each vector in {@code others} with {@link #isPerpendicular(Vector5, float)}, storing the result for
+     * {@code others[i]} in {@code results[i]}. This doesn't allocate. Only as many items are checked as the shorter
+     * array can hold.
+     * @param others the vectors to compare with this one; none may be null
+     * @param results will be modified to store the result of each comparison
+     * @param epsilon used as the tolerance for how close to 0 the dot product must be
+     * @return how many vectors in others were perpendicular to this one */
+    public int isPerpendicular (final Vector5[] others, final boolean[] results, float epsilon) {
+        final int n = Math.min(others.length, results.length);
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            final Vector5 o = others[i];
+            final boolean b = Math.abs(dot(x, y, z, w, u, o.x, o.y, o.z, o.w, o.u)) <= epsilon;
+            results[i] = b;
+            if (b) count++;
+        }
+        return count;
+    }
+
+    /** Checks each vector in {@code others} with {@link #hasSameDirection(Vector5)}, storing the result for
+     * {@code others[i]} in {@code results[i]}. This doesn't allocate. Only as many items are checked as the shorter
+     * array can hold.
+     * @param others the vectors to compare with this one; none may be null
+     * @param results will be modified to store the result of each comparison
+     * @return how many vectors in others had the same direction as this one */
+    public int hasSameDirection (final Vector5[] others, final boolean[] results) {
+        final int n = Math.min(others.length, results.length);
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            final Vector5 o = others[i];
+            final boolean b = dot(x, y, z, w, u, o.x, o.y, o.z, o.w, o.u) > 0;
+            results[i] = b;
+            if (b) count++;
+        }
+        return count;
+    }
+
     @Override
     public Vector5 lerp (final Vector5 target, float alpha) {
         x += alpha * (target.x - x);
@@ -0,0 +1,221 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A reusable cursor over every voxel that a ray or line segment passes through, using the algorithm by Amanatides and
+ * Woo. Voxels are unit cubes, where the voxel with int coordinates x,y,z covers every float position from x (inclusive)
+ * to x+1 (exclusive) on the x-axis, and likewise on the other axes. Unlike {@link GridLine}, this visits every voxel the
+ * ray touches, in order, with consecutive voxels always sharing a face.
+ * <br>
+ * Call {@link #reset(PointF3, PointF3)} for a segment or {@link #reset(PointF3, PointF3, float)} for a ray, then loop
+ * while {@link #hasNext()} is true, writing each voxel into the same {@link PointI3} with {@link #next(PointI3)}. If
+ * bounds were given with {@link #clip(BoxI3)}, traversal starts where the ray enters the bounds and stops where it
+ * leaves them. Nothing is allocated after construction.
+ */
+public class VoxelTraversal {
+    private int x, y, z, stepX, stepY, stepZ;
+    private float tMaxX, tMaxY, tMaxZ, tDeltaX, tDeltaY, tDeltaZ, limit;
+    /** Where the last voxel produced was entered, and where the voxel after it is entered. */
+    private float t, entered;
+    private boolean done = true;
+    private final BoxI3 bounds = new BoxI3();
+    private boolean clipped;
+
+    /**
+     * Creates a VoxelTraversal with no voxels; a reset() method must be called before it produces anything.
+     */
+    public VoxelTraversal() {
+    }
+
+    /**
+     * Only produces voxels inside the given bounds, inclusive on both corners.
+     * @param bounds the voxels that may be produced; will not be modified
+     * @return this, for chaining
+     */
+    public VoxelTraversal clip(BoxI3 bounds) {
+        this.bounds.set(bounds);
+        clipped = true;
+        return this;
+    }
+
+    /**
+     * Only produces voxels with every component at least 0 and less than the given size, such as for a grid stored in
+     * an array.
+     * @param width the number of voxels along the x-axis
+     * @param height the number of voxels along the y-axis
+     * @param depth the number of voxels along the z-axis
+     * @return this, for chaining
+     */
+    public VoxelTraversal clip(int width, int height, int depth) {
+        bounds.min.seti(0, 0, 0);
+        bounds.max.seti(width - 1, height - 1, depth - 1);
+        clipped = true;
+        return this;
+    }
+
+    /**
+     * Removes any bounds set by a clip() method.
+     * @return this, for chaining
+     */
+    public VoxelTraversal unclip() {
+        clipped = false;
+        return this;
+    }
+
+    /**
+     * Starts over with the voxels on the segment from start to end, including the voxels containing each.
+     * @param start where the segment starts; will not be modified
+     * @param end where the segment ends; will not be modified
+     * @return this, for chaining
+     */
+    public VoxelTraversal reset(PointF3 start, PointF3 end) {
+        return reset(start.x, start.y, start.z, end.x - start.x, end.y - start.y, end.z - start.z, 1f);
+    }
+
+    /**
+     * Starts over with the voxels on a ray from origin, going in the given direction for maxDistance times the length
+     * of direction. If direction has length 1, maxDistance is just the distance to travel.
+     * @param origin where the ray starts; will not be modified
+     * @param direction the direction of the ray; does not need to be normalized; will not be modified
+     * @param maxDistance how far to go, in multiples of the length of direction
+     * @return this, for chaining
+     */
+    public VoxelTraversal reset(PointF3 origin, PointF3 direction, float maxDistance) {
+        return reset(origin.x, origin.y, origin.z, direction.x, direction.y, direction.z, maxDistance);
+    }
+
+    /**
+     * Starts over with the voxels on a ray from ox,oy,oz, going in the direction dx,dy,dz for maxDistance times the
+     * length of that direction.
+     * @param ox the x-coordinate of the ray's origin
+     * @param oy the y-coordinate of the ray's origin
+     * @param oz the z-coordinate of the ray's origin
+     * @param dx the x-component of the ray's direction
+     * @param dy the y-component of the ray's direction
+     * @param dz the z-component of the ray's direction
+     * @param maxDistance how far to go, in multiples of the length of the direction
+     * @return this, for chaining
+     */
+    public VoxelTraversal reset(float ox, float oy, float oz, float dx, float dy, float dz, float maxDistance) {
+        limit = maxDistance;
+        t = 0f;
+        if (clipped) {
+            // find where the ray enters the bounds, if it does at all
+            float near = 0f, far = maxDistance;
+            for (int axis = 0; axis < 3; axis++) {
+                final float o = axis == 0 ? ox : axis == 1 ? oy : oz, d = axis == 0 ? dx : axis == 1 ? dy : dz;
+                final float lo = bounds.min.get(axis), hi = bounds.max.get(axis) + 1f;
+                if (d == 0f) {
+                    if (o < lo || o >= hi) far = -1f;
+                } else {
+                    final float inv = 1f / d;
+                    float t0 = (lo - o) * inv, t1 = (hi - o) * inv;
+                    if (t0 > t1) {
+                        final float tmp = t0;
+                        t0 = t1;
+                        t1 = tmp;
+                    }
+                    near = Math.max(near, t0);
+                    far = Math.min(far, t1);
+                }
+            }
+            if (near > far) {
+                done = true;
+                return this;
+            }
+            t = near;
+        }
+        x = clamp((int) Math.floor(ox + dx * t), 0);
+        y = clamp((int) Math.floor(oy + dy * t), 1);
+        z = clamp((int) Math.floor(oz + dz * t), 2);
+        stepX = dx > 0f ? 1 : dx < 0f ? -1 : 0;
+        stepY = dy > 0f ? 1 : dy < 0f ? -1 : 0;
+        stepZ = dz > 0f ? 1 : dz < 0f ? -1 : 0;
+        tDeltaX = stepX == 0 ? Float.POSITIVE_INFINITY : Math.abs(1f / dx);
+        tDeltaY = stepY == 0 ? Float.POSITIVE_INFINITY : Math.abs(1f / dy);
+        tDeltaZ = stepZ == 0 ? Float.POSITIVE_INFINITY : Math.abs(1f / dz);
+        tMaxX = stepX == 0 ? Float.POSITIVE_INFINITY : (x + (stepX > 0 ? 1 : 0) - ox) / dx;
+        tMaxY = stepY == 0 ? Float.POSITIVE_INFINITY : (y + (stepY > 0 ? 1 : 0) - oy) / dy;
+        tMaxZ = stepZ == 0 ? Float.POSITIVE_INFINITY : (z + (stepZ > 0 ? 1 : 0) - oz) / dz;
+        entered = t;
+        done = false;
+        return this;
+    }
+
+    private int clamp(int c, int axis) {
+        return clipped ? Math.min(Math.max(c, bounds.min.get(axis)), bounds.max.get(axis)) : c;
+    }
+
+    /**
+     * @return true if there is at least one more voxel to visit
+     */
+    public boolean hasNext() {
+        return !done;
+    }
+
+    /**
+     * Gets how far along the ray the most recent voxel from {@link #next(PointI3)} was entered, in multiples of the
+     * length of the direction; this is 0 for the first voxel unless the ray started outside the clipping bounds.
+     * @return the distance along the ray where the last voxel was entered
+     */
+    public float entryDistance() {
+        return t;
+    }
+
+    /**
+     * Writes the next voxel into out, and moves past it.
+     * @param out will be modified to hold the next voxel
+     * @return out, after modifications, or a new point with the result if out is not mutable
+     * @throws NoSuchElementException if there are no more voxels
+     */
+    public PointI3 next(PointI3 out) {
+        if (done) throw new NoSuchElementException("No more voxels.");
+        final PointI3 result = out.seti(x, y, z);
+        advance();
+        return result;
+    }
+
+    private void advance() {
+        t = entered;
+        if (tMaxX < tMaxY && tMaxX < tMaxZ) {
+            entered = tMaxX;
+            x += stepX;
+            tMaxX += tDeltaX;
+        } else if (tMaxY < tMaxZ) {
+            entered = tMaxY;
+            y += stepY;
+            tMaxY += tDeltaY;
+        } else {
+            entered = tMaxZ;
+            z += stepZ;
+            tMaxZ += tDeltaZ;
+        }
+        done = entered > limit || (clipped && !bounds.contains(x, y, z));
+    }
+
+    /**
+     * Appends the index {@code x + width * (y + height * z)} of every voxel the segment from start to end passes
+     * through, in order, to out. Only voxels inside a grid with the given width, height, and depth are included. This
+     * changes the clipping bounds of this VoxelTraversal to match that grid.
+     * @param start where the segment starts; will not be modified
+     * @param end where the segment ends; will not be modified
+     * @param width the number of voxels along the x-axis
+     * @param height the number of voxels along the y-axis
+     * @param depth the number of voxels along the z-axis
+     * @param out voxel indices will be appended here
+     * @return how many voxel indices were appended
+     */
+    public int rasterize(PointF3 start, PointF3 end, int width, int height, int depth, IntArray out) {
+        clip(width, height, depth).reset(start, end);
+        int added = 0;
+        while (!done) {
+            out.add(x + width * (y + height * z));
+            added++;
+            advance();
+        }
+        return added;
+    }
+}
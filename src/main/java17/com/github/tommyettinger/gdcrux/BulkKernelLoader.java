@@ -0,0 +1,27 @@
+package com.github.tommyettinger.gdcrux;
+
+/**
+ * Chooses which {@link BulkKernel} {@link BulkMath} uses. This is the Java 17 version, which is only loaded from the
+ * multi-release JAR. It uses {@link VectorBulkKernel} if the {@code jdk.incubator.vector} module is present in the
+ * boot layer (typically because the JVM was started with {@code --add-modules jdk.incubator.vector}) and the
+ * preferred vector size holds more than one float. Otherwise, or if anything goes wrong while loading the Vector API,
+ * it falls back to the scalar {@link BulkKernel}. Setting the system property {@code gdcrux.bulk.scalar} to
+ * {@code true} also forces the scalar version.
+ */
+final class BulkKernelLoader {
+    private BulkKernelLoader() {
+    }
+
+    static BulkKernel load() {
+        try {
+            if (!Boolean.getBoolean("gdcrux.bulk.scalar")
+                    && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                VectorBulkKernel kernel = new VectorBulkKernel();
+                if (kernel.usable())
+                    return kernel;
+            }
+        } catch (SecurityException | LinkageError ignored) {
+        }
+        return new BulkKernel();
+    }
+}
@@ -0,0 +1,258 @@
+package com.github.tommyettinger.gdcrux;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A {@link BulkKernel} that uses the (incubating) Vector API to process several items per instruction. This is only
+ * present in the Java 17 part of the multi-release JAR, and is only used if {@link BulkKernelLoader} finds the
+ * {@code jdk.incubator.vector} module. Each method handles as much of its range as fits in whole vectors, then lets
+ * the scalar superclass handle the remainder. Only the lane-wise operations Java's scalar arithmetic also uses are
+ * used here (no fused multiply-add), so everything but the whole-range sums matches the scalar results exactly.
+ */
+final class VectorBulkKernel extends BulkKernel {
+    private static final VectorSpecies<Float> FS = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> IS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LS = LongVector.SPECIES_PREFERRED;
+    /** Has the same number of lanes as {@link #LS}, so ints can be widened to longs lane-for-lane. */
+    private static final VectorSpecies<Integer> HALF_IS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(LS.vectorBitSize() >>> 1));
+
+    boolean usable() {
+        return FS.length() > 1;
+    }
+
+    @Override
+    boolean vectorized() {
+        return true;
+    }
+
+    @Override
+    void add(float[] a, float[] b, float[] out, int start, int length) {
+        final int bound = start + FS.loopBound(length);
+        int i = start;
+        for (; i < bound; i += FS.length()) {
+            FloatVector.fromArray(FS, a, i).add(FloatVector.fromArray(FS, b, i)).intoArray(out, i);
+        }
+        super.add(a, b, out, i, start + length - i);
+    }
+
+    @Override
+    void add(int[] a, int[] b, int[] out, int start, int length) {
+        final int bound = start + IS.loopBound(length);
+        int i = start;
+        for (; i < bound; i += IS.length()) {
+            IntVector.fromArray(IS, a, i).add(IntVector.fromArray(IS, b, i)).intoArray(out, i);
+        }
+        super.add(a, b, out, i, start + length - i);
+    }
+
+    @Override
+    void sub(float[] a, float[] b, float[] out, int start, int length) {
+        final int bound = start + FS.loopBound(length);
+        int i = start;
+        for (; i < bound; i += FS.length()) {
+            FloatVector.fromArray(FS, a, i).sub(FloatVector.fromArray(FS, b, i)).intoArray(out, i);
+        }
+        super.sub(a, b, out, i, start + length - i);
+    }
+
+    @Override
+    void sub(int[] a, int[] b, int[] out, int start, int length) {
+        final int bound = start + IS.loopBound(length);
+        int i = start;
+        for (; i < bound; i += IS.length()) {
+            IntVector.fromArray(IS, a, i).sub(IntVector.fromArray(IS, b, i)).intoArray(out, i);
+        }
+        super.sub(a, b, out, i, start + length - i);
+    }
+
+    @Override
+    void scl(float[] a, float scalar, float[] out, int start, int length) {
+        final int bound = start + FS.loopBound(length);
+        int i = start;
+        for (; i < bound; i += FS.length()) {
+            FloatVector.fromArray(FS, a, i).mul(scalar).intoArray(out, i);
+        }
+        super.scl(a, scalar, out, i, start + length - i);
+    }
+
+    @Override
+    void scl(int[] a, int scalar, int[] out, int start, int length) {
+        final int bound = start + IS.loopBound(length);
+        int i = start;
+        for (; i < bound; i += IS.length()) {
+            IntVector.fromArray(IS, a, i).mul(scalar).intoArray(out, i);
+        }
+        super.scl(a, scalar, out, i, start + length - i);
+    }
+
+    @Override
+    void lerp(float[] a, float[] b, float alpha, float[] out, int start, int length) {
+        final int bound = start + FS.loopBound(length);
+        int i = start;
+        for (; i < bound; i += FS.length()) {
+            final FloatVector va = FloatVector.fromArray(FS, a, i);
+            va.add(FloatVector.fromArray(FS, b, i).sub(va).mul(alpha)).intoArray(out, i);
+        }
+        super.lerp(a, b, alpha, out, i, start + length - i);
+    }
+
+    @Override
+    float dot(float[] a, float[] b, int start, int length) {
+        final int bound = start + FS.loopBound(length);
+        int i = start;
+        FloatVector sum = FloatVector.zero(FS);
+        for (; i < bound; i += FS.length()) {
+            sum = sum.add(FloatVector.fromArray(FS, a, i).mul(FloatVector.fromArray(FS, b, i)));
+        }
+        return sum.reduceLanes(VectorOperators.ADD) + super.dot(a, b, i, start + length - i);
+    }
+
+    @Override
+    float dst2(float[] a, float[] b, int start, int length) {
+        final int bound = start + FS.loopBound(length);
+        int i = start;
+        FloatVector sum = FloatVector.zero(FS);
+        for (; i < bound; i += FS.length()) {
+            final FloatVector d = FloatVector.fromArray(FS, a, i).sub(FloatVector.fromArray(FS, b, i));
+            sum = sum.add(d.mul(d));
+        }
+        return sum.reduceLanes(VectorOperators.ADD) + super.dst2(a, b, i, start + length - i);
+    }
+
+    @Override
+    void dot(float[] ax, float[] ay, float[] bx, float[] by, float[] out, int start, int length) {
+        final int bound = start + FS.loopBound(length);
+        int i = start;
+        for (; i < bound; i += FS.length()) {
+            FloatVector.fromArray(FS, ax, i).mul(FloatVector.fromArray(FS, bx, i))
+                    .add(FloatVector.fromArray(FS, ay, i).mul(FloatVector.fromArray(FS, by, i)))
+                    .intoArray(out, i);
+        }
+        super.dot(ax, ay, bx, by, out, i, start + length - i);
+    }
+
+    @Override
+    void dot(float[] ax, float[] ay, float[] az, float[] bx, float[] by, float[] bz, float[] out, int start, int length) {
+        final int bound = start + FS.loopBound(length);
+        int i = start;
+        for (; i < bound; i += FS.length()) {
+            FloatVector.fromArray(FS, ax, i).mul(FloatVector.fromArray(FS, bx, i))
+                    .add(FloatVector.fromArray(FS, ay, i).mul(FloatVector.fromArray(FS, by, i)))
+                    .add(FloatVector.fromArray(FS, az, i).mul(FloatVector.fromArray(FS, bz, i)))
+                    .intoArray(out, i);
+        }
+        super.dot(ax, ay, az, bx, by, bz, out, i, start + length - i);
+    }
+
+    @Override
+    void dst2(float[] ax, float[] ay, float[] bx, float[] by, float[] out, int start, int length) {
+        final int bound = start + FS.loopBound(length);
+        int i = start;
+        for (; i < bound; i += FS.length()) {
+            final FloatVector dx = FloatVector.fromArray(FS, ax, i).sub(FloatVector.fromArray(FS, bx, i));
+            final FloatVector dy = FloatVector.fromArray(FS, ay, i).sub(FloatVector.fromArray(FS, by, i));
+            dx.mul(dx).add(dy.mul(dy)).intoArray(out, i);
+        }
+        super.dst2(ax, ay, bx, by, out, i, start + length - i);
+    }
+
+    @Override
+    void dst2(float[] ax, float[] ay, float[] az, float[] bx, float[] by, float[] bz, float[] out, int start, int length) {
+        final int bound = start + FS.loopBound(length);
+        int i = start;
+        for (; i < bound; i += FS.length()) {
+            final FloatVector dx = FloatVector.fromArray(FS, ax, i).sub(FloatVector.fromArray(FS, bx, i));
+            final FloatVector dy = FloatVector.fromArray(FS, ay, i).sub(FloatVector.fromArray(FS, by, i));
+            final FloatVector dz = FloatVector.fromArray(FS, az, i).sub(FloatVector.fromArray(FS, bz, i));
+            dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz)).intoArray(out, i);
+        }
+        super.dst2(ax, ay, az, bx, by, bz, out, i, start + length - i);
+    }
+
+    @Override
+    void nor(float[] x, float[] y, int start, int length) {
+        final int bound = start + FS.loopBound(length);
+        int i = start;
+        for (; i < bound; i += FS.length()) {
+            final FloatVector vx = FloatVector.fromArray(FS, x, i), vy = FloatVector.fromArray(FS, y, i);
+            final FloatVector len2 = vx.mul(vx).add(vy.mul(vy));
+            // lanes with length 0 or 1 are left as they are, like the scalar version.
+            final VectorMask<Float> change = len2.compare(VectorOperators.NE, 0f).and(len2.compare(VectorOperators.NE, 1f));
+            final FloatVector inv = FloatVector.broadcast(FS, 1f).div(len2.sqrt());
+            vx.mul(inv, change).intoArray(x, i);
+            vy.mul(inv, change).intoArray(y, i);
+        }
+        super.nor(x, y, i, start + length - i);
+    }
+
+    @Override
+    void nor(float[] x, float[] y, float[] z, int start, int length) {
+        final int bound = start + FS.loopBound(length);
+        int i = start;
+        for (; i < bound; i += FS.length()) {
+            final FloatVector vx = FloatVector.fromArray(FS, x, i), vy = FloatVector.fromArray(FS, y, i),
+                    vz = FloatVector.fromArray(FS, z, i);
+            final FloatVector len2 = vx.mul(vx).add(vy.mul(vy)).add(vz.mul(vz));
+            // lanes with length 0 or 1 are left as they are, like the scalar version.
+            final VectorMask<Float> change = len2.compare(VectorOperators.NE, 0f).and(len2.compare(VectorOperators.NE, 1f));
+            final FloatVector inv = FloatVector.broadcast(FS, 1f).div(len2.sqrt());
+            vx.mul(inv, change).intoArray(x, i);
+            vy.mul(inv, change).intoArray(y, i);
+            vz.mul(inv, change).intoArray(z, i);
+        }
+        super.nor(x, y, z, i, start + length - i);
+    }
+
+    private static LongVector widen(int[] a, int i, int flip, long mask) {
+        return ((LongVector) IntVector.fromArray(HALF_IS, a, i).lanewise(VectorOperators.XOR, flip)
+                .convertShape(VectorOperators.I2L, LS, 0)).and(mask);
+    }
+
+    private static LongVector spread2(LongVector v) {
+        v = v.or(v.lanewise(VectorOperators.LSHL, 16)).and(0x0000FFFF0000FFFFL);
+        v = v.or(v.lanewise(VectorOperators.LSHL, 8)).and(0x00FF00FF00FF00FFL);
+        v = v.or(v.lanewise(VectorOperators.LSHL, 4)).and(0x0F0F0F0F0F0F0F0FL);
+        v = v.or(v.lanewise(VectorOperators.LSHL, 2)).and(0x3333333333333333L);
+        return v.or(v.lanewise(VectorOperators.LSHL, 1)).and(0x5555555555555555L);
+    }
+
+    private static LongVector spread3(LongVector v) {
+        v = v.or(v.lanewise(VectorOperators.LSHL, 32)).and(0x001F00000000FFFFL);
+        v = v.or(v.lanewise(VectorOperators.LSHL, 16)).and(0x001F0000FF0000FFL);
+        v = v.or(v.lanewise(VectorOperators.LSHL, 8)).and(0x100F00F00F00F00FL);
+        v = v.or(v.lanewise(VectorOperators.LSHL, 4)).and(0x10C30C30C30C30C3L);
+        return v.or(v.lanewise(VectorOperators.LSHL, 2)).and(0x1249249249249249L);
+    }
+
+    @Override
+    void morton(int[] x, int[] y, long[] out, int start, int length) {
+        final int bound = start + LS.loopBound(length);
+        int i = start;
+        for (; i < bound; i += LS.length()) {
+            spread2(widen(x, i, 0x80000000, 0xFFFFFFFFL))
+                    .or(spread2(widen(y, i, 0x80000000, 0xFFFFFFFFL)).lanewise(VectorOperators.LSHL, 1))
+                    .intoArray(out, i);
+        }
+        super.morton(x, y, out, i, start + length - i);
+    }
+
+    @Override
+    void morton(int[] x, int[] y, int[] z, long[] out, int start, int length) {
+        final int bound = start + LS.loopBound(length);
+        int i = start;
+        for (; i < bound; i += LS.length()) {
+            spread3(widen(x, i, 0x100000, 0x1FFFFFL))
+                    .or(spread3(widen(y, i, 0x100000, 0x1FFFFFL)).lanewise(VectorOperators.LSHL, 1))
+                    .or(spread3(widen(z, i, 0x100000, 0x1FFFFFL)).lanewise(VectorOperators.LSHL, 2))
+                    .intoArray(out, i);
+        }
+        super.morton(x, y, z, out, i, start + length - i);
+    }
+}
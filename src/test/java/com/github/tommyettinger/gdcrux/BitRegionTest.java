@@ -0,0 +1,164 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BitRegionTest {
+    private static boolean[] naiveMorph2(boolean[] in, int w, int h, boolean moore, boolean erode) {
+        boolean[] out = new boolean[in.length];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                boolean acc = in[x + y * w];
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        if ((dx | dy) == 0 || (!moore && dx != 0 && dy != 0)) continue;
+                        int nx = x + dx, ny = y + dy;
+                        boolean v = nx >= 0 && ny >= 0 && nx < w && ny < h && in[nx + ny * w];
+                        acc = erode ? acc && v : acc || v;
+                    }
+                }
+                out[x + y * w] = acc;
+            }
+        }
+        return out;
+    }
+
+    private static void assertSame2(boolean[] expected, BitRegion2 region) {
+        for (int y = 0; y < region.height; y++) {
+            for (int x = 0; x < region.width; x++) {
+                assertEquals(expected[x + y * region.width], region.contains(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testRegion2 () {
+        Random random = new Random(64);
+        for (int w : new int[]{13, 64, 130}) {
+            int h = 37;
+            boolean[] cells = new boolean[w * h], passable = new boolean[w * h];
+            BitRegion2 region = new BitRegion2(w, h), walls = new BitRegion2(w, h);
+            for (int i = 0; i < cells.length; i++) {
+                if (cells[i] = random.nextInt(5) == 0) region.set(i % w, i / w);
+                if (passable[i] = random.nextInt(3) != 0) walls.set(i % w, i / w);
+            }
+            assertSame2(cells, region);
+            for (boolean moore : new boolean[]{false, true}) {
+                assertSame2(naiveMorph2(cells, w, h, moore, false), new BitRegion2(region).dilate(moore));
+                assertSame2(naiveMorph2(cells, w, h, moore, true), new BitRegion2(region).erode(moore));
+                boolean[] seen = new boolean[w * h];
+                ArrayDeque<Integer> queue = new ArrayDeque<>();
+                passable[0] = true;
+                walls.set(0, 0);
+                seen[0] = true;
+                queue.add(0);
+                while (!queue.isEmpty()) {
+                    int c = queue.poll(), x = c % w, y = c / w;
+                    for (int dy = -1; dy <= 1; dy++) {
+                        for (int dx = -1; dx <= 1; dx++) {
+                            if ((dx | dy) == 0 || (!moore && dx != 0 && dy != 0)) continue;
+                            int nx = x + dx, ny = y + dy, n = nx + ny * w;
+                            if (nx < 0 || ny < 0 || nx >= w || ny >= h || seen[n] || !passable[n]) continue;
+                            seen[n] = true;
+                            queue.add(n);
+                        }
+                    }
+                }
+                BitRegion2 filled = new BitRegion2(w, h).flood(0, 0, walls, moore);
+                assertSame2(seen, filled);
+                IntArray indices = new IntArray();
+                filled.toIndices(indices);
+                assertEquals(filled.count(), indices.size);
+                Array<PointI2> points = new Array<>();
+                filled.toPoints(points);
+                for (int i = 0; i < points.size; i++) {
+                    assertEquals(indices.get(i), points.get(i).x + points.get(i).y * w);
+                }
+                PointI2[] buffer = {new PointI2(), new PointI2(), new PointI2()};
+                assertEquals(3, filled.toPoints(indices.get(1), buffer));
+                assertEquals(points.get(1), buffer[0]);
+                assertEquals(points.get(3), buffer[2]);
+            }
+            BitRegion2 copy = new BitRegion2(region).not().not();
+            assertEquals(region, copy);
+            assertEquals(w * h, new BitRegion2(region).or(new BitRegion2(region).not()).count());
+            assertTrue(new BitRegion2(region).andNot(region).isEmpty());
+            assertEquals((w - 2) * 3, new BitRegion2(w, h).setRect(2, 5, w + 10, 7).count());
+        }
+    }
+
+    @Test
+    public void testRegion3 () {
+        Random random = new Random(3);
+        int w = 70, h = 9, d = 7;
+        BitRegion3 region = new BitRegion3(w, h, d), walls = new BitRegion3(w, h, d);
+        boolean[] cells = new boolean[w * h * d], passable = new boolean[w * h * d];
+        for (int i = 0; i < cells.length; i++) {
+            int x = i % w, y = i / w % h, z = i / (w * h);
+            if (cells[i] = random.nextInt(6) == 0) region.set(x, y, z);
+            if (passable[i] = random.nextInt(3) != 0) walls.set(x, y, z);
+        }
+        for (boolean moore : new boolean[]{false, true}) {
+            for (boolean erode : new boolean[]{false, true}) {
+                BitRegion3 result = new BitRegion3(region);
+                if (erode) result.erode(moore);
+                else result.dilate(moore);
+                for (int i = 0; i < cells.length; i++) {
+                    int x = i % w, y = i / w % h, z = i / (w * h);
+                    boolean acc = cells[i];
+                    for (int dz = -1; dz <= 1; dz++) {
+                        for (int dy = -1; dy <= 1; dy++) {
+                            for (int dx = -1; dx <= 1; dx++) {
+                                if ((dx | dy | dz) == 0) continue;
+                                if (!moore && Math.abs(dx) + Math.abs(dy) + Math.abs(dz) != 1) continue;
+                                int nx = x + dx, ny = y + dy, nz = z + dz;
+                                boolean v = nx >= 0 && ny >= 0 && nz >= 0 && nx < w && ny < h && nz < d
+                                        && cells[nx + w * (ny + h * nz)];
+                                acc = erode ? acc && v : acc || v;
+                            }
+                        }
+                    }
+                    assertEquals(acc, result.contains(x, y, z));
+                }
+            }
+            // flood from one cell, compared to a plain breadth-first search
+            passable[0] = true;
+            walls.set(0, 0, 0);
+            boolean[] seen = new boolean[cells.length];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            seen[0] = true;
+            queue.add(0);
+            while (!queue.isEmpty()) {
+                int c = queue.poll(), x = c % w, y = c / w % h, z = c / (w * h);
+                for (int dz = -1; dz <= 1; dz++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        for (int dx = -1; dx <= 1; dx++) {
+                            if ((dx | dy | dz) == 0) continue;
+                            if (!moore && Math.abs(dx) + Math.abs(dy) + Math.abs(dz) != 1) continue;
+                            int nx = x + dx, ny = y + dy, nz = z + dz, n = nx + w * (ny + h * nz);
+                            if (nx < 0 || ny < 0 || nz < 0 || nx >= w || ny >= h || nz >= d || seen[n] || !passable[n]) continue;
+                            seen[n] = true;
+                            queue.add(n);
+                        }
+                    }
+                }
+            }
+            BitRegion3 filled = new BitRegion3(w, h, d).flood(0, 0, 0, walls, moore);
+            IntArray indices = new IntArray();
+            filled.toIndices(indices);
+            int count = 0;
+            for (int i = 0; i < seen.length; i++) {
+                if (seen[i]) assertEquals(i, indices.get(count++));
+            }
+            assertEquals(count, indices.size);
+            assertEquals(indices.get(0), filled.nextCell(0));
+        }
+    }
+}
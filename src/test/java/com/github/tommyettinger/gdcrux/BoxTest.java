@@ -0,0 +1,74 @@
+package com.github.tommyettinger.gdcrux;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BoxTest {
+    @Test
+    public void testBoxF3 () {
+        BoxF3 box = new BoxF3(new PointF3(1f, 1f, 1f), new PointF3(-1f, -1f, -1f));
+        assertEquals(new PointF3(-1f, -1f, -1f), box.min);
+        assertTrue(box.contains(new PointF3(0f, 1f, -1f)));
+        assertFalse(box.contains(new PointF3(0f, 1.5f, 0f)));
+        assertEquals(0.25f, box.dst2(new PointF3(0f, 1.5f, 0f)), 0.0001f);
+        assertEquals(2f, box.intersectRay(new PointF3(-3f, 0f, 0f), new PointF3(1f, 0f, 0f)), 0.0001f);
+        assertEquals(0f, box.intersectRay(new PointF3(0f, 0f, 0f), new PointF3(0f, 0f, 1f)), 0f);
+        assertEquals(Float.POSITIVE_INFINITY, box.intersectRay(new PointF3(-3f, 2f, 0f), new PointF3(1f, 0f, 0f)), 0f);
+        assertEquals(Float.POSITIVE_INFINITY, box.intersectRay(new PointF3(-3f, 0f, 0f), new PointF3(-1f, 0f, 0f)), 0f);
+        assertEquals(8f, box.volume(), 0f);
+
+        BoxF3 other = new BoxF3(new PointF3(0.5f, 0.5f, 0.5f), new PointF3(3f, 3f, 3f));
+        assertTrue(box.overlaps(other));
+        assertFalse(box.contains(other));
+        BoxF3 both = new BoxF3(box).union(other);
+        assertTrue(both.contains(box) && both.contains(other));
+        assertFalse(new BoxF3().isValid());
+        assertTrue(new BoxF3().expand(2f, 3f, 4f).contains(2f, 3f, 4f));
+    }
+
+    @Test
+    public void testRayMissesInvalidBoxes () {
+        final float inf = Float.POSITIVE_INFINITY;
+        assertEquals(inf, new BoxF2().intersectRay(0f, 0f, 1f, 1f), 0f);
+        assertEquals(inf, new BoxI3().intersectRay(0f, 0f, 0f, 1f, 1f, 1f), 0f);
+        assertEquals(inf, new BoxI3().intersectRay(new PointF3(), new PointF3(0f, 0f, 1f)), 0f);
+        assertEquals(inf, new BoxF6().intersectRay(new PointF6(), new PointF6(1f, 0f, 0f, 0f, 0f, 0f)), 0f);
+        assertEquals(inf, new BoxI6().intersectRay(0f, 0f, 0f, 0f, 0f, 0f, 1f, 0f, 0f, 0f, 0f, 0f), 0f);
+
+        // inverted on the axis the ray travels; the slab test alone would report a hit at 7
+        BoxF3 inverted = new BoxF3(new PointF3(-1f, -1f, -1f), new PointF3(1f, 1f, 1f));
+        inverted.min.x = 3f;
+        assertFalse(inverted.isValid());
+        assertEquals(inf, inverted.intersectRay(-6f, 0f, 0f, 1f, 0f, 0f), 0f);
+        assertEquals(inf, inverted.intersectRay(new PointF3(-6f, 0f, 0f), new PointF3(1f, 0f, 0f)), 0f);
+        BoxI2 invertedI = new BoxI2(new PointI2(0, 0), new PointI2(3, 3));
+        invertedI.max.x = -1;
+        assertEquals(inf, invertedI.intersectRay(-2f, 1f, 1f, 0f), 0f);
+    }
+
+    @Test
+    public void testBulkContains () {
+        PointI2[] points = new PointI2[100];
+        int[] xs = new int[100], ys = new int[100];
+        for (int i = 0; i < 100; i++) {
+            points[i] = new PointI2(xs[i] = i % 10, ys[i] = i / 10);
+        }
+        BoxI2 bounds = new BoxI2().setFromPoints(points, 0, 100);
+        assertEquals(new PointI2(0, 0), bounds.min);
+        assertEquals(new PointI2(9, 9), bounds.max);
+        assertEquals(bounds, new BoxI2().setFromComponents(xs, ys, 0, 100));
+        assertEquals(100L, bounds.cellCount());
+
+        BoxI2 box = new BoxI2(new PointI2(2, 3), new PointI2(4, 5));
+        long[] bits = new long[2], bits2 = new long[2];
+        assertEquals(9, box.containsAll(points, 0, 100, bits));
+        assertEquals(9, box.containsAll(xs, ys, 0, 100, bits2));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(box.contains(points[i]), (bits[i >>> 6] >>> i & 1L) == 1L);
+            assertEquals(bits[i >>> 6], bits2[i >>> 6]);
+        }
+    }
+}
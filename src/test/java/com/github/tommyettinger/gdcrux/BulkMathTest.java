@@ -0,0 +1,81 @@
+package com.github.tommyettinger.gdcrux;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BulkMathTest {
+    @Test
+    public void testMortonOrder () {
+        assertTrue(Long.compareUnsigned(BulkMath.morton(-1, -1), BulkMath.morton(0, 0)) < 0);
+        assertTrue(Long.compareUnsigned(BulkMath.morton(0, 0), BulkMath.morton(1, 0)) < 0);
+        assertTrue(Long.compareUnsigned(BulkMath.morton(1, 0), BulkMath.morton(0, 1)) < 0);
+        assertEquals(0L, BulkMath.morton(Integer.MIN_VALUE, Integer.MIN_VALUE));
+        assertEquals(-1L, BulkMath.morton(Integer.MAX_VALUE, Integer.MAX_VALUE));
+        assertTrue(BulkMath.morton(-1, -1, -1) < BulkMath.morton(0, 0, 0));
+        assertEquals(0L, BulkMath.morton(-1048576, -1048576, -1048576));
+        assertEquals(0x7FFFFFFFFFFFFFFFL, BulkMath.morton(1048575, 1048575, 1048575));
+    }
+
+    @Test
+    public void testBulkMatchesPoints () {
+        Random random = new Random(42L);
+        int n = 100;
+        float[] x = new float[n], y = new float[n], z = new float[n];
+        PointF3[] points = new PointF3[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = new PointF3(x[i] = random.nextFloat() - 0.5f, y[i] = random.nextFloat() - 0.5f, z[i] = random.nextFloat() - 0.5f);
+        }
+        float[] dots = new float[n];
+        BulkMath.dot(x, y, z, x, y, z, dots, 0, n);
+        BulkMath.nor(x, y, z, 0, n);
+        for (int i = 0; i < n; i++) {
+            assertEquals(points[i].len2(), dots[i], 0f);
+            points[i].nor();
+            assertEquals(points[i].x, x[i], 0f);
+            assertEquals(points[i].y, y[i], 0f);
+            assertEquals(points[i].z, z[i], 0f);
+        }
+    }
+
+    @Test
+    public void testHilbertAdjacent () {
+        // walking a 16x16 block in Hilbert order, each step moves to an orthogonal neighbor.
+        long[] codes = new long[256];
+        int[] xs = new int[256], ys = new int[256], order = new int[256];
+        for (int i = 0; i < 256; i++) {
+            xs[i] = (i & 15) - 8;
+            ys[i] = (i >>> 4) - 8;
+        }
+        BulkMath.hilbert(xs, ys, codes, 0, 256);
+        BulkMath.radixSort(codes, order, 0, 256, xs, ys);
+        for (int i = 1; i < 256; i++) {
+            assertEquals(1, Math.abs(xs[i] - xs[i - 1]) + Math.abs(ys[i] - ys[i - 1]));
+        }
+    }
+
+    @Test
+    public void testRadixSortMatchesSortByKey () {
+        Random random = new Random(99L);
+        int n = 5000;
+        long[] keys = new long[n + 10];
+        float[] data = new float[n + 10];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(1000) * 0x9E3779B97F4A7C15L;
+            data[i] = i;
+        }
+        int[] byKey = new int[n + 10], byRadix = new int[n + 10];
+        BulkMath.sortByKey(keys, byKey, 5, n);
+        BulkMath.radixSort(keys, byRadix, 5, n, data);
+        for (int i = 5; i < n + 5; i++) {
+            assertEquals(byKey[i], byRadix[i]);
+            assertEquals(byKey[i], (int) data[i]);
+            if (i > 5) assertTrue(Long.compareUnsigned(keys[i - 1], keys[i]) <= 0);
+        }
+        assertEquals(0f, data[0], 0f);
+        assertEquals(n + 9f, data[n + 9], 0f);
+    }
+}
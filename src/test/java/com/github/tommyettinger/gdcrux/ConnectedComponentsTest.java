@@ -0,0 +1,93 @@
+package com.github.tommyettinger.gdcrux;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConnectedComponentsTest {
+    private static void check(int w, int h, int d, long seed) {
+        Random random = new Random(seed);
+        boolean[] cells = new boolean[w * h * d];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = random.nextInt(100) < (d == 1 ? 55 : 30);
+        }
+        ConnectedComponents components = new ConnectedComponents(w, h, d);
+        int[] labels = new int[cells.length], flooded = new int[cells.length];
+        BoxI3 box = new BoxI3();
+        for (boolean moore : new boolean[]{false, true}) {
+            int count = components.label(cells, moore, labels);
+            assertEquals(count, components.count());
+            // flooding from the first cell of each component, in index order, must give the same labels
+            Arrays.fill(flooded, -1);
+            int next = 0, total = 0;
+            for (int i = 0; i < cells.length; i++) {
+                if (!cells[i] || flooded[i] >= 0) continue;
+                int filled = components.flood(cells, i % w, i / w % h, i / (w * h), moore, flooded, next);
+                assertEquals(components.size(next), filled);
+                total += filled;
+                next++;
+            }
+            assertEquals(count, next);
+            assertTrue(Arrays.equals(labels, flooded));
+            int[] minX = new int[count], maxZ = new int[count];
+            Arrays.fill(minX, Integer.MAX_VALUE);
+            Arrays.fill(maxZ, -1);
+            int biggest = 0;
+            for (int i = 0; i < cells.length; i++) {
+                int label = labels[i];
+                if (label < 0) continue;
+                minX[label] = Math.min(minX[label], i % w);
+                maxZ[label] = Math.max(maxZ[label], i / (w * h));
+                if (components.size(label) > components.size(biggest)) biggest = label;
+            }
+            for (int label = 0; label < count; label++) {
+                components.bounds(label, box);
+                assertEquals(minX[label], box.min.x);
+                assertEquals(maxZ[label], box.max.z);
+            }
+            assertEquals(biggest, components.largest());
+            int sum = 0;
+            for (int label = 0; label < count; label++) sum += components.size(label);
+            assertEquals(total, sum);
+        }
+    }
+
+    @Test
+    public void testLabelMatchesFlood () {
+        check(40, 30, 1, 1L);
+        check(13, 9, 8, 2L);
+    }
+
+    @Test
+    public void testConnectivity () {
+        // a checkerboard: every true cell is alone with 4-connectivity, and all are joined with 8-connectivity
+        int w = 8, h = 8;
+        boolean[] board = new boolean[w * h];
+        for (int i = 0; i < board.length; i++) {
+            board[i] = ((i % w) + (i / w) & 1) == 0;
+        }
+        ConnectedComponents components = new ConnectedComponents(w, h);
+        int[] labels = new int[w * h];
+        assertEquals(32, components.label(board, false, labels));
+        assertEquals(1, components.label(board, true, labels));
+        BoxI2 box = components.bounds(0, new BoxI2());
+        assertEquals(new PointI2(0, 0), box.min);
+        assertEquals(new PointI2(7, 7), box.max);
+        Arrays.fill(labels, -1);
+        assertEquals(1, components.flood(board, new PointI2(2, 2), false, labels, 5));
+        assertEquals(32, components.flood(board, new PointI2(2, 2), true, labels, 6));
+        // 3D diagonal neighbors only touch with 26-connectivity
+        boolean[] cube = new boolean[27];
+        cube[0] = cube[13] = cube[26] = true;
+        ConnectedComponents components3 = new ConnectedComponents(3, 3, 3);
+        int[] labels3 = new int[27];
+        assertEquals(3, components3.label(cube, false, labels3));
+        assertEquals(1, components3.label(cube, true, labels3));
+        Arrays.fill(labels3, -1);
+        assertEquals(3, components3.flood(cube, new PointI3(1, 1, 1), true, labels3, 0));
+    }
+}
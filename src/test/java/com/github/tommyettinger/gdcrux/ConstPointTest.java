@@ -0,0 +1,159 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static com.github.tommyettinger.gdcrux.PointMaker.key;
+import static com.github.tommyettinger.gdcrux.PointMaker.pt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConstPointTest {
+    @Test
+    public void testInterning () {
+        assertSame(key(-128, 127), key(-128, 127));
+        assertSame(key(0, 0), ConstPointI2.of(pt(0, 0)));
+        assertNotSame(key(128, 0), key(128, 0));
+        assertEquals(key(128, 0), key(128, 0));
+        assertEquals(-128, key(-128, 5).x);
+        assertEquals(5, key(-128, 5).y);
+
+        assertSame(key(-16, 0, 15), key(-16, 0, 15));
+        assertNotSame(key(16, 0, 0), key(16, 0, 0));
+        ConstPointI3 k = key(3, -4, 5);
+        assertEquals(3, k.x);
+        assertEquals(-4, k.y);
+        assertEquals(5, k.z);
+        assertSame(k, ConstPointI3.of(k));
+    }
+
+    @Test
+    public void testEqualityWithMutable () {
+        ObjectIntMap<PointI2> map = new ObjectIntMap<>();
+        map.put(pt(3, 4), 7);
+        assertEquals(7, map.get(key(3, 4), -1));
+        map.put(key(-2, 9), 8);
+        assertEquals(8, map.get(pt(-2, 9), -1));
+        assertTrue(pt(3, 4, 5).equals(key(3, 4, 5)));
+        assertTrue(key(3, 4, 5).equals(pt(3, 4, 5)));
+        assertEquals(pt(3, 4, 5).hashCode(), key(3, 4, 5).hashCode());
+        assertFalse(key(3, 4).equals(key(4, 3)));
+    }
+
+    @Test
+    public void testUnchangeable () {
+        ConstPointI2 k = key(1, 2);
+        assertFalse(k.mutable());
+        PointI2 moved = k.add(10, 10);
+        assertEquals(pt(11, 12), moved);
+        assertEquals(pt(1, 2), k);
+        assertEquals(pt(0, 0), k.setZero());
+        assertEquals(pt(5, 2), k.xi(5));
+        assertEquals(pt(2, 4), k.times(2f));
+        assertTrue(k.cpy().mutable());
+        assertSame(key(1, 2), k);
+        assertEquals(pt(1, 2), k);
+
+        ConstPointI3 k3 = key(1, 2, 3);
+        assertEquals(pt(2, 4, 6), k3.add(k3));
+        assertEquals(pt(0, 0, 0), k3.sub(k3));
+        assertEquals(pt(1, 2, 3), k3);
+    }
+
+    @Test
+    public void testFieldWritesDoNotStick () {
+        ConstPointI2 k = key(1, 2);
+        k.x = 5;
+        assertEquals(pt(1, 2), key(1, 2));
+        assertNotSame(k, key(1, 2));
+        assertSame(key(1, 2), key(1, 2));
+
+        ConstPointI3 k3 = key(1, 2, 3);
+        k3.z = 7;
+        assertEquals(pt(1, 2, 3), key(1, 2, 3));
+        assertSame(key(1, 2, 3), key(1, 2, 3));
+    }
+
+    @Test
+    public void testSerialization () throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(key(3, -4));
+        out.writeObject(key(3, -4, 5));
+        out.close();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertSame(key(3, -4), in.readObject());
+        assertSame(key(3, -4, 5), in.readObject());
+
+        Json json = new Json();
+        ConstPointI2 read = json.fromJson(ConstPointI2.class, json.toJson(key(6, 7)));
+        assertEquals(key(6, 7), read);
+        assertFalse(read.mutable());
+        assertEquals(key(6, 7, 8), json.fromJson(ConstPointI3.class, json.toJson(key(6, 7, 8))));
+        assertEquals(pt(1, 2), key(1, 2));
+    }
+
+    @Test
+    public void testOutputParameters () {
+        BitRegion2 region = new BitRegion2(4, 4).set(1, 2).set(3, 0);
+        Array<PointI2> points = new Array<>();
+        points.add(key(0, 0));
+        assertEquals(2, region.toPoints(points));
+        assertTrue(points.contains(pt(1, 2), false));
+        assertTrue(points.contains(pt(3, 0), false));
+        assertEquals(pt(0, 0), key(0, 0));
+        PointI2[] buffer = {key(0, 0), key(0, 0)};
+        assertEquals(2, region.toPoints(0, buffer));
+        assertTrue(pt(3, 0).equals(buffer[0]) || pt(3, 0).equals(buffer[1]));
+        assertEquals(pt(0, 0), key(0, 0));
+
+        GridPathfinder2 pathfinder = new GridPathfinder2(4, 4);
+        assertEquals(pt(1, 2), pathfinder.point(pathfinder.index(1, 2), key(0, 0)));
+        assertEquals(pt(0, 0), key(0, 0));
+
+        assertEquals(pt(4, 5), new ImmutablePointI2(4, 5).toMutable(key(0, 0)));
+        assertEquals(pt(0, 0), key(0, 0));
+
+        Neighborhood neighborhood = new Neighborhood(2, false).reset(pt(5, 5));
+        PointI2 n = neighborhood.next(key(0, 0));
+        assertEquals(1, Math.abs(n.x - 5) + Math.abs(n.y - 5));
+        assertEquals(pt(0, 0), key(0, 0));
+        assertEquals(pt(5, 5), Neighborhood.unpack(Neighborhood.pack(pt(5, 5)), key(0, 0)));
+        assertEquals(pt(0, 0), key(0, 0));
+
+        GridLine line = new GridLine().reset(pt(0, 0), pt(3, 1));
+        assertEquals(pt(0, 0), line.next(key(1, 1)));
+        assertEquals(pt(1, 1), key(1, 1));
+
+        PointPool<PointI2> pool = new PointPool<PointI2>() {
+            @Override
+            protected PointI2 newObject() {
+                return new PointI2();
+            }
+        };
+        try {
+            pool.free(key(1, 1));
+            fail("Pools should not accept ConstPointI2 keys.");
+        } catch (IllegalArgumentException expected) {
+        }
+        int[] xs = {1, 2}, ys = {3, 4}, zs = {5, 6};
+        try {
+            BulkMath.bounds(xs, ys, zs, 0, 2, key(0, 0, 0), new PointI3());
+            fail("bounds() can't return two new points.");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(pt(0, 0, 0), key(0, 0, 0));
+    }
+}
@@ -0,0 +1,169 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConvexHullTest {
+    private static void check2(float[] x, float[] y, int start, int length, IntArray hull) {
+        final int n = hull.size;
+        for (int h = 0; h < n; h++) {
+            final int a = hull.get(h), b = hull.get((h + 1) % n), c = hull.get((h + 2) % n);
+            // strictly convex at every corner
+            double turn = ((double) x[b] - x[a]) * ((double) y[c] - y[a])
+                    - ((double) y[b] - y[a]) * ((double) x[c] - x[a]);
+            assertTrue(n < 3 || turn > 0.0);
+            for (int i = start; i < start + length; i++) {
+                double side = ((double) x[b] - x[a]) * ((double) y[i] - y[a])
+                        - ((double) y[b] - y[a]) * ((double) x[i] - x[a]);
+                assertTrue(n < 3 || side >= 0.0);
+            }
+        }
+    }
+
+    private static void check3(float[] x, float[] y, float[] z, int start, int length, IntArray faces, int count) {
+        assertEquals(count * 3, faces.size);
+        IntSet vertices = new IntSet();
+        for (int f = 0; f < count; f++) {
+            final int a = faces.get(f * 3), b = faces.get(f * 3 + 1), c = faces.get(f * 3 + 2);
+            vertices.add(a);
+            vertices.add(b);
+            vertices.add(c);
+            double ux = x[b] - x[a], uy = y[b] - y[a], uz = z[b] - z[a];
+            double vx = x[c] - x[a], vy = y[c] - y[a], vz = z[c] - z[a];
+            double nx = uy * vz - uz * vy, ny = uz * vx - ux * vz, nz = ux * vy - uy * vx;
+            double len = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            for (int i = start; i < start + length; i++) {
+                double dist = (nx * (x[i] - x[a]) + ny * (y[i] - y[a]) + nz * (z[i] - z[a])) / len;
+                assertTrue(dist <= 1e-5);
+            }
+        }
+        // a closed triangulated surface of genus 0 has V - E + F = 2, with E = 3F / 2
+        assertEquals(2, vertices.size - count * 3 / 2 + count);
+    }
+
+    @Test
+    public void testSquare () {
+        // a 5x5 grid of points, shuffled; only the four corners are on the hull
+        float[] x = new float[27], y = new float[27];
+        for (int i = 0; i < 25; i++) {
+            x[i + 2] = (i * 7 % 25) % 5;
+            y[i + 2] = (i * 7 % 25) / 5;
+        }
+        ConvexHull hull = new ConvexHull();
+        IntArray out = new IntArray();
+        assertEquals(4, hull.hull(x, y, 2, 25, out));
+        check2(x, y, 2, 25, out);
+        assertEquals(0f, x[out.get(0)], 0f);
+        assertEquals(0f, y[out.get(0)], 0f);
+        assertEquals(4f, x[out.get(1)], 0f);
+        assertEquals(0f, y[out.get(1)], 0f);
+
+        assertEquals(1, hull.hull(new float[]{3f, 3f}, new float[]{1f, 1f}, 0, 2, out));
+        assertEquals(2, hull.hull(new float[]{3f, 0f, 1.5f}, new float[]{1f, 0f, 0.5f}, 0, 3, out));
+        assertEquals(1, out.get(0));
+        assertEquals(0, out.get(1));
+
+        PointF2[] points = {new PointF2(5f, 5f), new PointF2(0f, 0f), new PointF2(2f, 0f), new PointF2(1f, 1f),
+                new PointF2(1f, 2f)};
+        assertEquals(3, hull.hull(points, 1, 4, out));
+        assertArrayEquals(new int[]{1, 2, 4}, out.toArray());
+    }
+
+    @Test
+    public void testRandom2 () {
+        RandomXS128 random = new RandomXS128(123L);
+        ConvexHull hull = new ConvexHull();
+        IntArray filtered = new IntArray(), unfiltered = new IntArray(), parallel = new IntArray();
+        ParallelBulk bulk = new ParallelBulk(1000);
+        for (int n : new int[]{10, 300, 5000, 20000}) {
+            float[] x = new float[n], y = new float[n];
+            for (int i = 0; i < n; i++) {
+                // a disc, so many points are on or near the hull
+                double angle = random.nextDouble() * Math.PI * 2.0, r = Math.sqrt(random.nextDouble()) * 100.0;
+                x[i] = (float) (Math.cos(angle) * r);
+                y[i] = (float) (Math.sin(angle) * r);
+            }
+            hull.filterThreshold = 256;
+            hull.hull(x, y, 0, n, filtered);
+            check2(x, y, 0, n, filtered);
+            hull.hull(bulk, x, y, 0, n, parallel);
+            assertArrayEquals(filtered.toArray(), parallel.toArray());
+            hull.filterThreshold = Integer.MAX_VALUE;
+            hull.hull(x, y, 0, n, unfiltered);
+            assertArrayEquals(filtered.toArray(), unfiltered.toArray());
+        }
+    }
+
+    @Test
+    public void testCube () {
+        // a 6x6x6 grid; the hull is the cube, with two triangles per side
+        float[] x = new float[216], y = new float[216], z = new float[216];
+        for (int i = 0; i < 216; i++) {
+            x[i] = i % 6;
+            y[i] = i / 6 % 6;
+            z[i] = i / 36;
+        }
+        ConvexHull hull = new ConvexHull();
+        IntArray out = new IntArray();
+        int faces = hull.hull(x, y, z, 0, 216, out);
+        check3(x, y, z, 0, 216, out, faces);
+        assertEquals(12, faces);
+        for (int i = 0; i < out.size; i++) {
+            int v = out.get(i);
+            assertTrue(x[v] % 5 == 0 && y[v] % 5 == 0 && z[v] % 5 == 0);
+        }
+        // coplanar and too-small inputs have no 3D hull
+        assertEquals(0, hull.hull(x, y, z, 0, 36, out));
+        assertEquals(0, out.size);
+        assertEquals(0, hull.hull(x, y, z, 0, 3, out));
+    }
+
+    @Test
+    public void testRandom3 () {
+        RandomXS128 random = new RandomXS128(456L);
+        ConvexHull hull = new ConvexHull();
+        IntArray filtered = new IntArray(), unfiltered = new IntArray(), parallel = new IntArray();
+        ParallelBulk bulk = new ParallelBulk(1000);
+        for (int n : new int[]{4, 50, 2000, 20000}) {
+            float[] x = new float[n], y = new float[n], z = new float[n];
+            for (int i = 0; i < n; i++) {
+                // a ball, so most points are filtered but some are close to the hull
+                float px, py, pz;
+                do {
+                    px = random.nextFloat() * 2f - 1f;
+                    py = random.nextFloat() * 2f - 1f;
+                    pz = random.nextFloat() * 2f - 1f;
+                } while (px * px + py * py + pz * pz > 1f);
+                x[i] = px * 50f;
+                y[i] = py * 50f;
+                z[i] = pz * 50f;
+            }
+            hull.filterThreshold = 256;
+            int faces = hull.hull(x, y, z, 0, n, filtered);
+            assertTrue(faces >= 4);
+            check3(x, y, z, 0, n, filtered, faces);
+            assertEquals(faces, hull.hull(bulk, x, y, z, 0, n, parallel));
+            assertArrayEquals(filtered.toArray(), parallel.toArray());
+            hull.filterThreshold = Integer.MAX_VALUE;
+            int all = hull.hull(x, y, z, 0, n, unfiltered);
+            check3(x, y, z, 0, n, unfiltered, all);
+            assertEquals(faces, all);
+        }
+
+        PointF3[] points = new PointF3[100];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new PointF3(random.nextFloat(), random.nextFloat(), random.nextFloat());
+        }
+        int faces = hull.hull(points, 10, 90, filtered);
+        for (int i = 0; i < filtered.size; i++) {
+            assertTrue(filtered.get(i) >= 10 && filtered.get(i) < 100);
+        }
+        assertTrue(faces >= 4);
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.tommyettinger.gdcrux;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CounterRandomTest {
+    @Test
+    public void testRandomAccess () {
+        CounterRandom a = new CounterRandom(42L), b = new CounterRandom(42L);
+        assertEquals(a, b);
+        long[] values = new long[100];
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(a.at(i), values[i] = a.nextLong());
+        }
+        assertEquals(values[73], b.skip(73).nextLong());
+        assertEquals(values[10], b.setCounter(10).nextLong());
+        assertEquals(values[11], b.copy().nextLong());
+        assertEquals(values[11], new CounterRandom(b.getKey(), b.getStream(), b.getCounter()).nextLong());
+        b.setSeed(42L);
+        assertEquals(values[0], b.nextLong());
+        assertNotEquals(values[0], new CounterRandom(43L).nextLong());
+        assertTrue((b.getStream() & 1L) != 0L);
+    }
+
+    @Test
+    public void testForkAndSplit () {
+        CounterRandom root = new CounterRandom(7L);
+        CounterRandom early = root.fork(3L);
+        root.nextLong();
+        CounterRandom late = root.fork(3L);
+        // forking doesn't depend on, or change, the root's position
+        assertEquals(early, late);
+        assertEquals(1L, root.getCounter());
+        assertNotEquals(root.fork(4L).nextLong(), root.fork(3L).nextLong());
+
+        CounterRandom splitA = new CounterRandom(9L), splitB = new CounterRandom(9L);
+        assertEquals(splitA.split(), splitB.split());
+        assertEquals(2L, splitA.getCounter());
+
+        // outputs from different forks should look unrelated: check that the bits agree about half the time
+        CounterRandom f0 = root.fork(0L), f1 = root.fork(1L);
+        long agree = 0;
+        int n = 20000;
+        for (int i = 0; i < n; i++) {
+            agree += 64 - Long.bitCount(f0.nextLong() ^ f1.nextLong());
+        }
+        assertEquals(32.0, agree / (double) n, 0.1);
+    }
+
+    @Test
+    public void testDistributions () {
+        CounterRandom random = new CounterRandom(123L);
+        int n = 100000;
+        double sum = 0, sum2 = 0, floats = 0, exp = 0;
+        for (int i = 0; i < n; i++) {
+            double g = random.nextGaussian();
+            sum += g;
+            sum2 += g * g;
+            float f = random.nextFloat();
+            assertTrue(f >= 0f && f < 1f);
+            floats += f;
+            exp += random.nextExponential();
+            int bounded = random.nextInt(10);
+            assertTrue(bounded >= 0 && bounded < 10);
+        }
+        assertEquals(0.0, sum / n, 0.02);
+        assertEquals(1.0, sum2 / n, 0.02);
+        assertEquals(0.5, floats / n, 0.01);
+        assertEquals(1.0, exp / n, 0.02);
+
+        PointF3 p3 = new PointF3();
+        PointF5 p5 = new PointF5();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1f, p3.setToRandomDirection(random).len(), 1e-3f);
+            assertEquals(1f, p5.setToRandomDirection(random).len(), 1e-3f);
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequential () {
+        int n = 100003;
+        float[] seq = new float[n], par = new float[n];
+        CounterRandom a = new CounterRandom(5L), b = new CounterRandom(5L);
+        a.nextNormalF(seq, 2, n - 2);
+        new ParallelBulk(1000).normalF(b, par, 2, n - 2);
+        assertArrayEquals(seq, par, 0f);
+        assertEquals(a, b);
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.tommyettinger.gdcrux;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DistanceTransformTest {
+    private static float brute(boolean[] sites, int w, int h, int x, int y, int z, int kind) {
+        float best = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < sites.length; i++) {
+            if (!sites[i]) continue;
+            int dx = Math.abs(i % w - x), dy = Math.abs(i / w % h - y), dz = Math.abs(i / (w * h) - z);
+            float d = kind == 0 ? (float) Math.sqrt((long) dx * dx + dy * dy + dz * dz)
+                    : kind == 1 ? Math.max(dx, Math.max(dy, dz)) : dx + dy + dz;
+            best = Math.min(best, d);
+        }
+        return best;
+    }
+
+    private static void check(int w, int h, int d, float density, long seed) {
+        Random random = new Random(seed);
+        boolean[] sites = new boolean[w * h * d];
+        for (int i = 0; i < sites.length; i++) {
+            sites[i] = random.nextFloat() < density;
+        }
+        DistanceTransform transform = new DistanceTransform(w, h, d);
+        float[] distances = new float[sites.length];
+        int[] nearest = new int[sites.length];
+        PointI3 site = new PointI3();
+        for (int kind = 0; kind < 3; kind++) {
+            if (kind == 0) transform.euclidean(sites, distances, nearest);
+            else if (kind == 1) transform.chebyshev(sites, distances, nearest);
+            else transform.manhattan(sites, distances, nearest);
+            for (int i = 0; i < sites.length; i++) {
+                int x = i % w, y = i / w % h, z = i / (w * h);
+                assertEquals(brute(sites, w, h, x, y, z, kind), distances[i], 1e-4f);
+                if (nearest[i] < 0) {
+                    assertEquals(Float.POSITIVE_INFINITY, distances[i], 0f);
+                    continue;
+                }
+                transform.point(nearest[i], site);
+                assertEquals(true, sites[nearest[i]]);
+                if (kind == 0) {
+                    assertEquals(distances[i], (float) Math.sqrt(site.dst2(new PointI3(x, y, z))), 1e-4f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesBruteForce () {
+        check(23, 17, 1, 0.03f, 1L);
+        check(9, 11, 7, 0.02f, 2L);
+        check(40, 3, 1, 0.5f, 3L);
+        check(6, 6, 1, 0f, 4L);
+    }
+
+    @Test
+    public void testParallel () {
+        int w = 64, h = 48, d = 5;
+        Random random = new Random(5);
+        boolean[] sites = new boolean[w * h * d];
+        for (int i = 0; i < 30; i++) {
+            sites[random.nextInt(sites.length)] = true;
+        }
+        DistanceTransform transform = new DistanceTransform(w, h, d);
+        float[] expected = new float[sites.length], actual = new float[sites.length];
+        int[] expectedNearest = new int[sites.length], actualNearest = new int[sites.length];
+        transform.euclidean(sites, expected, expectedNearest);
+        transform.euclidean(new ParallelBulk(100), sites, actual, actualNearest);
+        assertArrayEquals(expected, actual, 0f);
+        assertArrayEquals(expectedNearest, actualNearest);
+
+        BitRegion2 region = new BitRegion2(w, h);
+        region.set(3, 4).set(60, 40);
+        DistanceTransform flat = new DistanceTransform(w, h);
+        float[] distances = flat.euclidean(region, new float[w * h], null);
+        assertEquals(5f, distances[0], 0f);
+        assertEquals(0f, distances[60 + 40 * w], 0f);
+    }
+}
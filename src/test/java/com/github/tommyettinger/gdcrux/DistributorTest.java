@@ -0,0 +1,136 @@
+package com.github.tommyettinger.gdcrux;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DistributorTest {
+    private static final int N = 200000;
+
+    /** Checks the sample mean and variance against expected values, with a tolerance relative to the spread. */
+    private static void checkMoments(float[] values, double mean, double variance) {
+        double sum = 0, sum2 = 0;
+        for (float v : values) {
+            sum += v;
+        }
+        double m = sum / values.length;
+        for (float v : values) {
+            sum2 += (v - m) * (v - m);
+        }
+        double var = sum2 / (values.length - 1);
+        assertEquals(mean, m, 6.0 * Math.sqrt(variance / values.length));
+        assertEquals(variance, var, variance * 0.03);
+    }
+
+    @Test
+    public void testContinuous () {
+        float[] out = new float[N];
+        Distributor.exponential(1L, out, 0, N);
+        for (float v : out) assertTrue(v >= 0f);
+        checkMoments(out, 1.0, 1.0);
+        for (double shape : new double[]{0.3, 1.0, 2.5, 40.0}) {
+            Distributor.gamma(2L, shape, out, 0, N);
+            checkMoments(out, shape, shape);
+        }
+        Distributor.beta(3L, 2.0, 5.0, out, 0, N);
+        for (float v : out) assertTrue(v >= 0f && v <= 1f);
+        checkMoments(out, 2.0 / 7.0, 10.0 / (49.0 * 8.0));
+        Distributor.triangular(4L, -1.0, 3.0, 0.0, out, 0, N);
+        for (float v : out) assertTrue(v >= -1f && v <= 3f);
+        checkMoments(out, 2.0 / 3.0, 13.0 / 18.0);
+        assertEquals(-1.0, Distributor.triangular(0L, -1.0, 3.0, 0.0), 0.0);
+        assertEquals(0.0, Distributor.triangular(0x4000000000000000L, -1.0, 3.0, 0.0), 1e-12);
+    }
+
+    @Test
+    public void testPoisson () {
+        int[] counts = new int[N];
+        float[] asFloat = new float[N];
+        for (double lambda : new double[]{0.5, 4.0, 12.0, 250.0}) {
+            Distributor.poisson(5L, lambda, counts, 0, N);
+            for (int i = 0; i < N; i++) {
+                assertTrue(counts[i] >= 0);
+                asFloat[i] = counts[i];
+            }
+            checkMoments(asFloat, lambda, lambda);
+        }
+        // P(0) for lambda 4 is e^-4
+        Distributor.poisson(6L, 4.0, counts, 0, N);
+        int zeros = 0;
+        for (int c : counts) if (c == 0) zeros++;
+        assertEquals(Math.exp(-4.0), zeros / (double) N, 0.002);
+    }
+
+    @Test
+    public void testLogGamma () {
+        assertEquals(0.0, Distributor.logGamma(1.0), 0.0);
+        assertEquals(Math.log(6.0), Distributor.logGamma(4.0), 1e-12);
+        assertEquals(Math.log(Math.sqrt(Math.PI)), Distributor.logGamma(0.5), 1e-12);
+        assertEquals(857.9336698258575, Distributor.logGamma(200.0), 1e-9);
+    }
+
+    /** Complementary error function, from Numerical Recipes; fractional error below 1.2e-7 everywhere. */
+    private static double erfc(double x) {
+        double z = Math.abs(x), t = 1.0 / (1.0 + 0.5 * z);
+        double r = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0 ? r : 2.0 - r;
+    }
+
+    private static double normalCdf(double x) {
+        return 0.5 * erfc(-x / Math.sqrt(2.0));
+    }
+
+    /**
+     * The Kolmogorov-Smirnov statistic: the largest gap between the sample's empirical CDF and the expected CDF, where
+     * kind 0 is the standard normal and kind 1 is the exponential with rate 1. Sorts values.
+     */
+    private static double ks(float[] values, int kind) {
+        Arrays.sort(values);
+        double d = 0.0;
+        for (int i = 0; i < values.length; i++) {
+            double cdf = kind == 0 ? normalCdf(values[i]) : 1.0 - Math.exp(-values[i]);
+            d = Math.max(d, Math.max(cdf - i / (double) values.length, (i + 1) / (double) values.length - cdf));
+        }
+        return d;
+    }
+
+    @Test
+    public void testNormalF () {
+        float[] out = new float[N];
+        Distributor.normalF(7L, out, 0, N);
+        checkMoments(out, 0.0, 1.0);
+        double m3 = 0, m4 = 0;
+        for (float v : out) {
+            m3 += v * v * v;
+            m4 += v * v * v * v;
+        }
+        // skewness 0 and kurtosis 3, with standard errors of about sqrt(6/N) and sqrt(24/N)
+        assertEquals(0.0, m3 / N, 0.03);
+        assertEquals(3.0, m4 / N, 0.06);
+        // 1.95 / sqrt(N) is the KS critical value for a significance level of 0.001
+        double critical = 1.95 / Math.sqrt(N);
+        assertTrue(ks(out, 0) < critical);
+        for (int i = 0; i < N; i++) {
+            long state = (i + 1L) * 0x9E3779B97F4A7C15L;
+            state = (state ^ state >>> 30) * 0xBF58476D1CE4E5B9L;
+            state = (state ^ state >>> 27) * 0x94D049BB133111EBL;
+            out[i] = (float) Distributor.normal(state ^ state >>> 31);
+        }
+        assertTrue(ks(out, 0) < critical);
+        Distributor.exponential(8L, out, 0, N);
+        assertTrue(ks(out, 1) < critical);
+        // the tails are still reached, and nothing is out of range
+        Distributor.normalF(9L, out, 0, N);
+        int beyond3 = 0;
+        for (float v : out) {
+            assertTrue(Math.abs(v) < 10f);
+            if (Math.abs(v) > 3f) beyond3++;
+        }
+        assertEquals(2.0 * normalCdf(-3.0), beyond3 / (double) N, 0.0006);
+    }
+}
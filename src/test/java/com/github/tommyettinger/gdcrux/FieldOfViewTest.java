@@ -0,0 +1,96 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FieldOfViewTest {
+    @Test
+    public void testOpenMap () {
+        int w = 31, h = 25;
+        boolean[] open = new boolean[w * h];
+        Arrays.fill(open, true);
+        FieldOfView2 fov = new FieldOfView2(w, h);
+        BitRegion2 seen = new BitRegion2(w, h);
+        for (FieldOfView2.Metric metric : FieldOfView2.Metric.values()) {
+            fov.metric = metric;
+            fov.calculate(open, 15, 12, 7.5f, seen);
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    assertEquals(metric.distance(Math.abs(x - 15), Math.abs(y - 12)) <= 7.5f, seen.contains(x, y));
+                }
+            }
+        }
+        float[] light = fov.calculateLight(open, new PointI2(15, 12), 4f, new float[w * h]);
+        assertEquals(1f, light[15 + 12 * w], 0f);
+        assertEquals(0.2f, light[19 + 12 * w], 1e-6f);
+        assertEquals(0f, light[20 + 12 * w], 0f);
+    }
+
+    @Test
+    public void testWalls () {
+        int w = 11, h = 11;
+        boolean[] map = new boolean[w * h];
+        Arrays.fill(map, true);
+        map[6 + 5 * w] = false;
+        FieldOfView2 fov = new FieldOfView2(w, h);
+        BitRegion2 seen = fov.calculate(map, new PointI2(5, 5), 20f, new BitRegion2(w, h));
+        assertTrue(seen.contains(6, 5));
+        assertFalse(seen.contains(7, 5));
+        assertFalse(seen.contains(10, 5));
+        assertTrue(seen.contains(7, 6));
+        assertTrue(seen.contains(5, 0));
+
+        // a closed room: nothing outside it is visible, but its walls are
+        Arrays.fill(map, true);
+        for (int i = 2; i <= 8; i++) {
+            map[i + 2 * w] = map[i + 8 * w] = map[2 + i * w] = map[8 + i * w] = false;
+        }
+        fov.calculate(map, 5, 5, 20f, seen);
+        assertEquals(49, seen.count());
+        assertTrue(seen.contains(2, 2));
+        assertFalse(seen.contains(1, 5));
+    }
+
+    @Test
+    public void testSymmetryAndBatch () {
+        int w = 24, h = 20;
+        boolean[] map = new boolean[w * h];
+        Random random = new Random(1234);
+        for (int i = 0; i < map.length; i++) {
+            map[i] = random.nextInt(4) != 0;
+        }
+        FieldOfView2 fov = new FieldOfView2(w, h);
+        BitRegion2[] all = new BitRegion2[w * h];
+        IntArray origins = new IntArray();
+        for (int i = 0; i < map.length; i++) {
+            all[i] = new BitRegion2(w, h);
+            origins.add(i);
+        }
+        fov.calculate(map, origins, 9f, all);
+        for (int a = 0; a < map.length; a++) {
+            if (!map[a]) continue;
+            for (int b = 0; b < map.length; b++) {
+                if (!map[b]) continue;
+                assertEquals(all[a].contains(b % w, b / w), all[b].contains(a % w, a / w));
+            }
+        }
+        IntArray few = IntArray.with(3 + 4 * w, 20 + 15 * w, 10 + 10 * w);
+        BitRegion2 union = fov.calculateUnion(map, few, 6f, new BitRegion2(w, h));
+        BitRegion2 expected = new BitRegion2(w, h);
+        float[] light = fov.calculateLight(map, few, 6f, new float[w * h]);
+        for (int i = 0; i < few.size; i++) {
+            expected.or(fov.calculate(map, few.get(i) % w, few.get(i) / w, 6f, new BitRegion2(w, h)));
+        }
+        assertEquals(expected, union);
+        for (int i = 0; i < light.length; i++) {
+            assertEquals(union.contains(i % w, i / w), light[i] > 0f);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FlowFieldTest {
+    @Test
+    public void testIncrementalMatchesFull () {
+        Random random = new Random(42);
+        int w = 48, h = 32;
+        float[] costs = new float[w * h];
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = random.nextInt(6) == 0 ? Float.POSITIVE_INFINITY : 1f + random.nextInt(4);
+        }
+        IntArray goals = new IntArray();
+        goals.add(3 + 5 * w);
+        goals.add(40 + 20 * w);
+        for (boolean diagonal : new boolean[]{false, true}) {
+            FlowField2 field = new FlowField2(w, h), fresh = new FlowField2(w, h);
+            field.diagonal = fresh.diagonal = diagonal;
+            field.build(costs, goals);
+            for (int round = 0; round < 40; round++) {
+                int x0 = random.nextInt(w - 4), y0 = random.nextInt(h - 4), x1 = x0 + random.nextInt(4), y1 = y0 + random.nextInt(4);
+                for (int y = y0; y <= y1; y++) {
+                    for (int x = x0; x <= x1; x++) {
+                        if (goals.contains(x + y * w)) continue;
+                        costs[x + y * w] = random.nextInt(3) == 0 ? Float.POSITIVE_INFINITY : 1f + random.nextInt(4);
+                    }
+                }
+                field.update(x0, y0, x1, y1);
+                fresh.build(costs, goals);
+                for (int y = 0; y < h; y++) {
+                    for (int x = 0; x < w; x++) {
+                        assertEquals(fresh.integration(x, y), field.integration(x, y), 0.001f);
+                        assertEquals(fresh.hasDirection(x, y), field.hasDirection(x, y));
+                    }
+                }
+            }
+            // following the directions from any cell reaches a goal in the expected number of steps or fewer
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    if (!field.hasDirection(x, y)) continue;
+                    int cx = x, cy = y, steps = 0;
+                    while (field.hasDirection(cx, cy) && steps <= w * h) {
+                        int nx = cx + field.directionX(cx, cy), ny = cy + field.directionY(cx, cy);
+                        assertTrue(field.integration(nx, ny) < field.integration(cx, cy));
+                        cx = nx;
+                        cy = ny;
+                        steps++;
+                    }
+                    assertEquals(0f, field.integration(cx, cy), 0f);
+                }
+            }
+        }
+    }
+}
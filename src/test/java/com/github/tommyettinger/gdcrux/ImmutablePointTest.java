@@ -0,0 +1,85 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.ObjectIntMap;
+import org.junit.Test;
+
+import static com.github.tommyettinger.gdcrux.PointMaker.pt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ImmutablePointTest {
+    @Test
+    public void testConversions () {
+        PointF3 f3 = pt(1.5f, -2f, 3f);
+        ImmutablePointF3 i = ImmutablePointF3.of(f3);
+        assertEquals(f3, i.toMutable());
+        assertEquals(f3.hashCode(), i.hashCode());
+        assertSame(i, ImmutablePointF3.of(i));
+        assertEquals(f3, new PointF3(i));
+        assertEquals(f3, i.toMutable(new PointF3()));
+
+        PointI6 p6 = pt(1, 2, 3, 4, 5, 6);
+        ImmutablePointI6 i6 = ImmutablePointI6.of(p6);
+        assertEquals(p6, i6.toMutable());
+        assertEquals(p6.hashCode(), i6.hashCode());
+        assertEquals(new ImmutablePointI2(2, 3), new ImmutablePointI2(1.6f, 2.5f));
+        assertEquals(pt(7, 8, 9, 10, 11), new ImmutablePointI5(pt(7f, 8f, 9f, 10f, 11f)).toMutable());
+        assertEquals(pt(1f, 2f, 3f, 4f, 5f, 6f), ImmutablePointF6.of(p6).toMutable());
+        assertEquals(pt(1f, 2f, 3f, 4f), ImmutablePointF4.of(pt(1f, 2f, 3f, 4f)).toMutable());
+        assertEquals(pt(1f, 2f, 3f, 4f, 5f), ImmutablePointF5.of(pt(1f, 2f, 3f, 4f, 5f)).toMutable());
+        assertEquals(pt(1, 2, 3, 4), ImmutablePointI4.of(pt(1, 2, 3, 4)).toMutable());
+        assertEquals(pt(1, 2, 3), ImmutablePointI3.of(pt(1, 2, 3)).toMutable());
+        assertEquals(pt(1f, 2f), ImmutablePointF2.of(pt(1f, 2f)).toMutable());
+    }
+
+    @Test
+    public void testUnchanging () {
+        ImmutablePointF2 a = new ImmutablePointF2(1f, 2f), b = new ImmutablePointF2(3f, 5f);
+        assertFalse(a.mutable());
+        assertSame(a, a.cpy());
+        assertEquals(new ImmutablePointF2(4f, 7f), a.add(b));
+        assertEquals(new ImmutablePointF2(-2f, -3f), a.sub(b));
+        assertEquals(new ImmutablePointF2(3f, 10f), a.scl(b));
+        assertEquals(new ImmutablePointF2(2f, 4f), a.times(2f));
+        assertEquals(new ImmutablePointF2(9f, 2f), a.x(9f));
+        assertSame(ImmutablePointF2.ZERO, a.setZero());
+        assertEquals(13f, a.dst2(b), 0f);
+        assertEquals(5f, a.len2(), 0f);
+        assertEquals(new ImmutablePointF2(1f, 2f), a);
+        assertEquals("(1.0,2.0)", a.toString());
+
+        ImmutablePointI4 c = new ImmutablePointI4(1, 2, 3, 4);
+        assertEquals(new ImmutablePointI4(1, 2, 7, 4), c.zi(7));
+        assertEquals(new ImmutablePointI4(2, 3, 4, 5), c.plus(1f));
+        assertEquals(new ImmutablePointI4(1, 2, 3, 4), c);
+        assertNotEquals(c, c.toMutable());
+        assertEquals(30f, c.len2(), 0f);
+    }
+
+    @Test
+    public void testAsKeys () {
+        ObjectIntMap<ImmutablePointI3> map = new ObjectIntMap<>();
+        for (int x = -10; x < 10; x++) {
+            for (int y = -10; y < 10; y++) {
+                for (int z = -10; z < 10; z++) {
+                    map.put(new ImmutablePointI3(x, y, z), x * 400 + y * 20 + z);
+                }
+            }
+        }
+        assertEquals(8000, map.size);
+        PointI3 probe = new PointI3();
+        for (int x = -10; x < 10; x++) {
+            for (int y = -10; y < 10; y++) {
+                for (int z = -10; z < 10; z++) {
+                    assertEquals(x * 400 + y * 20 + z, map.get(ImmutablePointI3.of(probe.set(x, y, z)), -1));
+                }
+            }
+        }
+        assertTrue(map.containsKey(ImmutablePointI3.ZERO));
+        assertFalse(map.containsKey(new ImmutablePointI3(10, 0, 0)));
+        assertNotEquals(new ImmutablePointF2(0f, 0f), new ImmutablePointF2(-0f, 0f));
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JumpPointSearchTest {
+    private static void checkPath(IntArray path, boolean[] passable, int w, float cost) {
+        float length = 0f;
+        for (int i = 1; i < path.size; i++) {
+            int a = path.get(i - 1), b = path.get(i);
+            int dx = b % w - a % w, dy = b / w - a / w;
+            assertTrue(Math.abs(dx) <= 1 && Math.abs(dy) <= 1 && (dx | dy) != 0);
+            assertTrue(passable[b]);
+            if (dx != 0 && dy != 0) {
+                assertTrue(passable[a + dx] && passable[a + dy * w]);
+                length += 1.4142135f;
+            } else {
+                length += 1f;
+            }
+        }
+        assertEquals(cost, length, 0.001f);
+    }
+
+    @Test
+    public void testMatchesAStar () {
+        Random random = new Random(99);
+        int w = 64, h = 48;
+        boolean[] passable = new boolean[w * h];
+        float[] costs = new float[w * h];
+        for (int i = 0; i < passable.length; i++) {
+            passable[i] = random.nextInt(4) != 0;
+            costs[i] = passable[i] ? 1f : Float.POSITIVE_INFINITY;
+        }
+        JumpPointSearch2 jps = new JumpPointSearch2(w, h).setMap(passable);
+        GridPathfinder2 astar = new GridPathfinder2(w, h);
+        IntArray path = new IntArray(), other = new IntArray();
+        for (int round = 0; round < 30; round++) {
+            for (int i = 0; i < 40; i++) {
+                int sx = random.nextInt(w), sy = random.nextInt(h), gx = random.nextInt(w), gy = random.nextInt(h);
+                passable[sx + sy * w] = true;
+                costs[sx + sy * w] = 1f;
+                jps.update(sx, sy, sx, sy);
+                float expected = astar.findPath(costs, sx, sy, gx, gy, other);
+                float actual = jps.findPath(sx, sy, gx, gy, path);
+                assertEquals(expected, actual, 0.001f);
+                if (path.notEmpty()) {
+                    assertEquals(sx + sy * w, path.first());
+                    assertEquals(gx + gy * w, path.peek());
+                    checkPath(path, passable, w, actual);
+                }
+            }
+            // edit a small area, then check the updated distances against a fresh precomputation
+            int x0 = random.nextInt(w - 3), y0 = random.nextInt(h - 3);
+            for (int y = y0; y < y0 + 3; y++) {
+                for (int x = x0; x < x0 + 3; x++) {
+                    passable[x + y * w] = random.nextBoolean();
+                    costs[x + y * w] = passable[x + y * w] ? 1f : Float.POSITIVE_INFINITY;
+                }
+            }
+            jps.update(x0, y0, x0 + 2, y0 + 2);
+            JumpPointSearch2 fresh = new JumpPointSearch2(w, h).setMap(passable);
+            for (int i = 0; i < 40; i++) {
+                int sx = random.nextInt(w), sy = random.nextInt(h), gx = random.nextInt(w), gy = random.nextInt(h);
+                assertEquals(fresh.findPath(sx, sy, gx, gy, other), jps.findPath(sx, sy, gx, gy, path), 0.001f);
+                assertEquals(other, path);
+            }
+        }
+        Array<PointI2> points = new Array<>();
+        passable[0] = true;
+        jps.update(0, 0, 0, 0);
+        float cost = jps.findPath(new PointI2(0, 0), new PointI2(0, 0), points);
+        assertEquals(0f, cost, 0f);
+        assertEquals(1, points.size);
+    }
+}
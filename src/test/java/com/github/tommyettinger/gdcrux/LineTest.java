@@ -0,0 +1,70 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.math.MathUtils;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LineTest {
+    @Test
+    public void testVector5WedgeMatchesIsOnLine () {
+        Random random = new Random(123L);
+        Vector5 a = new Vector5(), b = new Vector5();
+        for (int i = 0; i < 1000; i++) {
+            a.setToRandomDirection(random);
+            float s = random.nextFloat() * 4f - 2f;
+            b.set(a).scl(s);
+            assertTrue(a.isOnLineWedge(b));
+            assertEquals(s > 0f, a.isCollinearWedge(b, MathUtils.FLOAT_ROUNDING_ERROR));
+            b.setToRandomDirection(random);
+            assertEquals(a.isOnLine(b), a.isOnLineWedge(b));
+        }
+    }
+
+    @Test
+    public void testVector6WedgeMatchesIsOnLine () {
+        Random random = new Random(123L);
+        Vector6 a = new Vector6(), b = new Vector6();
+        for (int i = 0; i < 1000; i++) {
+            a.setToRandomDirection(random);
+            float s = random.nextFloat() * 4f - 2f;
+            b.set(a).scl(s);
+            assertTrue(a.isOnLineWedge(b));
+            assertEquals(s < 0f, a.isCollinearOppositeWedge(b, MathUtils.FLOAT_ROUNDING_ERROR));
+            b.setToRandomDirection(random);
+            assertEquals(a.isOnLine(b), a.isOnLineWedge(b));
+        }
+    }
+
+    @Test
+    public void testWedgeNearZero () {
+        // isOnLine() divides by a component of other; here other.x is 0 while this.x is small but not 0.
+        Vector6 a = new Vector6(1e-5f, 1f, 0f, 0f, 0f, 0f);
+        Vector6 b = new Vector6(0f, 1f, 0f, 0f, 0f, 0f);
+        assertTrue(a.isOnLineWedge(b));
+        assertFalse(new Vector6(0f, 0f, 0f, 0f, 1f, 1f).isOnLineWedge(new Vector6(0f, 0f, 0f, 0f, 1f, -1f)));
+    }
+
+    @Test
+    public void testBatch () {
+        Vector5 a = new Vector5(1f, 2f, 3f, 4f, 5f);
+        Vector5[] others = {
+                new Vector5(2f, 4f, 6f, 8f, 10f),
+                new Vector5(-1f, -2f, -3f, -4f, -5f),
+                new Vector5(5f, 4f, 3f, 2f, 1f),
+                new Vector5(-2f, 1f, 0f, 0f, 0f),
+        };
+        boolean[] results = new boolean[others.length];
+        assertEquals(2, a.isOnLineWedge(others, results, 0.0001f));
+        assertTrue(results[0] && results[1] && !results[2] && !results[3]);
+        assertEquals(1, a.isCollinearWedge(others, results, 0.0001f));
+        assertTrue(results[0] && !results[1]);
+        assertEquals(1, a.isPerpendicular(others, results, 0.0001f));
+        assertTrue(results[3]);
+        assertEquals(2, a.hasSameDirection(others, results));
+    }
+}
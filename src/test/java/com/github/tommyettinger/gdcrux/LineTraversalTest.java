@@ -0,0 +1,90 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LineTraversalTest {
+    @Test
+    public void testGridLine () {
+        Random random = new Random(7);
+        GridLine line = new GridLine();
+        IntArray cells = new IntArray(), fromCursor = new IntArray();
+        PointI2 a = new PointI2(), b = new PointI2(), out = new PointI2(), prev = new PointI2();
+        for (int i = 0; i < 200; i++) {
+            a.set(random.nextInt(30) - 5, random.nextInt(30) - 5);
+            b.set(random.nextInt(30) - 5, random.nextInt(30) - 5);
+            line.reset(PointMaker.pair(a.x, a.y, b.x, b.y));
+            assertEquals(Math.max(Math.abs(a.x - b.x), Math.abs(a.y - b.y)) + 1, line.length());
+            fromCursor.clear();
+            prev.set(a);
+            assertEquals(a, line.next(out));
+            if (out.x >= 0 && out.y >= 0 && out.x < 20 && out.y < 20) fromCursor.add(out.x + 20 * out.y);
+            while (line.hasNext()) {
+                line.next(out);
+                assertTrue(Math.max(Math.abs(out.x - prev.x), Math.abs(out.y - prev.y)) == 1);
+                prev.set(out);
+                if (out.x >= 0 && out.y >= 0 && out.x < 20 && out.y < 20) fromCursor.add(out.x + 20 * out.y);
+            }
+            assertEquals(b, out);
+            cells.clear();
+            GridLine.rasterize(PointMaker.pair(a.x, a.y, b.x, b.y), 20, 20, cells);
+            assertEquals(fromCursor, cells);
+        }
+        PointI6 start = new PointI6(0, 1, 2, 3, 4, 5), end = new PointI6(9, -3, 2, 7, 0, 1), p6 = new PointI6();
+        line.reset(start, end);
+        assertEquals(10, line.length());
+        while (line.hasNext()) line.next(p6);
+        assertEquals(end, p6);
+        int inside = 0;
+        line.reset(start, end);
+        while (line.hasNext()) {
+            line.next(p6);
+            if (p6.y >= 0) inside++;
+        }
+        cells.clear();
+        assertEquals(inside, line.reset(start, end).rasterize(new int[]{10, 10, 10, 10, 10, 10}, cells));
+        assertEquals(0 + 10 * (1 + 10 * (2 + 10 * (3 + 10 * (4 + 10 * 5)))), cells.first());
+
+        PointI3 s3 = new PointI3(0, 0, 0), e3 = new PointI3(4, 7, 2), p3 = new PointI3();
+        cells.clear();
+        GridLine.rasterize(PointMaker.pair(0, 0, 0, 4, 7, 2), 8, 8, 8, cells);
+        line.reset(s3, e3);
+        for (int i = 0; i < cells.size; i++) {
+            line.next(p3);
+            assertEquals(p3.x + 8 * (p3.y + 8 * p3.z), cells.get(i));
+        }
+        assertFalse(line.hasNext());
+    }
+
+    @Test
+    public void testVoxelTraversal () {
+        VoxelTraversal traversal = new VoxelTraversal();
+        PointI3 out = new PointI3(), prev = new PointI3();
+        traversal.reset(new PointF3(0.5f, 0.5f, 0.5f), new PointF3(3.5f, 2.25f, -0.5f));
+        int count = 0;
+        while (traversal.hasNext()) {
+            traversal.next(out);
+            if (count++ > 0) assertEquals(1f, out.dst2(prev), 0f);
+            prev.set(out);
+        }
+        assertEquals(7, count);
+        assertEquals(new PointI3(3, 2, -1), out);
+
+        // a ray starting outside the grid starts where it enters
+        IntArray cells = new IntArray();
+        assertEquals(4, traversal.rasterize(new PointF3(-2.5f, 1.5f, 1.5f), new PointF3(10f, 1.5f, 1.5f), 4, 4, 4, cells));
+        assertEquals(4 * (1 + 4), cells.first());
+        traversal.reset(new PointF3(-2.5f, 1.5f, 1.5f), new PointF3(1f, 0f, 0f), 100f);
+        traversal.next(out);
+        assertEquals(2.5f, traversal.entryDistance(), 0.0001f);
+        assertEquals(new PointI3(0, 1, 1), out);
+        traversal.reset(new PointF3(-2.5f, 1.5f, 1.5f), new PointF3(0f, 1f, 0f), 100f);
+        assertFalse(traversal.hasNext());
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.tommyettinger.gdcrux;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LowDiscrepancyTest {
+    @Test
+    public void testKnownValues () {
+        assertEquals(0f, LowDiscrepancy.sobol(0, 0), 0f);
+        assertEquals(0.5f, LowDiscrepancy.sobol(1, 0), 0f);
+        assertEquals(0.75f, LowDiscrepancy.sobol(2, 0), 0f);
+        assertEquals(0.25f, LowDiscrepancy.sobol(3, 0), 0f);
+        assertEquals(0.25f, LowDiscrepancy.sobol(2, 1), 0f);
+        assertEquals(0.5f, LowDiscrepancy.halton(1, 0), 0f);
+        assertEquals(0.25f, LowDiscrepancy.halton(2, 0), 0f);
+        assertEquals(1f / 3f, LowDiscrepancy.halton(1, 1), 1e-7f);
+        assertEquals(1f / 9f, LowDiscrepancy.halton(3, 1), 1e-7f);
+        assertEquals(0.5f, LowDiscrepancy.rd(0, 3, 2), 0f);
+        // the first axis of R2 steps by 1/phi2, where phi2 is the plastic number
+        assertEquals((0.5 + 1.0 / 1.32471795724474602596) % 1.0, LowDiscrepancy.rd(1, 2, 0), 1e-6);
+    }
+
+    @Test
+    public void testBulkMatchesSingle () {
+        for (int rank = 2; rank <= 6; rank++) {
+            float[][] rd = new float[rank][40], halton = new float[rank][40], sobol = new float[rank][40];
+            LowDiscrepancy.rd(100L, 5, 30, rd);
+            LowDiscrepancy.halton(100L, 5, 30, halton);
+            LowDiscrepancy.sobol(100, 5, 30, sobol);
+            PointF6[] points = new PointF6[40];
+            for (int i = 0; i < 40; i++) points[i] = new PointF6();
+            LowDiscrepancy.sobol(100, points, 5, 30);
+            for (int i = 0; i < 30; i++) {
+                for (int axis = 0; axis < rank; axis++) {
+                    assertEquals(LowDiscrepancy.rd(100L + i, rank, axis), rd[axis][i + 5], 0f);
+                    assertEquals(LowDiscrepancy.halton(100L + i, axis), halton[axis][i + 5], 0f);
+                    assertEquals(LowDiscrepancy.sobol(100 + i, axis), sobol[axis][i + 5], 0f);
+                }
+                for (int axis = 0; axis < 6; axis++) {
+                    assertEquals(LowDiscrepancy.sobol(100 + i, axis), points[i + 5].get(axis), 0f);
+                }
+            }
+        }
+        PointF3[] points = {new PointF3(), new PointF3()};
+        LowDiscrepancy.rd(7L, points, 0, 2);
+        assertEquals(LowDiscrepancy.rd(8L, 3, 2), points[1].z, 0f);
+        LowDiscrepancy.halton(7L, points, 0, 2);
+        assertEquals(LowDiscrepancy.halton(8L, 2), points[1].z, 0f);
+    }
+
+    @Test
+    public void testEvenCoverage () {
+        // the first 256 Sobol points put exactly one point in each cell of a 16x16 grid
+        float[] x = new float[256], y = new float[256];
+        LowDiscrepancy.sobol(0, 0, 256, x, y);
+        boolean[] hit = new boolean[256];
+        for (int i = 0; i < 256; i++) {
+            int cell = (int) (x[i] * 16) + 16 * (int) (y[i] * 16);
+            assertTrue(!hit[cell]);
+            hit[cell] = true;
+        }
+        // every sequence puts close to a quarter of its points in one quarter of the square
+        for (int kind = 0; kind < 3; kind++) {
+            float[] a = new float[1000], b = new float[1000];
+            if (kind == 0) LowDiscrepancy.rd(0L, 0, 1000, a, b);
+            else if (kind == 1) LowDiscrepancy.halton(1L, 0, 1000, a, b);
+            else LowDiscrepancy.sobol(1, 0, 1000, a, b);
+            int inside = 0;
+            for (int i = 0; i < 1000; i++) {
+                if (a[i] < 0.5f && b[i] < 0.5f) inside++;
+            }
+            assertEquals(250, inside, 6);
+        }
+        float[] dx = new float[500], dy = new float[500], dz = new float[500];
+        // Sobol point 1 is 0.5 on every axis, which has no direction, so start at 2
+        LowDiscrepancy.sobol(2, 0, 500, dx, dy, dz);
+        LowDiscrepancy.directions(0, 500, dx, dy, dz);
+        float sumZ = 0f;
+        for (int i = 0; i < 500; i++) {
+            assertEquals(1f, dx[i] * dx[i] + dy[i] * dy[i] + dz[i] * dz[i], 1e-5f);
+            sumZ += dz[i];
+        }
+        assertEquals(0f, sumZ / 500f, 0.02f);
+
+        // the points the gaussian() and directions() docs say to skip
+        assertEquals(0f, LowDiscrepancy.sobol(0, 1), 0f);
+        assertEquals(0f, LowDiscrepancy.halton(0L, 1), 0f);
+        assertEquals(0.5f, LowDiscrepancy.rd(0L, 3, 2), 0f);
+        assertEquals(0.5f, LowDiscrepancy.sobol(1, 2), 0f);
+        float[] gx = new float[500];
+        LowDiscrepancy.halton(1L, 0, 500, gx);
+        LowDiscrepancy.gaussian(0, 500, gx);
+        for (int i = 0; i < 500; i++) {
+            assertTrue(Math.abs(gx[i]) < 4f);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.tommyettinger.gdcrux;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NeighborhoodTest {
+    @Test
+    public void testCounts () {
+        int[] moore = {0, 0, 8, 26, 80, 242, 728};
+        for (int rank = 2; rank <= 6; rank++) {
+            assertEquals(2 * rank, Neighborhood.count(rank, false));
+            assertEquals(moore[rank], Neighborhood.count(rank, true));
+        }
+    }
+
+    @Test
+    public void testNeighbors () {
+        Neighborhood hood = new Neighborhood(3, true);
+        PointI3 center = new PointI3(5, -7, 100), out = new PointI3();
+        HashSet<PointI3> seen = new HashSet<>();
+        hood.reset(center);
+        while (hood.hasNext()) {
+            hood.next(out);
+            assertEquals(1f, Math.max(Math.abs(out.x - center.x), Math.max(Math.abs(out.y - center.y), Math.abs(out.z - center.z))), 0f);
+            assertTrue(seen.add(new PointI3(out)));
+        }
+        assertEquals(26, seen.size());
+
+        // at a corner of a clipped grid, only 7 Moore neighbors are in bounds
+        hood.clip(new int[]{4, 4, 4}).reset(new PointI3(0, 0, 0));
+        int count = 0;
+        while (hood.hasNext()) {
+            hood.next(out);
+            assertTrue(out.x >= 0 && out.y >= 0 && out.z >= 0);
+            count++;
+        }
+        assertEquals(7, count);
+
+        Neighborhood vn = new Neighborhood(6, false).clip(new PointI6(0, 0, 0, 0, 0, 0), new PointI6(9, 9, 9, 9, 9, 9));
+        vn.reset(Neighborhood.pack(new PointI6(9, 0, 3, 3, 3, 3)));
+        count = 0;
+        PointI6 p6 = new PointI6();
+        while (vn.hasNext()) {
+            Neighborhood.unpack(vn.nextPacked(), p6);
+            assertEquals(1f, p6.dst2(new PointI6(9, 0, 3, 3, 3, 3)), 0f);
+            count++;
+        }
+        assertEquals(10, count);
+        assertFalse(vn.hasNext());
+    }
+
+    @Test
+    public void testPacking () {
+        PointI5 p = new PointI5(-2048, 2047, -1, 0, 1000), q = new PointI5();
+        assertEquals(p, Neighborhood.unpack(Neighborhood.pack(p), q));
+        PointI2 a = new PointI2(Integer.MIN_VALUE, -1), b = new PointI2();
+        assertEquals(a, Neighborhood.unpack(Neighborhood.pack(a), b));
+        PointI3 c = new PointI3(-1048576, 1048575, -5), d = new PointI3();
+        assertEquals(c, Neighborhood.unpack(Neighborhood.pack(c), d));
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.math.Matrix4;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelBulkTest {
+    @Test
+    public void testMatchesSequential () {
+        Random random = new Random(1234L);
+        int n = 300001;
+        float[] x = new float[n], y = new float[n], z = new float[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextFloat() * 1000f - 500f;
+            y[i] = (float) random.nextGaussian();
+            z[i] = random.nextFloat();
+        }
+        ParallelBulk par = new ParallelBulk(1000);
+
+        assertEquals(BulkMath.sum(x, 3, n - 3), par.sum(x, 3, n - 3), 0.0);
+        assertEquals(BulkMath.centroid(x, y, z, 0, n, new PointF3()), par.centroid(x, y, z, 0, n, new PointF3()));
+
+        PointF3 minS = new PointF3(), maxS = new PointF3(), minP = new PointF3(), maxP = new PointF3();
+        BulkMath.bounds(x, y, z, 0, n, minS, maxS);
+        par.bounds(x, y, z, 0, n, minP, maxP);
+        assertEquals(minS, minP);
+        assertEquals(maxS, maxP);
+
+        Matrix4 m = new Matrix4().setFromEulerAngles(10f, 20f, 30f).translate(1f, 2f, 3f);
+        float[] sx = x.clone(), sy = y.clone(), sz = z.clone();
+        BulkMath.mul(m, sx, sy, sz, 0, n);
+        par.mul(m, x, y, z, 0, n);
+        assertArrayEquals(sx, x, 0f);
+        assertArrayEquals(sy, y, 0f);
+        assertArrayEquals(sz, z, 0f);
+
+        int[] qx = new int[n], qy = new int[n], qz = new int[n], px = new int[n];
+        BulkMath.quantize(x, 10f, qx, 0, n);
+        par.quantize(x, 10f, px, 0, n);
+        assertArrayEquals(qx, px);
+        par.quantize(y, 100f, qy, 0, n);
+        par.quantize(z, 1000f, qz, 0, n);
+
+        long[] keysS = new long[n], keysP = new long[n];
+        int[] orderS = new int[n], orderP = new int[n];
+        BulkMath.morton(qx, qy, qz, keysS, 0, n);
+        BulkMath.sortByKey(keysS, orderS, 0, n);
+        par.sortByMorton(qx, qy, qz, keysP, orderP, 0, n);
+        assertArrayEquals(keysS, keysP);
+        assertArrayEquals(orderS, orderP);
+        for (int i = 1; i < n; i++) {
+            assertTrue(Long.compareUnsigned(keysS[orderS[i - 1]], keysS[orderS[i]]) <= 0);
+        }
+    }
+
+    @Test
+    public void testRadixSortMatchesSequential () {
+        Random random = new Random(5678L);
+        int n = 200003;
+        int[] x = new int[n], y = new int[n], z = new int[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextInt(2000) - 1000;
+            y[i] = random.nextInt(2000) - 1000;
+            z[i] = random.nextInt(2000) - 1000;
+        }
+        int[] px = x.clone(), py = y.clone(), pz = z.clone();
+        long[] keysS = new long[n], keysP = new long[n];
+        int[] orderS = new int[n], orderP = new int[n];
+        BulkMath.morton(x, y, z, keysS, 0, n);
+        BulkMath.radixSort(keysS, orderS, 0, n, x, y, z);
+        ParallelBulk par = new ParallelBulk(5000);
+        par.morton(px, py, pz, keysP, 0, n);
+        par.radixSort(keysP, orderP, 0, n, px, py, pz);
+        assertArrayEquals(keysS, keysP);
+        assertArrayEquals(orderS, orderP);
+        assertArrayEquals(x, px);
+        assertArrayEquals(y, py);
+        assertArrayEquals(z, pz);
+        for (int i = 0; i < n; i++) {
+            assertEquals(keysS[i], BulkMath.morton(x[i], y[i], z[i]));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PathfinderTest {
+    @Test
+    public void testHeap () {
+        IndexedFloatHeap heap = new IndexedFloatHeap(100);
+        Random random = new Random(123);
+        float[] priorities = new float[100];
+        for (int i = 0; i < 100; i++) {
+            heap.add(i, priorities[i] = random.nextFloat() + 1f);
+        }
+        heap.add(50, 0.5f);
+        priorities[50] = 0.5f;
+        assertEquals(50, heap.peek());
+        float last = Float.NEGATIVE_INFINITY;
+        while (!heap.isEmpty()) {
+            float p = heap.peekPriority();
+            int node = heap.pop();
+            assertEquals(priorities[node], p, 0f);
+            assertTrue(p >= last);
+            last = p;
+        }
+    }
+
+    @Test
+    public void testGrid2 () {
+        Random random = new Random(1234);
+        int w = 40, h = 30;
+        float[] costs = new float[w * h];
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = random.nextInt(5) == 0 ? Float.POSITIVE_INFINITY : 1f + random.nextInt(3);
+        }
+        costs[0] = 1f;
+        GridPathfinder2 finder = new GridPathfinder2(w, h);
+        float[] map = new float[w * h];
+        IntArray path = new IntArray();
+        Array<PointI2> points = new Array<>();
+        for (boolean diagonal : new boolean[]{false, true}) {
+            finder.diagonal = diagonal;
+            IntArray sources = new IntArray();
+            sources.add(0);
+            finder.distanceMap(costs, sources, Float.POSITIVE_INFINITY, map);
+            for (int i = 0; i < 200; i++) {
+                int goal = random.nextInt(w * h);
+                float aStar = finder.findPath(costs, new PointI2(0, 0), finder.point(goal, new PointI2()), points);
+                float dijkstra = finder.findPathDijkstra(costs, 0, 0, goal % w, goal / w, path);
+                assertEquals(map[goal], aStar, 0.001f);
+                assertEquals(map[goal], dijkstra, 0.001f);
+                assertEquals(path.isEmpty(), points.isEmpty());
+                if (path.notEmpty()) {
+                    assertEquals(0, path.first());
+                    assertEquals(goal, path.peek());
+                    for (int j = 1; j < points.size; j++) {
+                        assertTrue(points.get(j).dst2(points.get(j - 1)) <= (diagonal ? 2 : 1));
+                    }
+                    for (int j = 1; j < path.size; j++) {
+                        assertTrue(Math.abs(path.get(j) % w - path.get(j - 1) % w) <= 1);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGrid3 () {
+        Random random = new Random(12345);
+        int w = 12, h = 10, d = 8;
+        float[] costs = new float[w * h * d];
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = random.nextInt(4) == 0 ? Float.POSITIVE_INFINITY : 1f;
+        }
+        GridPathfinder3 finder = new GridPathfinder3(w, h, d);
+        PointI3 start = new PointI3(0, 0, 0), goal = new PointI3();
+        costs[0] = 1f;
+        float[] map = new float[costs.length];
+        Array<PointI3> sources = new Array<>();
+        sources.add(start);
+        Array<PointI3> path = new Array<>();
+        for (boolean diagonal : new boolean[]{false, true}) {
+            finder.diagonal = diagonal;
+            finder.distanceMap(costs, sources, Float.POSITIVE_INFINITY, map);
+            for (int i = 0; i < 100; i++) {
+                finder.point(random.nextInt(costs.length), goal);
+                assertEquals(map[finder.index(goal.x, goal.y, goal.z)], finder.findPath(costs, start, goal, path), 0.001f);
+                if (path.notEmpty()) {
+                    assertEquals(goal, path.peek());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.Array;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PointPoolTest {
+    @Test
+    public void testPool () {
+        PointPool<PointF3> pool = new PointPool<PointF3>() {
+            @Override
+            protected PointF3 newObject() {
+                return new PointF3();
+            }
+        };
+        PointF3 a = pool.obtain(new PointF3(1f, 2f, 3f));
+        assertEquals(new PointF3(1f, 2f, 3f), a);
+        PointF3 b = pool.obtain();
+        assertEquals(2, pool.outstanding);
+        assertEquals(2L, pool.misses);
+        pool.free(a);
+        pool.free(b);
+        assertEquals(0, pool.outstanding);
+        PointF3 c = pool.obtain();
+        assertTrue(c == a || c == b);
+        assertTrue(c.len2() == 0f);
+        assertEquals(3L, pool.borrows);
+        assertEquals(2L, pool.misses);
+        assertEquals(2, pool.highWater);
+
+        Array<PointF3> many = new Array<>();
+        for (int i = 0; i < 5; i++) {
+            many.add(pool.obtain());
+        }
+        assertEquals(6, pool.highWater);
+        // nulls are skipped by freeAll(), and must not count as freed
+        many.add(null);
+        many.insert(0, null);
+        pool.freeAll(many);
+        assertEquals(1, pool.outstanding);
+        pool.resetCounters();
+        assertEquals(0L, pool.borrows);
+        assertEquals(1, pool.highWater);
+
+        PointI4 i4 = PointPool.I4.obtain(new PointI4(1, 2, 3, 4));
+        assertEquals(new PointI4(1, 2, 3, 4), i4);
+        PointPool.I4.free(i4);
+        assertTrue(PointPool.I4.obtain().len2() == 0f);
+    }
+
+    @Test
+    public void testScratch () {
+        PointScratch scratch = new PointScratch();
+        int outer = scratch.mark();
+        PointF2 a = scratch.f2().set(1f, 2f);
+        assertTrue(scratch.i6().len2() == 0f);
+        scratch.mark();
+        PointF2 c = scratch.f2();
+        assertNotSame(a, c);
+        assertEquals(3, scratch.inUse());
+        scratch.release();
+        assertEquals(2, scratch.inUse());
+        // the inner temporary is reused, and set to zero
+        PointF2 d = scratch.f2();
+        assertSame(c, d);
+        assertTrue(d.len2() == 0f);
+        assertEquals(new PointF2(1f, 2f), a);
+        scratch.mark();
+        scratch.f5();
+        scratch.mark();
+        scratch.i3();
+        // releasing the outer mark also releases the two inner ones
+        scratch.release(outer);
+        assertEquals(0, scratch.depth());
+        assertEquals(0, scratch.inUse());
+        assertEquals(5, scratch.highWater);
+        assertEquals(6L, scratch.borrows);
+        assertEquals(5L, scratch.misses);
+
+        scratch.resetCounters();
+        scratch.mark();
+        for (int i = 0; i < 20; i++) {
+            scratch.f3();
+        }
+        scratch.release();
+        scratch.mark();
+        for (int i = 0; i < 20; i++) {
+            scratch.f3();
+        }
+        scratch.release();
+        assertEquals(40L, scratch.borrows);
+        assertEquals(20L, scratch.misses);
+        assertEquals(20, scratch.highWater);
+    }
+
+    @Test
+    public void testThreadLocal () throws InterruptedException {
+        PointScratch mine = PointScratch.get();
+        assertSame(mine, PointScratch.get());
+        final PointScratch[] other = new PointScratch[1];
+        Thread thread = new Thread(() -> other[0] = PointScratch.get());
+        thread.start();
+        thread.join();
+        assertNotSame(mine, other[0]);
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PoissonDiskTest {
+    @Test
+    public void testSpacing2D () {
+        PoissonDiskSampler sampler = new PoissonDiskSampler();
+        BoxF2 box = new BoxF2(new PointF2(-5f, 2f), new PointF2(15f, 12f));
+        FloatArray x = new FloatArray(), y = new FloatArray();
+        int n = sampler.sample(box, 0.5f, 123L, x, y);
+        assertEquals(n, x.size);
+        for (int i = 0; i < n; i++) {
+            assertTrue(box.contains(x.get(i), y.get(i)));
+            for (int j = i + 1; j < n; j++) {
+                float dx = x.get(i) - x.get(j), dy = y.get(i) - y.get(j);
+                assertTrue(dx * dx + dy * dy >= 0.25f);
+            }
+        }
+        // blue noise should leave no big holes: every probe is close to some point
+        for (float px = -4.9f; px < 15f; px += 0.37f) {
+            for (float py = 2.1f; py < 12f; py += 0.41f) {
+                float best = Float.POSITIVE_INFINITY;
+                for (int i = 0; i < n; i++) {
+                    float dx = x.get(i) - px, dy = y.get(i) - py;
+                    best = Math.min(best, dx * dx + dy * dy);
+                }
+                assertTrue(best < 1.1f * 1.1f);
+            }
+        }
+        // the same seed gives the same points, in order
+        Array<PointF2> points = new Array<>();
+        points.add(new PointF2(99f, 99f));
+        sampler.sample(box, 0.5f, 123L, points);
+        assertEquals(n, points.size);
+        for (int i = 0; i < n; i++) {
+            assertEquals(new PointF2(x.get(i), y.get(i)), points.get(i));
+        }
+    }
+
+    @Test
+    public void testVariableRadius3D () {
+        PoissonDiskSampler sampler = new PoissonDiskSampler();
+        BoxF3 box = new BoxF3(new PointF3(0f, 0f, 0f), new PointF3(6f, 6f, 6f));
+        PoissonDiskSampler.RadiusFunction radius = p -> 0.4f + p[0] * 0.1f;
+        FloatArray x = new FloatArray(), y = new FloatArray(), z = new FloatArray();
+        int n = sampler.sample(box, 0.4f, 1f, radius, 9L, x, y, z);
+        int left = 0, right = 0;
+        for (int i = 0; i < n; i++) {
+            float r = 0.4f + x.get(i) * 0.1f;
+            if (x.get(i) < 1f) left++;
+            else if (x.get(i) >= 5f) right++;
+            for (int j = 0; j < i; j++) {
+                float dx = x.get(i) - x.get(j), dy = y.get(i) - y.get(j), dz = z.get(i) - z.get(j);
+                assertTrue(dx * dx + dy * dy + dz * dz >= r * r * 0.9999f);
+            }
+        }
+        // smaller radius near x=0 packs more points there
+        assertTrue(left > right * 2);
+    }
+
+    @Test
+    public void testRank5 () {
+        PoissonDiskSampler sampler = new PoissonDiskSampler();
+        float[] min = {0, 0, 0, 0, 0}, max = {2, 2, 2, 2, 2};
+        FloatArray[] out = new FloatArray[5];
+        for (int i = 0; i < 5; i++) out[i] = new FloatArray();
+        int n = sampler.sample(min, max, 0.6f, 0.6f, null, 77L, out);
+        assertTrue(n > 50);
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                float d2 = 0f;
+                for (int a = 0; a < 5; a++) {
+                    float d = out[a].get(i) - out[a].get(j);
+                    d2 += d * d;
+                }
+                assertTrue(d2 >= 0.36f * 0.9999f);
+            }
+        }
+        FloatArray[] again = new FloatArray[5];
+        for (int i = 0; i < 5; i++) again[i] = new FloatArray();
+        assertEquals(n, sampler.sample(min, max, 0.6f, 0.6f, null, 77L, again));
+        for (int a = 0; a < 5; a++) assertEquals(out[a], again[a]);
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.tommyettinger.gdcrux;
+
+import com.badlogic.gdx.math.RandomXS128;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ProbitTableTest {
+    private static final int N = 100000;
+
+    /** Half of the probabilities are spread evenly over the center, half spread evenly over exponents down to 1e-300. */
+    private static double[] probabilities() {
+        RandomXS128 random = new RandomXS128(123L);
+        double[] ps = new double[N];
+        for (int i = 0; i < N; i++) {
+            double p = (i & 2) == 0 ? random.nextDouble() : Math.pow(10.0, -300.0 * random.nextDouble());
+            // mirrored into the upper half only when 1 - p can still be told apart from 1
+            ps[i] = (i & 1) == 0 || p < 1e-15 ? p : 1.0 - p;
+        }
+        return ps;
+    }
+
+    @Test
+    public void testReference () {
+        assertEquals(0.0, ProbitTable.reference(0.5), 1e-15);
+        assertEquals(1.959963984540054, ProbitTable.reference(0.975), 1e-13);
+        assertEquals(-2.326347874040841, ProbitTable.reference(0.01), 1e-13);
+        assertEquals(-4.753424308822899, ProbitTable.reference(1e-6), 1e-13);
+        assertEquals(-37.0470963, ProbitTable.reference(1e-300), 1e-6);
+    }
+
+    @Test
+    public void testTiers () {
+        double[] ps = probabilities(), out = new double[N];
+        int lastSegments = 0;
+        for (double bound : new double[]{1e-3, 1e-5, 1e-7, 1e-9, 1e-11}) {
+            ProbitTable table = new ProbitTable(bound);
+            assertTrue(table.maxError() <= bound);
+            assertTrue(table.segments() > lastSegments);
+            lastSegments = table.segments();
+            table.probit(ps, out, 0, N);
+            double worst = 0.0;
+            for (int i = 0; i < N; i++) {
+                worst = Math.max(worst, Math.abs(out[i] - ProbitTable.reference(ps[i])));
+                if (ps[i] > 0.001 && ps[i] < 0.999) assertEquals(-out[i], table.probit(1.0 - ps[i]), bound * 2.0 + 1e-12);
+            }
+            // maxError() is measured on a sample of points, so allow a little slack for points between them
+            assertTrue(worst <= bound * 1.1);
+        }
+    }
+
+    @Test
+    public void testEdges () {
+        ProbitTable table = new ProbitTable(1e-7);
+        assertTrue(Double.isNaN(table.probit(Double.NaN)));
+        assertEquals(table.probit(Double.MIN_VALUE), table.probit(0.0), 0.0);
+        assertEquals(table.probit(-1.0), -table.probit(2.0), 0.0);
+        assertEquals(-38.4674, table.probit(0.0), 1e-3);
+        assertEquals(0.0, table.probit(0.5), 1e-7);
+        float[] fs = {0f, 0.025f, 0.5f, 0.975f, 1f}, fo = new float[5];
+        table.probit(fs, fo, 0, 5);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(table.probit(fs[i]), fo[i], 0f);
+            if (i > 0) assertTrue(fo[i] > fo[i - 1]);
+        }
+    }
+
+    /**
+     * Compares the existing approximations in Distributor with a fine ProbitTable, matching the figures given in the
+     * ProbitTable documentation. Each reference is taken at the exact probability an input stands for.
+     */
+    @Test
+    public void testComparison () {
+        double[] ps = probabilities();
+        ProbitTable coarse = new ProbitTable(1e-5);
+        double worstD = 0, worstL = 0, worstF = 0, worstSubnormal = 0, worstI = 0, worstTable = 0;
+        for (double p : ps) {
+            double ref = ProbitTable.reference(p);
+            worstD = Math.max(worstD, Math.abs(Distributor.probitD(p) - ref));
+            worstTable = Math.max(worstTable, Math.abs(coarse.probit(p) - ref));
+            // l is the long closest to standing for p, kept 1e-12 away from the ends
+            final double low = Math.min(p, 1.0 - p);
+            if (low >= 1e-12) {
+                long distance = (long) (low * 0x1p64);
+                long l = p < 0.5 ? Long.MIN_VALUE + distance : Long.MAX_VALUE - distance + 1L;
+                double exact = ProbitTable.reference(distance * 0x1p-64);
+                worstL = Math.max(worstL, Math.abs(Distributor.probitL(l) - (p < 0.5 ? exact : -exact)));
+            }
+            float f = (float) p;
+            if (f >= Float.MIN_NORMAL && f < 1f) {
+                worstF = Math.max(worstF, Math.abs(Distributor.probitF(f) - ProbitTable.reference(f)));
+            } else if (f > 0f && f < Float.MIN_NORMAL) {
+                worstSubnormal = Math.max(worstSubnormal, Math.abs(Distributor.probitF(f) - ProbitTable.reference(f)));
+            }
+            if (low >= 5e-4) {
+                int i = (int) Math.round((p - 0.5) * 0x1p32);
+                worstI = Math.max(worstI, Math.abs(Distributor.probitI(i) - ProbitTable.reference(0.5 + i * 0x1p-32)));
+            }
+        }
+        assertTrue(worstD > 1e-5 && worstD < 3e-5);
+        assertTrue(worstL > 1e-5 && worstL < 3e-5);
+        assertTrue(worstF > 4e-5 && worstF < 5e-5);
+        // the worst subnormal is the smallest one
+        assertTrue(worstSubnormal < 1.2);
+        assertEquals(ProbitTable.reference(Float.MIN_VALUE), Distributor.probitF(Float.MIN_VALUE), 1.2);
+        assertTrue(Math.abs(Distributor.probitF(Float.MIN_VALUE) - ProbitTable.reference(Float.MIN_VALUE)) > 1.0);
+        assertTrue(worstI > 3e-5 && worstI < 6e-5);
+        assertTrue(worstTable < 1.1e-5 && worstTable < worstD);
+
+        // closer to the ends, the integer inputs lose precision when they are scaled
+        assertEquals(ProbitTable.reference(0x1p-64 * 1024), Distributor.probitL(Long.MIN_VALUE + 1024), 0.06);
+        assertEquals(38.47, Distributor.probitL(Long.MAX_VALUE), 0.01);
+        assertEquals(-ProbitTable.reference(0x1p-32 * 1038), Distributor.probitI(Integer.MAX_VALUE - 1037), 0.02);
+        assertEquals(13.0, Distributor.probitI(Integer.MAX_VALUE), 0.01);
+    }
+}
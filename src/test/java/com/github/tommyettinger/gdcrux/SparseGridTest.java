@@ -0,0 +1,98 @@
+package com.github.tommyettinger.gdcrux;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SparseGridTest {
+    @Test
+    public void testMatchesDense () {
+        // a dense reference covering -20 to 19 on each axis, with 8x8x8 chunks
+        final int lo = -20, n = 40;
+        SparseIntGrid3 grid = new SparseIntGrid3(3);
+        int[] dense = new int[n * n * n];
+        Random random = new Random(37);
+        for (int round = 0; round < 400; round++) {
+            if (random.nextInt(10) == 0) {
+                int x0 = lo + random.nextInt(n), y0 = lo + random.nextInt(n), z0 = lo + random.nextInt(n);
+                int x1 = x0 + random.nextInt(20), y1 = y0 + random.nextInt(20), z1 = z0 + random.nextInt(20);
+                x1 = Math.min(x1, lo + n - 1);
+                y1 = Math.min(y1, lo + n - 1);
+                z1 = Math.min(z1, lo + n - 1);
+                int value = random.nextBoolean() ? 0 : random.nextInt(5);
+                grid.fill(x0, y0, z0, x1, y1, z1, value);
+                for (int z = z0; z <= z1; z++)
+                    for (int y = y0; y <= y1; y++)
+                        for (int x = x0; x <= x1; x++)
+                            dense[x - lo + n * (y - lo + n * (z - lo))] = value;
+            } else {
+                int x = lo + random.nextInt(n), y = lo + random.nextInt(n), z = lo + random.nextInt(n);
+                int value = random.nextInt(3);
+                grid.set(x, y, z, value);
+                dense[x - lo + n * (y - lo + n * (z - lo))] = value;
+            }
+        }
+        long occupied = 0;
+        for (int i = 0; i < dense.length; i++) {
+            int x = i % n + lo, y = i / n % n + lo, z = i / (n * n) + lo;
+            assertEquals(dense[i], grid.get(x, y, z));
+            if (dense[i] != 0) occupied++;
+        }
+        assertEquals(occupied, grid.count());
+        long fromChunks = 0;
+        PointI3 origin = new PointI3();
+        for (SparseGrid3.Chunk<int[]> chunk : grid.chunks()) {
+            assertTrue(chunk.occupied > 0);
+            chunk.origin(grid.chunkShift, origin);
+            int count = 0;
+            for (int i = 0; i < grid.chunkVolume; i++) {
+                if (chunk.data[i] != 0) {
+                    count++;
+                    int x = origin.x + (i & 7), y = origin.y + (i >> 3 & 7), z = origin.z + (i >> 6);
+                    assertEquals(chunk.data[i], grid.get(x, y, z));
+                }
+            }
+            assertEquals(count, chunk.occupied);
+            fromChunks += count;
+        }
+        assertEquals(occupied, fromChunks);
+        // clearing everything with the empty value leaves no chunks behind
+        grid.fill(lo, lo, lo, lo + n - 1, lo + n - 1, lo + n - 1, 0);
+        assertTrue(grid.isEmpty());
+        assertEquals(0, grid.count());
+    }
+
+    @Test
+    public void testElision () {
+        SparseFloatGrid3 grid = new SparseFloatGrid3(4);
+        grid.set(new PointI3(1000, -3, 70), 2.5f);
+        assertEquals(1, grid.chunkCount());
+        assertEquals(2.5f, grid.get(1000, -3, 70), 0f);
+        assertEquals(0f, grid.get(1001, -3, 70), 0f);
+        grid.set(500, 500, 500, 0f);
+        assertEquals(1, grid.chunkCount());
+        grid.set(1000, -3, 70, 0f);
+        assertEquals(0, grid.chunkCount());
+        assertNull(grid.chunkOf(1000, -3, 70));
+
+        SparseByteGrid3 bytes = new SparseByteGrid3(2, (byte) -1);
+        assertEquals(-1, bytes.get(5, 5, 5));
+        bytes.fill(new BoxI3(new PointI3(-4, -4, -4), new PointI3(3, 3, 3)), (byte) 7);
+        assertEquals(8, bytes.chunkCount());
+        assertEquals(512, bytes.count());
+        bytes.fill(0, 0, 0, 0, 0, 0, (byte) -1);
+        assertEquals(511, bytes.count());
+        assertEquals(-1, bytes.get(0, 0, 0));
+        assertEquals(7, bytes.get(1, 0, 0));
+
+        SparseShortGrid3 shorts = new SparseShortGrid3();
+        shorts.set(-1, -1, -1, (short) 300);
+        assertEquals(300, shorts.get(-1, -1, -1));
+        assertEquals(SparseGrid3.chunkKey(-1, -1, -1), shorts.chunkKeyOf(-1, -1, -1));
+        assertEquals(15 + 16 * (15 + 16 * 15), shorts.localIndex(-1, -1, -1));
+    }
+}
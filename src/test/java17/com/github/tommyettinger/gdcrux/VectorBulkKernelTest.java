@@ -0,0 +1,147 @@
+package com.github.tommyettinger.gdcrux;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link VectorBulkKernel} gives the same results as the scalar {@link BulkKernel}. This is only compiled
+ * and run on Java 17 or newer, with the {@code jdk.incubator.vector} module, by {@code gradlew testVector}.
+ */
+public class VectorBulkKernelTest {
+    /** Not a multiple of any vector length, so every method also runs its scalar remainder. */
+    private static final int N = 203, START = 3, LENGTH = 197;
+
+    private final BulkKernel scalar = new BulkKernel();
+    private final VectorBulkKernel vector = new VectorBulkKernel();
+    private final Random random = new Random(27L);
+
+    @Before
+    public void checkUsable () {
+        Assume.assumeTrue("This CPU has no float vectors wider than one lane.", vector.usable());
+    }
+
+    private float[] floats () {
+        float[] a = new float[N];
+        for (int i = 0; i < N; i++) {
+            a[i] = (random.nextFloat() - 0.5f) * 100f;
+        }
+        return a;
+    }
+
+    private int[] ints () {
+        int[] a = new int[N];
+        for (int i = 0; i < N; i++) {
+            a[i] = random.nextInt();
+        }
+        return a;
+    }
+
+    @Test
+    public void testLoaded () {
+        assertTrue(BulkMath.isVectorized());
+    }
+
+    @Test
+    public void testElementwise () {
+        float[] a = floats(), b = floats(), expected = new float[N], actual = new float[N];
+        scalar.add(a, b, expected, START, LENGTH);
+        vector.add(a, b, actual, START, LENGTH);
+        assertArrayEquals(expected, actual, 0f);
+        scalar.sub(a, b, expected, START, LENGTH);
+        vector.sub(a, b, actual, START, LENGTH);
+        assertArrayEquals(expected, actual, 0f);
+        scalar.scl(a, -1.5f, expected, START, LENGTH);
+        vector.scl(a, -1.5f, actual, START, LENGTH);
+        assertArrayEquals(expected, actual, 0f);
+        scalar.lerp(a, b, 0.3f, expected, START, LENGTH);
+        vector.lerp(a, b, 0.3f, actual, START, LENGTH);
+        assertArrayEquals(expected, actual, 0f);
+
+        int[] ia = ints(), ib = ints(), iExpected = new int[N], iActual = new int[N];
+        scalar.add(ia, ib, iExpected, START, LENGTH);
+        vector.add(ia, ib, iActual, START, LENGTH);
+        assertArrayEquals(iExpected, iActual);
+        scalar.sub(ia, ib, iExpected, START, LENGTH);
+        vector.sub(ia, ib, iActual, START, LENGTH);
+        assertArrayEquals(iExpected, iActual);
+        scalar.scl(ia, -7, iExpected, START, LENGTH);
+        vector.scl(ia, -7, iActual, START, LENGTH);
+        assertArrayEquals(iExpected, iActual);
+    }
+
+    @Test
+    public void testPerPoint () {
+        float[] ax = floats(), ay = floats(), az = floats(), bx = floats(), by = floats(), bz = floats();
+        float[] expected = new float[N], actual = new float[N];
+        scalar.dot(ax, ay, bx, by, expected, START, LENGTH);
+        vector.dot(ax, ay, bx, by, actual, START, LENGTH);
+        assertArrayEquals(expected, actual, 0f);
+        scalar.dot(ax, ay, az, bx, by, bz, expected, START, LENGTH);
+        vector.dot(ax, ay, az, bx, by, bz, actual, START, LENGTH);
+        assertArrayEquals(expected, actual, 0f);
+        scalar.dst2(ax, ay, bx, by, expected, START, LENGTH);
+        vector.dst2(ax, ay, bx, by, actual, START, LENGTH);
+        assertArrayEquals(expected, actual, 0f);
+        scalar.dst2(ax, ay, az, bx, by, bz, expected, START, LENGTH);
+        vector.dst2(ax, ay, az, bx, by, bz, actual, START, LENGTH);
+        assertArrayEquals(expected, actual, 0f);
+
+        // zero and unit lengths are left alone by both versions
+        ax[START] = ay[START] = az[START] = 0f;
+        ax[START + 1] = 1f;
+        ay[START + 1] = az[START + 1] = 0f;
+        float[] sx = ax.clone(), sy = ay.clone(), sz = az.clone();
+        scalar.nor(sx, sy, START, LENGTH);
+        vector.nor(ax, ay, START, LENGTH);
+        assertArrayEquals(sx, ax, 0f);
+        assertArrayEquals(sy, ay, 0f);
+        sx = bx.clone();
+        sy = by.clone();
+        sz = bz.clone();
+        scalar.nor(sx, sy, sz, START, LENGTH);
+        vector.nor(bx, by, bz, START, LENGTH);
+        assertArrayEquals(sx, bx, 0f);
+        assertArrayEquals(sy, by, 0f);
+        assertArrayEquals(sz, bz, 0f);
+    }
+
+    @Test
+    public void testSums () {
+        // whole-range sums add in a different order, so they can differ in the last few bits
+        float[] a = floats(), b = floats();
+        float expected = scalar.dot(a, b, START, LENGTH);
+        assertEquals(expected, vector.dot(a, b, START, LENGTH), Math.abs(expected) * 1e-5f + 1e-2f);
+        expected = scalar.dst2(a, b, START, LENGTH);
+        assertEquals(expected, vector.dst2(a, b, START, LENGTH), expected * 1e-5f);
+    }
+
+    @Test
+    public void testMorton () {
+        int[] x = ints(), y = ints(), z = new int[N];
+        for (int i = 0; i < N; i++) {
+            // morton() in 3D uses 21 bits per axis
+            z[i] = random.nextInt(1 << 21) - (1 << 20);
+        }
+        x[START] = Integer.MIN_VALUE;
+        y[START] = Integer.MAX_VALUE;
+        long[] expected = new long[N], actual = new long[N];
+        scalar.morton(x, y, expected, START, LENGTH);
+        vector.morton(x, y, actual, START, LENGTH);
+        assertArrayEquals(expected, actual);
+        int[] x3 = z.clone(), y3 = z.clone();
+        for (int i = 0; i < N; i++) {
+            x3[i] = x[i] >> 11;
+            y3[i] = y[i] >> 11;
+        }
+        scalar.morton(x3, y3, z, expected, START, LENGTH);
+        vector.morton(x3, y3, z, actual, START, LENGTH);
+        assertArrayEquals(expected, actual);
+    }
+}